@@ -0,0 +1,127 @@
+package com.example.benchmark;
+
+import com.example.cache.CacheDesligado;
+import com.example.cache.CacheLru;
+import com.example.cache.CacheWTinyLfu;
+import com.example.model.Cliente;
+import com.example.repository.ClienteRepositoryForaDoHeap;
+import com.example.service.ClienteService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ClienteService.getCliente sobre um milhão de clientes fora do heap, com os
+ * emails sorteados por uma distribuição de Zipf (poucos compradores muito
+ * frequentes, cauda longa de raros) e um cache de 1% das chaves:
+ * - politica: sem cache, LRU ou W-TinyLFU;
+ * - ruido: percentual de buscas uniformes sobre todo o cadastro, como as de
+ *   um relatório ou importação rodando junto, que poluem uma LRU.
+ * A taxa de acerto de cada configuração sai no fim da execução.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-XX:MaxDirectMemorySize=1g"})
+@State(Scope.Benchmark)
+public class CacheBenchmark {
+    private static final int AMOSTRAS = 1 << 22;
+
+    @Param({"1000000"})
+    public int clientes;
+
+    @Param({"10000"})
+    public int capacidade;
+
+    @Param({"0.99"})
+    public double expoente;
+
+    @Param({"0", "20"})
+    public int ruido;
+
+    @Param({"semCache", "lru", "wTinyLfu"})
+    public String politica;
+
+    private ClienteService servico;
+    private String[] emails;
+    private int[] sorteio;
+    private int proxima;
+
+    @Setup
+    public void preparar() {
+        ClienteRepositoryForaDoHeap repositorio = new ClienteRepositoryForaDoHeap();
+        emails = new String[clientes];
+        List<Cliente> lote = new ArrayList<>();
+        for (int i = 0; i < clientes; i++) {
+            emails[i] = "cliente" + i + "@exemplo.com.br";
+            lote.add(new Cliente("Cliente " + i, emails[i]));
+            if (lote.size() == 65_536 || i == clientes - 1) {
+                repositorio.insertAll(lote, recusado -> { });
+                lote.clear();
+            }
+        }
+        switch (politica) {
+            case "lru":
+                servico = new ClienteService(repositorio, new CacheLru<>("benchmark.lru", capacidade));
+                break;
+            case "wTinyLfu":
+                servico = new ClienteService(repositorio, new CacheWTinyLfu<>("benchmark.wtinylfu", capacidade));
+                break;
+            default:
+                servico = new ClienteService(repositorio, new CacheDesligado<>());
+        }
+        sorteio = sortear(new Random(42));
+    }
+
+    /** Sequência de índices de clientes: Zipf pela CDF inversa, misturada com buscas uniformes. */
+    private int[] sortear(Random aleatorio) {
+        double[] acumulada = new double[clientes];
+        double soma = 0;
+        for (int r = 0; r < clientes; r++) {
+            soma += 1 / Math.pow(r + 1, expoente);
+            acumulada[r] = soma;
+        }
+        // a posição no ranking não coincide com a ordem de cadastro
+        int[] cliente = new int[clientes];
+        for (int i = 0; i < clientes; i++) {
+            cliente[i] = (int) (i * 2_654_435_761L % clientes);
+        }
+        int[] indices = new int[AMOSTRAS];
+        for (int i = 0; i < AMOSTRAS; i++) {
+            if (aleatorio.nextInt(100) < ruido) {
+                indices[i] = aleatorio.nextInt(clientes);
+                continue;
+            }
+            int posicao = Arrays.binarySearch(acumulada, aleatorio.nextDouble() * soma);
+            indices[i] = cliente[Math.min(clientes - 1, posicao < 0 ? -posicao - 1 : posicao)];
+        }
+        return indices;
+    }
+
+    @Benchmark
+    public Optional<Cliente> getCliente() {
+        proxima = (proxima + 1) & (AMOSTRAS - 1);
+        return servico.getCliente(emails[sorteio[proxima]]);
+    }
+
+    @TearDown
+    public void relatar() {
+        System.out.printf("%n[%s, ruído %d%%] %s%n", politica, ruido, servico.getEstatisticasCache());
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.benchmark;
+
+import com.example.model.Ingresso;
+import com.example.repository.CatalogoIngressos;
+import com.example.repository.IngressoRepository;
+import com.example.service.IngressoService;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Listagem do catálogo (tipo, preço e estoque de cada ingresso, como no
+ * GET /ingressos) por três leitores:
+ * - sozinha: sem gravações;
+ * - comReprecificacao: um administrador troca o preço de todos os tipos em
+ *   lote, a cada milissegundo, pelo IngressoService;
+ * - travada: a mesma carga num catálogo protegido por trava de
+ *   leitura/escrita, em que o lote segura a trava de escrita do início ao
+ *   fim (a forma óbvia de não mostrar um lote pela metade).
+ * Com o catálogo versionado, a vazão dos leitores com a reprecificação deve
+ * ficar perto da vazão sozinha; a diferença que sobra é a CPU usada pelo
+ * próprio administrador.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Group)
+public class CatalogoBenchmark {
+    private static final long PAUSA_ADMIN_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Param({"500"})
+    public int tipos;
+
+    private IngressoService servico;
+    private final TreeMap<String, Ingresso> travado = new TreeMap<>();
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+    private String[] nomes;
+    private long rodada;
+
+    @Setup
+    public void preparar() {
+        servico = new IngressoService(new IngressoRepository());
+        nomes = new String[tipos];
+        for (int i = 0; i < tipos; i++) {
+            nomes[i] = "Setor " + i;
+            servico.criarIngresso(nomes[i], 100.0 + i, 1_000);
+            travado.put(nomes[i], new Ingresso(nomes[i], 100.0 + i, 1_000));
+        }
+    }
+
+    @Benchmark
+    @Group("sozinha")
+    @GroupThreads(3)
+    public long listarSozinha() {
+        return listar();
+    }
+
+    @Benchmark
+    @Group("comReprecificacao")
+    @GroupThreads(3)
+    public long listarComReprecificacao() {
+        return listar();
+    }
+
+    @Benchmark
+    @Group("comReprecificacao")
+    @GroupThreads(1)
+    public long reprecificar() {
+        rodada++;
+        Map<String, Double> precos = new HashMap<>();
+        for (int i = 0; i < tipos; i++) {
+            precos.put(nomes[i], 100.0 + (i + rodada) % 50);
+        }
+        long versao = servico.reprecificar(precos).getVersao();
+        LockSupport.parkNanos(PAUSA_ADMIN_NANOS);
+        return versao;
+    }
+
+    @Benchmark
+    @Group("travada")
+    @GroupThreads(3)
+    public long listarTravada() {
+        trava.readLock().lock();
+        try {
+            long soma = 0;
+            for (Ingresso ingresso : travado.values()) {
+                soma += ingresso.getPrecoCentavos() + ingresso.getQuantidadeDisponivel();
+            }
+            return soma;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Benchmark
+    @Group("travada")
+    @GroupThreads(1)
+    public long reprecificarTravada() {
+        rodada++;
+        trava.writeLock().lock();
+        try {
+            int i = 0;
+            for (Ingresso ingresso : travado.values()) {
+                ingresso.setPreco(100.0 + (i++ + rodada) % 50);
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+        LockSupport.parkNanos(PAUSA_ADMIN_NANOS);
+        return rodada;
+    }
+
+    private long listar() {
+        CatalogoIngressos catalogo = servico.catalogo();
+        long soma = 0;
+        for (int i = 0; i < catalogo.getTamanho(); i++) {
+            soma += catalogo.getPreco(i).getPrecoCentavos() + catalogo.getIngresso(i).getQuantidadeDisponivel();
+        }
+        return soma;
+    }
+}
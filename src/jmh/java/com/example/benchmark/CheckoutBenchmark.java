@@ -0,0 +1,63 @@
+package com.example.benchmark;
+
+import com.example.controller.CompraController;
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Checkout completo pelo CompraController (iniciar, adicionar item, finalizar),
+ * com uma thread e com várias threads disputando o mesmo Ingresso.
+ * O controller é recriado a cada iteração para o repositório não crescer sem limite.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CheckoutBenchmark {
+
+    private CompraController controller;
+    private Ingresso pista;
+    private Cliente cliente;
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        controller = new CompraController();
+        pista = new Ingresso("Pista", 120.0, Integer.MAX_VALUE);
+        cliente = new Cliente("Ana Souza", "ana@email.com");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Compra checkoutUmaThread() {
+        return checkout();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Compra checkoutOitoThreadsMesmoIngresso() {
+        return checkout();
+    }
+
+    private Compra checkout() {
+        Compra compra = controller.iniciarNovaCompra(cliente);
+        controller.adicionarItemNaCompra(compra, pista, 2);
+        controller.finalizarCompra(compra);
+        return compra;
+    }
+}
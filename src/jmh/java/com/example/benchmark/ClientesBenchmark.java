@@ -0,0 +1,84 @@
+package com.example.benchmark;
+
+import com.example.model.Cliente;
+import com.example.repository.ClienteRepository;
+import com.example.repository.ClienteRepositoryForaDoHeap;
+import com.example.repository.ClienteRepositoryNoHeap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cadastro de clientes no heap (skip list) e fora do heap (tabela de
+ * espalhamento em ByteBuffers diretos), com um milhão de clientes:
+ * - findByEmailAcerto/Falha: busca de email aleatório existente / inexistente;
+ * - atualizarNome: save de um nome com o mesmo tamanho (regravado no lugar fora do heap).
+ * A pegada de memória de cada um é medida por {@link PegadaClientes}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-XX:MaxDirectMemorySize=1g"})
+@State(Scope.Benchmark)
+public class ClientesBenchmark {
+
+    @Param({"1000000"})
+    public int clientes;
+
+    @Param({"noHeap", "foraDoHeap"})
+    public String backend;
+
+    private ClienteRepository repositorio;
+    private String[] emails;
+    private int proxima;
+
+    @Setup
+    public void preparar() {
+        repositorio = backend.equals("noHeap") ? new ClienteRepositoryNoHeap() : new ClienteRepositoryForaDoHeap();
+        emails = new String[clientes];
+        List<Cliente> lote = new ArrayList<>();
+        for (int i = 0; i < clientes; i++) {
+            int id = (int) (i * 2_654_435_761L % clientes); // ordem embaralhada, sem repetir
+            emails[i] = "cliente" + id + "@exemplo.com.br";
+            lote.add(new Cliente("Cliente " + id, emails[i]));
+            if (lote.size() == 65_536 || i == clientes - 1) {
+                repositorio.insertAll(lote, recusado -> { });
+                lote.clear();
+            }
+        }
+    }
+
+    private String proximoEmail() {
+        proxima = (proxima + 7_919) % clientes;
+        return emails[proxima];
+    }
+
+    @Benchmark
+    public Optional<Cliente> findByEmailAcerto() {
+        return repositorio.findByEmail(proximoEmail());
+    }
+
+    @Benchmark
+    public Optional<Cliente> findByEmailFalha() {
+        return repositorio.findByEmail("x" + proximoEmail());
+    }
+
+    @Benchmark
+    public Cliente atualizarNome() {
+        String email = proximoEmail();
+        return repositorio.save(new Cliente(email.substring(0, email.indexOf('@')), email));
+    }
+}
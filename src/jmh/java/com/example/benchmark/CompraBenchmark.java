@@ -0,0 +1,80 @@
+package com.example.benchmark;
+
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Operações da entidade Compra isoladas: adicionar item, finalizar,
+ * calcular total e gerar o recibo (toString).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompraBenchmark {
+
+    @Param({"1", "10"})
+    int itens;
+
+    private Cliente cliente;
+    private Ingresso ingresso;
+    private Compra compraPronta;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        cliente = new Cliente("Ana Souza", "ana@email.com");
+        ingresso = new Ingresso("Pista", 120.0, Integer.MAX_VALUE);
+        compraPronta = new Compra("C0000000000001", cliente);
+        for (int i = 0; i < itens; i++) {
+            compraPronta.adicionarItem(ingresso, 2);
+        }
+        compraPronta.finalizarCompra();
+    }
+
+    @Setup(Level.Iteration)
+    public void reporEstoque() {
+        ingresso.setQuantidadeDisponivel(Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public Compra adicionarItens() {
+        Compra compra = new Compra("C0000000000002", cliente);
+        for (int i = 0; i < itens; i++) {
+            compra.adicionarItem(ingresso, 1);
+        }
+        return compra;
+    }
+
+    @Benchmark
+    public Compra adicionarItensEFinalizar() {
+        Compra compra = adicionarItens();
+        compra.finalizarCompra();
+        return compra;
+    }
+
+    @Benchmark
+    public double calcularTotal() {
+        return compraPronta.calcularTotal();
+    }
+
+    @Benchmark
+    public String recibo() {
+        return compraPronta.toString();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.benchmark;
+
+import com.example.model.EstoqueParticionado;
+import com.example.model.Ingresso;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reserva e devolução de unidades num único Ingresso disputado por várias
+ * threads, com estoque CAS simples e com estoque particionado.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EstoqueBenchmark {
+
+    private Ingresso atomico;
+    private Ingresso particionado;
+
+    @Setup
+    public void preparar() {
+        atomico = new Ingresso("Pista", 120.0, 1_000_000);
+        particionado = new Ingresso("Pista", 120.0, new EstoqueParticionado(1_000_000, 16));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean casUmaThread() {
+        return reservarEDevolver(atomico);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean casOitoThreads() {
+        return reservarEDevolver(atomico);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean particionadoOitoThreads() {
+        return reservarEDevolver(particionado);
+    }
+
+    private static boolean reservarEDevolver(Ingresso ingresso) {
+        boolean reservou = ingresso.tentarReservar(1);
+        if (reservou) {
+            ingresso.liberar(1);
+        }
+        return reservou;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.benchmark;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Executa os benchmarks com profiling de alocação (-prof gc) e grava o
+ * resultado em JSON, para comparar versões.
+ *
+ * Uso: java -cp target/benchmarks.jar com.example.benchmark.ExecutarBenchmarks [regex] [arquivo.json]
+ * Sem argumentos, roda todos e grava em target/jmh-AAAAMMDD-HHMMSS.json.
+ */
+public class ExecutarBenchmarks {
+
+    public static void main(String[] args) throws RunnerException {
+        String filtro = args.length > 0 ? args[0] : "com\\.example\\.benchmark\\..*";
+        String saida = args.length > 1 ? args[1]
+                : "target/jmh-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".json";
+        Options opcoes = new OptionsBuilder()
+                .include(filtro)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(saida)
+                .build();
+        new Runner(opcoes).run();
+    }
+}
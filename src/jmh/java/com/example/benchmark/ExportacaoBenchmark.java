@@ -0,0 +1,122 @@
+package com.example.benchmark;
+
+import com.example.exportacao.ExportadorCompras;
+import com.example.exportacao.FormatoExportacao;
+import com.example.exportacao.MarcoExportacao;
+import com.example.exportacao.ResultadoExportacao;
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import com.example.model.ItemCompra;
+import com.example.repository.CompraRepository;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Exportação do livro de vendas com compras de dois itens:
+ * - csv, ndjson, binario: ExportadorCompras, blocos reutilizados e escrita com gathering;
+ * - csvComStringFormat: referência no estilo dos recibos atuais, String.format
+ *   por item num BufferedWriter, percorrendo o mesmo índice de finalização.
+ * Cada invocação exporta tudo para um arquivo temporário truncado.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ExportacaoBenchmark {
+
+    @Param({"1000000"})
+    public int compras;
+
+    private CompraRepository repositorio;
+    private ExportadorCompras exportador;
+    private Path arquivo;
+
+    @Setup
+    public void preparar() throws IOException {
+        Ingresso[] ingressos = new Ingresso[8];
+        for (int i = 0; i < ingressos.length; i++) {
+            ingressos[i] = new Ingresso("Tipo " + i, 50.0 + 25 * i, Integer.MAX_VALUE);
+        }
+        Cliente[] clientes = new Cliente[5000];
+        for (int c = 0; c < clientes.length; c++) {
+            clientes[c] = new Cliente("Cliente " + c, "c" + c + "@ex.com");
+        }
+        repositorio = new CompraRepository();
+        long inicio = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(30);
+        for (int m = 0; m < compras; m++) {
+            repositorio.save(Compra.restaurarFinalizada(String.format("C%09d", m), clientes[m % clientes.length],
+                    inicio + m, List.of(new ItemCompra(ingressos[m % 8], 1 + m % 4),
+                            new ItemCompra(ingressos[(m * 7 + 3) % 8], 1))));
+        }
+        exportador = new ExportadorCompras(repositorio);
+        arquivo = Files.createTempFile("vendas", ".exp");
+    }
+
+    @TearDown
+    public void remover() throws IOException {
+        Files.deleteIfExists(arquivo);
+    }
+
+    private ResultadoExportacao exportar(FormatoExportacao formato) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            return exportador.exportar(canal, formato, MarcoExportacao.INICIO);
+        }
+    }
+
+    @Benchmark
+    public ResultadoExportacao csv() throws IOException {
+        return exportar(FormatoExportacao.CSV);
+    }
+
+    @Benchmark
+    public ResultadoExportacao ndjson() throws IOException {
+        return exportar(FormatoExportacao.NDJSON);
+    }
+
+    @Benchmark
+    public ResultadoExportacao binario() throws IOException {
+        return exportar(FormatoExportacao.BINARIO);
+    }
+
+    @Benchmark
+    public long csvComStringFormat() throws IOException {
+        long linhas = 0;
+        try (BufferedWriter saida = Files.newBufferedWriter(arquivo, StandardOpenOption.TRUNCATE_EXISTING)) {
+            saida.write("codigo,cliente,finalizada_em,tipo,quantidade,preco_unitario,subtotal\n");
+            for (Compra compra : (Iterable<Compra>) repositorio
+                    .streamFinalizadas(0, Long.MAX_VALUE)::iterator) {
+                for (ItemCompra item : compra.getItens()) {
+                    saida.write(String.format("%s,%s,%s,%s,%d,%.2f,%.2f%n", compra.getCodigoCompra(),
+                            compra.getCliente().getEmail(), Instant.ofEpochMilli(compra.getInstanteFinalizacao()),
+                            item.getIngresso().getTipo(), item.getQuantidade(),
+                            item.getPrecoUnitarioCentavos() / 100.0, item.getSubtotalCentavos() / 100.0));
+                    linhas++;
+                }
+            }
+        }
+        return linhas;
+    }
+}
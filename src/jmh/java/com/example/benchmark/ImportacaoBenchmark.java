@@ -0,0 +1,103 @@
+package com.example.benchmark;
+
+import com.example.importacao.ImportadorCatalogo;
+import com.example.importacao.ResultadoImportacao;
+import com.example.model.Cliente;
+import com.example.repository.ClienteRepository;
+import com.example.repository.ClienteRepositoryNoHeap;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Importação de um catálogo de clientes em CSV e NDJSON, com os emails em
+ * ordem aleatória (como num export de outro sistema):
+ * - importar: leitura, validação e gravação num ClienteRepository vazio;
+ * - lerSemGravar: o mesmo caminho, com um repositório que descarta os lotes,
+ *   para separar o custo do importador do custo da skip list do repositório.
+ * Cada invocação importa o arquivo inteiro; o resultado é o tempo por arquivo.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class ImportacaoBenchmark {
+
+    @Param({"1000000"})
+    public int linhas;
+
+    @Param({"csv", "ndjson"})
+    public String formato;
+
+    private Path arquivo;
+
+    @Setup
+    public void preparar() throws IOException {
+        arquivo = Files.createTempFile("clientes", "." + formato);
+        int[] ids = new int[linhas];
+        for (int i = 0; i < linhas; i++) {
+            ids[i] = i;
+        }
+        Random aleatorio = new Random(42);
+        for (int i = linhas - 1; i > 0; i--) {
+            int j = aleatorio.nextInt(i + 1);
+            int troca = ids[i];
+            ids[i] = ids[j];
+            ids[j] = troca;
+        }
+        try (BufferedWriter saida = Files.newBufferedWriter(arquivo)) {
+            if (formato.equals("csv")) {
+                saida.write("nome,email\n");
+            }
+            for (int id : ids) {
+                if (formato.equals("csv")) {
+                    saida.write("Cliente " + id + ",cliente" + id + "@exemplo.com.br\n");
+                } else {
+                    saida.write("{\"nome\":\"Cliente " + id + "\",\"email\":\"cliente" + id + "@exemplo.com.br\"}\n");
+                }
+            }
+        }
+    }
+
+    @TearDown
+    public void remover() throws IOException {
+        Files.deleteIfExists(arquivo);
+    }
+
+    @Benchmark
+    public ResultadoImportacao importar() throws IOException {
+        return new ImportadorCatalogo().importarClientes(arquivo, new ClienteRepositoryNoHeap());
+    }
+
+    @Benchmark
+    public ResultadoImportacao lerSemGravar() throws IOException {
+        return new ImportadorCatalogo().importarClientes(arquivo, new Descarte());
+    }
+
+    /** Conta os lotes como inseridos sem guardá-los. */
+    private static final class Descarte extends ClienteRepositoryNoHeap {
+        @Override
+        public int insertAll(List<Cliente> lote, IntConsumer aoRecusar) {
+            return lote.size();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.benchmark;
+
+import com.example.inventario.MotorInventario;
+import com.example.inventario.TipoComando;
+import com.example.model.Ingresso;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reserva e devolução de uma unidade num único Ingresso disputado, com 1, 8
+ * e 64 threads produtoras:
+ * - cas: EstoqueAtomico, cada thread faz o CAS no mesmo contador;
+ * - motorAssincrono: comandos publicados no anel do MotorInventario sem
+ *   esperar a conclusão (o anel cheio segura os produtores);
+ * - motorSincrono: o mesmo motor atrás da interface Estoque, esperando cada
+ *   conclusão, como faz o checkout.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InventarioBenchmark {
+
+    private Ingresso atomico;
+    private MotorInventario motor;
+    private int idMotor;
+    private Ingresso comMotor;
+
+    @Setup
+    public void preparar() {
+        atomico = new Ingresso("Pista", 120.0, 1_000_000);
+        motor = new MotorInventario(4096, 4);
+        motor.iniciar();
+        idMotor = motor.registrar(1_000_000);
+        comMotor = new Ingresso("Pista", 120.0, motor.novoEstoque(1_000_000));
+    }
+
+    @TearDown
+    public void encerrar() {
+        motor.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean casUmaThread() {
+        return reservarEDevolver(atomico);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean casOitoThreads() {
+        return reservarEDevolver(atomico);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean casSessentaEQuatroThreads() {
+        return reservarEDevolver(atomico);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void motorAssincronoUmaThread() {
+        publicarReservaEDevolucao();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void motorAssincronoOitoThreads() {
+        publicarReservaEDevolucao();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void motorAssincronoSessentaEQuatroThreads() {
+        publicarReservaEDevolucao();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean motorSincronoUmaThread() {
+        return reservarEDevolver(comMotor);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean motorSincronoOitoThreads() {
+        return reservarEDevolver(comMotor);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean motorSincronoSessentaEQuatroThreads() {
+        return reservarEDevolver(comMotor);
+    }
+
+    private void publicarReservaEDevolucao() {
+        motor.publicar(TipoComando.RESERVAR, idMotor, 1, null);
+        motor.publicar(TipoComando.LIBERAR, idMotor, 1, null);
+    }
+
+    private static boolean reservarEDevolver(Ingresso ingresso) {
+        boolean reservou = ingresso.tentarReservar(1);
+        if (reservou) {
+            ingresso.liberar(1);
+        }
+        return reservou;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.benchmark;
+
+import com.example.controller.CompraController;
+import com.example.controller.PedidoCompra;
+import com.example.controller.ProcessadorLoteCompras;
+import com.example.controller.ResultadoPedido;
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import com.example.service.IngressoService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lote de pedidos processado de uma vez (ProcessadorLoteCompras) contra o
+ * mesmo lote comprado pedido a pedido pelo CompraController.
+ * Os pedidos se espalham por poucos clientes e tipos de ingresso, como numa
+ * carga de bilheteria.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoteBenchmark {
+
+    private static final String[] TIPOS = {"Pista", "VIP", "Camarote", "Arquibancada"};
+
+    @Param({"100", "1000"})
+    public int tamanhoLote;
+
+    private IngressoService ingressos;
+    private CompraController controller;
+    private ProcessadorLoteCompras processador;
+    private List<PedidoCompra> pedidos;
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        ingressos = new IngressoService();
+        for (String tipo : TIPOS) {
+            ingressos.criarIngresso(tipo, 150.0, Integer.MAX_VALUE);
+        }
+        controller = new CompraController();
+        processador = new ProcessadorLoteCompras(controller, ingressos);
+        Cliente[] clientes = new Cliente[16];
+        for (int c = 0; c < clientes.length; c++) {
+            clientes[c] = new Cliente("Cliente " + c, "cliente" + c + "@email.com");
+        }
+        pedidos = new ArrayList<>(tamanhoLote);
+        for (int i = 0; i < tamanhoLote; i++) {
+            pedidos.add(new PedidoCompra(clientes[i % clientes.length], TIPOS[i % TIPOS.length], 1 + i % 3));
+        }
+    }
+
+    @Benchmark
+    public List<ResultadoPedido> emLote() {
+        return processador.processar(pedidos);
+    }
+
+    @Benchmark
+    public int pedidoAPedido() {
+        int aceitos = 0;
+        for (PedidoCompra pedido : pedidos) {
+            Ingresso ingresso = ingressos.getIngresso(pedido.getTipoIngresso()).get();
+            Compra compra = controller.iniciarNovaCompra(pedido.getCliente());
+            if (controller.adicionarItemNaCompra(compra, ingresso, pedido.getQuantidade())
+                    && controller.finalizarCompra(compra)) {
+                aceitos++;
+            }
+        }
+        return aceitos;
+    }
+}
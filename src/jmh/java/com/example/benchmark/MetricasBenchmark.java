@@ -0,0 +1,93 @@
+package com.example.benchmark;
+
+import com.example.controller.CompraController;
+import com.example.metricas.Metricas;
+import com.example.metricas.Operacao;
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Custo da instrumentação (com.example.metricas) no checkout: o mesmo fluxo
+ * do CheckoutBenchmark em JVMs separadas, com as métricas ligadas (padrão) e
+ * desligadas por -Dingressos.metricas=false. Cada checkout passa por cinco
+ * operações medidas: iniciar, adicionar item, reserva de estoque, finalizar
+ * e save da compra.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 10, time = 1)
+@State(Scope.Benchmark)
+public class MetricasBenchmark {
+
+    private static final Operacao OPERACAO = Metricas.operacao("benchmark.vazia");
+
+    private CompraController controller;
+    private Ingresso pista;
+    private Cliente cliente;
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        controller = new CompraController();
+        pista = new Ingresso("Pista", 120.0, Integer.MAX_VALUE);
+        cliente = new Cliente("Ana Souza", "ana@email.com");
+    }
+
+    @Benchmark
+    @Fork(1)
+    @Threads(1)
+    public Compra checkoutComMetricas() {
+        return checkout();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dingressos.metricas=false")
+    @Threads(1)
+    public Compra checkoutSemMetricas() {
+        return checkout();
+    }
+
+    @Benchmark
+    @Fork(1)
+    @Threads(4)
+    public Compra checkoutComMetricasQuatroThreads() {
+        return checkout();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dingressos.metricas=false")
+    @Threads(4)
+    public Compra checkoutSemMetricasQuatroThreads() {
+        return checkout();
+    }
+
+    /** Custo fixo de uma medição: dois System.nanoTime() e o registro no histograma. */
+    @Benchmark
+    @Fork(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void medicaoVazia() {
+        OPERACAO.sucesso(OPERACAO.iniciar());
+    }
+
+    private Compra checkout() {
+        Compra compra = controller.iniciarNovaCompra(cliente);
+        controller.adicionarItemNaCompra(compra, pista, 2);
+        controller.finalizarCompra(compra);
+        return compra;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.benchmark;
+
+import com.example.model.Cliente;
+import com.example.repository.ClienteRepository;
+import com.example.repository.ClienteRepositoryForaDoHeap;
+import com.example.repository.ClienteRepositoryNoHeap;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pegada de memória de um cadastro de clientes em cada backend: heap usado
+ * depois de um GC completo (acima da linha de base) e memória direta do
+ * repositório fora do heap.
+ *
+ * Uso: java -Xmx3g -cp target/benchmarks.jar com.example.benchmark.PegadaClientes [clientes]
+ */
+public class PegadaClientes {
+
+    public static void main(String[] args) {
+        int clientes = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        System.out.printf("%-11s %10s %14s %14s %10s%n", "backend", "clientes", "heap (MB)", "fora (MB)", "B/cliente");
+        medir("noHeap", new ClienteRepositoryNoHeap(), clientes);
+        medir("foraDoHeap", new ClienteRepositoryForaDoHeap(), clientes);
+    }
+
+    private static void medir(String nome, ClienteRepository repositorio, int clientes) {
+        long base = heapUsado();
+        List<Cliente> lote = new ArrayList<>();
+        for (int i = 0; i < clientes; i++) {
+            lote.add(new Cliente("Cliente " + i, "cliente" + i + "@exemplo.com.br"));
+            if (lote.size() == 65_536 || i == clientes - 1) {
+                repositorio.insertAll(lote, recusado -> { });
+                lote.clear();
+            }
+        }
+        long heap = Math.max(0, heapUsado() - base);
+        long fora = repositorio instanceof ClienteRepositoryForaDoHeap
+                ? ((ClienteRepositoryForaDoHeap) repositorio).getBytesForaDoHeap() : 0;
+        System.out.printf("%-11s %10d %14.1f %14.1f %10.1f%n", nome, clientes, heap / 1e6, fora / 1e6,
+                (heap + fora) / (double) clientes);
+        if (repositorio.findByEmail("cliente0@exemplo.com.br").isEmpty()) {
+            throw new IllegalStateException("cadastro incompleto");
+        }
+    }
+
+    private static long heapUsado() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
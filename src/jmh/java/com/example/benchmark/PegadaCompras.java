@@ -0,0 +1,59 @@
+package com.example.benchmark;
+
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import com.example.model.ItemCompra;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * Pegada no heap de uma compra, medida com JOL: layout da classe Compra e
+ * bytes por compra (com 1, 2 e 4 itens) em andamento e depois de finalizada.
+ * Cliente e Ingresso são compartilhados entre compras e ficam fora da conta;
+ * o código da compra (String) entra.
+ *
+ * Uso: java -cp target/benchmarks.jar com.example.benchmark.PegadaCompras
+ * (-Djdk.attach.allowAttachSelf=true evita o aviso do JOL sobre o agente)
+ */
+public class PegadaCompras {
+
+    public static void main(String[] args) {
+        Cliente cliente = new Cliente("Ana Souza", "ana@email.com");
+        List<Ingresso> ingressos = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ingressos.add(new Ingresso("Tipo " + i, 100.0 + i, Integer.MAX_VALUE));
+        }
+        System.out.println(ClassLayout.parseClass(Compra.class).toPrintable());
+        System.out.printf("%-6s %14s %14s%n", "itens", "andamento (B)", "finalizada (B)");
+        for (int itens : new int[] {1, 2, 4}) {
+            Compra compra = new Compra("C0A8QQA2JR0000", cliente);
+            for (int i = 0; i < itens; i++) {
+                compra.adicionarItem(ingressos.get(i), 2);
+            }
+            long andamento = pegada(compra, cliente, ingressos);
+            compra.finalizarCompra();
+            long finalizada = pegada(compra, cliente, ingressos);
+            System.out.printf("%-6d %14d %14d%n", itens, andamento, finalizada);
+        }
+        Compra exemplo = Compra.restaurarFinalizada("C0A8QQA2JR0001", cliente, 1L,
+                List.of(new ItemCompra(ingressos.get(0), 2), new ItemCompra(ingressos.get(1), 1)));
+        System.out.println();
+        System.out.println(GraphLayout.parseInstance(exemplo)
+                .subtract(GraphLayout.parseInstance(compartilhados(cliente, ingressos))).toFootprint());
+    }
+
+    private static long pegada(Compra compra, Cliente cliente, List<Ingresso> ingressos) {
+        return GraphLayout.parseInstance(compra)
+                .subtract(GraphLayout.parseInstance(compartilhados(cliente, ingressos)))
+                .totalSize();
+    }
+
+    private static Object[] compartilhados(Cliente cliente, List<Ingresso> ingressos) {
+        List<Object> raizes = new ArrayList<>(ingressos);
+        raizes.add(cliente);
+        return raizes.toArray();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.benchmark;
+
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import com.example.model.ItemCompra;
+import com.example.relatorio.RelatorioColunar;
+import com.example.relatorio.TotaisVenda;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Relatórios agrupados do RelatorioColunar sobre milhões de itens vendidos.
+ * Cada compra tem dois itens; as compras se repetem a partir de um conjunto
+ * de 10.000, com 8 tipos, 5.000 clientes e instantes espalhados por 30 dias.
+ * Cada linha ocupa 28 bytes: 10M linhas pedem cerca de 300 MB de heap.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class RelatorioBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int linhas;
+
+    private RelatorioColunar relatorio;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Ingresso[] ingressos = new Ingresso[8];
+        for (int i = 0; i < ingressos.length; i++) {
+            ingressos[i] = new Ingresso("Tipo " + i, 50.0 + 25 * i, Integer.MAX_VALUE);
+        }
+        Cliente[] clientes = new Cliente[5000];
+        for (int c = 0; c < clientes.length; c++) {
+            clientes[c] = new Cliente("Cliente " + c, "c" + c + "@ex.com");
+        }
+        long inicio = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(30);
+        Compra[] modelos = new Compra[10_000];
+        for (int m = 0; m < modelos.length; m++) {
+            modelos[m] = Compra.restaurarFinalizada("C" + m, clientes[m % clientes.length],
+                    inicio + m * 259_200L,
+                    List.of(new ItemCompra(ingressos[m % 8], 1 + m % 4),
+                            new ItemCompra(ingressos[(m * 7 + 3) % 8], 1)));
+        }
+        relatorio = new RelatorioColunar();
+        for (int i = 0; i < linhas / 2; i++) {
+            relatorio.registrar(modelos[i % modelos.length]);
+        }
+        relatorio.consolidar();
+    }
+
+    @Benchmark
+    public TotaisVenda totalGeral() {
+        return relatorio.totalGeral();
+    }
+
+    @Benchmark
+    public SortedMap<String, TotaisVenda> porTipoIngresso() {
+        return relatorio.porTipoIngresso();
+    }
+
+    @Benchmark
+    public SortedMap<String, TotaisVenda> porCliente() {
+        return relatorio.porCliente();
+    }
+
+    @Benchmark
+    public SortedMap<Long, TotaisVenda> porHora() {
+        return relatorio.porPeriodo(1, TimeUnit.HOURS);
+    }
+}
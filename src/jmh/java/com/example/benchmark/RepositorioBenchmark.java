@@ -0,0 +1,132 @@
+package com.example.benchmark;
+
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import com.example.repository.ClienteRepository;
+import com.example.repository.ClienteRepositoryNoHeap;
+import com.example.repository.CompraRepository;
+import com.example.repository.IngressoRepository;
+import com.example.repository.Pagina;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Consultas dos três repositórios: findAll de compras e buscas por chave,
+ * carga mista de leitura e escrita no repositório de compras e agregação
+ * por varredura completa (sequencial e paralela por fragmento) e paginação.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepositorioBenchmark {
+
+    @Param({"1000", "100000"})
+    int compras;
+
+    private CompraRepository compraRepository;
+    private ClienteRepository clienteRepository;
+    private IngressoRepository ingressoRepository;
+    private String codigoExistente;
+    private Cliente clienteCarga;
+    private Ingresso pistaCarga;
+    private String cursorDoMeio;
+    private final AtomicLong sequencia = new AtomicLong();
+
+    @Setup
+    public void preparar() {
+        compraRepository = new CompraRepository();
+        clienteRepository = new ClienteRepositoryNoHeap();
+        ingressoRepository = new IngressoRepository();
+        Ingresso pista = ingressoRepository.save(new Ingresso("Pista", 120.0, Integer.MAX_VALUE));
+        ingressoRepository.save(new Ingresso("VIP", 220.0, 100));
+        for (int i = 0; i < compras; i++) {
+            Cliente cliente = clienteRepository.save(new Cliente("Cliente " + i, "cliente" + i + "@email.com"));
+            Compra compra = new Compra("C" + i, cliente);
+            compra.adicionarItem(pista, 1);
+            compra.finalizarCompra();
+            compraRepository.save(compra);
+        }
+        codigoExistente = "C" + (compras / 2);
+        clienteCarga = new Cliente("Carga", "carga@email.com");
+        pistaCarga = pista;
+        cursorDoMeio = compraRepository.buscarPagina(null, Math.max(1, compras / 2)).getProximoCursor();
+    }
+
+    @Benchmark
+    public List<Compra> comprasFindAll() {
+        return compraRepository.findAll();
+    }
+
+    /** Página de 100 compras no meio do repositório: custo independe do total. */
+    @Benchmark
+    public Pagina<Compra> comprasPaginaDoMeio() {
+        return compraRepository.buscarPagina(cursorDoMeio, 100);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Optional<Compra> compraFindByCodigo() {
+        return compraRepository.findByCodigo(codigoExistente);
+    }
+
+    /** Nove buscas para cada gravação, com várias threads. */
+    @Benchmark
+    @Threads(8)
+    public Object compraMistaLeituraEscrita(ThreadLocalState estado) {
+        if (++estado.operacoes % 10 == 0) {
+            Compra compra = new Compra("M" + sequencia.incrementAndGet(), clienteCarga);
+            compra.adicionarItem(pistaCarga, 1);
+            return compraRepository.save(compra);
+        }
+        return compraRepository.findByCodigo("C" + (estado.operacoes * 7919 % compras));
+    }
+
+    @Benchmark
+    public long receitaVarreduraSequencial() {
+        long total = 0;
+        for (Compra compra : compraRepository.findAll()) {
+            total += compra.calcularTotalCentavos();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long receitaVarreduraParalela() {
+        return compraRepository.somar(Compra::calcularTotalCentavos);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadLocalState {
+        long operacoes;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Optional<Cliente> clienteFindByEmail() {
+        return clienteRepository.findByEmail("cliente7@email.com");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Optional<Ingresso> ingressoFindByTipo() {
+        return ingressoRepository.findByTipo("VIP");
+    }
+}
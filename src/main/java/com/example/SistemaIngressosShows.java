@@ -6,6 +6,7 @@ import com.example.model.Compra;
 import com.example.model.Ingresso;
 import com.example.service.ClienteService; // IMPORT ADICIONADO
 import com.example.service.IngressoService; // IMPORT ADICIONADO
+import com.example.view.CompraView;
 
 /**
  * Classe principal para testar o sistema de vendas de ingressos.
@@ -49,6 +50,8 @@ public class SistemaIngressosShows {
     // ============================================
     System.out.println("\n--- 3. Fluxo de Compra ---");
     CompraController controller = new CompraController();
+    CompraView view = new CompraView(controller);
+    controller.getEventos().assinar(view); // a view acompanha o checkout pelos eventos
 
     // Buscando os dados dos serviços
     Cliente cliente1 = clienteService.getCliente("ana@email.com").get();
@@ -76,7 +79,8 @@ public class SistemaIngressosShows {
         // ============================================
         // 6. RELATÓRIO DE VENDAS
         // ============================================
-    controller.listarComprasRealizadas();
+    controller.getEventos().esvaziar(); // garante que os eventos já foram exibidos
+    view.exibirComprasRealizadas();
 
     System.out.println("\n=== RESUMO FINANCEIRO ===");
     System.out.printf("Total de vendas: R$ %.2f\n", 
@@ -0,0 +1,62 @@
+package com.example.admissao;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limite de checkouts simultâneos ajustado por AIMD (aumento aditivo,
+ * redução multiplicativa) a partir da latência observada no checkout.
+ *
+ * Cada amostra acima da latência alvo reduz o limite a 90%, no máximo uma
+ * vez a cada "limite" amostras (as amostras lentas de uma mesma leva não
+ * derrubam o limite em cascata). A cada "limite" amostras dentro do alvo,
+ * o limite sobe 1. O ajuste roda sob o monitor do objeto, uma vez por
+ * chamada medida; a leitura do limite não trava.
+ */
+public class LimiteAdaptativo {
+    private static final double FATOR_REDUCAO = 0.9;
+
+    private final int minimo;
+    private final int maximo;
+    private final long alvoNanos;
+    private volatile int limite;
+    private int acertos;
+    private int amostrasDesdeReducao;
+
+    public LimiteAdaptativo(int inicial, int minimo, int maximo, long latenciaAlvo, TimeUnit unidade) {
+        if (minimo < 1 || minimo > inicial || inicial > maximo) {
+            throw new IllegalArgumentException("Exige 1 <= minimo <= inicial <= maximo.");
+        }
+        if (latenciaAlvo <= 0) {
+            throw new IllegalArgumentException("Latência alvo deve ser positiva.");
+        }
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.alvoNanos = unidade.toNanos(latenciaAlvo);
+        this.limite = inicial;
+        this.amostrasDesdeReducao = inicial;
+    }
+
+    /** Limite fixo: não se adapta à latência. */
+    public static LimiteAdaptativo fixo(int limite) {
+        return new LimiteAdaptativo(limite, limite, limite, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    public int get() {
+        return limite;
+    }
+
+    /** Registra a latência de uma chamada do checkout de um comprador admitido. */
+    public synchronized void registrar(long latenciaNanos) {
+        amostrasDesdeReducao++;
+        if (latenciaNanos > alvoNanos) {
+            acertos = 0;
+            if (amostrasDesdeReducao >= limite) {
+                limite = Math.max(minimo, (int) (limite * FATOR_REDUCAO));
+                amostrasDesdeReducao = 0;
+            }
+        } else if (++acertos >= limite) {
+            acertos = 0;
+            limite = Math.min(maximo, limite + 1);
+        }
+    }
+}
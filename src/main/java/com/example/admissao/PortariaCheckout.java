@@ -0,0 +1,113 @@
+package com.example.admissao;
+
+import com.example.controller.CompraController;
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Checkout com sala de espera: só quem tem senha admitida inicia compra.
+ * Padrão GRASP aplicado: INDIRECTION
+ * Justificativa: fica entre a interface (HTTP, view) e o CompraController,
+ * que continua sem saber de filas; a portaria amarra a compra à senha e
+ * devolve a vaga quando a compra termina.
+ *
+ * As chamadas ao controller feitas por aqui são cronometradas e alimentam o
+ * limite adaptativo da sala da compra. Cada senha tem no máximo uma compra em
+ * andamento: a vaga admite um comprador, não um número ilimitado de carrinhos.
+ * A vaga é devolvida quando a compra é finalizada, cancelada ou expira (com
+ * reserva temporária ligada no controller) ou quando vence o prazo da senha.
+ */
+public class PortariaCheckout {
+    private final CompraController controller;
+    private final Map<String, SalaDeEspera> salas = new ConcurrentHashMap<>();
+    private final Map<String, SalaDeEspera> salaDaCompra = new ConcurrentHashMap<>();
+
+    public PortariaCheckout(CompraController controller) {
+        this.controller = controller;
+    }
+
+    /** Abre uma sala (por show ou por tipo de ingresso). */
+    public SalaDeEspera abrirSala(SalaDeEspera sala) {
+        if (salas.putIfAbsent(sala.getNome(), sala) != null) {
+            throw new IllegalArgumentException("Sala já aberta: " + sala.getNome());
+        }
+        return sala;
+    }
+
+    public SalaDeEspera getSala(String nome) {
+        SalaDeEspera sala = salas.get(nome);
+        if (sala == null) {
+            throw new IllegalArgumentException("Sala não encontrada: " + nome);
+        }
+        return sala;
+    }
+
+    public ResultadoEntrada entrar(String sala) {
+        return getSala(sala).entrar();
+    }
+
+    /**
+     * Inicia a compra de um comprador admitido.
+     * @throws IllegalStateException se a senha não está admitida ou já tem uma compra em andamento
+     */
+    public Compra iniciarCompra(Senha senha, Cliente cliente) {
+        SalaDeEspera sala = senha.getSala();
+        if (!sala.consultar(senha).isAdmitida()) {
+            throw new IllegalStateException("Senha não admitida: " + senha);
+        }
+        if (!senha.ocuparCompra()) {
+            throw new IllegalStateException("Senha já tem uma compra em andamento: " + senha);
+        }
+        long inicio = System.nanoTime();
+        Compra compra;
+        try {
+            compra = controller.iniciarNovaCompra(cliente);
+        } catch (RuntimeException e) {
+            senha.liberarCompra();
+            throw e;
+        }
+        sala.registrarLatencia(System.nanoTime() - inicio);
+        salaDaCompra.put(compra.getCodigoCompra(), sala);
+        compra.aoEncerrar(() -> {
+            salaDaCompra.remove(compra.getCodigoCompra());
+            senha.liberarCompra();
+            sala.concluir(senha);
+        });
+        return compra;
+    }
+
+    public boolean adicionarItem(Compra compra, Ingresso ingresso, int quantidade) {
+        long inicio = System.nanoTime();
+        boolean adicionado = controller.adicionarItemNaCompra(compra, ingresso, quantidade);
+        medir(compra, System.nanoTime() - inicio);
+        return adicionado;
+    }
+
+    public boolean finalizar(Compra compra) {
+        SalaDeEspera sala = salaDaCompra.get(compra.getCodigoCompra());
+        long inicio = System.nanoTime();
+        boolean finalizada = controller.finalizarCompra(compra);
+        if (sala != null) {
+            sala.registrarLatencia(System.nanoTime() - inicio);
+        }
+        return finalizada;
+    }
+
+    /**
+     * Desiste da compra: devolve ao estoque o que ela segurava e a vaga à sala.
+     * @return false se a compra já estava encerrada
+     */
+    public boolean cancelar(Compra compra) {
+        return compra.expirar();
+    }
+
+    private void medir(Compra compra, long nanos) {
+        SalaDeEspera sala = salaDaCompra.get(compra.getCodigoCompra());
+        if (sala != null) {
+            sala.registrarLatencia(nanos);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.admissao;
+
+/**
+ * Resposta da sala de espera para uma entrada ou consulta de senha.
+ */
+public final class ResultadoEntrada {
+    private final SituacaoSenha situacao;
+    private final Senha senha;
+    private final long posicao;
+    private final long esperaEstimadaMs;
+    private final long tenteNovamenteEmMs;
+
+    private ResultadoEntrada(SituacaoSenha situacao, Senha senha, long posicao,
+                             long esperaEstimadaMs, long tenteNovamenteEmMs) {
+        this.situacao = situacao;
+        this.senha = senha;
+        this.posicao = posicao;
+        this.esperaEstimadaMs = esperaEstimadaMs;
+        this.tenteNovamenteEmMs = tenteNovamenteEmMs;
+    }
+
+    static ResultadoEntrada admitida(Senha senha) {
+        return new ResultadoEntrada(SituacaoSenha.ADMITIDA, senha, 0, 0, 0);
+    }
+
+    static ResultadoEntrada naFila(Senha senha, long posicao, long esperaEstimadaMs) {
+        return new ResultadoEntrada(SituacaoSenha.NA_FILA, senha, posicao, esperaEstimadaMs, 0);
+    }
+
+    static ResultadoEntrada recusada(long tenteNovamenteEmMs) {
+        return new ResultadoEntrada(SituacaoSenha.RECUSADA, null, 0, 0, tenteNovamenteEmMs);
+    }
+
+    static ResultadoEntrada encerrada(Senha senha) {
+        return new ResultadoEntrada(SituacaoSenha.ENCERRADA, senha, 0, 0, 0);
+    }
+
+    public SituacaoSenha getSituacao() {
+        return situacao;
+    }
+
+    public boolean isAdmitida() {
+        return situacao == SituacaoSenha.ADMITIDA;
+    }
+
+    /** Senha emitida (null se a entrada foi recusada). */
+    public Senha getSenha() {
+        return senha;
+    }
+
+    /** Posição na fila, a partir de 1 (0 se não está na fila). */
+    public long getPosicao() {
+        return posicao;
+    }
+
+    /** Estimativa de espera até a admissão, a partir da permanência média recente. */
+    public long getEsperaEstimadaMs() {
+        return esperaEstimadaMs;
+    }
+
+    /** Para RECUSADA: quando tentar de novo (equivale ao cabeçalho HTTP Retry-After). */
+    public long getTenteNovamenteEmMs() {
+        return tenteNovamenteEmMs;
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.admissao;
+
+import com.example.reserva.RodaTemporizacao;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Sala de espera virtual na frente do checkout de um show (ou de um tipo de
+ * ingresso). Admite no máximo "limite" compradores comprando ao mesmo tempo;
+ * os demais aguardam numa fila limitada, e quem chega com a fila cheia é
+ * recusado na hora, com uma sugestão de quando tentar de novo.
+ * Padrão GRASP aplicado: PURE FABRICATION e PROTECTED VARIATIONS
+ * Justificativa: o controle de carga não pertence ao CompraController nem à
+ * Compra; isolado aqui, protege o checkout de picos de abertura de vendas
+ * sem mudar o fluxo de compra.
+ *
+ * A fila não guarda nós encadeados: cada senha é um número de ordem de
+ * chegada (contador atômico, sem locks para quem entra) e a senha n está
+ * admitida quando n fica abaixo da fronteira "concluídas + limite". Cada
+ * conclusão de checkout move a fronteira uma posição e admite o próximo.
+ * Quem desiste ainda na fila só é descontado quando a fronteira o alcança,
+ * para a desistência não abrir vaga extra entre os admitidos.
+ *
+ * O limite vem de um {@link LimiteAdaptativo}: encolhe quando o checkout dos
+ * admitidos fica lento e volta a crescer quando normaliza. Com uma
+ * RodaTemporizacao, a senha admitida tem prazo para concluir o checkout;
+ * ao vencer, a vaga é liberada para o próximo da fila.
+ */
+public class SalaDeEspera {
+    private static final long ESPERA_MINIMA_MS = 1000;
+    private static final long ESPERA_MAXIMA_MS = 60_000;
+    private static final long PERMANENCIA_INICIAL_MS = 30_000;
+
+    private final String nome;
+    private final int capacidadeFila;
+    private final LimiteAdaptativo limite;
+    private final RodaTemporizacao roda; // null: sem prazo para as senhas admitidas
+    private final long prazoCheckoutMs;
+    private final LongSupplier relogioNanos;
+
+    private final AtomicLong emitidas = new AtomicLong();
+    private final AtomicLong concluidas = new AtomicLong();
+    private final AtomicLong admitidasAte = new AtomicLong(); // senhas < este número já passaram pela admissão
+    private final ConcurrentHashMap<Long, Senha> senhas = new ConcurrentHashMap<>();
+    private final AtomicLong recusadas = new AtomicLong();
+    // média móvel (1/8) da permanência dos admitidos; atualização sem trava, perdas ocasionais são aceitáveis
+    private volatile long permanenciaMediaMs = PERMANENCIA_INICIAL_MS;
+
+    /** Sala com limite fixo e sem prazo para as senhas admitidas. */
+    public SalaDeEspera(String nome, int limite, int capacidadeFila) {
+        this(nome, LimiteAdaptativo.fixo(limite), capacidadeFila, null, 0, TimeUnit.MILLISECONDS, System::nanoTime);
+    }
+
+    /**
+     * @param roda roda onde vencem os prazos das senhas admitidas (null para não vencer)
+     * @param prazoCheckout tempo que um admitido tem para concluir o checkout
+     * @param relogioNanos relógio para medir a permanência (System::nanoTime fora dos testes)
+     */
+    public SalaDeEspera(String nome, LimiteAdaptativo limite, int capacidadeFila,
+                        RodaTemporizacao roda, long prazoCheckout, TimeUnit unidade, LongSupplier relogioNanos) {
+        if (capacidadeFila < 0) {
+            throw new IllegalArgumentException("Capacidade da fila não pode ser negativa.");
+        }
+        if (roda != null && prazoCheckout <= 0) {
+            throw new IllegalArgumentException("Prazo do checkout deve ser positivo.");
+        }
+        this.nome = nome;
+        this.limite = limite;
+        this.capacidadeFila = capacidadeFila;
+        this.roda = roda;
+        this.prazoCheckoutMs = unidade.toMillis(prazoCheckout);
+        this.relogioNanos = relogioNanos;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * Pede um lugar. A resposta é ADMITIDA (pode comprar já), NA_FILA (com
+     * posição e espera estimada) ou RECUSADA (fila cheia, com tenteNovamenteEmMs).
+     */
+    public ResultadoEntrada entrar() {
+        long numero;
+        while (true) {
+            numero = emitidas.get();
+            long naSala = numero - concluidas.get();
+            if (naSala >= limite.get() + (long) capacidadeFila) {
+                recusadas.incrementAndGet();
+                return ResultadoEntrada.recusada(tenteNovamenteEmMs());
+            }
+            if (emitidas.compareAndSet(numero, numero + 1)) {
+                break;
+            }
+        }
+        Senha senha = new Senha(this, numero);
+        senhas.put(numero, senha);
+        admitirPendentes();
+        if (numero < admitidasAte.get()) {
+            // a fronteira pode ter passado por este número antes de a senha entrar no mapa
+            admitir(senha);
+        }
+        return consultar(senha);
+    }
+
+    /** Situação atual da senha (para o comprador acompanhar a fila). */
+    public ResultadoEntrada consultar(Senha senha) {
+        verificarSala(senha);
+        switch (senha.getEstado()) {
+            case Senha.ADMITIDA:
+                return ResultadoEntrada.admitida(senha);
+            case Senha.NA_FILA:
+                long posicao = senha.getNumero() - fronteira() + 1;
+                if (posicao <= 0) {
+                    // a fronteira já passou, falta só a admissão ser processada
+                    posicao = 1;
+                }
+                return ResultadoEntrada.naFila(senha, posicao, esperaEstimadaMs(posicao));
+            default:
+                return ResultadoEntrada.encerrada(senha);
+        }
+    }
+
+    /**
+     * Bloqueia até a senha ser admitida ou o tempo acabar.
+     * @return true se a senha está admitida
+     */
+    public boolean aguardar(Senha senha, long tempo, TimeUnit unidade) throws InterruptedException {
+        verificarSala(senha);
+        long limiteEspera = System.nanoTime() + unidade.toNanos(tempo);
+        senha.setAguardando(Thread.currentThread());
+        try {
+            while (senha.getEstado() == Senha.NA_FILA) {
+                long restante = limiteEspera - System.nanoTime();
+                if (restante <= 0) {
+                    return false;
+                }
+                LockSupport.parkNanos(this, restante);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+            return senha.getEstado() == Senha.ADMITIDA;
+        } finally {
+            senha.setAguardando(null);
+        }
+    }
+
+    /**
+     * Encerra a senha: checkout concluído (finalizado, expirado ou abandonado
+     * depois de admitido) ou desistência ainda na fila. Chamadas repetidas são
+     * ignoradas.
+     */
+    public void concluir(Senha senha) {
+        verificarSala(senha);
+        while (true) {
+            int estado = senha.getEstado();
+            if (estado == Senha.ADMITIDA && senha.mudarEstado(Senha.ADMITIDA, Senha.CONCLUIDA)) {
+                if (senha.getPrazo() != null) {
+                    senha.getPrazo().cancelar();
+                }
+                senhas.remove(senha.getNumero());
+                registrarPermanencia(relogioNanos.getAsLong() - senha.getAdmitidaEmNanos());
+                concluidas.incrementAndGet();
+                admitirPendentes();
+                return;
+            }
+            if (estado == Senha.NA_FILA && senha.mudarEstado(Senha.NA_FILA, Senha.DESISTIU)) {
+                // continua no mapa; é descontada quando a fronteira chegar nela
+                return;
+            }
+            if (estado == Senha.CONCLUIDA || estado == Senha.DESISTIU) {
+                return;
+            }
+        }
+    }
+
+    /** Latência de uma chamada do checkout de um admitido; alimenta o limite adaptativo. */
+    public void registrarLatencia(long nanos) {
+        limite.registrar(nanos);
+    }
+
+    private long fronteira() {
+        return concluidas.get() + limite.get();
+    }
+
+    private void admitirPendentes() {
+        while (true) {
+            long proxima = admitidasAte.get();
+            if (proxima >= emitidas.get() || proxima >= fronteira()) {
+                return;
+            }
+            if (admitidasAte.compareAndSet(proxima, proxima + 1)) {
+                Senha senha = senhas.get(proxima);
+                if (senha != null) {
+                    admitir(senha);
+                }
+            }
+        }
+    }
+
+    private void admitir(Senha senha) {
+        if (senha.mudarEstado(Senha.NA_FILA, Senha.ADMITIDA)) {
+            senha.setAdmitidaEmNanos(relogioNanos.getAsLong());
+            if (roda != null) {
+                senha.setPrazo(roda.agendar(prazoCheckoutMs, TimeUnit.MILLISECONDS, () -> concluir(senha)));
+            }
+            Thread aguardando = senha.getAguardando();
+            if (aguardando != null) {
+                LockSupport.unpark(aguardando);
+            }
+        } else if (senha.getEstado() == Senha.DESISTIU && senhas.remove(senha.getNumero(), senha)) {
+            // desistiu na fila: a vaga passa direto para a próxima senha
+            concluidas.incrementAndGet();
+        }
+    }
+
+    private void registrarPermanencia(long nanos) {
+        long ms = TimeUnit.NANOSECONDS.toMillis(Math.max(0, nanos));
+        long media = permanenciaMediaMs;
+        permanenciaMediaMs = media + (ms - media) / 8;
+    }
+
+    private long esperaEstimadaMs(long posicao) {
+        return posicao * permanenciaMediaMs / Math.max(1, limite.get());
+    }
+
+    /** Tempo para liberar uma vaga, com ±20% de variação para os recusados não voltarem juntos. */
+    private long tenteNovamenteEmMs() {
+        long base = Math.max(ESPERA_MINIMA_MS,
+                Math.min(ESPERA_MAXIMA_MS, permanenciaMediaMs / Math.max(1, limite.get())));
+        return base + ThreadLocalRandom.current().nextLong(-base / 5, base / 5 + 1);
+    }
+
+    private void verificarSala(Senha senha) {
+        if (senha.getSala() != this) {
+            throw new IllegalArgumentException("Senha de outra sala: " + senha);
+        }
+    }
+
+    public int getLimite() {
+        return limite.get();
+    }
+
+    /** Admitidos comprando agora. */
+    public long getAdmitidos() {
+        return Math.max(0, Math.min(admitidasAte.get(), emitidas.get()) - concluidas.get());
+    }
+
+    /** Senhas aguardando (inclui desistências ainda não alcançadas pela fronteira). */
+    public long getNaFila() {
+        return Math.max(0, emitidas.get() - Math.max(admitidasAte.get(), concluidas.get()));
+    }
+
+    public long getRecusadas() {
+        return recusadas.get();
+    }
+
+    public long getPermanenciaMediaMs() {
+        return permanenciaMediaMs;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.admissao;
+
+import com.example.reserva.Agendamento;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lugar de um comprador numa SalaDeEspera. O número é a ordem de chegada.
+ * A transição de estado é por CAS, para que admissão, conclusão e desistência
+ * concorrentes aconteçam uma única vez cada.
+ */
+public final class Senha {
+    static final int NA_FILA = 0;
+    static final int ADMITIDA = 1;
+    static final int CONCLUIDA = 2;
+    static final int DESISTIU = 3;
+
+    private final SalaDeEspera sala;
+    private final long numero;
+    private final AtomicInteger estado = new AtomicInteger(NA_FILA);
+    private final AtomicBoolean comCompra = new AtomicBoolean(); // uma compra em andamento por senha
+    private volatile long admitidaEmNanos;
+    private volatile Agendamento prazo;
+    private volatile Thread aguardando;
+
+    Senha(SalaDeEspera sala, long numero) {
+        this.sala = sala;
+        this.numero = numero;
+    }
+
+    public SalaDeEspera getSala() {
+        return sala;
+    }
+
+    public long getNumero() {
+        return numero;
+    }
+
+    int getEstado() {
+        return estado.get();
+    }
+
+    boolean mudarEstado(int de, int para) {
+        return estado.compareAndSet(de, para);
+    }
+
+    /** @return false se a senha já tem uma compra em andamento */
+    boolean ocuparCompra() {
+        return comCompra.compareAndSet(false, true);
+    }
+
+    void liberarCompra() {
+        comCompra.set(false);
+    }
+
+    long getAdmitidaEmNanos() {
+        return admitidaEmNanos;
+    }
+
+    void setAdmitidaEmNanos(long admitidaEmNanos) {
+        this.admitidaEmNanos = admitidaEmNanos;
+    }
+
+    Agendamento getPrazo() {
+        return prazo;
+    }
+
+    void setPrazo(Agendamento prazo) {
+        this.prazo = prazo;
+    }
+
+    Thread getAguardando() {
+        return aguardando;
+    }
+
+    void setAguardando(Thread aguardando) {
+        this.aguardando = aguardando;
+    }
+
+    @Override
+    public String toString() {
+        return sala.getNome() + "#" + numero;
+    }
+}
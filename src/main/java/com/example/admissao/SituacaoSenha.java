@@ -0,0 +1,15 @@
+package com.example.admissao;
+
+/**
+ * Situação de quem tentou entrar na sala de espera.
+ */
+public enum SituacaoSenha {
+    /** Pode comprar: está entre os checkouts simultâneos permitidos. */
+    ADMITIDA,
+    /** Aguardando a vez; ver posição e espera estimada. */
+    NA_FILA,
+    /** Sala cheia: tente de novo depois do intervalo sugerido. */
+    RECUSADA,
+    /** Senha já usada, abandonada ou vencida. */
+    ENCERRADA
+}
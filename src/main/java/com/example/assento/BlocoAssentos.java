@@ -0,0 +1,67 @@
+package com.example.assento;
+
+import java.util.Objects;
+
+/**
+ * Assentos vizinhos numa mesma fila de um setor: {@code quantidade} assentos
+ * a partir de {@code primeiro}. Fila e assento começam em 0; a exibição usa 1.
+ * Um bloco representa uma reserva inteira, então não há um objeto por assento.
+ */
+public final class BlocoAssentos {
+    private final String setor;
+    private final int fila;
+    private final int primeiro;
+    private final int quantidade;
+
+    public BlocoAssentos(String setor, int fila, int primeiro, int quantidade) {
+        if (fila < 0 || primeiro < 0 || quantidade <= 0) {
+            throw new IllegalArgumentException("Bloco de assentos inválido.");
+        }
+        this.setor = setor;
+        this.fila = fila;
+        this.primeiro = primeiro;
+        this.quantidade = quantidade;
+    }
+
+    public String getSetor() {
+        return setor;
+    }
+
+    public int getFila() {
+        return fila;
+    }
+
+    public int getPrimeiro() {
+        return primeiro;
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BlocoAssentos)) {
+            return false;
+        }
+        BlocoAssentos outro = (BlocoAssentos) o;
+        return fila == outro.fila && primeiro == outro.primeiro && quantidade == outro.quantidade
+                && Objects.equals(setor, outro.setor);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(setor, fila, primeiro, quantidade);
+    }
+
+    @Override
+    public String toString() {
+        if (quantidade == 1) {
+            return String.format("%s fila %d assento %d", setor, fila + 1, primeiro + 1);
+        }
+        return String.format("%s fila %d assentos %d-%d", setor, fila + 1, primeiro + 1, primeiro + quantidade);
+    }
+}
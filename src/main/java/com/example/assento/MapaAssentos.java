@@ -0,0 +1,252 @@
+package com.example.assento;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Mapa de assentos numerados de um setor, para uma apresentação.
+ * Padrão GRASP aplicado: INFORMATION EXPERT
+ * Justificativa: o mapa é quem conhece a ocupação de cada assento, então é
+ * ele quem reserva, libera e procura os melhores lugares.
+ *
+ * A ocupação é um bitmap (1 = ocupado) num AtomicLongArray: cada fila começa
+ * numa palavra de 64 bits nova, e os bits que sobram na última palavra da
+ * fila já nascem ocupados. Um setor de 60 mil assentos ocupa menos de 8 KB.
+ *
+ * Reservar e liberar são CAS nas palavras envolvidas, sem locks. Um bloco que
+ * cruza palavras é reservado palavra a palavra; se alguma já tiver assento
+ * ocupado, as anteriores são desfeitas e a reserva falha. Nesse intervalo
+ * outra thread pode ver o bloco parcialmente ocupado, mas nunca dois
+ * compradores ficam com o mesmo assento.
+ */
+public class MapaAssentos {
+    private static final int TENTATIVAS_MELHORES = 16;
+
+    private final String setor;
+    private final int filas;
+    private final int assentosPorFila;
+    private final int palavrasPorFila;
+    private final AtomicLongArray ocupados;
+    private final AtomicInteger livres;
+
+    public MapaAssentos(String setor, int filas, int assentosPorFila) {
+        if (filas <= 0 || assentosPorFila <= 0) {
+            throw new IllegalArgumentException("Setor precisa de ao menos uma fila e um assento.");
+        }
+        this.setor = setor;
+        this.filas = filas;
+        this.assentosPorFila = assentosPorFila;
+        this.palavrasPorFila = (assentosPorFila + 63) >>> 6;
+        this.ocupados = new AtomicLongArray(filas * palavrasPorFila);
+        this.livres = new AtomicInteger(filas * assentosPorFila);
+        int sobra = assentosPorFila & 63;
+        if (sobra != 0) {
+            long enchimento = -1L << sobra;
+            for (int fila = 0; fila < filas; fila++) {
+                ocupados.set(fila * palavrasPorFila + palavrasPorFila - 1, enchimento);
+            }
+        }
+    }
+
+    public String getSetor() {
+        return setor;
+    }
+
+    public int getFilas() {
+        return filas;
+    }
+
+    public int getAssentosPorFila() {
+        return assentosPorFila;
+    }
+
+    public int getCapacidade() {
+        return filas * assentosPorFila;
+    }
+
+    /** Assentos livres no momento da leitura. */
+    public int getLivres() {
+        return livres.get();
+    }
+
+    /** Tamanho do bitmap em bytes (sem cabeçalhos de objeto). */
+    public long getBytesBitmap() {
+        return (long) ocupados.length() * Long.BYTES;
+    }
+
+    public boolean isOcupado(int fila, int assento) {
+        validar(fila, assento, 1);
+        long palavra = ocupados.get(fila * palavrasPorFila + (assento >>> 6));
+        return (palavra & (1L << assento)) != 0;
+    }
+
+    /** Reserva um assento específico. */
+    public boolean reservar(int fila, int assento) {
+        return reservar(new BlocoAssentos(setor, fila, assento, 1));
+    }
+
+    /**
+     * Reserva todos os assentos do bloco ou nenhum.
+     * @return false se algum assento do bloco já estava ocupado
+     */
+    public boolean reservar(BlocoAssentos bloco) {
+        validar(bloco);
+        int base = bloco.getFila() * palavrasPorFila;
+        int inicio = bloco.getPrimeiro();
+        int fim = inicio + bloco.getQuantidade();
+        int ultimaPalavra = (fim - 1) >>> 6;
+        for (int w = inicio >>> 6; w <= ultimaPalavra; w++) {
+            if (!ocupar(base + w, mascara(w, inicio, fim))) {
+                for (int v = inicio >>> 6; v < w; v++) {
+                    desocupar(base + v, mascara(v, inicio, fim));
+                }
+                return false;
+            }
+        }
+        livres.addAndGet(-bloco.getQuantidade());
+        return true;
+    }
+
+    /** Devolve os assentos de um bloco reservado anteriormente. */
+    public void liberar(BlocoAssentos bloco) {
+        validar(bloco);
+        int base = bloco.getFila() * palavrasPorFila;
+        int inicio = bloco.getPrimeiro();
+        int fim = inicio + bloco.getQuantidade();
+        for (int w = inicio >>> 6; w <= (fim - 1) >>> 6; w++) {
+            desocupar(base + w, mascara(w, inicio, fim));
+        }
+        livres.addAndGet(bloco.getQuantidade());
+    }
+
+    /**
+     * Reserva os melhores {@code quantidade} assentos vizinhos: a fila mais
+     * próxima do palco (fila 0) que tenha espaço e, nela, o bloco mais
+     * perto do centro. A busca percorre as palavras livres de cada fila,
+     * pulando 64 assentos por vez onde a fila está cheia.
+     * @return o bloco reservado, ou vazio se nenhuma fila tem espaço contíguo
+     */
+    public Optional<BlocoAssentos> reservarMelhores(int quantidade) {
+        if (quantidade <= 0 || quantidade > assentosPorFila) {
+            throw new IllegalArgumentException("Quantidade de assentos inválida: " + quantidade);
+        }
+        for (int tentativa = 0; tentativa < TENTATIVAS_MELHORES; tentativa++) {
+            BlocoAssentos candidato = procurarMelhores(quantidade);
+            if (candidato == null) {
+                return Optional.empty();
+            }
+            if (reservar(candidato)) {
+                return Optional.of(candidato);
+            }
+            // outra thread levou parte do bloco entre a busca e a reserva: procura de novo
+        }
+        return Optional.empty();
+    }
+
+    private BlocoAssentos procurarMelhores(int quantidade) {
+        for (int fila = 0; fila < filas; fila++) {
+            int inicio = melhorInicioNaFila(fila, quantidade);
+            if (inicio >= 0) {
+                return new BlocoAssentos(setor, fila, inicio, quantidade);
+            }
+        }
+        return null;
+    }
+
+    private int melhorInicioNaFila(int fila, int quantidade) {
+        int base = fila * palavrasPorFila;
+        int melhor = -1;
+        int melhorDistancia = Integer.MAX_VALUE;
+        int pos = proximoLivre(base, 0);
+        while (pos >= 0) {
+            int fimLivre = proximoOcupado(base, pos);
+            if (fimLivre - pos >= quantidade) {
+                // início que deixa o bloco centralizado, limitado ao trecho livre
+                int ideal = (assentosPorFila - quantidade) / 2;
+                int inicio = Math.max(pos, Math.min(ideal, fimLivre - quantidade));
+                int distancia = Math.abs(2 * inicio + quantidade - assentosPorFila);
+                if (distancia < melhorDistancia) {
+                    melhor = inicio;
+                    melhorDistancia = distancia;
+                }
+                if (inicio == ideal) {
+                    break;
+                }
+            }
+            pos = fimLivre >= assentosPorFila ? -1 : proximoLivre(base, fimLivre);
+        }
+        return melhor;
+    }
+
+    /** Primeiro assento livre da fila a partir de {@code desde}, ou -1. */
+    private int proximoLivre(int base, int desde) {
+        int w = desde >>> 6;
+        long livresNaPalavra = ~ocupados.get(base + w) & (-1L << desde);
+        while (livresNaPalavra == 0) {
+            if (++w == palavrasPorFila) {
+                return -1;
+            }
+            livresNaPalavra = ~ocupados.get(base + w);
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(livresNaPalavra);
+    }
+
+    /** Primeiro assento ocupado da fila a partir de {@code desde} (ou o fim da fila). */
+    private int proximoOcupado(int base, int desde) {
+        int w = desde >>> 6;
+        long ocupadosNaPalavra = ocupados.get(base + w) & (-1L << desde);
+        while (ocupadosNaPalavra == 0) {
+            if (++w == palavrasPorFila) {
+                return assentosPorFila;
+            }
+            ocupadosNaPalavra = ocupados.get(base + w);
+        }
+        return Math.min(assentosPorFila, (w << 6) + Long.numberOfTrailingZeros(ocupadosNaPalavra));
+    }
+
+    /** Bits do intervalo [inicio, fim) que caem na palavra {@code w} da fila. */
+    private static long mascara(int w, int inicio, int fim) {
+        int de = Math.max(inicio, w << 6) - (w << 6);
+        int ate = Math.min(fim, (w + 1) << 6) - (w << 6);
+        int bits = ate - de;
+        return bits == 64 ? -1L : ((1L << bits) - 1) << de;
+    }
+
+    private boolean ocupar(int indice, long mascara) {
+        while (true) {
+            long atual = ocupados.get(indice);
+            if ((atual & mascara) != 0) {
+                return false;
+            }
+            if (ocupados.compareAndSet(indice, atual, atual | mascara)) {
+                return true;
+            }
+        }
+    }
+
+    private void desocupar(int indice, long mascara) {
+        while (true) {
+            long atual = ocupados.get(indice);
+            if (ocupados.compareAndSet(indice, atual, atual & ~mascara)) {
+                return;
+            }
+        }
+    }
+
+    private void validar(BlocoAssentos bloco) {
+        if (!setor.equals(bloco.getSetor())) {
+            throw new IllegalArgumentException("Bloco de outro setor: " + bloco.getSetor());
+        }
+        validar(bloco.getFila(), bloco.getPrimeiro(), bloco.getQuantidade());
+    }
+
+    private void validar(int fila, int primeiro, int quantidade) {
+        if (fila < 0 || fila >= filas || primeiro < 0 || quantidade <= 0
+                || primeiro + quantidade > assentosPorFila) {
+            throw new IllegalArgumentException(String.format(
+                    "Assentos fora do setor %s: fila %d, assentos %d-%d", setor, fila + 1, primeiro + 1,
+                    primeiro + quantidade));
+        }
+    }
+}
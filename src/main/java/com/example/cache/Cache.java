@@ -0,0 +1,37 @@
+package com.example.cache;
+
+import java.util.function.Function;
+
+/**
+ * Cache de leitura na frente de um repositório (read-through): a busca passa
+ * pelo cache e só consulta o repositório na falta.
+ * Padrão GRASP aplicado: PROTECTED VARIATIONS
+ * Justificativa: os serviços dependem só desta interface; a política de
+ * remoção (LRU, W-TinyLFU ou nenhum cache) e o limite de tamanho ou peso
+ * mudam na montagem do serviço, sem alterar os serviços nem os repositórios.
+ *
+ * Contrato: gravações vão direto ao repositório e, depois, invalidam a chave;
+ * um valor carregado que concorra com uma invalidação não entra no cache.
+ * O valor guardado é compartilhado entre os chamadores.
+ */
+public interface Cache<K, V> {
+
+    /**
+     * Valor da chave, do cache ou, na falta, do carregador (guardado se não for null).
+     * Ausências não ficam no cache: cada busca por chave inexistente chega ao carregador.
+     * @return o valor, ou null se o carregador não encontrou
+     */
+    V obter(K chave, Function<? super K, ? extends V> carregador);
+
+    /** Guarda o valor, substituindo o que houver na chave. */
+    void colocar(K chave, V valor);
+
+    /** Remove a chave; chamada depois de gravar ou excluir no repositório. */
+    void invalidar(K chave);
+
+    /** Remove todas as chaves. */
+    void limpar();
+
+    /** Acertos, faltas e remoções por limite desde a criação, mais o tamanho atual. */
+    EstatisticasCache estatisticas();
+}
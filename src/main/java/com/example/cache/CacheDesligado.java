@@ -0,0 +1,35 @@
+package com.example.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Sem cache: toda busca vai ao carregador e conta como falta. Padrão dos
+ * serviços, para repositórios em memória, onde o cache só duplicaria dados.
+ */
+public final class CacheDesligado<K, V> implements Cache<K, V> {
+    private final LongAdder faltas = new LongAdder();
+
+    @Override
+    public V obter(K chave, Function<? super K, ? extends V> carregador) {
+        faltas.increment();
+        return carregador.apply(chave);
+    }
+
+    @Override
+    public void colocar(K chave, V valor) {
+    }
+
+    @Override
+    public void invalidar(K chave) {
+    }
+
+    @Override
+    public void limpar() {
+    }
+
+    @Override
+    public EstatisticasCache estatisticas() {
+        return new EstatisticasCache(0, faltas.sum(), 0, 0, 0);
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.cache;
+
+import com.example.metricas.Metricas;
+import com.example.metricas.Operacao;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Base dos caches com limite de peso: os valores ficam num ConcurrentHashMap
+ * e a ordem de remoção (a política) em listas encadeadas mantidas pela
+ * subclasse, sempre sob uma trava.
+ *
+ * Acertos não esperam a trava: o nó lido vai para um buffer circular, e os
+ * acessos acumulados são aplicados à política por quem conseguir a trava
+ * (a cada 16 leituras, ou na próxima gravação). Com o buffer cheio, os mais
+ * antigos se perdem; a política fica aproximada, mas a leitura continua sem
+ * bloqueio.
+ *
+ * A métrica {@code cache.<nome>.obter} conta acertos como sucesso e faltas
+ * como falha; a latência das faltas inclui o carregamento.
+ */
+abstract class CacheLimitado<K, V> implements Cache<K, V> {
+    private static final int TAMANHO_BUFFER = 128; // potência de 2
+    private static final int DRENAR_A_CADA = 16; // potência de 2
+
+    static final byte FORA = 0;
+
+    final long pesoMaximo;
+    long pesoAtual; // sob a trava
+
+    private final Operacao obter;
+    private final ToIntBiFunction<? super K, ? super V> pesador;
+    private final ConcurrentHashMap<K, No<K, V>> dados = new ConcurrentHashMap<>();
+    private final ReentrantLock trava = new ReentrantLock();
+    private final AtomicReferenceArray<No<K, V>> leituras = new AtomicReferenceArray<>(TAMANHO_BUFFER);
+    private final AtomicLong leiturasRegistradas = new AtomicLong();
+    private long leiturasAplicadas; // sob a trava
+    private volatile long invalidacoes; // alterada sob a trava
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private final LongAdder remocoes = new LongAdder();
+
+    CacheLimitado(String nome, long pesoMaximo, ToIntBiFunction<? super K, ? super V> pesador) {
+        if (pesoMaximo <= 0) {
+            throw new IllegalArgumentException("O peso máximo do cache deve ser positivo.");
+        }
+        this.pesoMaximo = pesoMaximo;
+        this.pesador = pesador;
+        this.obter = Metricas.operacao("cache." + nome + ".obter");
+    }
+
+    /** Nó novo, já no mapa e somado ao peso: a política o coloca nas listas e remove o excedente. */
+    abstract void inserir(No<K, V> no);
+
+    /** Acesso a um nó ainda guardado. */
+    abstract void acessar(No<K, V> no);
+
+    /** Tira o nó das listas da política (invalidação, substituição ou remoção). */
+    abstract void retirar(No<K, V> no);
+
+    @Override
+    public V obter(K chave, Function<? super K, ? extends V> carregador) {
+        long inicio = obter.iniciar();
+        No<K, V> no = dados.get(chave);
+        if (no != null) {
+            acertos.increment();
+            registrarLeitura(no);
+            obter.sucesso(inicio);
+            return no.valor;
+        }
+        faltas.increment();
+        long geracao = invalidacoes;
+        V valor;
+        try {
+            valor = carregador.apply(chave);
+        } catch (RuntimeException e) {
+            obter.falha(inicio);
+            throw e;
+        }
+        if (valor != null) {
+            gravar(chave, valor, geracao);
+        }
+        obter.falha(inicio);
+        return valor;
+    }
+
+    @Override
+    public void colocar(K chave, V valor) {
+        gravar(chave, valor, -1);
+    }
+
+    @Override
+    public void invalidar(K chave) {
+        trava.lock();
+        try {
+            invalidacoes++;
+            No<K, V> no = dados.remove(chave);
+            if (no != null) {
+                desligar(no);
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    @Override
+    public void limpar() {
+        trava.lock();
+        try {
+            invalidacoes++;
+            for (No<K, V> no : dados.values()) {
+                desligar(no);
+            }
+            dados.clear();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    @Override
+    public EstatisticasCache estatisticas() {
+        long peso;
+        trava.lock();
+        try {
+            peso = pesoAtual;
+        } finally {
+            trava.unlock();
+        }
+        return new EstatisticasCache(acertos.sum(), faltas.sum(), remocoes.sum(), dados.size(), peso);
+    }
+
+    /**
+     * Guarda o valor. Vindo de um carregamento (geração >= 0), desiste se houve
+     * invalidação desde o início da carga ou se outra thread já gravou a chave:
+     * o valor lido pode ser anterior à gravação no repositório.
+     */
+    private void gravar(K chave, V valor, long geracao) {
+        int peso = pesador.applyAsInt(chave, valor);
+        if (peso < 0) {
+            throw new IllegalArgumentException("Peso negativo para a chave " + chave);
+        }
+        trava.lock();
+        try {
+            if (geracao >= 0 && (geracao != invalidacoes || dados.containsKey(chave))) {
+                return;
+            }
+            drenarLeituras();
+            if (peso > pesoMaximo) { // nunca caberia: não guarda e descarta a versão antiga
+                No<K, V> antigo = dados.remove(chave);
+                if (antigo != null) {
+                    desligar(antigo);
+                }
+                return;
+            }
+            No<K, V> novo = new No<>(chave, valor, peso);
+            No<K, V> antigo = dados.put(chave, novo);
+            if (antigo != null) {
+                desligar(antigo);
+            }
+            pesoAtual += peso;
+            inserir(novo);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /** Remove um nó para respeitar o limite; chamado pela política durante {@link #inserir}. */
+    final void remover(No<K, V> no) {
+        desligar(no);
+        dados.remove(no.chave, no);
+        remocoes.increment();
+    }
+
+    private void desligar(No<K, V> no) {
+        retirar(no);
+        pesoAtual -= no.peso;
+        no.fila = FORA;
+    }
+
+    private void registrarLeitura(No<K, V> no) {
+        long i = leiturasRegistradas.getAndIncrement();
+        leituras.lazySet((int) i & (TAMANHO_BUFFER - 1), no);
+        if ((i & (DRENAR_A_CADA - 1)) == DRENAR_A_CADA - 1 && trava.tryLock()) {
+            try {
+                drenarLeituras();
+            } finally {
+                trava.unlock();
+            }
+        }
+    }
+
+    private void drenarLeituras() {
+        long fim = leiturasRegistradas.get();
+        for (long i = Math.max(leiturasAplicadas, fim - TAMANHO_BUFFER); i < fim; i++) {
+            No<K, V> no = leituras.getAndSet((int) i & (TAMANHO_BUFFER - 1), null);
+            if (no != null && no.fila != FORA) {
+                acessar(no);
+            }
+        }
+        leiturasAplicadas = fim;
+    }
+
+    /** Entrada do cache; os campos de lista só são tocados sob a trava. */
+    static final class No<K, V> {
+        final K chave;
+        final V valor;
+        final int peso;
+        No<K, V> anterior;
+        No<K, V> proximo;
+        byte fila;
+
+        No(K chave, V valor, int peso) {
+            this.chave = chave;
+            this.valor = valor;
+            this.peso = peso;
+        }
+    }
+
+    /** Lista duplamente encadeada com sentinela, da entrada mais antiga (início) à mais recente. */
+    static final class FilaNos<K, V> {
+        private final No<K, V> sentinela = new No<>(null, null, 0);
+        long peso;
+
+        FilaNos() {
+            sentinela.anterior = sentinela;
+            sentinela.proximo = sentinela;
+        }
+
+        void adicionar(No<K, V> no) {
+            no.anterior = sentinela.anterior;
+            no.proximo = sentinela;
+            sentinela.anterior.proximo = no;
+            sentinela.anterior = no;
+            peso += no.peso;
+        }
+
+        void remover(No<K, V> no) {
+            no.anterior.proximo = no.proximo;
+            no.proximo.anterior = no.anterior;
+            no.anterior = null;
+            no.proximo = null;
+            peso -= no.peso;
+        }
+
+        void moverParaOFim(No<K, V> no) {
+            remover(no);
+            adicionar(no);
+        }
+
+        No<K, V> primeiro() {
+            return sentinela.proximo == sentinela ? null : sentinela.proximo;
+        }
+
+        No<K, V> ultimo() {
+            return sentinela.anterior == sentinela ? null : sentinela.anterior;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.cache;
+
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Cache com remoção do menos usado recentemente (LRU): uma única lista, do
+ * acesso mais antigo ao mais recente. Simples e bom quando o acesso recente
+ * prevê o próximo; uma varredura de chaves únicas (relatório, importação)
+ * empurra para fora as entradas quentes.
+ */
+public class CacheLru<K, V> extends CacheLimitado<K, V> {
+    private static final byte NA_LISTA = 1;
+
+    private final FilaNos<K, V> lista = new FilaNos<>();
+
+    /** Limite em número de entradas. */
+    public CacheLru(String nome, long maximoEntradas) {
+        this(nome, maximoEntradas, (chave, valor) -> 1);
+    }
+
+    /** Limite na soma dos pesos dados pelo pesador (por exemplo, bytes estimados). */
+    public CacheLru(String nome, long pesoMaximo, ToIntBiFunction<? super K, ? super V> pesador) {
+        super(nome, pesoMaximo, pesador);
+    }
+
+    @Override
+    void inserir(No<K, V> no) {
+        no.fila = NA_LISTA;
+        lista.adicionar(no);
+        while (pesoAtual > pesoMaximo) {
+            remover(lista.primeiro());
+        }
+    }
+
+    @Override
+    void acessar(No<K, V> no) {
+        lista.moverParaOFim(no);
+    }
+
+    @Override
+    void retirar(No<K, V> no) {
+        lista.remover(no);
+    }
+}
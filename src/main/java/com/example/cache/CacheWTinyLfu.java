@@ -0,0 +1,104 @@
+package com.example.cache;
+
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Cache W-TinyLFU: uma janela LRU pequena (1% do peso) recebe as entradas
+ * novas; ao sair da janela, a entrada disputa lugar na área principal com a
+ * vítima da vez, e fica quem tiver mais acessos no {@link SketchFrequencia}.
+ * A área principal é uma LRU segmentada: entradas em período de prova (20%)
+ * passam para a área protegida (80%) no segundo acesso, e as protegidas mais
+ * antigas voltam para a prova quando a área enche.
+ *
+ * Com acessos concentrados (distribuição de Zipf), o filtro de frequência
+ * mantém os itens populares mesmo com varreduras de chaves únicas no meio,
+ * que numa LRU simples expulsariam as entradas quentes.
+ */
+public class CacheWTinyLfu<K, V> extends CacheLimitado<K, V> {
+    private static final byte JANELA = 1;
+    private static final byte PROVA = 2;
+    private static final byte PROTEGIDA = 3;
+
+    private final FilaNos<K, V> janela = new FilaNos<>();
+    private final FilaNos<K, V> prova = new FilaNos<>();
+    private final FilaNos<K, V> protegida = new FilaNos<>();
+    private final long pesoJanela;
+    private final long pesoProtegida;
+    private final SketchFrequencia frequencias;
+
+    /** Limite em número de entradas. */
+    public CacheWTinyLfu(String nome, long maximoEntradas) {
+        this(nome, maximoEntradas, (chave, valor) -> 1);
+    }
+
+    /** Limite na soma dos pesos dados pelo pesador (por exemplo, bytes estimados). */
+    public CacheWTinyLfu(String nome, long pesoMaximo, ToIntBiFunction<? super K, ? super V> pesador) {
+        super(nome, pesoMaximo, pesador);
+        this.pesoJanela = Math.max(1, pesoMaximo / 100);
+        this.pesoProtegida = (pesoMaximo - pesoJanela) * 8 / 10;
+        this.frequencias = new SketchFrequencia(pesoMaximo);
+    }
+
+    @Override
+    void inserir(No<K, V> no) {
+        frequencias.incrementar(no.chave);
+        no.fila = JANELA;
+        janela.adicionar(no);
+        while (janela.peso > pesoJanela) {
+            No<K, V> saindo = janela.primeiro();
+            janela.remover(saindo);
+            saindo.fila = PROVA;
+            prova.adicionar(saindo);
+        }
+        while (pesoAtual > pesoMaximo) {
+            No<K, V> vitima = prova.primeiro();
+            No<K, V> candidato = prova.ultimo();
+            if (vitima == null) {
+                remover(protegida.primeiro() != null ? protegida.primeiro() : janela.primeiro());
+            } else if (vitima == candidato) {
+                remover(vitima);
+            } else {
+                // o recém-chegado só entra se foi mais acessado que a vítima
+                remover(frequencias.frequencia(candidato.chave) > frequencias.frequencia(vitima.chave)
+                        ? vitima : candidato);
+            }
+        }
+    }
+
+    @Override
+    void acessar(No<K, V> no) {
+        frequencias.incrementar(no.chave);
+        switch (no.fila) {
+            case JANELA:
+                janela.moverParaOFim(no);
+                break;
+            case PROVA:
+                prova.remover(no);
+                no.fila = PROTEGIDA;
+                protegida.adicionar(no);
+                while (protegida.peso > pesoProtegida) {
+                    No<K, V> rebaixado = protegida.primeiro();
+                    protegida.remover(rebaixado);
+                    rebaixado.fila = PROVA;
+                    prova.adicionar(rebaixado);
+                }
+                break;
+            default:
+                protegida.moverParaOFim(no);
+        }
+    }
+
+    @Override
+    void retirar(No<K, V> no) {
+        switch (no.fila) {
+            case JANELA:
+                janela.remover(no);
+                break;
+            case PROVA:
+                prova.remover(no);
+                break;
+            default:
+                protegida.remover(no);
+        }
+    }
+}
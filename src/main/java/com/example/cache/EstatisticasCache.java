@@ -0,0 +1,54 @@
+package com.example.cache;
+
+/**
+ * Fotografia dos contadores de um {@link Cache}. Acertos, faltas e remoções
+ * são lidos um a um, sem parar o cache: sob concorrência a soma é aproximada.
+ */
+public final class EstatisticasCache {
+    private final long acertos;
+    private final long faltas;
+    private final long remocoes;
+    private final long entradas;
+    private final long peso;
+
+    public EstatisticasCache(long acertos, long faltas, long remocoes, long entradas, long peso) {
+        this.acertos = acertos;
+        this.faltas = faltas;
+        this.remocoes = remocoes;
+        this.entradas = entradas;
+        this.peso = peso;
+    }
+
+    public long getAcertos() {
+        return acertos;
+    }
+
+    public long getFaltas() {
+        return faltas;
+    }
+
+    /** Entradas retiradas para respeitar o limite (invalidações não contam). */
+    public long getRemocoes() {
+        return remocoes;
+    }
+
+    public long getEntradas() {
+        return entradas;
+    }
+
+    public long getPeso() {
+        return peso;
+    }
+
+    /** Acertos sobre buscas, de 0 a 1 (0 sem buscas). */
+    public double getTaxaAcerto() {
+        long buscas = acertos + faltas;
+        return buscas == 0 ? 0 : (double) acertos / buscas;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d acertos, %d faltas (%.1f%%), %d remoções, %d entradas, peso %d",
+                acertos, faltas, 100 * getTaxaAcerto(), remocoes, entradas, peso);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.cache;
+
+/**
+ * Contagem aproximada de acessos por chave (count-min sketch) para o
+ * {@link CacheWTinyLfu}: contadores de 4 bits, 16 por long, e quatro
+ * posições por chave; a frequência é o menor dos quatro contadores.
+ * Depois de 10 incrementos por long da tabela, todos os contadores caem à
+ * metade, para que acessos antigos percam peso (envelhecimento).
+ * Não é thread-safe: usado sob a trava do cache.
+ */
+final class SketchFrequencia {
+    private static final long[] SEMENTES = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long SEM_BIT_ALTO = 0x7777777777777777L;
+    private static final int TAMANHO_MAXIMO = 1 << 20;
+
+    private final long[] tabela;
+    private final int mascara;
+    private final int limiteAmostra;
+    private int amostra;
+
+    SketchFrequencia(long entradasEsperadas) {
+        long tamanho = Long.highestOneBit(Math.max(16, Math.min(entradasEsperadas, TAMANHO_MAXIMO)) - 1) << 1;
+        tabela = new long[(int) tamanho];
+        mascara = (int) tamanho - 1;
+        limiteAmostra = 10 * (int) tamanho;
+    }
+
+    int frequencia(Object chave) {
+        int hash = espalhar(chave.hashCode());
+        int minimo = 15;
+        for (int i = 0; i < SEMENTES.length; i++) {
+            long posicao = posicao(hash, i);
+            minimo = Math.min(minimo, (int) (tabela[(int) posicao & mascara] >>> deslocamento(posicao)) & 15);
+        }
+        return minimo;
+    }
+
+    void incrementar(Object chave) {
+        int hash = espalhar(chave.hashCode());
+        boolean incrementou = false;
+        for (int i = 0; i < SEMENTES.length; i++) {
+            long posicao = posicao(hash, i);
+            int indice = (int) posicao & mascara;
+            int deslocamento = deslocamento(posicao);
+            if (((tabela[indice] >>> deslocamento) & 15) < 15) {
+                tabela[indice] += 1L << deslocamento;
+                incrementou = true;
+            }
+        }
+        if (incrementou && ++amostra == limiteAmostra) {
+            envelhecer();
+        }
+    }
+
+    private void envelhecer() {
+        for (int i = 0; i < tabela.length; i++) {
+            tabela[i] = (tabela[i] >>> 1) & SEM_BIT_ALTO;
+        }
+        amostra /= 2;
+    }
+
+    private static int espalhar(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static long posicao(int hash, int linha) {
+        long posicao = (hash + SEMENTES[linha]) * SEMENTES[linha];
+        return posicao + (posicao >>> 32);
+    }
+
+    /** Bits 40 a 43 da posição escolhem um dos 16 contadores do long. */
+    private static int deslocamento(long posicao) {
+        return ((int) (posicao >>> 40) & 15) << 2;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.codigo;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fonte compartilhada de blocos de identificadores.
+ *
+ * Cada bloco contém {@link #TAMANHO_BLOCO} identificadores consecutivos e é
+ * formado por [marca de tempo em ms (41 bits)][nó (10 bits)][sequência (12 bits)].
+ * A marca de tempo funciona como um relógio híbrido: é o maior valor entre o
+ * relógio do sistema e o último bloco entregue + 1. Com isso:
+ * <ul>
+ *   <li>blocos nunca se repetem dentro do processo (o contador é atômico);</li>
+ *   <li>nós diferentes nunca colidem (o número do nó faz parte do identificador);</li>
+ *   <li>após um reinício os blocos continuam maiores que os anteriores, desde que o
+ *       processo anterior não tenha consumido mais de um bloco por milissegundo
+ *       de forma sustentada (cerca de 4 milhões de códigos por segundo).</li>
+ * </ul>
+ * O contador compartilhado só é tocado uma vez a cada {@link #TAMANHO_BLOCO} códigos.
+ */
+public class FonteDeBlocos {
+    public static final int BITS_SEQUENCIA = 12;
+    public static final int BITS_NO = 10;
+    public static final int TAMANHO_BLOCO = 1 << BITS_SEQUENCIA;
+    public static final int MAXIMO_NO = (1 << BITS_NO) - 1;
+
+    /** 2024-01-01T00:00:00Z: mantém a marca de tempo em 41 bits por décadas. */
+    private static final long EPOCA = 1_704_067_200_000L;
+
+    private static final FonteDeBlocos PADRAO = new FonteDeBlocos(Integer.getInteger("ingressos.no", 0));
+
+    private final int no;
+    private final AtomicLong ultimoBloco = new AtomicLong(-1);
+
+    public FonteDeBlocos(int no) {
+        if (no < 0 || no > MAXIMO_NO) {
+            throw new IllegalArgumentException("Número do nó deve estar entre 0 e " + MAXIMO_NO + ": " + no);
+        }
+        this.no = no;
+    }
+
+    /**
+     * Fonte única da JVM. Todas as instâncias de CompraController criadas com o
+     * gerador padrão compartilham esta fonte; o nó vem da propriedade
+     * {@code -Dingressos.no} (padrão 0) e deve ser distinto em cada máquina.
+     */
+    public static FonteDeBlocos padrao() {
+        return PADRAO;
+    }
+
+    /** @return o primeiro identificador de um bloco novo e exclusivo */
+    public long reservarBloco() {
+        while (true) {
+            long anterior = ultimoBloco.get();
+            long proximo = Math.max(anterior + 1, System.currentTimeMillis() - EPOCA);
+            if (ultimoBloco.compareAndSet(anterior, proximo)) {
+                return (proximo << (BITS_NO + BITS_SEQUENCIA)) | ((long) no << BITS_SEQUENCIA);
+            }
+        }
+    }
+
+    public int getNo() {
+        return no;
+    }
+}
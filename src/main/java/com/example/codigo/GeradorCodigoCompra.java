@@ -0,0 +1,15 @@
+package com.example.codigo;
+
+/**
+ * Gera os códigos que identificam cada Compra.
+ * Padrão GRASP aplicado: PURE FABRICATION e PROTECTED VARIATIONS
+ * Justificativa: a geração de identificadores não é um conceito do domínio
+ * de ingressos; isolá-la numa interface permite trocar a estratégia
+ * (contador local, blocos por nó, serviço externo) sem alterar o controller.
+ *
+ * Contrato: códigos nunca se repetem, mesmo com várias threads e várias
+ * instâncias de CompraController chamando ao mesmo tempo.
+ */
+public interface GeradorCodigoCompra {
+    String proximoCodigo();
+}
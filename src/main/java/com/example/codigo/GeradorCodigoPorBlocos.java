@@ -0,0 +1,130 @@
+package com.example.codigo;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gerador de códigos que distribui blocos de identificadores por um número
+ * fixo de faixas (stripes). Cada thread usa a faixa do seu id e tira o
+ * próximo identificador do bloco da faixa com um getAndIncrement; threads
+ * diferentes tendem a cair em faixas diferentes, então quase não disputam o
+ * mesmo contador. A {@link FonteDeBlocos} compartilhada só é consultada
+ * quando o bloco de uma faixa acaba.
+ *
+ * Os blocos pertencem às faixas, não às threads: com uma thread (virtual)
+ * por requisição, cada requisição continua tirando um identificador de um
+ * bloco já aberto, em vez de abrir um bloco de {@link FonteDeBlocos#TAMANHO_BLOCO}
+ * códigos para usar um só e adiantar o relógio híbrido da fonte em 1 ms.
+ * No máximo {@link #FAIXAS} blocos ficam abertos ao mesmo tempo.
+ *
+ * O identificador é codificado em base 32 (alfabeto de Crockford) com
+ * largura fixa, diretamente num char[], sem String.format. Como a largura
+ * é fixa, a ordem alfabética dos códigos acompanha a ordem numérica, ou seja,
+ * aproximadamente a ordem de criação.
+ */
+public class GeradorCodigoPorBlocos implements GeradorCodigoCompra {
+    private static final char PREFIXO = 'C';
+    private static final int DIGITOS = 13; // 13 * 5 bits >= 63 bits
+    private static final char[] ALFABETO = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    /** Faixas de blocos (potência de 2): cerca de quatro por núcleo, ao menos 8. */
+    public static final int FAIXAS = Math.max(8, Integer.highestOneBit(Runtime.getRuntime().availableProcessors()) * 4);
+
+    private static final GeradorCodigoPorBlocos PADRAO = new GeradorCodigoPorBlocos(FonteDeBlocos.padrao());
+
+    private final FonteDeBlocos fonte;
+    private final Faixa[] faixas = new Faixa[FAIXAS];
+
+    public GeradorCodigoPorBlocos(FonteDeBlocos fonte) {
+        this.fonte = fonte;
+        for (int i = 0; i < faixas.length; i++) {
+            faixas[i] = new Faixa();
+        }
+    }
+
+    public static GeradorCodigoPorBlocos padrao() {
+        return PADRAO;
+    }
+
+    @Override
+    public String proximoCodigo() {
+        return codificar(proximoId());
+    }
+
+    public long proximoId() {
+        Faixa faixa = faixas[faixaDaThread()];
+        while (true) {
+            Bloco bloco = faixa.bloco;
+            long id = bloco.proximo.getAndIncrement();
+            if (id < bloco.limite) {
+                return id;
+            }
+            synchronized (faixa) {
+                if (faixa.bloco == bloco) { // só quem chega primeiro troca o bloco esgotado
+                    faixa.bloco = new Bloco(fonte.reservarBloco());
+                }
+            }
+        }
+    }
+
+    private static int faixaDaThread() {
+        long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (h >>> 16) & (FAIXAS - 1);
+    }
+
+    /** Converte um identificador no código textual (ex.: C01HQ3Z8K40000). */
+    public static String codificar(long id) {
+        char[] codigo = new char[DIGITOS + 1];
+        codigo[0] = PREFIXO;
+        for (int i = DIGITOS; i >= 1; i--) {
+            codigo[i] = ALFABETO[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(codigo);
+    }
+
+    /** Operação inversa de {@link #codificar(long)}. */
+    public static long decodificar(String codigo) {
+        if (codigo.length() != DIGITOS + 1 || codigo.charAt(0) != PREFIXO) {
+            throw new IllegalArgumentException("Código de compra inválido: " + codigo);
+        }
+        long id = 0;
+        for (int i = 1; i <= DIGITOS; i++) {
+            int valor = valorDoDigito(codigo.charAt(i));
+            if (valor < 0) {
+                throw new IllegalArgumentException("Código de compra inválido: " + codigo);
+            }
+            id = (id << 5) | valor;
+        }
+        return id;
+    }
+
+    private static int valorDoDigito(char c) {
+        for (int i = 0; i < ALFABETO.length; i++) {
+            if (ALFABETO[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static final class Faixa {
+        volatile Bloco bloco = Bloco.ESGOTADO;
+    }
+
+    private static final class Bloco {
+        static final Bloco ESGOTADO = new Bloco(0, 0);
+
+        final AtomicLong proximo;
+        final long limite;
+
+        Bloco(long inicio) {
+            this(inicio, inicio + FonteDeBlocos.TAMANHO_BLOCO);
+        }
+
+        private Bloco(long inicio, long limite) {
+            this.proximo = new AtomicLong(inicio);
+            this.limite = limite;
+        }
+    }
+}
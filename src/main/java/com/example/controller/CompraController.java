@@ -5,11 +5,26 @@ package com.example.controller;
 // ============================================
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import com.example.assento.BlocoAssentos;
+import com.example.codigo.GeradorCodigoCompra;
+import com.example.codigo.GeradorCodigoPorBlocos;
+import com.example.evento.EventoCompra;
+import com.example.evento.PublicadorEventos;
+import com.example.metricas.Metricas;
+import com.example.metricas.Operacao;
 import com.example.model.Cliente;
 import com.example.model.Compra;
 import com.example.model.Ingresso;
+import com.example.model.ItemCompra;
+import com.example.relatorio.AgregadosVendas;
 import com.example.repository.CompraRepository; // IMPORT ADICIONADO
+import com.example.repository.Pagina;
+import com.example.reserva.GerenciadorReservas;
 
 /**
  * Classe controladora que gerencia as operações de compra de ingressos.
@@ -29,12 +44,92 @@ import com.example.repository.CompraRepository; // IMPORT ADICIONADO
 public class CompraController {
     // private List<Compra> comprasRealizadas; // REMOVIDO
     private CompraRepository compraRepository; // ADICIONADO
-    private int contadorCompras;
+    private final GeradorCodigoCompra geradorCodigo;
+    private final PublicadorEventos eventos;
+    private final AgregadosVendas agregados = new AgregadosVendas();
+    private volatile boolean modoVerificacao;
+    private volatile GerenciadorReservas reservas;
+    private final List<Consumer<Compra>> aoFinalizar = new CopyOnWriteArrayList<>();
+
+    private static final Operacao INICIAR = Metricas.operacao("checkout.iniciar");
+    private static final Operacao ADICIONAR_ITEM = Metricas.operacao("checkout.adicionarItem");
+    private static final Operacao FINALIZAR = Metricas.operacao("checkout.finalizar");
 
     public CompraController() {
+        this(GeradorCodigoPorBlocos.padrao());
+    }
+
+    public CompraController(GeradorCodigoCompra geradorCodigo) {
+        this(geradorCodigo, new PublicadorEventos());
+    }
+
+    /**
+     * Permite trocar a estratégia de geração de códigos (Protected Variations).
+     * O gerador padrão é compartilhado pela JVM, então várias instâncias do
+     * controller nunca emitem o mesmo código.
+     * Os eventos de cada etapa são publicados em {@code eventos}; quem quiser
+     * exibi-los (por exemplo CompraView) deve assinar o publicador.
+     */
+    public CompraController(GeradorCodigoCompra geradorCodigo, PublicadorEventos eventos) {
+        this(new CompraRepository(), geradorCodigo, eventos);
+    }
+
+    /**
+     * Permite informar o repositório, por exemplo um recuperado do log de
+     * persistência (ver RecuperadorEstado). Compras finalizadas que já estejam
+     * no repositório entram nos agregados de vendas uma única vez, aqui.
+     */
+    public CompraController(CompraRepository compraRepository, GeradorCodigoCompra geradorCodigo,
+                            PublicadorEventos eventos) {
         // this.comprasRealizadas = new ArrayList<>(); // REMOVIDO
-        this.compraRepository = new CompraRepository(); // ADICIONADO
-        this.contadorCompras = 1;
+        this.compraRepository = compraRepository; // ADICIONADO
+        this.geradorCodigo = geradorCodigo;
+        this.eventos = eventos;
+        compraRepository.paraCada(compra -> {
+            if (compra.getStatus().equals("Finalizada")) {
+                agregados.registrar(compra);
+            }
+        });
+    }
+
+    /** Totais de vendas atualizados a cada compra finalizada. */
+    public AgregadosVendas getAgregados() {
+        return agregados;
+    }
+
+    /**
+     * Liga a conferência dos agregados: cada chamada a calcularTotalCompras()
+     * passa a recalcular tudo a partir do repositório e falha se houver divergência.
+     * Custo O(total de itens vendidos); use em testes e auditorias.
+     */
+    public void setModoVerificacao(boolean modoVerificacao) {
+        this.modoVerificacao = modoVerificacao;
+    }
+
+    /**
+     * Liga o modo de reserva temporária: cada compra que recebe um item passa
+     * a ter prazo para ser finalizada; ao expirar, devolve o estoque e publica
+     * COMPRA_EXPIRADA. Com null, as compras em andamento retêm o estoque sem prazo.
+     */
+    public void setReservas(GerenciadorReservas reservas) {
+        if (reservas != null) {
+            reservas.setAoExpirar(compra -> eventos.publicar(EventoCompra.compraExpirada(compra)));
+        }
+        this.reservas = reservas;
+    }
+
+    /**
+     * Registra quem deve receber cada compra logo após ser finalizada e gravada
+     * (por exemplo, RelatorioColunar::registrar). Os ouvintes rodam na thread do
+     * checkout, então devem ser rápidos e não bloquear.
+     */
+    public void aoFinalizar(Consumer<Compra> ouvinte) {
+        aoFinalizar.add(ouvinte);
+    }
+
+    /** Publicador onde as etapas do checkout são anunciadas. */
+    public PublicadorEventos getEventos() {
+        return eventos;
     }
 
     /**
@@ -46,11 +141,11 @@ public class CompraController {
      * Isso mantém BAIXO ACOPLAMENTO com outras camadas do sistema.
      */
     public Compra iniciarNovaCompra(Cliente cliente) {
-        String codigoCompra = "C" + String.format("%04d", contadorCompras++);
+        long inicio = INICIAR.iniciar();
+        String codigoCompra = geradorCodigo.proximoCodigo();
         Compra compra = new Compra(codigoCompra, cliente);
-        System.out.println("\n=== NOVA COMPRA INICIADA ===");
-        System.out.println("Número: " + codigoCompra);
-        System.out.println("Cliente: " + cliente.getNome());
+        eventos.publicar(EventoCompra.compraIniciada(compra));
+        INICIAR.sucesso(inicio);
         return compra;
     }
 
@@ -60,16 +155,65 @@ public class CompraController {
      * Justificativa: O controller recebe a operação e coordena
      * a adição do item, delegando para a compra (que é a especialista).
      * Isso centraliza o fluxo de controle e mantém a lógica organizada.
+     * @return true se o item foi adicionado; a rejeição é publicada como evento
      */
-    public void adicionarItemNaCompra(Compra compra, Ingresso ingresso, int quantidade) {
+    public boolean adicionarItemNaCompra(Compra compra, Ingresso ingresso, int quantidade) {
+        long inicio = ADICIONAR_ITEM.iniciar();
         try {
-            compra.adicionarItem(ingresso, quantidade);  // Delega para Compra
-            System.out.println("-> Item adicionado com sucesso!");
-        } catch (IllegalStateException e) {
-            System.out.println("ERRO: " + e.getMessage());
+            ItemCompra item = compra.adicionarItem(ingresso, quantidade);  // Delega para Compra
+            itemAdicionado(compra, item);
+            ADICIONAR_ITEM.sucesso(inicio);
+            return true;
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            eventos.publicar(EventoCompra.itemRejeitado(compra, e.getMessage()));
+            ADICIONAR_ITEM.falha(inicio);
+            return false;
         }
     }
 
+    /**
+     * Adiciona assentos escolhidos pelo comprador (ingresso de lugar marcado).
+     * Para os melhores assentos disponíveis basta adicionarItemNaCompra().
+     * @return true se os assentos foram reservados
+     */
+    public boolean adicionarAssentosNaCompra(Compra compra, Ingresso ingresso, BlocoAssentos assentos) {
+        long inicio = ADICIONAR_ITEM.iniciar();
+        try {
+            ItemCompra item = compra.adicionarItem(ingresso, assentos);
+            itemAdicionado(compra, item);
+            ADICIONAR_ITEM.sucesso(inicio);
+            return true;
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            eventos.publicar(EventoCompra.itemRejeitado(compra, e.getMessage()));
+            ADICIONAR_ITEM.falha(inicio);
+            return false;
+        }
+    }
+
+    private void itemAdicionado(Compra compra, ItemCompra item) {
+        GerenciadorReservas reservas = this.reservas;
+        if (reservas != null) {
+            reservas.acompanhar(compra);
+        }
+        eventos.publicar(EventoCompra.itemAdicionado(compra, item));
+    }
+
+    /**
+     * Adiciona à compra um item cujas unidades já foram reservadas
+     * (usado pelo ProcessadorLoteCompras). Publica o mesmo evento de
+     * adicionarItemNaCompra().
+     */
+    public ItemCompra adicionarItemReservadoNaCompra(Compra compra, Ingresso ingresso, int quantidade) {
+        return adicionarItemReservadoNaCompra(compra, new ItemCompra(ingresso, quantidade));
+    }
+
+    /** Mesmo que o anterior, com o item já montado (ex.: com os assentos reservados). */
+    public ItemCompra adicionarItemReservadoNaCompra(Compra compra, ItemCompra item) {
+        compra.adicionarItemReservado(item);
+        eventos.publicar(EventoCompra.itemAdicionado(compra, item));
+        return item;
+    }
+
     /**
      * Padrão GRASP: CONTROLLER e LOW COUPLING
      * Método aplicado em: finalizarCompra()
@@ -78,47 +222,84 @@ public class CompraController {
      * lógica de finalização para o objeto Compra (especialista).
      * Isso mantém BAIXO ACOPLAMENTO: a interface não precisa conhecer
      * detalhes de como uma compra é finalizada ou armazenada.
+     * Se a gravação falhar (por exemplo, erro de E/S no log), a compra continua
+     * em andamento, com o estoque reservado, e a exceção é propagada.
+     * @return true se a compra foi finalizada e registrada
      */
-    public void finalizarCompra(Compra compra) {
+    public boolean finalizarCompra(Compra compra) {
+        long inicio = FINALIZAR.iniciar();
         try {
-            compra.finalizarCompra();  // Delega para Compra
-            // comprasRealizadas.add(compra); // REMOVIDO
-            compraRepository.save(compra); // ADICIONADO
-            System.out.println("-> Compra registrada no sistema!");
+            // Delega para Compra; o log é gravado antes de a compra ser congelada
+            compraRepository.finalizarESalvar(compra);
         } catch (IllegalStateException e) {
-            System.out.println("ERRO: " + e.getMessage());
+            eventos.publicar(EventoCompra.finalizacaoRejeitada(compra, e.getMessage()));
+            FINALIZAR.falha(inicio);
+            return false;
+        } catch (RuntimeException e) {
+            // falha ao gravar: a compra segue em andamento e pode ser repetida ou expirar
+            eventos.publicar(EventoCompra.finalizacaoRejeitada(compra, e.getMessage()));
+            FINALIZAR.falha(inicio);
+            throw e;
+        }
+        agregados.registrar(compra);
+        for (Consumer<Compra> ouvinte : aoFinalizar) {
+            ouvinte.accept(compra);
         }
+        eventos.publicar(EventoCompra.compraFinalizada(compra));
+        FINALIZAR.sucesso(inicio);
+        return true;
+    }
+
+    /** Busca uma compra finalizada pelo código. */
+    public Optional<Compra> buscarCompra(String codigoCompra) {
+        return compraRepository.findByCodigo(codigoCompra);
     }
 
     /**
-     * Lista todas as compras realizadas
+     * Lista todas as compras realizadas.
+     * A exibição fica a cargo da CompraView.
+     * Copia o repositório inteiro; com muitas compras, prefira a versão paginada.
      * @return 
      */
     public List<Compra> listarComprasRealizadas() {
-        System.out.println("\n=== COMPRAS REALIZADAS ===");
-        List<Compra> compras = compraRepository.findAll(); // MODIFICADO
-
-        if (compras.isEmpty()) {
-            System.out.println("Nenhuma compra realizada ainda.");
-        } else {
-            for (Compra compra : compras) {
-                System.out.println(compra);
-            }
-        }
-        return compras;
+        return compraRepository.findAll(); // MODIFICADO
     }
 
     /**
-     * Calcula o total de todas as compras realizadas
+     * Uma página das compras realizadas, em ordem de código (ordem de criação).
+     * @param cursor  cursor devolvido pela página anterior, ou null para a primeira
+     */
+    public Pagina<Compra> listarComprasRealizadas(String cursor, int tamanho) {
+        return compraRepository.buscarPagina(cursor, tamanho);
+    }
+
+    /** Compras realizadas em ordem de código, lidas sob demanda a partir do cursor (null para o início). */
+    public Stream<Compra> streamComprasRealizadas(String cursor) {
+        return compraRepository.streamOrdenado(cursor);
+    }
+
+    /**
+     * Retorna o total de todas as compras realizadas.
+     * Lê o acumulador mantido em finalizarCompra(), sem varrer o repositório.
+     * Com o modo de verificação ligado, confere o valor com um recálculo completo.
      */
     public double calcularTotalCompras() {
-        double total = 0.0;
-        // MODIFICADO para usar o repositório
-        for (Compra compra : compraRepository.findAll()) {
-            if (compra.getStatus().equals("Finalizada")) {
-                total += compra.calcularTotal();
+        verificarAgregadosSeNecessario();
+        return agregados.getReceitaTotal();
+    }
+
+    /** Mesmo que calcularTotalCompras(), em centavos (valor exato). */
+    public long calcularTotalComprasCentavos() {
+        verificarAgregadosSeNecessario();
+        return agregados.getReceitaTotalCentavos();
+    }
+
+    private void verificarAgregadosSeNecessario() {
+        if (modoVerificacao) {
+            List<String> divergencias = agregados.verificar(compraRepository.parallelStream());
+            if (!divergencias.isEmpty()) {
+                throw new IllegalStateException("Agregados de vendas divergentes: " + divergencias);
             }
         }
-        return total;
     }
 }
@@ -0,0 +1,30 @@
+package com.example.controller;
+
+import com.example.model.Cliente;
+
+/**
+ * Uma linha de um lote de compras: cliente, tipo de ingresso e quantidade.
+ */
+public final class PedidoCompra {
+    private final Cliente cliente;
+    private final String tipoIngresso;
+    private final int quantidade;
+
+    public PedidoCompra(Cliente cliente, String tipoIngresso, int quantidade) {
+        this.cliente = cliente;
+        this.tipoIngresso = tipoIngresso;
+        this.quantidade = quantidade;
+    }
+
+    public Cliente getCliente() {
+        return cliente;
+    }
+
+    public String getTipoIngresso() {
+        return tipoIngresso;
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+}
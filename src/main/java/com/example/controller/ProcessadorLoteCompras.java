@@ -0,0 +1,153 @@
+package com.example.controller;
+
+import com.example.assento.BlocoAssentos;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import com.example.model.ItemCompra;
+import com.example.service.IngressoService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Processa muitos pedidos de compra de uma vez (bilheteria, parceiros).
+ * Padrão GRASP aplicado: CONTROLLER e PURE FABRICATION
+ * Justificativa: coordena o lote e delega ao CompraController a criação,
+ * os eventos e o registro das compras; o estoque continua sob
+ * responsabilidade de cada Ingresso (Information Expert).
+ *
+ * Em vez de uma verificação de estoque por pedido, os pedidos são agrupados
+ * por Ingresso e cada tipo recebe uma única reserva atômica com a soma do
+ * grupo ({@link Ingresso#reservarAte(int)}). Ingressos de lugar marcado são
+ * a exceção: cada pedido reserva o seu bloco de assentos vizinhos.
+ *
+ * Semântica de falha parcial:
+ * <ul>
+ *   <li>cada pedido é tudo ou nada: ou entra com a quantidade pedida, ou não entra;</li>
+ *   <li>pedidos são independentes: a falha de um não desfaz os outros;</li>
+ *   <li>dentro de um mesmo tipo, as unidades obtidas são distribuídas na ordem
+ *       de envio; um pedido que não cabe no que sobrou é recusado, mas pedidos
+ *       menores enviados depois dele ainda podem ser atendidos;</li>
+ *   <li>unidades reservadas e não distribuídas voltam ao estoque ao fim do lote;</li>
+ *   <li>os pedidos aceitos de um mesmo cliente formam uma única Compra, já finalizada;</li>
+ *   <li>se a finalização dessa Compra falhar (recusada ou sem conseguir gravar o
+ *       log), ela expira, as suas unidades voltam ao estoque e os pedidos dela saem
+ *       com {@link StatusPedido#FALHA_FINALIZACAO}; as compras dos outros clientes seguem.</li>
+ * </ul>
+ * Nenhuma exceção é usada para controle de fluxo: o resultado de cada pedido
+ * vem em {@link ResultadoPedido}, na mesma posição da lista de entrada.
+ */
+public class ProcessadorLoteCompras {
+    private final CompraController controller;
+    private final IngressoService ingressoService;
+
+    public ProcessadorLoteCompras(CompraController controller, IngressoService ingressoService) {
+        this.controller = controller;
+        this.ingressoService = ingressoService;
+    }
+
+    public List<ResultadoPedido> processar(List<PedidoCompra> pedidos) {
+        int n = pedidos.size();
+        StatusPedido[] status = new StatusPedido[n];
+        Ingresso[] ingressos = new Ingresso[n];
+
+        // 1. valida e agrupa por ingresso, preservando a ordem de envio
+        Map<Ingresso, List<Integer>> porIngresso = new LinkedHashMap<>();
+        Map<String, Optional<Ingresso>> catalogo = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            PedidoCompra pedido = pedidos.get(i);
+            if (pedido.getQuantidade() <= 0) {
+                status[i] = StatusPedido.QUANTIDADE_INVALIDA;
+                continue;
+            }
+            Optional<Ingresso> ingresso = catalogo.computeIfAbsent(pedido.getTipoIngresso(), ingressoService::getIngresso);
+            if (ingresso.isEmpty()) {
+                status[i] = StatusPedido.INGRESSO_INEXISTENTE;
+                continue;
+            }
+            ingressos[i] = ingresso.get();
+            porIngresso.computeIfAbsent(ingresso.get(), k -> new ArrayList<>()).add(i);
+        }
+
+        // 2. uma reserva por tipo de ingresso, distribuída na ordem de envio
+        BlocoAssentos[] assentos = new BlocoAssentos[n];
+        for (Map.Entry<Ingresso, List<Integer>> grupo : porIngresso.entrySet()) {
+            if (grupo.getKey().temAssentos()) {
+                // lugar marcado: cada pedido precisa do seu próprio bloco de assentos vizinhos
+                for (int i : grupo.getValue()) {
+                    assentos[i] = grupo.getKey().reservarMelhoresAssentos(pedidos.get(i).getQuantidade()).orElse(null);
+                    status[i] = assentos[i] != null ? StatusPedido.ACEITO : StatusPedido.ESTOQUE_INSUFICIENTE;
+                }
+                continue;
+            }
+            long pedido = 0;
+            for (int i : grupo.getValue()) {
+                pedido += pedidos.get(i).getQuantidade();
+            }
+            int restante = grupo.getKey().reservarAte((int) Math.min(pedido, Integer.MAX_VALUE));
+            for (int i : grupo.getValue()) {
+                int quantidade = pedidos.get(i).getQuantidade();
+                if (quantidade <= restante) {
+                    restante -= quantidade;
+                    status[i] = StatusPedido.ACEITO;
+                } else {
+                    status[i] = StatusPedido.ESTOQUE_INSUFICIENTE;
+                }
+            }
+            if (restante > 0) {
+                grupo.getKey().liberar(restante);
+            }
+        }
+
+        // 3. uma compra por cliente com os pedidos aceitos
+        String[] codigos = new String[n];
+        Map<String, Compra> compraPorEmail = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            if (status[i] != StatusPedido.ACEITO) {
+                continue;
+            }
+            PedidoCompra pedido = pedidos.get(i);
+            Compra compra = compraPorEmail.computeIfAbsent(pedido.getCliente().getEmail(),
+                    e -> controller.iniciarNovaCompra(pedido.getCliente()));
+            ItemCompra item = assentos[i] != null
+                    ? new ItemCompra(ingressos[i], assentos[i])
+                    : new ItemCompra(ingressos[i], pedido.getQuantidade());
+            controller.adicionarItemReservadoNaCompra(compra, item);
+            codigos[i] = compra.getCodigoCompra();
+        }
+        for (Compra compra : compraPorEmail.values()) {
+            if (finalizar(compra)) {
+                continue;
+            }
+            for (int i = 0; i < n; i++) {
+                if (compra.getCodigoCompra().equals(codigos[i])) {
+                    status[i] = StatusPedido.FALHA_FINALIZACAO;
+                    codigos[i] = null;
+                }
+            }
+        }
+
+        ResultadoPedido[] resultados = new ResultadoPedido[n];
+        for (int i = 0; i < n; i++) {
+            resultados[i] = new ResultadoPedido(pedidos.get(i), status[i], codigos[i]);
+        }
+        return Arrays.asList(resultados);
+    }
+
+    /** Finaliza a compra; se não conseguir, devolve ao estoque o que ela retém. */
+    private boolean finalizar(Compra compra) {
+        boolean finalizada;
+        try {
+            finalizada = controller.finalizarCompra(compra);
+        } catch (RuntimeException e) {
+            finalizada = false; // falha ao gravar: o controller já publicou a rejeição
+        }
+        if (!finalizada) {
+            compra.expirar();
+        }
+        return finalizada;
+    }
+}
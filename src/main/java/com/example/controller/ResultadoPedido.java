@@ -0,0 +1,33 @@
+package com.example.controller;
+
+/**
+ * Resultado de um pedido do lote, na mesma posição em que o pedido foi enviado.
+ */
+public final class ResultadoPedido {
+    private final PedidoCompra pedido;
+    private final StatusPedido status;
+    private final String codigoCompra;
+
+    ResultadoPedido(PedidoCompra pedido, StatusPedido status, String codigoCompra) {
+        this.pedido = pedido;
+        this.status = status;
+        this.codigoCompra = codigoCompra;
+    }
+
+    public PedidoCompra getPedido() {
+        return pedido;
+    }
+
+    public StatusPedido getStatus() {
+        return status;
+    }
+
+    public boolean isAceito() {
+        return status == StatusPedido.ACEITO;
+    }
+
+    /** Código da compra onde o pedido entrou (null se não foi aceito). */
+    public String getCodigoCompra() {
+        return codigoCompra;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.controller;
+
+/**
+ * Resultado de cada pedido de um lote.
+ */
+public enum StatusPedido {
+    ACEITO,
+    ESTOQUE_INSUFICIENTE,
+    INGRESSO_INEXISTENTE,
+    QUANTIDADE_INVALIDA,
+    /** Estoque obtido, mas a compra do cliente não pôde ser finalizada (ex.: falha ao gravar o log). */
+    FALHA_FINALIZACAO
+}
@@ -0,0 +1,16 @@
+package com.example.evento;
+
+/**
+ * Destino dos eventos de compra (console, arquivo, memória, view...).
+ * Os métodos são sempre chamados pela thread consumidora do
+ * {@link PublicadorEventos}, nunca pela thread do comprador, então as
+ * implementações não precisam ser thread-safe entre si.
+ */
+public interface AssinanteEventos {
+
+    void aoReceber(EventoCompra evento);
+
+    /** Chamado quando a fila fica vazia após um lote; útil para dar flush em arquivos. */
+    default void aoConcluirLote() {
+    }
+}
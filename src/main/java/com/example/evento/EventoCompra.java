@@ -0,0 +1,92 @@
+package com.example.evento;
+
+import com.example.model.Compra;
+import com.example.model.ItemCompra;
+import java.time.Instant;
+
+/**
+ * Evento imutável publicado pelo CompraController a cada etapa do checkout.
+ * Carrega referências para a compra e o item envolvidos, de modo que os
+ * assinantes decidem como (e se) formatar a informação, fora da thread do comprador.
+ */
+public final class EventoCompra {
+    private final TipoEventoCompra tipo;
+    private final long instante;
+    private final Compra compra;
+    private final ItemCompra item;
+    private final String mensagem;
+
+    private EventoCompra(TipoEventoCompra tipo, Compra compra, ItemCompra item, String mensagem) {
+        this.tipo = tipo;
+        this.instante = System.currentTimeMillis();
+        this.compra = compra;
+        this.item = item;
+        this.mensagem = mensagem;
+    }
+
+    public static EventoCompra compraIniciada(Compra compra) {
+        return new EventoCompra(TipoEventoCompra.COMPRA_INICIADA, compra, null, null);
+    }
+
+    public static EventoCompra itemAdicionado(Compra compra, ItemCompra item) {
+        return new EventoCompra(TipoEventoCompra.ITEM_ADICIONADO, compra, item, null);
+    }
+
+    public static EventoCompra itemRejeitado(Compra compra, String motivo) {
+        return new EventoCompra(TipoEventoCompra.ITEM_REJEITADO, compra, null, motivo);
+    }
+
+    public static EventoCompra compraFinalizada(Compra compra) {
+        return new EventoCompra(TipoEventoCompra.COMPRA_FINALIZADA, compra, null, null);
+    }
+
+    public static EventoCompra finalizacaoRejeitada(Compra compra, String motivo) {
+        return new EventoCompra(TipoEventoCompra.FINALIZACAO_REJEITADA, compra, null, motivo);
+    }
+
+    public static EventoCompra compraExpirada(Compra compra) {
+        return new EventoCompra(TipoEventoCompra.COMPRA_EXPIRADA, compra, null,
+                "Reserva expirada; ingressos devolvidos ao estoque.");
+    }
+
+    public TipoEventoCompra getTipo() {
+        return tipo;
+    }
+
+    /** Momento da publicação, em milissegundos desde a época Unix. */
+    public long getInstante() {
+        return instante;
+    }
+
+    public Compra getCompra() {
+        return compra;
+    }
+
+    /** Item envolvido (apenas em ITEM_ADICIONADO). */
+    public ItemCompra getItem() {
+        return item;
+    }
+
+    /** Motivo da rejeição ou da expiração (ITEM_REJEITADO, FINALIZACAO_REJEITADA, COMPRA_EXPIRADA). */
+    public String getMensagem() {
+        return mensagem;
+    }
+
+    /** Formato estruturado chave=valor, uma linha por evento. */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(128);
+        sb.append("instante=").append(Instant.ofEpochMilli(instante))
+          .append(" tipo=").append(tipo)
+          .append(" compra=").append(compra.getCodigoCompra())
+          .append(" cliente=").append(compra.getCliente().getEmail());
+        if (item != null) {
+            sb.append(" ingresso=").append(item.getIngresso().getTipo())
+              .append(" quantidade=").append(item.getQuantidade());
+        }
+        if (mensagem != null) {
+            sb.append(" mensagem=\"").append(mensagem).append('"');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.evento;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fila circular limitada, sem locks, para vários produtores e um único consumidor.
+ *
+ * Cada posição tem um número de sequência que indica se ela está livre para o
+ * produtor da volta atual ou preenchida para o consumidor (algoritmo de
+ * D. Vyukov). Produtores disputam apenas um CAS na cauda; o consumidor não
+ * faz nenhuma operação atômica de leitura-modificação-escrita.
+ */
+class FilaLimitada<E> {
+    private final int capacidade;
+    private final int mascara;
+    private final AtomicReferenceArray<E> elementos;
+    private final AtomicLongArray sequencias;
+    private final AtomicLong cauda = new AtomicLong();
+    private volatile long cabeca;
+
+    FilaLimitada(int capacidadeMinima) {
+        if (capacidadeMinima <= 0) {
+            throw new IllegalArgumentException("Capacidade deve ser positiva.");
+        }
+        int potencia = 1;
+        while (potencia < capacidadeMinima) {
+            potencia <<= 1;
+        }
+        this.capacidade = potencia;
+        this.mascara = capacidade - 1;
+        this.elementos = new AtomicReferenceArray<>(capacidade);
+        this.sequencias = new AtomicLongArray(capacidade);
+        for (int i = 0; i < capacidade; i++) {
+            sequencias.set(i, i);
+        }
+    }
+
+    /** @return false se a fila estiver cheia */
+    boolean oferecer(E elemento) {
+        while (true) {
+            long posicao = cauda.get();
+            int indice = (int) posicao & mascara;
+            long diferenca = sequencias.get(indice) - posicao;
+            if (diferenca == 0) {
+                if (cauda.compareAndSet(posicao, posicao + 1)) {
+                    elementos.set(indice, elemento);
+                    sequencias.set(indice, posicao + 1);
+                    return true;
+                }
+            } else if (diferenca < 0) {
+                return false;
+            }
+        }
+    }
+
+    /** Apenas a thread consumidora pode chamar. @return null se vazia */
+    E retirar() {
+        long posicao = cabeca;
+        int indice = (int) posicao & mascara;
+        if (sequencias.get(indice) != posicao + 1) {
+            return null;
+        }
+        E elemento = elementos.get(indice);
+        elementos.set(indice, null);
+        sequencias.set(indice, posicao + capacidade);
+        cabeca = posicao + 1;
+        return elemento;
+    }
+
+    /** Total de elementos já aceitos desde a criação. */
+    long totalInserido() {
+        return cauda.get();
+    }
+
+    /** Total de elementos já retirados desde a criação. */
+    long totalRetirado() {
+        return cabeca;
+    }
+
+    int getCapacidade() {
+        return capacidade;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.evento;
+
+/**
+ * O que fazer quando a fila de eventos está cheia.
+ */
+public enum PoliticaFilaCheia {
+    /** Descarta o evento e contabiliza o descarte; o comprador nunca espera. */
+    DESCARTAR,
+    /** Espera (sem lock) até haver espaço; nenhum evento é perdido. */
+    BLOQUEAR
+}
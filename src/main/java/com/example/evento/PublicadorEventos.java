@@ -0,0 +1,183 @@
+package com.example.evento;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Barramento assíncrono de eventos de compra.
+ * Padrão GRASP aplicado: INDIRECTION e PURE FABRICATION
+ * Justificativa: o controller apenas publica o que aconteceu; quem exibe,
+ * grava em arquivo ou guarda em memória são os assinantes. A escrita (lenta e
+ * sincronizada, como System.out) sai da thread do comprador e passa para uma
+ * única thread consumidora em segundo plano.
+ *
+ * Os eventos passam por uma {@link FilaLimitada} sem locks. Com a fila cheia,
+ * a {@link PoliticaFilaCheia} decide entre descartar ou esperar espaço.
+ * A thread consumidora só é criada quando o primeiro assinante se registra;
+ * sem assinantes, publicar não faz nada.
+ */
+public class PublicadorEventos {
+    public static final int CAPACIDADE_PADRAO = 8192;
+
+    private static final long ESPERA_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long OCIOSO_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int TAMANHO_LOTE = 256;
+
+    private final FilaLimitada<EventoCompra> fila;
+    private final PoliticaFilaCheia politica;
+    private final List<AssinanteEventos> assinantes = new CopyOnWriteArrayList<>();
+    private final LongAdder descartados = new LongAdder();
+    private final LongAdder falhasAssinantes = new LongAdder();
+    private volatile Thread consumidor;
+    private volatile boolean fechado;
+    /** Publicações que passaram pela verificação de fechado e ainda não terminaram. */
+    private final AtomicInteger publicando = new AtomicInteger();
+    /** Eventos já entregues e com o lote concluído (flush feito). */
+    private volatile long entregues;
+
+    public PublicadorEventos() {
+        this(CAPACIDADE_PADRAO, PoliticaFilaCheia.BLOQUEAR);
+    }
+
+    public PublicadorEventos(int capacidade, PoliticaFilaCheia politica) {
+        this.fila = new FilaLimitada<>(capacidade);
+        this.politica = politica;
+    }
+
+    public void assinar(AssinanteEventos assinante) {
+        assinantes.add(assinante);
+        iniciarConsumidor();
+    }
+
+    public void cancelarAssinatura(AssinanteEventos assinante) {
+        assinantes.remove(assinante);
+    }
+
+    /**
+     * Enfileira o evento. Nunca faz I/O e nunca adquire lock.
+     * @return false se o evento foi descartado (fila cheia com política DESCARTAR ou publicador fechado)
+     */
+    public boolean publicar(EventoCompra evento) {
+        if (assinantes.isEmpty()) {
+            return false;
+        }
+        // conta antes de ler fechado: ou fechar() vê esta publicação e a espera, ou ela vê fechado
+        publicando.incrementAndGet();
+        try {
+            if (fechado) {
+                return false;
+            }
+            while (!fila.oferecer(evento)) {
+                if (politica == PoliticaFilaCheia.DESCARTAR || fechado) {
+                    descartados.increment();
+                    return false;
+                }
+                LockSupport.parkNanos(ESPERA_NANOS);
+            }
+            return true;
+        } finally {
+            publicando.decrementAndGet();
+        }
+    }
+
+    /**
+     * Espera até que todos os eventos publicados antes da chamada tenham sido
+     * entregues aos assinantes. Útil antes de escrever no console pela thread
+     * principal (demonstração) ou em testes.
+     */
+    public void esvaziar() {
+        long alvo = fila.totalInserido();
+        while (consumidor != null && entregues < alvo && consumidor.isAlive()) {
+            LockSupport.parkNanos(ESPERA_NANOS);
+        }
+    }
+
+    /**
+     * Recusa novas publicações, encerra a thread consumidora e entrega, nesta
+     * thread, o que ficou na fila: todo evento para o qual publicar() devolveu
+     * true chega aos assinantes.
+     */
+    public void fechar() {
+        fechado = true;
+        Thread atual = consumidor;
+        if (atual != null) {
+            LockSupport.unpark(atual);
+            try {
+                atual.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        while (publicando.get() > 0) {
+            LockSupport.parkNanos(ESPERA_NANOS);
+        }
+        while (entregarLote() > 0) {
+            // esvazia a fila
+        }
+    }
+
+    public long getDescartados() {
+        return descartados.sum();
+    }
+
+    public long getFalhasAssinantes() {
+        return falhasAssinantes.sum();
+    }
+
+    public PoliticaFilaCheia getPolitica() {
+        return politica;
+    }
+
+    private synchronized void iniciarConsumidor() {
+        if (consumidor == null) {
+            Thread thread = new Thread(this::consumir, "eventos-compra");
+            thread.setDaemon(true);
+            consumidor = thread;
+            thread.start();
+        }
+    }
+
+    private void consumir() {
+        while (!fechado) {
+            if (entregarLote() == 0) {
+                LockSupport.parkNanos(OCIOSO_NANOS);
+            }
+        }
+    }
+
+    /** Só a thread consumidora ou, depois de ela terminar, fechar() retiram da fila. */
+    private int entregarLote() {
+        int processados = 0;
+        EventoCompra evento;
+        while (processados < TAMANHO_LOTE && (evento = fila.retirar()) != null) {
+            entregar(evento);
+            processados++;
+        }
+        if (processados > 0) {
+            for (AssinanteEventos assinante : assinantes) {
+                try {
+                    assinante.aoConcluirLote();
+                } catch (RuntimeException e) {
+                    falhasAssinantes.increment();
+                }
+            }
+            entregues = fila.totalRetirado();
+        }
+        return processados;
+    }
+
+    private void entregar(EventoCompra evento) {
+        for (AssinanteEventos assinante : assinantes) {
+            try {
+                assinante.aoReceber(evento);
+            } catch (RuntimeException e) {
+                falhasAssinantes.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.evento;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Assinante que grava os eventos em arquivo, com rotação por tamanho.
+ * O arquivo atual é {@code base}; ao passar do tamanho máximo ele vira
+ * {@code base.1}, o antigo {@code base.1} vira {@code base.2} e assim por
+ * diante, mantendo no máximo {@code arquivosMantidos} arquivos antigos.
+ * O flush é feito ao fim de cada lote, não a cada evento.
+ */
+public class SaidaArquivoRotativo implements AssinanteEventos, AutoCloseable {
+    private final Path base;
+    private final long tamanhoMaximo;
+    private final int arquivosMantidos;
+    private BufferedWriter escritor;
+    private long tamanhoAtual;
+
+    public SaidaArquivoRotativo(Path base, long tamanhoMaximo, int arquivosMantidos) {
+        if (tamanhoMaximo <= 0 || arquivosMantidos < 0) {
+            throw new IllegalArgumentException("Tamanho máximo deve ser positivo e arquivos mantidos não negativo.");
+        }
+        this.base = base;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.arquivosMantidos = arquivosMantidos;
+        try {
+            abrir();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void aoReceber(EventoCompra evento) {
+        String linha = evento.toString();
+        try {
+            if (tamanhoAtual + linha.length() + 1 > tamanhoMaximo && tamanhoAtual > 0) {
+                rotacionar();
+            }
+            escritor.write(linha);
+            escritor.newLine();
+            tamanhoAtual += linha.length() + 1;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void aoConcluirLote() {
+        try {
+            escritor.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        escritor.close();
+    }
+
+    private void abrir() throws IOException {
+        escritor = Files.newBufferedWriter(base, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        tamanhoAtual = Files.size(base);
+    }
+
+    private void rotacionar() throws IOException {
+        escritor.close();
+        if (arquivosMantidos == 0) {
+            Files.delete(base);
+        } else {
+            Files.deleteIfExists(antigo(arquivosMantidos));
+            for (int i = arquivosMantidos - 1; i >= 1; i--) {
+                if (Files.exists(antigo(i))) {
+                    Files.move(antigo(i), antigo(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(base, antigo(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        abrir();
+    }
+
+    private Path antigo(int indice) {
+        return base.resolveSibling(base.getFileName() + "." + indice);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.evento;
+
+import java.io.PrintStream;
+
+/**
+ * Assinante que escreve cada evento em formato estruturado (uma linha) no console.
+ */
+public class SaidaConsole implements AssinanteEventos {
+    private final PrintStream saida;
+
+    public SaidaConsole() {
+        this(System.out);
+    }
+
+    public SaidaConsole(PrintStream saida) {
+        this.saida = saida;
+    }
+
+    @Override
+    public void aoReceber(EventoCompra evento) {
+        saida.println(evento);
+    }
+}
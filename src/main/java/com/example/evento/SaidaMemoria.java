@@ -0,0 +1,21 @@
+package com.example.evento;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Assinante que guarda os eventos em memória, para testes.
+ */
+public class SaidaMemoria implements AssinanteEventos {
+    private final List<EventoCompra> eventos = new ArrayList<>();
+
+    @Override
+    public synchronized void aoReceber(EventoCompra evento) {
+        eventos.add(evento);
+    }
+
+    /** Cópia dos eventos recebidos até agora (chame {@link PublicadorEventos#esvaziar()} antes). */
+    public synchronized List<EventoCompra> getEventos() {
+        return new ArrayList<>(eventos);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.evento;
+
+/**
+ * Etapas do fluxo de compra que geram eventos.
+ */
+public enum TipoEventoCompra {
+    COMPRA_INICIADA,
+    ITEM_ADICIONADO,
+    ITEM_REJEITADO,
+    COMPRA_FINALIZADA,
+    FINALIZACAO_REJEITADA,
+    COMPRA_EXPIRADA
+}
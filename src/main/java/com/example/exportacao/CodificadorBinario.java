@@ -0,0 +1,68 @@
+package com.example.exportacao;
+
+import com.example.model.Compra;
+import java.io.IOException;
+
+/**
+ * Formato binário compacto (versão 1), inteiros em big-endian, textos como
+ * [short tamanho][bytes UTF-8]:
+ * <pre>
+ * int   MAGICO ("VEND") | short versão
+ * por compra: [byte 1][texto código][texto email][long instante][long total][int n]
+ *             n x ([texto tipo][int quantidade][long preço unitário])
+ * [byte 0] no fim do arquivo
+ * </pre>
+ */
+final class CodificadorBinario implements CodificadorCompras {
+    static final int MAGICO = 0x56454E44;
+    static final short VERSAO = 1;
+
+    @Override
+    public void abrir(SaidaBlocos saida) throws IOException {
+        saida.garantir(6);
+        saida.buffer.putInt(MAGICO).putShort(VERSAO);
+    }
+
+    @Override
+    public void escrever(SaidaBlocos saida, Compra compra) throws IOException {
+        String codigo = compra.getCodigoCompra();
+        String email = compra.getCliente().getEmail();
+        int itens = compra.getQuantidadeItens();
+        int tamanho = 1 + tamanhoMaximo(codigo) + tamanhoMaximo(email) + 20;
+        for (int i = 0; i < itens; i++) {
+            tamanho += tamanhoMaximo(compra.getIngressoDoItem(i).getTipo()) + 12;
+        }
+        saida.garantir(tamanho);
+        saida.buffer.put((byte) 1);
+        texto(saida, codigo);
+        texto(saida, email);
+        saida.buffer.putLong(compra.getInstanteFinalizacao())
+                .putLong(compra.calcularTotalCentavos())
+                .putInt(itens);
+        for (int i = 0; i < itens; i++) {
+            texto(saida, compra.getIngressoDoItem(i).getTipo());
+            saida.buffer.putInt(compra.getQuantidadeDoItem(i)).putLong(compra.getPrecoUnitarioDoItem(i));
+        }
+    }
+
+    @Override
+    public void fechar(SaidaBlocos saida) throws IOException {
+        saida.garantir(1);
+        saida.buffer.put((byte) 0);
+    }
+
+    private static int tamanhoMaximo(String texto) {
+        return 2 + texto.length() * 3;
+    }
+
+    private static void texto(SaidaBlocos saida, String texto) {
+        int inicio = saida.buffer.position();
+        saida.buffer.position(inicio + 2);
+        saida.utf8(texto);
+        int tamanho = saida.buffer.position() - inicio - 2;
+        if (tamanho > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Texto grande demais para o formato binário: " + tamanho + " bytes");
+        }
+        saida.buffer.putShort(inicio, (short) tamanho);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.exportacao;
+
+import com.example.model.Compra;
+import java.io.IOException;
+
+/**
+ * Codifica compras finalizadas direto nos blocos da {@link SaidaBlocos}.
+ * As compras recebidas estão congeladas (imutáveis), então os acessores por
+ * índice são lidos sem trava e sem alocar.
+ */
+interface CodificadorCompras {
+
+    /** Cabeçalho do arquivo, se o formato tiver um. */
+    void abrir(SaidaBlocos saida) throws IOException;
+
+    void escrever(SaidaBlocos saida, Compra compra) throws IOException;
+
+    /** Rodapé do arquivo, se o formato tiver um. */
+    void fechar(SaidaBlocos saida) throws IOException;
+
+    static CodificadorCompras para(FormatoExportacao formato) {
+        switch (formato) {
+            case CSV:
+                return new CodificadorCsv();
+            case NDJSON:
+                return new CodificadorNdjson();
+            default:
+                return new CodificadorBinario();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.exportacao;
+
+import com.example.model.Compra;
+import java.io.IOException;
+
+/**
+ * Uma linha por item vendido:
+ * {@code codigo,cliente,finalizada_em,tipo,quantidade,preco_unitario,subtotal}.
+ * Valores em reais com ponto decimal; textos com vírgula, aspas ou quebra de
+ * linha vão entre aspas, com {@code ""} para aspas literais.
+ */
+final class CodificadorCsv implements CodificadorCompras {
+    private static final String CABECALHO = "codigo,cliente,finalizada_em,tipo,quantidade,preco_unitario,subtotal\n";
+
+    @Override
+    public void abrir(SaidaBlocos saida) throws IOException {
+        saida.garantir(CABECALHO.length());
+        saida.ascii(CABECALHO);
+    }
+
+    @Override
+    public void escrever(SaidaBlocos saida, Compra compra) throws IOException {
+        String codigo = compra.getCodigoCompra();
+        String email = compra.getCliente().getEmail();
+        long instante = compra.getInstanteFinalizacao();
+        int fixo = tamanhoMaximo(codigo) + tamanhoMaximo(email) + 32 + 11 + 22 + 22 + 7;
+        for (int i = 0; i < compra.getQuantidadeItens(); i++) {
+            String tipo = compra.getIngressoDoItem(i).getTipo();
+            int quantidade = compra.getQuantidadeDoItem(i);
+            long preco = compra.getPrecoUnitarioDoItem(i);
+            saida.garantir(fixo + tamanhoMaximo(tipo));
+            texto(saida, codigo);
+            saida.ascii(',');
+            texto(saida, email);
+            saida.ascii(',');
+            saida.dataIso(instante);
+            saida.ascii(',');
+            texto(saida, tipo);
+            saida.ascii(',');
+            saida.inteiro(quantidade);
+            saida.ascii(',');
+            saida.reais(preco);
+            saida.ascii(',');
+            saida.reais(preco * quantidade);
+            saida.ascii('\n');
+        }
+    }
+
+    @Override
+    public void fechar(SaidaBlocos saida) {
+    }
+
+    /** Entre aspas, cada caractere ocupa no máximo 3 bytes (aspas duplicadas ocupam 2). */
+    private static int tamanhoMaximo(String texto) {
+        return 2 + texto.length() * 3;
+    }
+
+    private static void texto(SaidaBlocos saida, String texto) {
+        boolean aspas = false;
+        for (int i = 0; i < texto.length() && !aspas; i++) {
+            char c = texto.charAt(i);
+            aspas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!aspas) {
+            saida.utf8(texto);
+            return;
+        }
+        saida.ascii('"');
+        int inicio = 0;
+        for (int i = texto.indexOf('"'); i >= 0; i = texto.indexOf('"', inicio)) {
+            saida.utf8(texto.substring(inicio, i + 1));
+            saida.ascii('"');
+            inicio = i + 1;
+        }
+        saida.utf8(inicio == 0 ? texto : texto.substring(inicio));
+        saida.ascii('"');
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.exportacao;
+
+import com.example.model.Compra;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Um objeto por compra, com os mesmos nomes de campo da API HTTP:
+ * <pre>
+ * {"codigo":"...","cliente":"...","finalizadaEm":1714571100120,"totalCentavos":24000,
+ *  "itens":[{"tipo":"Pista","quantidade":2,"precoUnitarioCentavos":12000,"subtotalCentavos":24000}]}
+ * </pre>
+ */
+final class CodificadorNdjson implements CodificadorCompras {
+    private static final byte[] ABRE_CODIGO = ascii("{\"codigo\":");
+    private static final byte[] CLIENTE = ascii(",\"cliente\":");
+    private static final byte[] FINALIZADA_EM = ascii(",\"finalizadaEm\":");
+    private static final byte[] TOTAL = ascii(",\"totalCentavos\":");
+    private static final byte[] ITENS = ascii(",\"itens\":[");
+    private static final byte[] ABRE_TIPO = ascii("{\"tipo\":");
+    private static final byte[] QUANTIDADE = ascii(",\"quantidade\":");
+    private static final byte[] PRECO_UNITARIO = ascii(",\"precoUnitarioCentavos\":");
+    private static final byte[] SUBTOTAL = ascii(",\"subtotalCentavos\":");
+    private static final byte[] FECHA = ascii("]}\n");
+
+    private static byte[] ascii(String literal) {
+        return literal.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public void abrir(SaidaBlocos saida) {
+    }
+
+    @Override
+    public void escrever(SaidaBlocos saida, Compra compra) throws IOException {
+        String codigo = compra.getCodigoCompra();
+        String email = compra.getCliente().getEmail();
+        int itens = compra.getQuantidadeItens();
+        int tamanho = tamanhoMaximo(codigo) + tamanhoMaximo(email) + 120;
+        for (int i = 0; i < itens; i++) {
+            tamanho += tamanhoMaximo(compra.getIngressoDoItem(i).getTipo()) + 130;
+        }
+        saida.garantir(tamanho);
+        saida.bytes(ABRE_CODIGO);
+        texto(saida, codigo);
+        saida.bytes(CLIENTE);
+        texto(saida, email);
+        saida.bytes(FINALIZADA_EM);
+        saida.inteiro(compra.getInstanteFinalizacao());
+        saida.bytes(TOTAL);
+        saida.inteiro(compra.calcularTotalCentavos());
+        saida.bytes(ITENS);
+        for (int i = 0; i < itens; i++) {
+            if (i > 0) {
+                saida.ascii(',');
+            }
+            long preco = compra.getPrecoUnitarioDoItem(i);
+            int quantidade = compra.getQuantidadeDoItem(i);
+            saida.bytes(ABRE_TIPO);
+            texto(saida, compra.getIngressoDoItem(i).getTipo());
+            saida.bytes(QUANTIDADE);
+            saida.inteiro(quantidade);
+            saida.bytes(PRECO_UNITARIO);
+            saida.inteiro(preco);
+            saida.bytes(SUBTOTAL);
+            saida.inteiro(preco * quantidade);
+            saida.ascii('}');
+        }
+        saida.bytes(FECHA);
+    }
+
+    @Override
+    public void fechar(SaidaBlocos saida) {
+    }
+
+    /** Pior caso: todo caractere vira um escape {@code \}{@code u00XX} (6 bytes). */
+    private static int tamanhoMaximo(String texto) {
+        return 2 + texto.length() * 6;
+    }
+
+    private static void texto(SaidaBlocos saida, String texto) {
+        saida.ascii('"');
+        int n = texto.length();
+        int inicio = 0;
+        for (int i = 0; i < n; i++) {
+            char c = texto.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            if (i > inicio) {
+                saida.utf8(texto.substring(inicio, i));
+            }
+            inicio = i + 1;
+            switch (c) {
+                case '"': saida.ascii("\\\""); break;
+                case '\\': saida.ascii("\\\\"); break;
+                case '\n': saida.ascii("\\n"); break;
+                case '\r': saida.ascii("\\r"); break;
+                case '\t': saida.ascii("\\t"); break;
+                default:
+                    saida.ascii("\\u00");
+                    saida.ascii(Character.forDigit(c >> 4, 16));
+                    saida.ascii(Character.forDigit(c & 0xF, 16));
+            }
+        }
+        saida.utf8(inicio == 0 ? texto : texto.substring(inicio));
+        saida.ascii('"');
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.exportacao;
+
+import com.example.model.Compra;
+import com.example.repository.CompraRepository;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+
+/**
+ * Exporta o livro de vendas (compras finalizadas) em CSV, NDJSON ou binário
+ * para a contabilidade. As compras são lidas na ordem do índice de
+ * finalização do CompraRepository, sem travas e sem cópia, e codificadas
+ * direto em blocos de bytes reutilizados, gravados com escritas com
+ * gathering; a memória usada não cresce com o número de compras.
+ *
+ * A exportação incremental continua do último {@link MarcoExportacao} gravado
+ * no diretório. O marco é a sequência de finalização da última compra
+ * exportada, não um instante do relógio: cada exportação vai até o
+ * {@link CompraRepository#limiteFinalizadas()}, e nenhuma compra pode entrar
+ * no índice depois com sequência menor (e nunca ser exportada). Com log, a
+ * sequência é a posição do registro da compra no log, então o marco continua
+ * valendo depois de um reinício; obter o limite espera as gravações em
+ * andamento, como o corte de um snapshot. O marco é gravado depois do arquivo de
+ * dados; uma queda entre os dois repete as mesmas compras no arquivo seguinte,
+ * então o consumidor deve descartar códigos repetidos.
+ *
+ * Padrão GRASP aplicado: PURE FABRICATION
+ * Justificativa: formatos de arquivo e marcos de exportação não pertencem ao
+ * domínio nem ao repositório; a classe os concentra e depende só da leitura
+ * ordenada que o repositório oferece.
+ */
+public class ExportadorCompras {
+    private static final int BLOCOS = 8;
+    private static final int TAMANHO_BLOCO = 64 * 1024;
+
+    private final CompraRepository compras;
+    private final SaidaBlocos saida = new SaidaBlocos(BLOCOS, TAMANHO_BLOCO);
+
+    public ExportadorCompras(CompraRepository compras) {
+        this.compras = compras;
+    }
+
+    /**
+     * Exporta para o canal as compras finalizadas depois de {@code desde}. O canal não é fechado.
+     */
+    public synchronized ResultadoExportacao exportar(GatheringByteChannel canal, FormatoExportacao formato,
+                                                     MarcoExportacao desde) throws IOException {
+        return exportar(canal, formato, desde, compras.limiteFinalizadas());
+    }
+
+    /**
+     * Exporta as compras novas desde o marco salvo em {@code diretorio} para um
+     * arquivo {@code vendas-<sequência da última compra>.<extensão>} e avança o marco. Cada
+     * formato tem o próprio marco. Sem compras novas, nenhum arquivo é criado.
+     */
+    public synchronized ResultadoExportacao exportarIncremental(Path diretorio, FormatoExportacao formato)
+            throws IOException {
+        Files.createDirectories(diretorio);
+        Path arquivoMarco = diretorio.resolve("marco-" + formato.getExtensao() + ".txt");
+        MarcoExportacao desde = Files.exists(arquivoMarco)
+                ? MarcoExportacao.decodificar(Files.readString(arquivoMarco, StandardCharsets.UTF_8))
+                : MarcoExportacao.INICIO;
+        Path temporario = diretorio.resolve("vendas." + formato.getExtensao() + ".tmp");
+        ResultadoExportacao resultado;
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            resultado = exportar(canal, formato, desde, compras.limiteFinalizadas());
+            canal.force(true);
+        }
+        if (resultado.getCompras() == 0) {
+            Files.delete(temporario);
+            return resultado;
+        }
+        Path destino = diretorio.resolve(String.format("vendas-%019d.%s", resultado.getMarco().getSequencia(),
+                formato.getExtensao()));
+        Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+        gravarMarco(arquivoMarco, resultado.getMarco());
+        return resultado.comArquivo(destino);
+    }
+
+    private ResultadoExportacao exportar(GatheringByteChannel canal, FormatoExportacao formato,
+                                         MarcoExportacao desde, long limite) throws IOException {
+        long inicio = System.nanoTime();
+        CodificadorCompras codificador = CodificadorCompras.para(formato);
+        saida.iniciar(canal);
+        codificador.abrir(saida);
+        long quantidade = 0;
+        Compra ultima = null;
+        Iterator<Compra> finalizadas = compras
+                .streamFinalizadas(desde.getSequencia(), limite).iterator();
+        while (finalizadas.hasNext()) {
+            ultima = finalizadas.next();
+            codificador.escrever(saida, ultima);
+            quantidade++;
+        }
+        codificador.fechar(saida);
+        saida.descarregar();
+        MarcoExportacao marco = ultima == null ? desde
+                : new MarcoExportacao(ultima.getSequenciaFinalizacao());
+        return new ResultadoExportacao(quantidade, saida.getBytes(), System.nanoTime() - inicio, marco, null);
+    }
+
+    /** Grava o marco num .tmp e o renomeia atomicamente, para nunca deixar um marco pela metade. */
+    private static void gravarMarco(Path arquivo, MarcoExportacao marco) throws IOException {
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            canal.write(StandardCharsets.UTF_8.encode(marco.codificar() + "\n"));
+            canal.force(true);
+        }
+        Files.move(temporario, arquivo, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
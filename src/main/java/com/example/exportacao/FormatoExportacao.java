@@ -0,0 +1,23 @@
+package com.example.exportacao;
+
+/**
+ * Formatos da exportação de vendas.
+ */
+public enum FormatoExportacao {
+    /** Uma linha por item vendido, com cabeçalho; valores em reais e instante em ISO-8601 (UTC). */
+    CSV("csv"),
+    /** Um objeto JSON por compra, com a lista de itens; valores em centavos e instante em ms. */
+    NDJSON("ndjson"),
+    /** Registros binários compactos (ver {@link CodificadorBinario}). */
+    BINARIO("bin");
+
+    private final String extensao;
+
+    FormatoExportacao(String extensao) {
+        this.extensao = extensao;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+}
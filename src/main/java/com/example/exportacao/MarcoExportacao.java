@@ -0,0 +1,56 @@
+package com.example.exportacao;
+
+/**
+ * Até onde uma exportação incremental já foi: a sequência de finalização da
+ * última compra exportada (ver {@link com.example.model.Compra#getSequenciaFinalizacao()}),
+ * que é a ordem do índice de finalização do CompraRepository. A próxima
+ * exportação começa logo depois.
+ */
+public final class MarcoExportacao {
+    /** Antes de qualquer compra: a primeira exportação leva tudo. */
+    public static final MarcoExportacao INICIO = new MarcoExportacao(0);
+
+    private final long sequencia;
+
+    public MarcoExportacao(long sequencia) {
+        this.sequencia = sequencia;
+    }
+
+    public long getSequencia() {
+        return sequencia;
+    }
+
+    /** Forma textual gravada no arquivo de marco. */
+    String codificar() {
+        return Long.toString(sequencia);
+    }
+
+    static MarcoExportacao decodificar(String texto) {
+        try {
+            return new MarcoExportacao(Long.parseLong(texto.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Marco de exportação inválido: " + texto);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MarcoExportacao)) {
+            return false;
+        }
+        return sequencia == ((MarcoExportacao) o).sequencia;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(sequencia);
+    }
+
+    @Override
+    public String toString() {
+        return "MarcoExportacao(" + codificar() + ")";
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.exportacao;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resumo de uma exportação: quantas compras e bytes, o tempo gasto, o marco
+ * alcançado e, na exportação incremental, o arquivo gerado.
+ */
+public final class ResultadoExportacao {
+    private final long compras;
+    private final long bytes;
+    private final long duracaoNanos;
+    private final MarcoExportacao marco;
+    private final Path arquivo;
+
+    ResultadoExportacao(long compras, long bytes, long duracaoNanos, MarcoExportacao marco, Path arquivo) {
+        this.compras = compras;
+        this.bytes = bytes;
+        this.duracaoNanos = duracaoNanos;
+        this.marco = marco;
+        this.arquivo = arquivo;
+    }
+
+    ResultadoExportacao comArquivo(Path gerado) {
+        return new ResultadoExportacao(compras, bytes, duracaoNanos, marco, gerado);
+    }
+
+    public long getCompras() {
+        return compras;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getDuracao(TimeUnit unidade) {
+        return unidade.convert(duracaoNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public double getComprasPorSegundo() {
+        return duracaoNanos == 0 ? 0 : compras * 1e9 / duracaoNanos;
+    }
+
+    /** Última compra exportada; igual ao marco de partida se nada foi exportado. */
+    public MarcoExportacao getMarco() {
+        return marco;
+    }
+
+    /** Arquivo gerado pela exportação incremental; null se não havia compras novas. */
+    public Path getArquivo() {
+        return arquivo;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d compras, %d bytes em %d ms (%.0f compras/s)",
+                compras, bytes, getDuracao(TimeUnit.MILLISECONDS), getComprasPorSegundo());
+    }
+}
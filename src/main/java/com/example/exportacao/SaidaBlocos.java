@@ -0,0 +1,193 @@
+package com.example.exportacao;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.time.Instant;
+
+/**
+ * Saída da exportação: um conjunto fixo de blocos diretos, preenchidos em
+ * sequência e gravados juntos com uma escrita com gathering
+ * ({@link GatheringByteChannel#write(ByteBuffer[], int, int)}, um único
+ * {@code writev} para vários blocos). Os blocos são reutilizados de uma
+ * exportação para a outra, então a memória não depende do volume exportado.
+ *
+ * Os métodos de escrita não verificam espaço: o codificador chama
+ * {@link #garantir} antes de cada registro com um limite superior do tamanho.
+ */
+final class SaidaBlocos {
+    private final ByteBuffer[] blocos;
+    private final byte[] digitos = new byte[20];
+    private GatheringByteChannel canal;
+    private int atual;
+    private long bytes;
+    ByteBuffer buffer;
+
+    SaidaBlocos(int quantidade, int tamanho) {
+        blocos = new ByteBuffer[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            blocos[i] = ByteBuffer.allocateDirect(tamanho);
+        }
+    }
+
+    void iniciar(GatheringByteChannel canal) {
+        this.canal = canal;
+        for (ByteBuffer bloco : blocos) {
+            bloco.clear();
+        }
+        atual = 0;
+        bytes = 0;
+        buffer = blocos[0];
+    }
+
+    /** Bytes já entregues ao canal desde {@link #iniciar}. */
+    long getBytes() {
+        return bytes;
+    }
+
+    /** Garante {@code n} bytes contíguos no bloco atual, passando ao próximo (ou gravando todos) se faltar. */
+    void garantir(int n) throws IOException {
+        if (buffer.remaining() >= n) {
+            return;
+        }
+        if (n > buffer.capacity()) {
+            throw new IllegalArgumentException("Registro de " + n + " bytes maior que o bloco de saída.");
+        }
+        if (atual + 1 < blocos.length) {
+            buffer = blocos[++atual];
+        } else {
+            descarregar();
+        }
+    }
+
+    /** Grava no canal os blocos preenchidos, numa escrita com gathering, e volta ao primeiro. */
+    void descarregar() throws IOException {
+        int usados = atual + 1;
+        long pendentes = 0;
+        for (int i = 0; i < usados; i++) {
+            blocos[i].flip();
+            pendentes += blocos[i].remaining();
+        }
+        while (pendentes > 0) {
+            pendentes -= canal.write(blocos, 0, usados);
+        }
+        for (int i = 0; i < usados; i++) {
+            bytes += blocos[i].limit();
+            blocos[i].clear();
+        }
+        atual = 0;
+        buffer = blocos[0];
+    }
+
+    void ascii(char c) {
+        buffer.put((byte) c);
+    }
+
+    void bytes(byte[] literal) {
+        buffer.put(literal);
+    }
+
+    void ascii(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            buffer.put((byte) texto.charAt(i));
+        }
+    }
+
+    /** Texto em UTF-8 sem criar arrays; ocupa no máximo 3 bytes por caractere. */
+    void utf8(String texto) {
+        int n = texto.length();
+        for (int i = 0; i < n; i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else {
+                i = utf8MultiByte(texto, i, c);
+            }
+        }
+    }
+
+    private int utf8MultiByte(String texto, int i, char c) {
+        if (c < 0x800) {
+            buffer.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && i + 1 < texto.length()
+                && Character.isLowSurrogate(texto.charAt(i + 1))) {
+            int cp = Character.toCodePoint(c, texto.charAt(++i));
+            buffer.put((byte) (0xF0 | cp >> 18)).put((byte) (0x80 | cp >> 12 & 0x3F))
+                    .put((byte) (0x80 | cp >> 6 & 0x3F)).put((byte) (0x80 | cp & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+            buffer.put((byte) '?'); // surrogate isolado, como faz o String.getBytes
+        } else {
+            buffer.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+        }
+        return i;
+    }
+
+    /** Inteiro em decimal ASCII (até 20 bytes). */
+    void inteiro(long valor) {
+        if (valor == Long.MIN_VALUE) {
+            ascii("-9223372036854775808");
+            return;
+        }
+        if (valor < 0) {
+            buffer.put((byte) '-');
+            valor = -valor;
+        }
+        int p = digitos.length;
+        do {
+            digitos[--p] = (byte) ('0' + valor % 10);
+            valor /= 10;
+        } while (valor != 0);
+        buffer.put(digitos, p, digitos.length - p);
+    }
+
+    /** Centavos como reais com duas casas e ponto decimal, por exemplo {@code 120.50} (até 22 bytes). */
+    void reais(long centavos) {
+        if (centavos < 0) {
+            buffer.put((byte) '-');
+        }
+        long abs = Math.abs(centavos); // MIN_VALUE não é um valor monetário possível
+        inteiro(abs / 100);
+        int resto = (int) (abs % 100);
+        buffer.put((byte) '.').put((byte) ('0' + resto / 10)).put((byte) ('0' + resto % 10));
+    }
+
+    /** Instante em ISO-8601 UTC com milissegundos, por exemplo {@code 2024-05-01T13:45:00.120Z}
+     * (24 bytes; fora dos anos 0 a 9999, até 32). */
+    void dataIso(long millis) {
+        long dias = Math.floorDiv(millis, 86_400_000L);
+        int msDoDia = (int) Math.floorMod(millis, 86_400_000L);
+        // conversão de dias desde 1970-01-01 para data civil (algoritmo de H. Hinnant)
+        long z = dias + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long doe = z - era * 146_097;
+        long yoe = (doe - doe / 1460 + doe / 36_524 - doe / 146_096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        int dia = (int) (doy - (153 * mp + 2) / 5 + 1);
+        int mes = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long ano = yoe + era * 400 + (mes <= 2 ? 1 : 0);
+        if (ano < 0 || ano > 9999) {
+            ascii(Instant.ofEpochMilli(millis).toString());
+            return;
+        }
+        doisDigitos((int) (ano / 100));
+        doisDigitos((int) (ano % 100));
+        buffer.put((byte) '-');
+        doisDigitos(mes);
+        buffer.put((byte) '-');
+        doisDigitos(dia);
+        buffer.put((byte) 'T');
+        doisDigitos(msDoDia / 3_600_000);
+        buffer.put((byte) ':');
+        doisDigitos(msDoDia / 60_000 % 60);
+        buffer.put((byte) ':');
+        doisDigitos(msDoDia / 1000 % 60);
+        int ms = msDoDia % 1000;
+        buffer.put((byte) '.').put((byte) ('0' + ms / 100)).put((byte) ('0' + ms / 10 % 10))
+                .put((byte) ('0' + ms % 10)).put((byte) 'Z');
+    }
+
+    private void doisDigitos(int valor) {
+        buffer.put((byte) ('0' + valor / 10)).put((byte) ('0' + valor % 10));
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.http;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JSON mínimo para os payloads do servidor: escreve strings escapadas e lê
+ * objetos planos (chaves com valores texto ou número). Suficiente para a API
+ * de checkout sem trazer uma biblioteca de JSON para o projeto.
+ */
+final class JsonSimples {
+
+    private JsonSimples() {
+    }
+
+    /** Acrescenta {@code valor} como string JSON (com aspas e escapes). */
+    static StringBuilder texto(StringBuilder sb, String valor) {
+        sb.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"');
+    }
+
+    /**
+     * Lê um objeto plano, por exemplo {@code {"tipo":"Pista","quantidade":2}}.
+     * Números são devolvidos como texto; objetos e listas aninhados não são aceitos.
+     * @throws IllegalArgumentException se o corpo não for um objeto válido
+     */
+    static Map<String, String> lerObjeto(String json) {
+        Leitor leitor = new Leitor(json);
+        Map<String, String> campos = new HashMap<>();
+        leitor.esperar('{');
+        if (!leitor.consumirSe('}')) {
+            do {
+                String chave = leitor.lerTexto();
+                leitor.esperar(':');
+                campos.put(chave, leitor.lerValor());
+            } while (leitor.consumirSe(','));
+            leitor.esperar('}');
+        }
+        leitor.pularEspacos();
+        if (!leitor.fim()) {
+            throw new IllegalArgumentException("JSON inválido: conteúdo após o objeto.");
+        }
+        return campos;
+    }
+
+    private static final class Leitor {
+        private final String json;
+        private int pos;
+
+        Leitor(String json) {
+            this.json = json;
+        }
+
+        boolean fim() {
+            return pos >= json.length();
+        }
+
+        void pularEspacos() {
+            while (!fim() && Character.isWhitespace(json.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        void esperar(char c) {
+            if (!consumirSe(c)) {
+                throw new IllegalArgumentException("JSON inválido: esperado '" + c + "' na posição " + pos);
+            }
+        }
+
+        boolean consumirSe(char c) {
+            pularEspacos();
+            if (!fim() && json.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        String lerValor() {
+            pularEspacos();
+            if (!fim() && json.charAt(pos) == '"') {
+                return lerTexto();
+            }
+            int inicio = pos;
+            while (!fim() && "-+.eE0123456789".indexOf(json.charAt(pos)) >= 0) {
+                pos++;
+            }
+            if (inicio == pos) {
+                throw new IllegalArgumentException("JSON inválido: valor não suportado na posição " + pos);
+            }
+            return json.substring(inicio, pos);
+        }
+
+        String lerTexto() {
+            esperar('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                if (fim()) {
+                    throw new IllegalArgumentException("JSON inválido: texto sem fechamento.");
+                }
+                char c = json.charAt(pos++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (fim()) {
+                    throw new IllegalArgumentException("JSON inválido: escape incompleto.");
+                }
+                char escape = json.charAt(pos++);
+                switch (escape) {
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > json.length()) {
+                            throw new IllegalArgumentException("JSON inválido: escape unicode incompleto.");
+                        }
+                        try {
+                            sb.append((char) Integer.parseInt(json.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("JSON inválido: escape unicode inválido.");
+                        }
+                        pos += 4;
+                        break;
+                    default: sb.append(escape);
+                }
+            }
+        }
+    }
+}
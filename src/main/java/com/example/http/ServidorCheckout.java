@@ -0,0 +1,502 @@
+package com.example.http;
+
+import com.example.cache.CacheWTinyLfu;
+import com.example.controller.CompraController;
+import com.example.evento.EventoCompra;
+import com.example.metricas.Metricas;
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import com.example.model.ItemCompra;
+import com.example.model.VersaoPreco;
+import com.example.repository.CatalogoIngressos;
+import com.example.repository.ClienteRepositoryNoHeap;
+import com.example.repository.IngressoRepository;
+import com.example.reserva.Agendamento;
+import com.example.reserva.GerenciadorReservas;
+import com.example.reserva.RodaTemporizacao;
+import com.example.service.ClienteService;
+import com.example.service.IngressoService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor HTTP embutido (com.sun.net.httpserver, do próprio JDK) na frente
+ * do CompraController. Não depende de nenhum serviço externo.
+ * Padrão GRASP aplicado: LOW COUPLING
+ * Justificativa: o servidor só traduz HTTP/JSON para chamadas aos services e
+ * ao controller, do mesmo jeito que o main de demonstração; nenhuma regra de
+ * negócio mora aqui.
+ *
+ * Rotas (corpos em JSON):
+ * <pre>
+ * GET  /ingressos                      lista de ingressos com preço e disponível
+ * GET  /clientes/{email}               dados do cliente
+ * POST /compras                        {"email":...} inicia uma compra (201)
+ * GET  /compras/{codigo}               compra em andamento ou finalizada
+ * POST /compras/{codigo}/itens         {"tipo":...,"quantidade":...}
+ * POST /compras/{codigo}/finalizar     finaliza a compra
+ * GET  /metricas                       contadores e latências (texto, ver Metricas.relatorio)
+ * </pre>
+ *
+ * Cada requisição roda numa thread virtual quando a JVM oferece
+ * ({@code Executors.newVirtualThreadPerTaskExecutor}, Java 21+); em JVMs
+ * anteriores cai para um pool de threads sem limite fixo.
+ *
+ * Compras abertas pela API ficam num mapa até serem finalizadas ou
+ * expirarem. Para que carrinhos abandonados (inclusive os vazios, que o
+ * GerenciadorReservas não acompanha) não se acumulem, cada compra ganha um
+ * prazo na RodaTemporizacao: vencido, ela expira e devolve o que segurava.
+ * O número de compras abertas também é limitado; acima dele, POST /compras
+ * responde 503.
+ */
+public class ServidorCheckout implements AutoCloseable {
+    private static final int LIMITE_CORPO = 64 * 1024;
+    /** Prazo padrão de uma compra aberta pela API. */
+    public static final long PRAZO_COMPRA_PADRAO_MS = TimeUnit.MINUTES.toMillis(15);
+    /** Máximo padrão de compras abertas ao mesmo tempo. */
+    public static final int LIMITE_COMPRAS_ABERTAS_PADRAO = 100_000;
+
+    static {
+        // O servidor do JDK escreve cabeçalhos e corpo em duas escritas; com o
+        // algoritmo de Nagle ligado, a segunda espera o ACK atrasado do cliente
+        // (~40 ms por resposta). Precisa ser definido antes do primeiro HttpServer.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer servidor;
+    private final ExecutorService executor;
+    private final boolean threadsVirtuais;
+    private final IngressoService ingressoService;
+    private final ClienteService clienteService;
+    private final CompraController controller;
+    private final Map<String, Compra> abertas = new ConcurrentHashMap<>();
+    private final AtomicInteger quantidadeAbertas = new AtomicInteger(); // exata, ao contrário de abertas.size()
+    private final RodaTemporizacao roda;
+    private final boolean rodaPropria;
+    private final long prazoCompraMs;
+    private final int limiteAbertas;
+
+    /** Servidor com prazo e limite padrão de compras abertas, numa roda de temporização própria. */
+    public ServidorCheckout(InetSocketAddress endereco, IngressoService ingressoService,
+                            ClienteService clienteService, CompraController controller) throws IOException {
+        this(endereco, ingressoService, clienteService, controller, RodaTemporizacao.iniciarPadrao(), true,
+                PRAZO_COMPRA_PADRAO_MS, LIMITE_COMPRAS_ABERTAS_PADRAO);
+    }
+
+    /**
+     * @param roda roda que expira as compras abandonadas (não é fechada pelo servidor)
+     * @param prazoCompra tempo que uma compra aberta pela API tem para ser finalizada
+     * @param limiteAbertas máximo de compras abertas ao mesmo tempo
+     */
+    public ServidorCheckout(InetSocketAddress endereco, IngressoService ingressoService,
+                            ClienteService clienteService, CompraController controller, RodaTemporizacao roda,
+                            long prazoCompra, TimeUnit unidade, int limiteAbertas) throws IOException {
+        this(endereco, ingressoService, clienteService, controller, roda, false,
+                unidade.toMillis(prazoCompra), limiteAbertas);
+    }
+
+    private ServidorCheckout(InetSocketAddress endereco, IngressoService ingressoService,
+                             ClienteService clienteService, CompraController controller, RodaTemporizacao roda,
+                             boolean rodaPropria, long prazoCompraMs, int limiteAbertas) throws IOException {
+        if (prazoCompraMs <= 0 || limiteAbertas <= 0) {
+            throw new IllegalArgumentException("Prazo e limite de compras abertas devem ser positivos.");
+        }
+        this.ingressoService = ingressoService;
+        this.clienteService = clienteService;
+        this.controller = controller;
+        this.roda = roda;
+        this.rodaPropria = rodaPropria;
+        this.prazoCompraMs = prazoCompraMs;
+        this.limiteAbertas = limiteAbertas;
+        ExecutorService virtual = executorVirtual();
+        this.threadsVirtuais = virtual != null;
+        this.executor = virtual != null ? virtual : executorPlataforma();
+        this.servidor = HttpServer.create(endereco, 4096);
+        servidor.setExecutor(executor);
+        servidor.createContext("/", this::atender);
+    }
+
+    private static ExecutorService executorVirtual() {
+        try {
+            Method fabrica = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) fabrica.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService executorPlataforma() {
+        AtomicInteger contador = new AtomicInteger();
+        return Executors.newCachedThreadPool(tarefa -> {
+            Thread thread = new Thread(tarefa, "http-checkout-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public ServidorCheckout iniciar() {
+        servidor.start();
+        return this;
+    }
+
+    public int getPorta() {
+        return servidor.getAddress().getPort();
+    }
+
+    /** Indica se as requisições estão rodando em threads virtuais. */
+    public boolean isThreadsVirtuais() {
+        return threadsVirtuais;
+    }
+
+    /** Compras iniciadas pela API que ainda não foram finalizadas nem expiraram. */
+    public int getComprasAbertas() {
+        return abertas.size();
+    }
+
+    private void atender(HttpExchange troca) throws IOException {
+        Resposta resposta;
+        try {
+            resposta = rotear(troca.getRequestMethod(), segmentos(troca.getRequestURI().getPath()), troca);
+        } catch (IllegalArgumentException e) {
+            resposta = Resposta.erro(400, e.getMessage());
+        } catch (RuntimeException e) {
+            resposta = Resposta.erro(500, "Erro interno: " + e.getClass().getSimpleName());
+        }
+        byte[] corpo = resposta.corpo.getBytes(StandardCharsets.UTF_8);
+        troca.getResponseHeaders().set("Content-Type", resposta.tipoConteudo);
+        troca.sendResponseHeaders(resposta.status, corpo.length);
+        try (OutputStream saida = troca.getResponseBody()) {
+            saida.write(corpo);
+        }
+    }
+
+    private static String[] segmentos(String caminho) {
+        String limpo = caminho.startsWith("/") ? caminho.substring(1) : caminho;
+        if (limpo.endsWith("/")) {
+            limpo = limpo.substring(0, limpo.length() - 1);
+        }
+        return limpo.isEmpty() ? new String[0] : limpo.split("/");
+    }
+
+    private Resposta rotear(String metodo, String[] caminho, HttpExchange troca) throws IOException {
+        if (caminho.length == 0) {
+            return Resposta.erro(404, "Rota não encontrada.");
+        }
+        switch (caminho[0]) {
+            case "ingressos":
+                if (caminho.length == 1) {
+                    return exigirMetodo("GET", metodo) ? listarIngressos() : Resposta.metodoInvalido();
+                }
+                break;
+            case "clientes":
+                if (caminho.length == 2) {
+                    return exigirMetodo("GET", metodo) ? buscarCliente(caminho[1]) : Resposta.metodoInvalido();
+                }
+                break;
+            case "compras":
+                if (caminho.length == 1) {
+                    return exigirMetodo("POST", metodo) ? iniciarCompra(lerCorpo(troca)) : Resposta.metodoInvalido();
+                }
+                if (caminho.length == 2) {
+                    return exigirMetodo("GET", metodo) ? buscarCompra(caminho[1]) : Resposta.metodoInvalido();
+                }
+                if (caminho.length == 3 && caminho[2].equals("itens")) {
+                    return exigirMetodo("POST", metodo)
+                            ? adicionarItem(caminho[1], lerCorpo(troca)) : Resposta.metodoInvalido();
+                }
+                if (caminho.length == 3 && caminho[2].equals("finalizar")) {
+                    return exigirMetodo("POST", metodo) ? finalizar(caminho[1]) : Resposta.metodoInvalido();
+                }
+                break;
+            case "metricas":
+                if (caminho.length == 1) {
+                    return exigirMetodo("GET", metodo) ? Resposta.texto(Metricas.relatorio()) : Resposta.metodoInvalido();
+                }
+                break;
+            default:
+                break;
+        }
+        return Resposta.erro(404, "Rota não encontrada.");
+    }
+
+    private static boolean exigirMetodo(String esperado, String metodo) {
+        return esperado.equals(metodo);
+    }
+
+    private static Map<String, String> lerCorpo(HttpExchange troca) throws IOException {
+        try (InputStream entrada = troca.getRequestBody()) {
+            byte[] bytes = entrada.readNBytes(LIMITE_CORPO + 1);
+            if (bytes.length > LIMITE_CORPO) {
+                throw new IllegalArgumentException("Corpo da requisição muito grande.");
+            }
+            return JsonSimples.lerObjeto(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String campoObrigatorio(Map<String, String> corpo, String nome) {
+        String valor = corpo.get(nome);
+        if (valor == null || valor.isEmpty()) {
+            throw new IllegalArgumentException("Campo obrigatório: " + nome);
+        }
+        return valor;
+    }
+
+    private Resposta listarIngressos() {
+        StringBuilder sb = new StringBuilder(256).append('[');
+        CatalogoIngressos catalogo = ingressoService.catalogo(); // preços de uma única versão
+        for (int i = 0; i < catalogo.getTamanho(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            escreverIngresso(sb, catalogo.getIngresso(i), catalogo.getPreco(i));
+        }
+        return Resposta.ok(200, sb.append(']').toString());
+    }
+
+    private Resposta buscarCliente(String email) {
+        Optional<Cliente> cliente = clienteService.getCliente(email);
+        if (cliente.isEmpty()) {
+            return Resposta.erro(404, "Cliente não encontrado: " + email);
+        }
+        StringBuilder sb = new StringBuilder(96).append("{\"nome\":");
+        JsonSimples.texto(sb, cliente.get().getNome()).append(",\"email\":");
+        JsonSimples.texto(sb, cliente.get().getEmail()).append('}');
+        return Resposta.ok(200, sb.toString());
+    }
+
+    private Resposta iniciarCompra(Map<String, String> corpo) {
+        String email = campoObrigatorio(corpo, "email");
+        Optional<Cliente> cliente = clienteService.getCliente(email);
+        if (cliente.isEmpty()) {
+            return Resposta.erro(404, "Cliente não encontrado: " + email);
+        }
+        if (quantidadeAbertas.incrementAndGet() > limiteAbertas) {
+            quantidadeAbertas.decrementAndGet();
+            return Resposta.erro(503, "Muitas compras em andamento; tente novamente.");
+        }
+        Compra compra;
+        Agendamento prazo;
+        try {
+            compra = controller.iniciarNovaCompra(cliente.get());
+            prazo = roda.agendar(prazoCompraMs, TimeUnit.MILLISECONDS, () -> abandonar(compra));
+        } catch (RuntimeException e) {
+            quantidadeAbertas.decrementAndGet();
+            throw e;
+        }
+        String codigo = compra.getCodigoCompra();
+        abertas.put(codigo, compra);
+        // finalizada, expirada pela reserva do controller ou abandonada: deixa de ser acompanhada
+        compra.aoEncerrar(() -> {
+            prazo.cancelar();
+            if (abertas.remove(codigo) != null) {
+                quantidadeAbertas.decrementAndGet();
+            }
+        });
+        return Resposta.ok(201, escreverCompra(compra));
+    }
+
+    /** Prazo da compra vencido na roda: devolve o estoque retido, como uma reserva expirada. */
+    private void abandonar(Compra compra) {
+        if (compra.expirar()) {
+            controller.getEventos().publicar(EventoCompra.compraExpirada(compra));
+        }
+    }
+
+    private Resposta buscarCompra(String codigo) {
+        Compra compra = abertas.get(codigo);
+        if (compra == null) {
+            compra = controller.buscarCompra(codigo).orElse(null);
+        }
+        if (compra == null) {
+            return Resposta.erro(404, "Compra não encontrada: " + codigo);
+        }
+        return Resposta.ok(200, escreverCompra(compra));
+    }
+
+    private Resposta adicionarItem(String codigo, Map<String, String> corpo) {
+        String tipo = campoObrigatorio(corpo, "tipo");
+        int quantidade;
+        try {
+            quantidade = Integer.parseInt(campoObrigatorio(corpo, "quantidade"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Quantidade inválida.");
+        }
+        if (quantidade <= 0) {
+            throw new IllegalArgumentException("Quantidade deve ser positiva.");
+        }
+        Compra compra = abertas.get(codigo);
+        if (compra == null) {
+            return compraIndisponivel(codigo);
+        }
+        Optional<Ingresso> ingresso = ingressoService.getIngresso(tipo);
+        if (ingresso.isEmpty()) {
+            return Resposta.erro(404, "Ingresso não encontrado: " + tipo);
+        }
+        if (!controller.adicionarItemNaCompra(compra, ingresso.get(), quantidade)) {
+            return Resposta.erro(409, motivoRejeicao(compra, "Ingressos insuficientes: " + tipo));
+        }
+        return Resposta.ok(200, escreverCompra(compra));
+    }
+
+    private Resposta finalizar(String codigo) {
+        Compra compra = abertas.get(codigo);
+        if (compra == null) {
+            return compraIndisponivel(codigo);
+        }
+        if (!controller.finalizarCompra(compra)) {
+            return Resposta.erro(409, motivoRejeicao(compra, "Não é possível finalizar uma compra vazia."));
+        }
+        return Resposta.ok(200, escreverCompra(compra));
+    }
+
+    private Resposta compraIndisponivel(String codigo) {
+        if (controller.buscarCompra(codigo).isPresent()) {
+            return Resposta.erro(409, "Compra já finalizada: " + codigo);
+        }
+        return Resposta.erro(404, "Compra não encontrada: " + codigo);
+    }
+
+    /** A rejeição em si vai para os eventos; aqui o motivo é deduzido do estado da compra. */
+    private String motivoRejeicao(Compra compra, String padrao) {
+        String status = compra.getStatus();
+        if (status.equals("Expirada")) {
+            return "Reserva expirada: " + compra.getCodigoCompra();
+        }
+        if (status.equals("Finalizada")) {
+            return "Compra já finalizada: " + compra.getCodigoCompra();
+        }
+        return padrao;
+    }
+
+    private static void escreverIngresso(StringBuilder sb, Ingresso ingresso, VersaoPreco preco) {
+        sb.append("{\"tipo\":");
+        JsonSimples.texto(sb, ingresso.getTipo())
+                .append(",\"precoCentavos\":").append(preco.getPrecoCentavos())
+                .append(",\"disponivel\":").append(ingresso.getQuantidadeDisponivel())
+                .append('}');
+    }
+
+    private static String escreverCompra(Compra compra) {
+        StringBuilder sb = new StringBuilder(256);
+        // o monitor da compra protege a lista de itens contra adições concorrentes
+        synchronized (compra) {
+            sb.append("{\"codigo\":");
+            JsonSimples.texto(sb, compra.getCodigoCompra()).append(",\"cliente\":");
+            JsonSimples.texto(sb, compra.getCliente().getEmail()).append(",\"status\":");
+            JsonSimples.texto(sb, compra.getStatus())
+                    .append(",\"totalCentavos\":").append(compra.calcularTotalCentavos())
+                    .append(",\"itens\":[");
+            boolean primeiro = true;
+            for (ItemCompra item : compra.getItens()) {
+                if (!primeiro) {
+                    sb.append(',');
+                }
+                primeiro = false;
+                sb.append("{\"tipo\":");
+                JsonSimples.texto(sb, item.getIngresso().getTipo())
+                        .append(",\"quantidade\":").append(item.getQuantidade())
+                        .append(",\"precoUnitarioCentavos\":").append(item.getPrecoUnitarioCentavos())
+                        .append(",\"subtotalCentavos\":").append(item.getSubtotalCentavos())
+                        .append('}');
+            }
+        }
+        return sb.append("]}").toString();
+    }
+
+    /** Encerra o servidor, esperando no máximo {@code segundos} pelas requisições em curso. */
+    public void parar(int segundos) {
+        servidor.stop(segundos);
+        if (rodaPropria) {
+            roda.close();
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(segundos + 1L, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        parar(0);
+    }
+
+    private static final class Resposta {
+        final int status;
+        final String corpo;
+        final String tipoConteudo;
+
+        private Resposta(int status, String corpo, String tipoConteudo) {
+            this.status = status;
+            this.corpo = corpo;
+            this.tipoConteudo = tipoConteudo;
+        }
+
+        static Resposta ok(int status, String corpo) {
+            return new Resposta(status, corpo, "application/json; charset=utf-8");
+        }
+
+        static Resposta texto(String corpo) {
+            return new Resposta(200, corpo, "text/plain; charset=utf-8");
+        }
+
+        static Resposta erro(int status, String mensagem) {
+            StringBuilder sb = new StringBuilder(64).append("{\"erro\":");
+            return ok(status, JsonSimples.texto(sb, mensagem).append('}').toString());
+        }
+
+        static Resposta metodoInvalido() {
+            return erro(405, "Método não permitido.");
+        }
+    }
+
+    /**
+     * Sobe o servidor com os dados de exemplo da demonstração.
+     * Uso: {@code mvn exec:java -Dexec.mainClass=com.example.http.ServidorCheckout [-Dexec.args=8080]}
+     */
+    public static void main(String[] args) throws IOException {
+        int porta = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        ServidorCheckout servidor = comDadosDeExemplo(new InetSocketAddress(porta)).iniciar();
+        System.out.printf("Servidor de checkout em http://localhost:%d (threads virtuais: %s)%n",
+                servidor.getPorta(), servidor.isThreadsVirtuais() ? "sim" : "não, pool de threads");
+    }
+
+    /**
+     * Servidor com os ingressos e clientes da demonstração, com estoque grande para testes de carga
+     * e caches W-TinyLFU na frente dos repositórios (contadores em /metricas, {@code cache.*}).
+     * Itens seguram o estoque por 10 minutos (GerenciadorReservas); compras abertas, por 15.
+     */
+    public static ServidorCheckout comDadosDeExemplo(InetSocketAddress endereco) throws IOException {
+        IngressoService ingressoService = new IngressoService(new IngressoRepository(),
+                new CacheWTinyLfu<>("ingressos", 1_000));
+        ingressoService.criarIngresso("Pista", 120.0, 50_000_000, 16);
+        ingressoService.criarIngresso("VIP", 220.0, 10_000_000, 16);
+        ingressoService.criarIngresso("Camarote", 380.0, 1_000_000, 16);
+        ClienteService clienteService = new ClienteService(new ClienteRepositoryNoHeap(),
+                new CacheWTinyLfu<>("clientes", 100_000));
+        clienteService.criarCliente("Ana Souza", "ana@email.com");
+        clienteService.criarCliente("Carlos Lima", "carlos@email.com");
+        RodaTemporizacao roda = RodaTemporizacao.iniciarPadrao();
+        CompraController controller = new CompraController();
+        controller.setReservas(new GerenciadorReservas(roda, 10, TimeUnit.MINUTES));
+        return new ServidorCheckout(endereco, ingressoService, clienteService, controller, roda, true,
+                PRAZO_COMPRA_PADRAO_MS, LIMITE_COMPRAS_ABERTAS_PADRAO);
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.http;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Teste de carga local do ServidorCheckout: várias conexões executam o
+ * checkout completo (iniciar, adicionar item, finalizar) em laço e, ao fim,
+ * o teste informa requisições por segundo e latências p50/p99/máxima.
+ *
+ * Uso: {@code java -cp target/classes com.example.http.TesteCarga [conexoes] [segundos] [url]}
+ * (url no formato {@code http://host:porta}).
+ * Sem url, sobe um servidor local com os dados de exemplo numa porta livre.
+ */
+public class TesteCarga {
+
+    public static void main(String[] args) throws Exception {
+        int conexoes = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int segundos = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        ServidorCheckout local = null;
+        String url;
+        if (args.length > 2) {
+            url = args[2];
+        } else {
+            local = ServidorCheckout.comDadosDeExemplo(new InetSocketAddress("127.0.0.1", 0)).iniciar();
+            url = "http://127.0.0.1:" + local.getPorta();
+        }
+        try {
+            Resultado resultado = executar(url, conexoes, TimeUnit.SECONDS.toNanos(segundos));
+            System.out.println(resultado);
+        } finally {
+            if (local != null) {
+                local.close();
+            }
+        }
+    }
+
+    /** Dispara a carga por {@code duracaoNanos} e consolida as latências de todas as conexões. */
+    public static Resultado executar(String url, int conexoes, long duracaoNanos) throws InterruptedException {
+        URI destino = URI.create(url);
+        Latencias[] porConexao = new Latencias[conexoes];
+        AtomicLong erros = new AtomicLong();
+        CountDownLatch fim = new CountDownLatch(conexoes);
+        long inicio = System.nanoTime();
+        long limite = inicio + duracaoNanos;
+        for (int c = 0; c < conexoes; c++) {
+            Latencias latencias = new Latencias();
+            porConexao[c] = latencias;
+            Thread thread = new Thread(() -> {
+                try {
+                    Conexao conexao = null;
+                    while (System.nanoTime() < limite) {
+                        try {
+                            if (conexao == null) {
+                                conexao = new Conexao(destino);
+                            }
+                            if (!checkout(conexao, latencias)) {
+                                erros.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            erros.incrementAndGet();
+                            fechar(conexao);
+                            conexao = null;
+                        }
+                    }
+                    fechar(conexao);
+                } finally {
+                    fim.countDown();
+                }
+            }, "carga-" + c);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        fim.await();
+        long decorrido = System.nanoTime() - inicio;
+
+        int total = 0;
+        for (Latencias latencias : porConexao) {
+            total += latencias.tamanho;
+        }
+        long[] todas = new long[total];
+        int pos = 0;
+        for (Latencias latencias : porConexao) {
+            System.arraycopy(latencias.valores, 0, todas, pos, latencias.tamanho);
+            pos += latencias.tamanho;
+        }
+        Arrays.sort(todas);
+        return new Resultado(conexoes, todas, erros.get(), decorrido);
+    }
+
+    /** Um checkout completo; false se alguma etapa respondeu com status inesperado. */
+    private static boolean checkout(Conexao conexao, Latencias latencias) throws IOException {
+        String compra = conexao.post("/compras", "{\"email\":\"ana@email.com\"}", 201, latencias);
+        if (compra == null) {
+            return false;
+        }
+        String codigo = extrairCodigo(compra);
+        return conexao.post("/compras/" + codigo + "/itens", "{\"tipo\":\"Pista\",\"quantidade\":2}", 200, latencias) != null
+                && conexao.post("/compras/" + codigo + "/finalizar", "", 200, latencias) != null;
+    }
+
+    private static String extrairCodigo(String json) {
+        int inicio = json.indexOf("\"codigo\":\"") + 10;
+        return json.substring(inicio, json.indexOf('"', inicio));
+    }
+
+    private static void fechar(Conexao conexao) {
+        if (conexao != null) {
+            conexao.fechar();
+        }
+    }
+
+    /**
+     * Cliente HTTP/1.1 mínimo com keep-alive sobre um socket. Cada requisição
+     * sai numa única escrita com TCP_NODELAY, para o teste medir o servidor e
+     * não o cliente (o HttpClient do JDK envia cabeçalho e corpo separados).
+     */
+    private static final class Conexao {
+        private final Socket socket;
+        private final OutputStream saida;
+        private final BufferedInputStream entrada;
+        private final String host;
+
+        Conexao(URI destino) throws IOException {
+            this.socket = new Socket(destino.getHost(), destino.getPort());
+            socket.setTcpNoDelay(true);
+            this.saida = socket.getOutputStream();
+            this.entrada = new BufferedInputStream(socket.getInputStream());
+            this.host = destino.getHost() + ":" + destino.getPort();
+        }
+
+        String post(String caminho, String corpo, int esperado, Latencias latencias) throws IOException {
+            byte[] bytesCorpo = corpo.getBytes(StandardCharsets.UTF_8);
+            String cabecalho = "POST " + caminho + " HTTP/1.1\r\nHost: " + host
+                    + "\r\nContent-Type: application/json\r\nContent-Length: " + bytesCorpo.length + "\r\n\r\n";
+            byte[] bytesCabecalho = cabecalho.getBytes(StandardCharsets.US_ASCII);
+            byte[] requisicao = Arrays.copyOf(bytesCabecalho, bytesCabecalho.length + bytesCorpo.length);
+            System.arraycopy(bytesCorpo, 0, requisicao, bytesCabecalho.length, bytesCorpo.length);
+
+            long antes = System.nanoTime();
+            saida.write(requisicao);
+            saida.flush();
+            int status = lerStatus();
+            String resposta = lerCorpo();
+            latencias.registrar(System.nanoTime() - antes);
+            return status == esperado ? resposta : null;
+        }
+
+        private int lerStatus() throws IOException {
+            String linha = lerLinha();
+            if (!linha.startsWith("HTTP/1.1 ") || linha.length() < 12) {
+                throw new IOException("Resposta inválida: " + linha);
+            }
+            return Integer.parseInt(linha.substring(9, 12));
+        }
+
+        private String lerCorpo() throws IOException {
+            int tamanho = -1;
+            String linha;
+            while (!(linha = lerLinha()).isEmpty()) {
+                int separador = linha.indexOf(':');
+                if (separador > 0 && linha.substring(0, separador).equalsIgnoreCase("Content-Length")) {
+                    tamanho = Integer.parseInt(linha.substring(separador + 1).trim());
+                }
+            }
+            if (tamanho < 0) {
+                throw new IOException("Resposta sem Content-Length.");
+            }
+            byte[] corpo = entrada.readNBytes(tamanho);
+            if (corpo.length < tamanho) {
+                throw new IOException("Conexão encerrada no meio da resposta.");
+            }
+            return new String(corpo, StandardCharsets.UTF_8);
+        }
+
+        private String lerLinha() throws IOException {
+            StringBuilder sb = new StringBuilder(64);
+            int b;
+            while ((b = entrada.read()) != '\n') {
+                if (b < 0) {
+                    throw new IOException("Conexão encerrada pelo servidor.");
+                }
+                if (b != '\r') {
+                    sb.append((char) b);
+                }
+            }
+            return sb.toString();
+        }
+
+        void fechar() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // nada a fazer: a conexão já não é usada
+            }
+        }
+    }
+
+    /** Latências de uma conexão, sem sincronização (cada thread tem a sua). */
+    private static final class Latencias {
+        long[] valores = new long[4096];
+        int tamanho;
+
+        void registrar(long nanos) {
+            if (tamanho == valores.length) {
+                valores = Arrays.copyOf(valores, tamanho * 2);
+            }
+            valores[tamanho++] = nanos;
+        }
+    }
+
+    /** Resumo da execução. As latências chegam ordenadas. */
+    public static final class Resultado {
+        private final int conexoes;
+        private final long[] latencias;
+        private final long erros;
+        private final long duracaoNanos;
+
+        Resultado(int conexoes, long[] latencias, long erros, long duracaoNanos) {
+            this.conexoes = conexoes;
+            this.latencias = latencias;
+            this.erros = erros;
+            this.duracaoNanos = duracaoNanos;
+        }
+
+        public long getRequisicoes() {
+            return latencias.length;
+        }
+
+        public long getErros() {
+            return erros;
+        }
+
+        public double getRequisicoesPorSegundo() {
+            return latencias.length * 1e9 / duracaoNanos;
+        }
+
+        /** Percentil em microssegundos (ex.: 0.99 para p99). */
+        public double percentilMicros(double percentil) {
+            if (latencias.length == 0) {
+                return 0;
+            }
+            int indice = (int) Math.min(latencias.length - 1, Math.ceil(percentil * latencias.length) - 1);
+            return latencias[Math.max(0, indice)] / 1_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("conexões=%d requisições=%,d erros=%d req/s=%,.0f p50=%.0fµs p99=%.0fµs máx=%.0fµs",
+                    conexoes, getRequisicoes(), erros, getRequisicoesPorSegundo(),
+                    percentilMicros(0.50), percentilMicros(0.99), percentilMicros(1.0));
+        }
+    }
+}
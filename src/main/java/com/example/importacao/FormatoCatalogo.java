@@ -0,0 +1,20 @@
+package com.example.importacao;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Formatos aceitos pela importação de catálogos.
+ */
+public enum FormatoCatalogo {
+    /** Valores separados por vírgula; a primeira linha é o cabeçalho com os nomes das colunas. */
+    CSV,
+    /** Um objeto JSON plano por linha (newline-delimited JSON). */
+    NDJSON;
+
+    /** Escolhe pelo nome do arquivo: {@code .ndjson}/{@code .jsonl} são NDJSON; o resto, CSV. */
+    public static FormatoCatalogo doArquivo(Path arquivo) {
+        String nome = arquivo.getFileName().toString().toLowerCase(Locale.ROOT);
+        return nome.endsWith(".ndjson") || nome.endsWith(".jsonl") ? NDJSON : CSV;
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.importacao;
+
+import com.example.model.Cliente;
+import com.example.model.Ingresso;
+import com.example.repository.ClienteRepository;
+import com.example.repository.ClienteRepositoryNoHeap;
+import com.example.repository.IngressoRepository;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/**
+ * Carga em massa dos catálogos de clientes e ingressos a partir de arquivos
+ * CSV ou NDJSON. O arquivo é lido em blocos por um {@link FileChannel} e
+ * interpretado direto nos bytes; as linhas válidas seguem em lotes para
+ * {@code insertAll} do repositório, que recusa chaves repetidas na mesma
+ * passada em que insere (no arquivo ou já cadastradas). Linhas inválidas não
+ * interrompem a carga: são contadas e as primeiras ficam no resultado com o motivo.
+ *
+ * Colunas esperadas: {@code nome,email} para clientes e
+ * {@code tipo,preco,quantidade} para ingressos (preço em reais, com ponto decimal).
+ *
+ * Uso: {@code java -cp target/classes com.example.importacao.ImportadorCatalogo clientes|ingressos <arquivo>}
+ * importa para um repositório vazio e imprime o resultado (linhas por segundo e rejeições).
+ *
+ * Padrão GRASP aplicado: CONTROLLER
+ * Justificativa: coordena leitura, validação e gravação da carga sem que os
+ * repositórios ou serviços precisem conhecer formatos de arquivo.
+ */
+public class ImportadorCatalogo {
+
+    public static final int TAMANHO_LOTE_PADRAO = 65_536;
+
+    /** Quantas rejeições entram no resultado com número de linha e motivo. */
+    public static final int MAX_REJEICOES_DETALHADAS = 100;
+
+    private final int tamanhoLote;
+
+    public ImportadorCatalogo() {
+        this(TAMANHO_LOTE_PADRAO);
+    }
+
+    public ImportadorCatalogo(int tamanhoLote) {
+        if (tamanhoLote <= 0) {
+            throw new IllegalArgumentException("Tamanho de lote deve ser positivo.");
+        }
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /** Formato escolhido pela extensão do arquivo (ver {@link FormatoCatalogo#doArquivo}). */
+    public ResultadoImportacao importarClientes(Path arquivo, ClienteRepository repositorio) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            return importarClientes(canal, FormatoCatalogo.doArquivo(arquivo), repositorio);
+        }
+    }
+
+    public ResultadoImportacao importarClientes(ReadableByteChannel canal, FormatoCatalogo formato,
+                                                ClienteRepository repositorio) throws IOException {
+        return importar(canal, LeitorCatalogo.criar(formato, "nome", "email"), new CargaClientes(repositorio));
+    }
+
+    /** Formato escolhido pela extensão do arquivo (ver {@link FormatoCatalogo#doArquivo}). */
+    public ResultadoImportacao importarIngressos(Path arquivo, IngressoRepository repositorio) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            return importarIngressos(canal, FormatoCatalogo.doArquivo(arquivo), repositorio);
+        }
+    }
+
+    public ResultadoImportacao importarIngressos(ReadableByteChannel canal, FormatoCatalogo formato,
+                                                 IngressoRepository repositorio) throws IOException {
+        return importar(canal, LeitorCatalogo.criar(formato, "tipo", "preco", "quantidade"),
+                new CargaIngressos(repositorio));
+    }
+
+    private ResultadoImportacao importar(ReadableByteChannel canal, LeitorCatalogo leitor, Carga<?> carga)
+            throws IOException {
+        long inicio = System.nanoTime();
+        leitor.ler(canal, carga);
+        carga.descarregar();
+        return new ResultadoImportacao(carga.lidas, carga.importadas, carga.rejeitadas,
+                System.nanoTime() - inicio, carga.rejeicoes);
+    }
+
+    private static boolean vazio(String valor) {
+        return valor == null || valor.isEmpty();
+    }
+
+    /** Acumula as linhas válidas em lote e conta o que foi lido, gravado e recusado. */
+    private abstract class Carga<T> implements LeitorCatalogo.Destino {
+        final List<T> lote = new ArrayList<>(tamanhoLote);
+        final long[] linhasDoLote = new long[tamanhoLote];
+        final List<LinhaRejeitada> rejeicoes = new ArrayList<>();
+        final IntConsumer aoRecusar = indice -> rejeitar(linhasDoLote[indice], motivoDuplicado());
+        long lidas;
+        long importadas;
+        long rejeitadas;
+
+        /** @return null se os valores forem válidos; senão, o motivo da rejeição */
+        abstract String validar(String[] valores);
+
+        abstract T criar(String[] valores);
+
+        abstract int gravar(List<T> lote, IntConsumer aoRecusar);
+
+        abstract String motivoDuplicado();
+
+        @Override
+        public void linha(long numero, String[] valores) {
+            lidas++;
+            String motivo = validar(valores);
+            if (motivo != null) {
+                rejeitar(numero, motivo);
+                return;
+            }
+            linhasDoLote[lote.size()] = numero;
+            lote.add(criar(valores));
+            if (lote.size() == tamanhoLote) {
+                descarregar();
+            }
+        }
+
+        @Override
+        public void rejeitada(long numero, String motivo) {
+            lidas++;
+            rejeitar(numero, motivo);
+        }
+
+        void rejeitar(long numero, String motivo) {
+            rejeitadas++;
+            if (rejeicoes.size() < MAX_REJEICOES_DETALHADAS) {
+                rejeicoes.add(new LinhaRejeitada(numero, motivo));
+            }
+        }
+
+        void descarregar() {
+            if (!lote.isEmpty()) {
+                importadas += gravar(lote, aoRecusar);
+                lote.clear();
+            }
+        }
+    }
+
+    private final class CargaClientes extends Carga<Cliente> {
+        private final ClienteRepository repositorio;
+
+        CargaClientes(ClienteRepository repositorio) {
+            this.repositorio = repositorio;
+        }
+
+        @Override
+        String validar(String[] valores) {
+            if (vazio(valores[0])) {
+                return "nome vazio";
+            }
+            String email = valores[1];
+            if (vazio(email)) {
+                return "email vazio";
+            }
+            int arroba = email.indexOf('@');
+            if (arroba <= 0 || arroba == email.length() - 1) {
+                return "email inválido: " + email;
+            }
+            return null;
+        }
+
+        @Override
+        Cliente criar(String[] valores) {
+            return new Cliente(valores[0], valores[1]);
+        }
+
+        @Override
+        int gravar(List<Cliente> lote, IntConsumer aoRecusar) {
+            return repositorio.insertAll(lote, aoRecusar);
+        }
+
+        @Override
+        String motivoDuplicado() {
+            return "email já cadastrado";
+        }
+    }
+
+    /**
+     * Tipos repetidos no arquivo são recusados na validação da linha; tipos já
+     * cadastrados (antes ou durante a carga) ficam para o {@code insertAll}, que
+     * os recusa ao gravar o lote, sem uma busca no repositório por linha.
+     * Preço e quantidade lidos na validação são guardados para {@link #criar},
+     * que o {@link Carga#linha} chama logo em seguida com a mesma linha.
+     */
+    private final class CargaIngressos extends Carga<Ingresso> {
+        private final IngressoRepository repositorio;
+        private final Set<String> tiposVistos = new HashSet<>();
+        private double preco;
+        private int quantidade;
+
+        CargaIngressos(IngressoRepository repositorio) {
+            this.repositorio = repositorio;
+        }
+
+        @Override
+        String validar(String[] valores) {
+            String tipo = valores[0];
+            if (vazio(tipo)) {
+                return "tipo vazio";
+            }
+            double preco;
+            int quantidade;
+            try {
+                preco = Double.parseDouble(valores[1]);
+            } catch (NullPointerException | NumberFormatException e) {
+                return "preço inválido: " + valores[1];
+            }
+            if (!(preco >= 0) || Double.isInfinite(preco)) {
+                return "preço inválido: " + valores[1];
+            }
+            try {
+                quantidade = Integer.parseInt(valores[2]);
+            } catch (NumberFormatException e) {
+                return "quantidade inválida: " + valores[2];
+            }
+            if (quantidade < 0) {
+                return "quantidade inválida: " + valores[2];
+            }
+            if (!tiposVistos.add(tipo)) {
+                return motivoDuplicado();
+            }
+            this.preco = preco;
+            this.quantidade = quantidade;
+            return null;
+        }
+
+        @Override
+        Ingresso criar(String[] valores) {
+            return new Ingresso(valores[0], preco, quantidade);
+        }
+
+        @Override
+        int gravar(List<Ingresso> lote, IntConsumer aoRecusar) {
+            return repositorio.insertAll(lote, aoRecusar);
+        }
+
+        @Override
+        String motivoDuplicado() {
+            return "tipo já cadastrado";
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2 || !(args[0].equals("clientes") || args[0].equals("ingressos"))) {
+            System.err.println("Uso: ImportadorCatalogo clientes|ingressos <arquivo>");
+            System.exit(2);
+        }
+        Path arquivo = Path.of(args[1]);
+        ImportadorCatalogo importador = new ImportadorCatalogo();
+        ResultadoImportacao resultado = args[0].equals("clientes")
+                ? importador.importarClientes(arquivo, new ClienteRepositoryNoHeap())
+                : importador.importarIngressos(arquivo, new IngressoRepository());
+        System.out.println(resultado);
+        for (LinhaRejeitada rejeicao : resultado.getPrimeirasRejeicoes()) {
+            System.out.println("  " + rejeicao);
+        }
+    }
+}
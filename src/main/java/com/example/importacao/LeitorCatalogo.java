@@ -0,0 +1,396 @@
+package com.example.importacao;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lê um catálogo em blocos de um canal NIO e interpreta cada linha direto
+ * sobre os bytes do buffer: só os campos pedidos viram String, e cada um
+ * uma única vez. Não há String por linha nem split.
+ *
+ * Padrão GRASP aplicado: PURE FABRICATION
+ * Justificativa: a leitura de bytes e o reconhecimento de CSV/NDJSON não são
+ * responsabilidade de nenhuma classe do domínio; ficam isolados aqui para o
+ * importador tratar apenas de validação e gravação.
+ */
+abstract class LeitorCatalogo {
+
+    /** Recebe as linhas interpretadas, na ordem do arquivo. */
+    interface Destino {
+        /** {@code valores} segue a ordem das colunas pedidas e é reutilizado na linha seguinte. */
+        void linha(long numero, String[] valores);
+
+        void rejeitada(long numero, String motivo);
+    }
+
+    private static final int TAMANHO_BUFFER = 1 << 20;
+
+    protected final String[] colunas;
+    protected final String[] valores;
+
+    private LeitorCatalogo(String[] colunas) {
+        this.colunas = colunas;
+        this.valores = new String[colunas.length];
+    }
+
+    static LeitorCatalogo criar(FormatoCatalogo formato, String... colunas) {
+        return formato == FormatoCatalogo.NDJSON ? new Ndjson(colunas) : new Csv(colunas);
+    }
+
+    /**
+     * Lê o canal até o fim. O buffer cresce quando uma linha não cabe nele;
+     * o pedaço de linha que sobra no fim de cada bloco é movido para o início
+     * antes da próxima leitura.
+     */
+    final void ler(ReadableByteChannel canal, Destino destino) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_BUFFER);
+        long numero = 0;
+        boolean primeiroBloco = true;
+        while (true) {
+            int lidos = canal.read(buffer);
+            byte[] dados = buffer.array();
+            int limite = buffer.position();
+            int pos = 0;
+            if (primeiroBloco && (limite >= 3 || lidos < 0)) {
+                primeiroBloco = false;
+                if (limite >= 3 && dados[0] == (byte) 0xEF && dados[1] == (byte) 0xBB && dados[2] == (byte) 0xBF) {
+                    pos = 3; // BOM do UTF-8
+                }
+            }
+            for (int nl = indice(dados, pos, limite); nl >= 0; nl = indice(dados, pos, limite)) {
+                processar(dados, pos, nl, ++numero, destino);
+                pos = nl + 1;
+            }
+            if (lidos < 0) {
+                if (pos < limite) {
+                    processar(dados, pos, limite, ++numero, destino);
+                }
+                return;
+            }
+            if (pos == 0 && limite == dados.length) {
+                buffer = ByteBuffer.allocate(dados.length * 2).put(dados, 0, limite);
+            } else {
+                System.arraycopy(dados, pos, dados, 0, limite - pos);
+                buffer.position(limite - pos);
+            }
+        }
+    }
+
+    private static int indice(byte[] dados, int de, int ate) {
+        for (int i = de; i < ate; i++) {
+            if (dados[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void processar(byte[] b, int inicio, int fim, long numero, Destino destino) {
+        if (fim > inicio && b[fim - 1] == '\r') {
+            fim--;
+        }
+        if (pularEspacos(b, inicio, fim) == fim) {
+            return; // linha em branco
+        }
+        if (cabecalho(b, inicio, fim)) {
+            return;
+        }
+        Arrays.fill(valores, null);
+        String erro;
+        try {
+            erro = interpretar(b, inicio, fim);
+        } catch (IllegalArgumentException e) {
+            erro = e.getMessage(); // por exemplo, escape unicode com dígitos inválidos
+        }
+        if (erro == null) {
+            destino.linha(numero, valores);
+        } else {
+            destino.rejeitada(numero, erro);
+        }
+    }
+
+    /** Consome a linha se ela for um cabeçalho, que não é entregue ao destino. */
+    boolean cabecalho(byte[] b, int inicio, int fim) {
+        return false;
+    }
+
+    /**
+     * Preenche {@link #valores} com os campos da linha {@code [inicio, fim)}.
+     * @return null se a linha for válida; senão, o motivo da rejeição
+     */
+    abstract String interpretar(byte[] b, int inicio, int fim);
+
+    static int pularEspacos(byte[] b, int p, int fim) {
+        while (p < fim && (b[p] == ' ' || b[p] == '\t')) {
+            p++;
+        }
+        return p;
+    }
+
+    /** Decodifica {@code [inicio, fim)} como UTF-8, sem os espaços das pontas. */
+    static String texto(byte[] b, int inicio, int fim) {
+        inicio = pularEspacos(b, inicio, fim);
+        while (fim > inicio && (b[fim - 1] == ' ' || b[fim - 1] == '\t')) {
+            fim--;
+        }
+        return new String(b, inicio, fim - inicio, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * CSV com cabeçalho: a primeira linha diz em que posição está cada coluna
+     * pedida (colunas extras são ignoradas). Campos podem vir entre aspas, com
+     * {@code ""} para aspas literais, mas não podem conter quebra de linha.
+     */
+    private static final class Csv extends LeitorCatalogo {
+        private int[] colunaDoCampo; // posição no arquivo -> índice em valores (ou -1)
+
+        Csv(String[] colunas) {
+            super(colunas);
+        }
+
+        @Override
+        boolean cabecalho(byte[] b, int inicio, int fim) {
+            if (colunaDoCampo != null) {
+                return false;
+            }
+            lerCabecalho(b, inicio, fim);
+            return true;
+        }
+
+        @Override
+        String interpretar(byte[] b, int inicio, int fim) {
+            int campo = 0;
+            int p = inicio;
+            while (true) {
+                int alvo = campo < colunaDoCampo.length ? colunaDoCampo[campo] : -1;
+                int q = pularEspacos(b, p, fim);
+                if (q < fim && b[q] == '"') {
+                    boolean aspasDuplas = false;
+                    int fechamento = q + 1;
+                    while (true) {
+                        if (fechamento >= fim) {
+                            return "aspas sem fechamento no campo " + (campo + 1);
+                        }
+                        if (b[fechamento] == '"') {
+                            if (fechamento + 1 < fim && b[fechamento + 1] == '"') {
+                                aspasDuplas = true;
+                                fechamento += 2;
+                                continue;
+                            }
+                            break;
+                        }
+                        fechamento++;
+                    }
+                    if (alvo >= 0) {
+                        String valor = new String(b, q + 1, fechamento - q - 1, StandardCharsets.UTF_8);
+                        valores[alvo] = aspasDuplas ? valor.replace("\"\"", "\"") : valor;
+                    }
+                    p = pularEspacos(b, fechamento + 1, fim);
+                    if (p < fim && b[p] != ',') {
+                        return "conteúdo após as aspas no campo " + (campo + 1);
+                    }
+                } else {
+                    while (q < fim && b[q] != ',') {
+                        q++;
+                    }
+                    if (alvo >= 0) {
+                        valores[alvo] = texto(b, p, q);
+                    }
+                    p = q;
+                }
+                campo++;
+                if (p >= fim) {
+                    break;
+                }
+                p++; // vírgula
+            }
+            if (campo != colunaDoCampo.length) {
+                return "esperados " + colunaDoCampo.length + " campos, encontrados " + campo;
+            }
+            return null;
+        }
+
+        private void lerCabecalho(byte[] b, int inicio, int fim) {
+            List<String> nomes = new ArrayList<>();
+            int p = inicio;
+            while (true) {
+                int q = p;
+                while (q < fim && b[q] != ',') {
+                    q++;
+                }
+                String nome = texto(b, p, q);
+                if (nome.length() >= 2 && nome.startsWith("\"") && nome.endsWith("\"")) {
+                    nome = nome.substring(1, nome.length() - 1);
+                }
+                nomes.add(nome);
+                if (q >= fim) {
+                    break;
+                }
+                p = q + 1;
+            }
+            int[] mapa = new int[nomes.size()];
+            Arrays.fill(mapa, -1);
+            for (int c = 0; c < colunas.length; c++) {
+                int posicao = -1;
+                for (int i = 0; i < nomes.size() && posicao < 0; i++) {
+                    if (nomes.get(i).equalsIgnoreCase(colunas[c])) {
+                        posicao = i;
+                    }
+                }
+                if (posicao < 0) {
+                    throw new IllegalArgumentException("Cabeçalho CSV sem a coluna '" + colunas[c] + "': " + nomes);
+                }
+                mapa[posicao] = c;
+            }
+            colunaDoCampo = mapa;
+        }
+    }
+
+    /**
+     * Um objeto JSON plano por linha. Chaves desconhecidas são ignoradas;
+     * {@code null} conta como campo ausente; objetos e listas aninhados rejeitam a linha.
+     */
+    private static final class Ndjson extends LeitorCatalogo {
+        private final byte[][] chaves;
+
+        Ndjson(String[] colunas) {
+            super(colunas);
+            chaves = new byte[colunas.length][];
+            for (int c = 0; c < colunas.length; c++) {
+                chaves[c] = colunas[c].getBytes(StandardCharsets.UTF_8);
+            }
+        }
+
+        @Override
+        String interpretar(byte[] b, int inicio, int fim) {
+            int p = pularEspacos(b, inicio, fim);
+            if (b[p] != '{') {
+                return "a linha não é um objeto JSON";
+            }
+            p = pularEspacos(b, p + 1, fim);
+            if (p < fim && b[p] == '}') {
+                p++;
+            } else {
+                while (true) {
+                    if (p >= fim || b[p] != '"') {
+                        return "esperada uma chave entre aspas na coluna " + (p - inicio + 1);
+                    }
+                    int fimChave = fimTexto(b, p + 1, fim);
+                    if (fimChave < 0) {
+                        return "texto sem fechamento";
+                    }
+                    int alvo = coluna(b, p + 1, fimChave);
+                    p = pularEspacos(b, fimChave + 1, fim);
+                    if (p >= fim || b[p] != ':') {
+                        return "esperado ':' na coluna " + (p - inicio + 1);
+                    }
+                    p = pularEspacos(b, p + 1, fim);
+                    if (p < fim && b[p] == '"') {
+                        int fimValor = fimTexto(b, p + 1, fim);
+                        if (fimValor < 0) {
+                            return "texto sem fechamento";
+                        }
+                        if (alvo >= 0) {
+                            valores[alvo] = decodificar(b, p + 1, fimValor);
+                        }
+                        p = fimValor + 1;
+                    } else {
+                        if (p >= fim || b[p] == '{' || b[p] == '[') {
+                            return "valor não suportado na coluna " + (p - inicio + 1);
+                        }
+                        int q = p;
+                        while (q < fim && b[q] != ',' && b[q] != '}' && b[q] != ' ' && b[q] != '\t') {
+                            q++;
+                        }
+                        boolean nulo = q - p == 4 && b[p] == 'n' && b[p + 1] == 'u' && b[p + 2] == 'l' && b[p + 3] == 'l';
+                        if (alvo >= 0 && !nulo) {
+                            valores[alvo] = texto(b, p, q);
+                        }
+                        p = q;
+                    }
+                    p = pularEspacos(b, p, fim);
+                    if (p < fim && b[p] == ',') {
+                        p = pularEspacos(b, p + 1, fim);
+                    } else if (p < fim && b[p] == '}') {
+                        p++;
+                        break;
+                    } else {
+                        return "esperado ',' ou '}' na coluna " + (p - inicio + 1);
+                    }
+                }
+            }
+            if (pularEspacos(b, p, fim) != fim) {
+                return "conteúdo após o objeto JSON";
+            }
+            return null;
+        }
+
+        /** Compara a chave com os nomes pedidos direto nos bytes. */
+        private int coluna(byte[] b, int inicio, int fim) {
+            for (int c = 0; c < chaves.length; c++) {
+                byte[] chave = chaves[c];
+                if (chave.length == fim - inicio
+                        && Arrays.equals(b, inicio, fim, chave, 0, chave.length)) {
+                    return c;
+                }
+            }
+            return -1;
+        }
+
+        /** Posição das aspas que fecham o texto iniciado em {@code p}, ou -1. */
+        private static int fimTexto(byte[] b, int p, int fim) {
+            while (p < fim) {
+                byte c = b[p];
+                if (c == '\\') {
+                    p += 2;
+                } else if (c == '"') {
+                    return p;
+                } else {
+                    p++;
+                }
+            }
+            return -1;
+        }
+
+        private static String decodificar(byte[] b, int inicio, int fim) {
+            String cru = new String(b, inicio, fim - inicio, StandardCharsets.UTF_8);
+            if (cru.indexOf('\\') < 0) {
+                return cru;
+            }
+            StringBuilder sb = new StringBuilder(cru.length());
+            for (int i = 0; i < cru.length(); i++) {
+                char c = cru.charAt(i);
+                if (c != '\\' || i + 1 >= cru.length()) {
+                    sb.append(c);
+                    continue;
+                }
+                char e = cru.charAt(++i);
+                switch (e) {
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        if (i + 4 >= cru.length()) {
+                            throw new IllegalArgumentException("escape unicode incompleto");
+                        }
+                        try {
+                            sb.append((char) Integer.parseInt(cru.substring(i + 1, i + 5), 16));
+                        } catch (NumberFormatException invalido) {
+                            throw new IllegalArgumentException("escape unicode inválido");
+                        }
+                        i += 4;
+                        break;
+                    default: sb.append(e); // \" \\ \/
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
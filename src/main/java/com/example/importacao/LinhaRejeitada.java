@@ -0,0 +1,28 @@
+package com.example.importacao;
+
+/**
+ * Linha do arquivo que não foi importada, com o motivo.
+ */
+public final class LinhaRejeitada {
+    private final long numero;
+    private final String motivo;
+
+    LinhaRejeitada(long numero, String motivo) {
+        this.numero = numero;
+        this.motivo = motivo;
+    }
+
+    /** Número da linha no arquivo, a partir de 1 (o cabeçalho do CSV é a linha 1). */
+    public long getNumero() {
+        return numero;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+
+    @Override
+    public String toString() {
+        return "linha " + numero + ": " + motivo;
+    }
+}
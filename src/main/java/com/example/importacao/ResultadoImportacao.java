@@ -0,0 +1,66 @@
+package com.example.importacao;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resumo de uma importação: linhas lidas, importadas e rejeitadas, tempo total
+ * e as primeiras rejeições com número de linha e motivo.
+ */
+public final class ResultadoImportacao {
+    private final long lidas;
+    private final long importadas;
+    private final long rejeitadas;
+    private final long duracaoNanos;
+    private final List<LinhaRejeitada> primeirasRejeicoes;
+
+    ResultadoImportacao(long lidas, long importadas, long rejeitadas, long duracaoNanos,
+                        List<LinhaRejeitada> primeirasRejeicoes) {
+        this.lidas = lidas;
+        this.importadas = importadas;
+        this.rejeitadas = rejeitadas;
+        this.duracaoNanos = duracaoNanos;
+        primeirasRejeicoes.sort(Comparator.comparingLong(LinhaRejeitada::getNumero));
+        this.primeirasRejeicoes = Collections.unmodifiableList(primeirasRejeicoes);
+    }
+
+    /** Linhas de dados lidas (sem contar cabeçalho e linhas em branco). */
+    public long getLidas() {
+        return lidas;
+    }
+
+    public long getImportadas() {
+        return importadas;
+    }
+
+    public long getRejeitadas() {
+        return rejeitadas;
+    }
+
+    public long getDuracao(TimeUnit unidade) {
+        return unidade.convert(duracaoNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Vazão da importação em linhas lidas por segundo. */
+    public double getLinhasPorSegundo() {
+        return duracaoNanos == 0 ? 0 : lidas * 1e9 / duracaoNanos;
+    }
+
+    /**
+     * As primeiras rejeições detectadas, ordenadas por linha. Duplicados só são
+     * detectados quando o lote é gravado, então a lista não é necessariamente
+     * formada pelas linhas de menor número. Ela é limitada
+     * (ver {@link ImportadorCatalogo#MAX_REJEICOES_DETALHADAS}); o total está em {@link #getRejeitadas()}.
+     */
+    public List<LinhaRejeitada> getPrimeirasRejeicoes() {
+        return primeirasRejeicoes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d linhas lidas, %d importadas, %d rejeitadas em %d ms (%.0f linhas/s)",
+                lidas, importadas, rejeitadas, getDuracao(TimeUnit.MILLISECONDS), getLinhasPorSegundo());
+    }
+}
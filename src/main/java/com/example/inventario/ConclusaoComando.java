@@ -0,0 +1,18 @@
+package com.example.inventario;
+
+/**
+ * Recebe o resultado de um comando do MotorInventario.
+ * Roda na thread do motor: deve ser curta e não bloquear, porque atrasa
+ * todos os comandos seguintes. O mesmo objeto pode ser reaproveitado em
+ * vários comandos, evitando alocação por operação.
+ */
+@FunctionalInterface
+public interface ConclusaoComando {
+
+    /**
+     * @param reservado unidades retiradas (RESERVAR e RESERVAR_ATE), o estoque
+     *                  anterior ao comando (DEFINIR) ou 0 (LIBERAR e REPOR)
+     * @param disponivel estoque do ingresso depois do comando
+     */
+    void concluido(int reservado, int disponivel);
+}
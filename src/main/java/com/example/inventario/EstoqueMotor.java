@@ -0,0 +1,86 @@
+package com.example.inventario;
+
+import com.example.model.Estoque;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Estoque cujas alterações passam pelo MotorInventario. Cada chamada publica
+ * o comando e espera a conclusão, para cumprir o contrato síncrono de
+ * Estoque; quem pode seguir sem esperar usa {@link MotorInventario#publicar}
+ * diretamente. Leituras de disponível não passam pelo anel.
+ */
+class EstoqueMotor implements Estoque {
+    // uma espera por thread: a chamada é síncrona, então nunca há duas em uso na mesma thread
+    private static final ThreadLocal<Espera> ESPERAS = ThreadLocal.withInitial(Espera::new);
+
+    private final MotorInventario motor;
+    private final int id;
+
+    EstoqueMotor(MotorInventario motor, int id) {
+        this.motor = motor;
+        this.id = id;
+    }
+
+    @Override
+    public boolean tentarReservar(int quantidade) {
+        return executar(TipoComando.RESERVAR, quantidade) == quantidade;
+    }
+
+    @Override
+    public int reservarAte(int maximo) {
+        return executar(TipoComando.RESERVAR_ATE, maximo);
+    }
+
+    @Override
+    public void liberar(int quantidade) {
+        executar(TipoComando.LIBERAR, quantidade);
+    }
+
+    @Override
+    public int disponivel() {
+        return motor.disponivel(id);
+    }
+
+    @Override
+    public int definir(int quantidade) {
+        return executar(TipoComando.DEFINIR, quantidade);
+    }
+
+    private int executar(TipoComando tipo, int quantidade) {
+        Espera espera = ESPERAS.get();
+        espera.preparar();
+        motor.publicar(tipo, id, quantidade, espera);
+        return espera.aguardar();
+    }
+
+    private static final class Espera implements ConclusaoComando {
+        private static final int PENDENTE = -1;
+        private static final int TENTATIVAS_ATIVAS = 100;
+
+        private final Thread dono = Thread.currentThread();
+        private volatile int reservado = PENDENTE;
+
+        void preparar() {
+            reservado = PENDENTE;
+        }
+
+        @Override
+        public void concluido(int reservado, int disponivel) {
+            this.reservado = reservado;
+            LockSupport.unpark(dono);
+        }
+
+        int aguardar() {
+            int tentativas = 0;
+            int resultado;
+            while ((resultado = reservado) == PENDENTE) {
+                if (++tentativas < TENTATIVAS_ATIVAS) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.park(this);
+                }
+            }
+            return resultado;
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.example.inventario;
+
+import com.example.model.Estoque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Motor de inventário de escritor único: todo o estoque dos ingressos
+ * registrados pertence a uma só thread, que aplica os comandos em ordem.
+ * Padrão GRASP aplicado: PURE FABRICATION e PROTECTED VARIATIONS
+ * Justificativa: Ingresso continua falando com a interface Estoque; o motor
+ * é só mais uma estratégia (ver {@link #novoEstoque(int)}), escolhida quando
+ * a disputa por um mesmo contador passa a custar mais que a fila.
+ *
+ * Quem produz comandos reserva uma posição num anel pré-alocado (um
+ * getAndIncrement), preenche o slot e o publica gravando o número de
+ * sequência. A thread do motor consome os slots em ordem, altera o estoque
+ * com escritas simples (sem CAS nem locks: ninguém mais escreve) e chama a
+ * {@link ConclusaoComando} do comando. O anel cheio segura os produtores,
+ * que esperam a thread do motor abrir espaço.
+ *
+ * As leituras de disponível não passam pelo anel: o motor publica cada
+ * valor novo com escrita ordenada (lazySet), e quem lê vê o último valor
+ * aplicado.
+ *
+ * Quando usar: o ganho vem de tirar a disputa de muitos núcleos de cima de
+ * um mesmo contador. Com poucos núcleos, o EstoqueAtomico é mais rápido:
+ * cada passagem entre produtor e motor vira troca de contexto, e a espera
+ * síncrona do {@link #novoEstoque(int)} custa uma ida e volta por operação
+ * (ver InventarioBenchmark).
+ *
+ * Como a RodaTemporizacao, o motor roda numa thread própria depois de
+ * {@link #iniciar()}; sem ela, quem usa chama {@link #processar()}.
+ */
+public class MotorInventario implements AutoCloseable {
+    private static final int ESPERAS_ATIVAS = 200;
+    private static final long COCHILO_MAXIMO_NANOS = 1_000_000;
+
+    private final Slot[] anel;
+    private final int mascara;
+    private final AtomicIntegerArray estoque;
+    private final AtomicLong proximaSequencia = new AtomicLong();
+    private final AtomicLong ingressosRegistrados = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private volatile long consumidos; // todos os slots abaixo deste número já foram aplicados
+    private volatile Thread trabalhador;
+    private volatile boolean dormindo;
+    private volatile boolean encerrado;
+    // depois do close: a thread do motor terminou e quem publica aplica o próprio comando, sob esta trava
+    private final Object travaFinal = new Object();
+    private volatile boolean finalizado;
+
+    /**
+     * @param tamanhoAnel comandos em trânsito (arredondado para potência de 2)
+     * @param capacidadeIngressos máximo de estoques registrados no motor
+     */
+    public MotorInventario(int tamanhoAnel, int capacidadeIngressos) {
+        if (tamanhoAnel <= 0 || capacidadeIngressos <= 0) {
+            throw new IllegalArgumentException("Tamanho do anel e capacidade devem ser positivos.");
+        }
+        int capacidade = 1;
+        while (capacidade < tamanhoAnel) {
+            capacidade <<= 1;
+        }
+        this.anel = new Slot[capacidade];
+        for (int i = 0; i < capacidade; i++) {
+            anel[i] = new Slot(i - capacidade); // nenhum slot começa publicado
+        }
+        this.mascara = capacidade - 1;
+        this.estoque = new AtomicIntegerArray(capacidadeIngressos);
+    }
+
+    /** Inicia a thread do motor. */
+    public synchronized void iniciar() {
+        if (trabalhador != null) {
+            return;
+        }
+        Thread thread = new Thread(this::consumir, "motor-inventario");
+        thread.setDaemon(true);
+        trabalhador = thread;
+        thread.start();
+    }
+
+    /**
+     * Registra um estoque novo no motor.
+     * @return id do estoque, usado nos comandos
+     */
+    public int registrar(int quantidadeInicial) {
+        if (quantidadeInicial < 0) {
+            throw new IllegalArgumentException("Estoque inicial não pode ser negativo.");
+        }
+        long id = ingressosRegistrados.getAndIncrement();
+        if (id >= estoque.length()) {
+            ingressosRegistrados.decrementAndGet();
+            throw new IllegalStateException("Capacidade do motor esgotada: " + estoque.length());
+        }
+        // antes de o id ser conhecido por alguém, então não concorre com o motor
+        estoque.set((int) id, quantidadeInicial);
+        return (int) id;
+    }
+
+    /**
+     * Estoque de um Ingresso controlado por este motor. As operações do
+     * Estoque esperam a thread do motor, que precisa estar iniciada.
+     */
+    public Estoque novoEstoque(int quantidadeInicial) {
+        if (trabalhador == null) {
+            throw new IllegalStateException("Inicie o motor antes de usá-lo como Estoque.");
+        }
+        return new EstoqueMotor(this, registrar(quantidadeInicial));
+    }
+
+    /** Disponível no estoque, conforme o último comando aplicado. */
+    public int disponivel(int id) {
+        verificarId(id);
+        return estoque.get(id);
+    }
+
+    /**
+     * Publica um comando. Retorna assim que o comando está no anel (espera
+     * só se o anel estiver cheio); o resultado chega depois pela conclusão.
+     * Um comando aceito é sempre aplicado e concluído, mesmo que o
+     * {@link #close()} aconteça no meio da publicação: se a thread do motor já
+     * terminou, quem publica aplica o comando (ver {@link #aplicarDepoisDoFim()}).
+     * @param conclusao chamada na thread do motor (ou, depois do close, na de quem publica); pode ser null
+     * @throws IllegalStateException se o motor já foi encerrado
+     */
+    public void publicar(TipoComando tipo, int id, int quantidade, ConclusaoComando conclusao) {
+        verificarId(id);
+        if (tipo == TipoComando.DEFINIR ? quantidade < 0 : quantidade <= 0) {
+            throw new IllegalArgumentException("Quantidade inválida para " + tipo + ": " + quantidade);
+        }
+        if (encerrado) {
+            throw new IllegalStateException("Motor de inventário encerrado.");
+        }
+        long sequencia = proximaSequencia.getAndIncrement();
+        esperarEspaco(sequencia);
+        Slot slot = anel[(int) sequencia & mascara];
+        slot.tipo = tipo;
+        slot.id = id;
+        slot.quantidade = quantidade;
+        slot.conclusao = conclusao;
+        slot.sequencia = sequencia; // publica: escrita volátil depois dos campos
+        if (encerrado) {
+            // o close pode já ter feito a drenagem final sem ver este slot
+            aplicarDepoisDoFim();
+        } else if (dormindo) {
+            Thread thread = trabalhador;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    /**
+     * Aplica o que estiver publicado se a drenagem final do close já passou.
+     * Antes disso não faz nada: a drenagem final (sob a mesma trava) ainda vai
+     * ver tudo o que foi publicado até aqui.
+     */
+    private void aplicarDepoisDoFim() {
+        synchronized (travaFinal) {
+            if (finalizado) {
+                processar();
+            }
+        }
+    }
+
+    /** Publica um comando e devolve o futuro com as unidades reservadas (0 nos comandos que não reservam). */
+    public CompletableFuture<Integer> enviar(TipoComando tipo, int id, int quantidade) {
+        CompletableFuture<Integer> futuro = new CompletableFuture<>();
+        // completar na thread do motor rodaria ali as etapas encadeadas ao futuro;
+        // use as variantes *Async para trabalho pesado
+        publicar(tipo, id, quantidade, (reservado, disponivel) -> futuro.complete(reservado));
+        return futuro;
+    }
+
+    private void esperarEspaco(long sequencia) {
+        long limite = sequencia - anel.length;
+        int tentativas = 0;
+        while (limite >= consumidos) {
+            // com a sequência já tomada não dá para desistir: um buraco no anel
+            // travaria todos os comandos seguintes. Depois do close, abre espaço sozinho.
+            if (finalizado) {
+                aplicarDepoisDoFim();
+            } else if (++tentativas < ESPERAS_ATIVAS) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Aplica os comandos já publicados, em ordem. Para uso sem a thread do motor
+     * (e nunca em paralelo com ela).
+     * @return comandos aplicados
+     */
+    public int processar() {
+        long proxima = consumidos;
+        int aplicados = 0;
+        while (true) {
+            Slot slot = anel[(int) proxima & mascara];
+            if (slot.sequencia != proxima) {
+                break;
+            }
+            aplicar(slot);
+            proxima++;
+            aplicados++;
+            if ((aplicados & mascara) == 0) {
+                consumidos = proxima; // libera espaço no meio de um lote grande
+            }
+        }
+        if (aplicados > 0) {
+            consumidos = proxima;
+        }
+        return aplicados;
+    }
+
+    private void aplicar(Slot slot) {
+        int id = slot.id;
+        int atual = estoque.get(id);
+        int anterior = atual;
+        int reservado = 0;
+        switch (slot.tipo) {
+            case RESERVAR:
+                if (atual >= slot.quantidade) {
+                    reservado = slot.quantidade;
+                }
+                break;
+            case RESERVAR_ATE:
+                reservado = Math.min(atual, slot.quantidade);
+                break;
+            case LIBERAR:
+            case REPOR:
+                atual += slot.quantidade;
+                break;
+            case DEFINIR:
+                atual = slot.quantidade;
+                break;
+            default:
+                throw new IllegalStateException("Comando desconhecido: " + slot.tipo);
+        }
+        atual -= reservado;
+        estoque.lazySet(id, atual);
+        ConclusaoComando conclusao = slot.conclusao;
+        slot.conclusao = null; // não retém o chamador até o slot ser reaproveitado
+        if (conclusao != null) {
+            try {
+                conclusao.concluido(slot.tipo == TipoComando.DEFINIR ? anterior : reservado, atual);
+            } catch (RuntimeException e) {
+                falhas.incrementAndGet();
+            }
+        }
+    }
+
+    private void consumir() {
+        int ociosas = 0;
+        while (!encerrado) {
+            if (processar() > 0) {
+                ociosas = 0;
+            } else if (++ociosas < ESPERAS_ATIVAS) {
+                Thread.onSpinWait();
+            } else {
+                dormindo = true;
+                // confere de novo depois de avisar que vai dormir: quem publicou antes já viu o aviso
+                if (anel[(int) consumidos & mascara].sequencia != consumidos) {
+                    LockSupport.parkNanos(this, COCHILO_MAXIMO_NANOS);
+                }
+                dormindo = false;
+            }
+        }
+    }
+
+    /** Conclusões que lançaram exceção (o motor segue aplicando os comandos). */
+    public long getFalhas() {
+        return falhas.get();
+    }
+
+    /** Comandos publicados que ainda não foram aplicados. */
+    public long getPendentes() {
+        return Math.max(0, proximaSequencia.get() - consumidos);
+    }
+
+    private void verificarId(int id) {
+        if (id < 0 || id >= ingressosRegistrados.get()) {
+            throw new IllegalArgumentException("Estoque não registrado no motor: " + id);
+        }
+    }
+
+    /**
+     * Para a thread do motor depois de aplicar o que já estava publicado.
+     * Publicações novas recebem IllegalStateException; as que já tinham
+     * passado da verificação (inclusive as que esperam espaço no anel) são
+     * aplicadas por quem publicou, e as suas esperas terminam normalmente.
+     */
+    @Override
+    public void close() {
+        encerrado = true;
+        Thread thread = trabalhador;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return; // a thread do motor pode seguir viva: não dá para aplicar em paralelo com ela
+            }
+            synchronized (travaFinal) {
+                finalizado = true;
+                processar();
+            }
+        }
+    }
+
+    /** Posição do anel. Os campos comuns são escritos antes da sequência (volátil), que os publica. */
+    private static final class Slot {
+        volatile long sequencia;
+        TipoComando tipo;
+        int id;
+        int quantidade;
+        ConclusaoComando conclusao;
+
+        Slot(long sequencia) {
+            this.sequencia = sequencia;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.inventario;
+
+/**
+ * Operações de estoque aceitas pelo MotorInventario.
+ */
+public enum TipoComando {
+    /** Retira exatamente a quantidade, ou nada se não houver o suficiente. */
+    RESERVAR,
+    /** Retira até a quantidade, o quanto houver. */
+    RESERVAR_ATE,
+    /** Devolve unidades reservadas. */
+    LIBERAR,
+    /** Acrescenta unidades novas ao estoque. */
+    REPOR,
+    /** Redefine o estoque (operação administrativa). */
+    DEFINIR
+}
@@ -0,0 +1,117 @@
+package com.example.metricas;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma log-linear de latências em nanossegundos.
+ *
+ * Cada potência de 2 é dividida em 16 faixas iguais, então o erro relativo de
+ * um percentil fica abaixo de 1/16 (6,25%) em qualquer escala; de 0 a 15 ns
+ * as faixas são exatas. Valores acima de 2^40 ns (~18 minutos) caem na última
+ * faixa. São 608 contadores fixos (~5 KB) alocados na criação.
+ *
+ * Registrar é um incremento atômico num contador e uma soma num LongAdder:
+ * sem locks e sem alocação. As leituras (percentis, média) não param os
+ * escritores; refletem as gravações concluídas até o momento da leitura.
+ */
+public final class HistogramaLatencia {
+    private static final int BITS_SUBFAIXA = 4;
+    private static final int SUBFAIXAS = 1 << BITS_SUBFAIXA;
+    private static final int MAIOR_EXPOENTE = 40;
+    private static final int FAIXAS = (MAIOR_EXPOENTE - BITS_SUBFAIXA + 2) * SUBFAIXAS;
+
+    private final AtomicLongArray contagens = new AtomicLongArray(FAIXAS);
+    private final LongAdder soma = new LongAdder();
+    private final AtomicLong maximo = new AtomicLong();
+
+    public void registrar(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        contagens.getAndIncrement(faixa(nanos));
+        soma.add(nanos);
+        long atual = maximo.get();
+        // após o aquecimento o máximo raramente muda: quase sempre só uma leitura
+        while (nanos > atual && !maximo.compareAndSet(atual, nanos)) {
+            atual = maximo.get();
+        }
+    }
+
+    static int faixa(long nanos) {
+        if (nanos < SUBFAIXAS) {
+            return (int) nanos;
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(nanos);
+        if (expoente > MAIOR_EXPOENTE) {
+            return FAIXAS - 1;
+        }
+        int subfaixa = (int) (nanos >>> (expoente - BITS_SUBFAIXA)) & (SUBFAIXAS - 1);
+        return (expoente - BITS_SUBFAIXA + 1) * SUBFAIXAS + subfaixa;
+    }
+
+    /** Maior valor que cai na faixa (o percentil é reportado pelo limite superior). */
+    static long limiteSuperior(int faixa) {
+        if (faixa < SUBFAIXAS) {
+            return faixa;
+        }
+        int expoente = faixa / SUBFAIXAS + BITS_SUBFAIXA - 1;
+        long base = (long) (SUBFAIXAS + faixa % SUBFAIXAS) << (expoente - BITS_SUBFAIXA);
+        return base + (1L << (expoente - BITS_SUBFAIXA)) - 1;
+    }
+
+    public long getContagem() {
+        long total = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            total += contagens.get(i);
+        }
+        return total;
+    }
+
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    public double getMedia() {
+        long contagem = getContagem();
+        return contagem == 0 ? 0 : (double) soma.sum() / contagem;
+    }
+
+    /**
+     * Latência abaixo da qual ficam {@code percentil}% das amostras
+     * (por exemplo 99.9), limitada ao máximo observado. 0 se vazio.
+     */
+    public long getPercentil(double percentil) {
+        if (percentil < 0 || percentil > 100) {
+            throw new IllegalArgumentException("Percentil fora de 0..100: " + percentil);
+        }
+        long[] copia = new long[FAIXAS];
+        long total = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            copia[i] = contagens.get(i);
+            total += copia[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long alvo = Math.max(1, (long) Math.ceil(total * percentil / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            acumulado += copia[i];
+            if (acumulado >= alvo) {
+                return Math.min(limiteSuperior(i), getMaximo());
+            }
+        }
+        return getMaximo();
+    }
+
+    /** Zera o histograma. Amostras gravadas durante a chamada podem se perder. */
+    public void reiniciar() {
+        for (int i = 0; i < FAIXAS; i++) {
+            contagens.set(i, 0);
+        }
+        soma.reset();
+        maximo.set(0);
+    }
+}
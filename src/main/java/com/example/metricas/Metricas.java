@@ -0,0 +1,116 @@
+package com.example.metricas;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registro das operações medidas do sistema (checkout, estoque, repositórios).
+ * Padrão GRASP aplicado: PURE FABRICATION
+ * Justificativa: medir tempo não é responsabilidade de Compra, Ingresso ou dos
+ * repositórios; o registro centraliza as operações e a publicação no JMX,
+ * e as classes medidas só guardam a sua Operacao numa constante.
+ *
+ * Ligado por padrão; {@code -Dingressos.metricas=false} desliga a medição
+ * (a decisão é tomada uma vez, na carga da classe, e o JIT elimina os ramos).
+ *
+ * Sucessos e falhas são sempre contados. Já a latência custa duas leituras
+ * do relógio (System.nanoTime, 20 a 60 ns cada conforme a máquina), então por
+ * padrão só uma chamada em 8 é cronometrada, sorteada por thread; os
+ * percentis continuam representativos com volume de produção.
+ * {@code -Dingressos.metricas.amostragem=1} cronometra todas.
+ */
+public final class Metricas {
+    public static final boolean HABILITADAS =
+            !"false".equalsIgnoreCase(System.getProperty("ingressos.metricas"));
+
+    private static final Map<String, Operacao> OPERACOES = new ConcurrentSkipListMap<>();
+
+    // uma chamada cronometrada a cada (mascaraAmostragem + 1)
+    static volatile int mascaraAmostragem =
+            mascara(Integer.getInteger("ingressos.metricas.amostragem", 8));
+
+    private Metricas() {
+    }
+
+    /**
+     * Cronometra uma chamada a cada {@code umaACada} (arredondado para
+     * potência de 2). Use 1 para cronometrar todas.
+     */
+    public static void setAmostragem(int umaACada) {
+        mascaraAmostragem = mascara(umaACada);
+    }
+
+    /** Chamadas por amostra cronometrada. */
+    public static int getAmostragem() {
+        return mascaraAmostragem + 1;
+    }
+
+    private static int mascara(int umaACada) {
+        if (umaACada < 1 || umaACada > 1 << 29) {
+            throw new IllegalArgumentException("Amostragem deve ficar entre 1 e 2^29: " + umaACada);
+        }
+        return Integer.highestOneBit(umaACada * 2 - 1) - 1;
+    }
+
+    /**
+     * Operação com o nome dado, criada e publicada no JMX na primeira chamada.
+     * Chame uma vez e guarde o resultado numa constante.
+     */
+    public static Operacao operacao(String nome) {
+        return OPERACOES.computeIfAbsent(nome, Metricas::criar);
+    }
+
+    private static Operacao criar(String nome) {
+        Operacao operacao = new Operacao(nome);
+        if (HABILITADAS) {
+            publicarNoJmx(operacao);
+        }
+        return operacao;
+    }
+
+    private static void publicarNoJmx(Operacao operacao) {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nome = nomeJmx(operacao.getNome());
+            if (!servidor.isRegistered(nome)) {
+                servidor.registerMBean(operacao, nome);
+            }
+        } catch (JMException | SecurityException e) {
+            // sem JMX as métricas continuam disponíveis pelo relatorio()
+        }
+    }
+
+    /** Nome JMX da operação: {@code com.example:type=Metricas,name=<nome>}. */
+    public static ObjectName nomeJmx(String operacao) throws JMException {
+        return new ObjectName("com.example:type=Metricas,name=" + ObjectName.quote(operacao));
+    }
+
+    /** Operações registradas até agora, em ordem de nome. */
+    public static Iterable<Operacao> operacoes() {
+        return OPERACOES.values();
+    }
+
+    /** Zera todas as operações. */
+    public static void reiniciar() {
+        OPERACOES.values().forEach(Operacao::reiniciar);
+    }
+
+    /** Uma linha por operação, com contadores e latências em microssegundos. */
+    public static String relatorio() {
+        StringBuilder texto = new StringBuilder();
+        texto.append(String.format(Locale.ROOT, "%-24s %10s %8s %10s %10s %10s %10s %10s%n",
+                "operacao", "sucessos", "falhas", "media_us", "p50_us", "p99_us", "p999_us", "max_us"));
+        for (Operacao op : OPERACOES.values()) {
+            texto.append(String.format(Locale.ROOT,
+                    "%-24s %10d %8d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    op.getNome(), op.getSucessos(), op.getFalhas(), op.getMediaMicros(),
+                    op.getP50Micros(), op.getP99Micros(), op.getP999Micros(), op.getMaximoMicros()));
+        }
+        return texto.toString();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.metricas;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de sucesso e falha e histograma de latência de uma operação.
+ *
+ * Uso no caminho quente:
+ * <pre>
+ * long inicio = OPERACAO.iniciar();
+ * boolean ok = fazerAlgo();
+ * OPERACAO.concluir(inicio, ok);
+ * </pre>
+ * Os contadores contam todas as chamadas. A latência é medida numa amostra
+ * (ver {@link Metricas#setAmostragem(int)}): nas chamadas fora da amostra
+ * iniciar() devolve 0 sem ler o relógio, e o fim só incrementa o contador.
+ * Com as métricas desligadas, tudo retorna na primeira instrução.
+ */
+public final class Operacao implements OperacaoMXBean {
+    private static final double NANOS_POR_MICRO = 1000.0;
+
+    private final String nome;
+    private final HistogramaLatencia latencias = new HistogramaLatencia();
+    private final LongAdder sucessos = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+
+    Operacao(String nome) {
+        this.nome = nome;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    /** Instante de início em ns, ou 0 se esta chamada não entra na amostra. */
+    public long iniciar() {
+        if (!Metricas.HABILITADAS
+                || (ThreadLocalRandom.current().nextInt() & Metricas.mascaraAmostragem) != 0) {
+            return 0;
+        }
+        return System.nanoTime();
+    }
+
+    public void sucesso(long inicio) {
+        if (Metricas.HABILITADAS) {
+            sucessos.increment();
+            registrarLatencia(inicio);
+        }
+    }
+
+    public void falha(long inicio) {
+        if (Metricas.HABILITADAS) {
+            falhas.increment();
+            registrarLatencia(inicio);
+        }
+    }
+
+    private void registrarLatencia(long inicio) {
+        if (inicio != 0) {
+            latencias.registrar(System.nanoTime() - inicio);
+        }
+    }
+
+    public void concluir(long inicio, boolean sucesso) {
+        if (sucesso) {
+            sucesso(inicio);
+        } else {
+            falha(inicio);
+        }
+    }
+
+    public HistogramaLatencia getLatencias() {
+        return latencias;
+    }
+
+    @Override
+    public long getSucessos() {
+        return sucessos.sum();
+    }
+
+    @Override
+    public long getFalhas() {
+        return falhas.sum();
+    }
+
+    @Override
+    public double getMediaMicros() {
+        return latencias.getMedia() / NANOS_POR_MICRO;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return latencias.getPercentil(50) / NANOS_POR_MICRO;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return latencias.getPercentil(99) / NANOS_POR_MICRO;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return latencias.getPercentil(99.9) / NANOS_POR_MICRO;
+    }
+
+    @Override
+    public double getMaximoMicros() {
+        return latencias.getMaximo() / NANOS_POR_MICRO;
+    }
+
+    @Override
+    public void reiniciar() {
+        latencias.reiniciar();
+        sucessos.reset();
+        falhas.reset();
+    }
+}
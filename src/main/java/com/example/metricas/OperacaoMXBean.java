@@ -0,0 +1,24 @@
+package com.example.metricas;
+
+/**
+ * Atributos de uma operação medida, publicados no JMX como
+ * {@code com.example:type=Metricas,name=<operação>}. Latências em
+ * microssegundos, calculadas sobre as chamadas cronometradas (amostra).
+ */
+public interface OperacaoMXBean {
+    long getSucessos();
+
+    long getFalhas();
+
+    double getMediaMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaximoMicros();
+
+    void reiniciar();
+}
@@ -1,22 +1,72 @@
 package com.example.model;
 
+import com.example.assento.BlocoAssentos;
+
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Representa uma compra composta por itens (ItemCompra), associada a um Cliente.
+ *
+ * Ao ser encerrada (finalizada ou expirada) a compra é congelada numa forma
+ * compacta, porque o histórico de compras finalizadas domina o heap: os
+ * itens viram um array com o Ingresso de cada item e um único long[]
+ * (quantidade, preço unitário e versão do preço), o status vira um byte e o estado que só serve
+ * durante o checkout (lista de itens, prazo da reserva, ações de
+ * encerramento) é descartado. getItens() continua funcionando, montando os
+ * ItemCompra sob demanda; para percorrer sem alocar, use os acessores por
+ * índice (getQuantidadeItens(), getIngressoDoItem(i), ...).
  */
 public class Compra {
-    private String codigoCompra;
-    private Cliente cliente;
-    private List<ItemCompra> itens = new ArrayList<>();
-    private String status = "Em Andamento"; // ou "Finalizada"
+    private static final byte EM_ANDAMENTO = 0;
+    private static final byte FINALIZADA = 1;
+    private static final byte EXPIRADA = 2;
+    private static final String[] NOMES_STATUS = {"Em Andamento", "Finalizada", "Expirada"};
+
+    private final String codigoCompra;
+    private final Cliente cliente;
+    // estado do checkout; null depois de encerrada. Volátil: ver null garante ver os itens congelados
+    private volatile Andamento andamento = new Andamento();
+    private static final int LONGS_POR_ITEM = 3;
+
+    private Ingresso[] ingressosCongelados; // um por item
+    // por item: quantidade, preço unitário, versão do preço
+    private long[] itensCongelados;
+    private BlocoAssentos[] assentosCongelados; // null se nenhum item tem lugar marcado
+    private volatile byte status = EM_ANDAMENTO;
+    private long totalCentavos; // atualizado a cada item adicionado
+    private long instanteFinalizacao; // ms desde a época Unix; 0 enquanto em andamento
+    private volatile long sequenciaFinalizacao; // 0 até entrar no índice de finalização
+
+    /** Estado mutável que só existe enquanto a compra está em andamento. */
+    private static final class Andamento {
+        final List<ItemCompra> itens = new ArrayList<>(4);
+        long prazoReserva; // ms no relógio de quem definiu o prazo; 0 quando a compra não está em modo de reserva
+        Runnable aoEncerrar; // chamado uma vez ao finalizar ou expirar (ações encadeadas)
+    }
 
     public Compra(String codigoCompra, Cliente cliente) {
         this.codigoCompra = codigoCompra;
         this.cliente = cliente;
     }
 
+    /**
+     * Reconstrói uma compra já finalizada (por exemplo, a partir do log de
+     * persistência). Não mexe no estoque dos ingressos.
+     */
+    public static Compra restaurarFinalizada(String codigoCompra, Cliente cliente,
+                                             long instanteFinalizacao, List<ItemCompra> itens) {
+        Compra compra = new Compra(codigoCompra, cliente);
+        for (ItemCompra item : itens) {
+            compra.registrarItem(item);
+        }
+        compra.instanteFinalizacao = instanteFinalizacao;
+        compra.congelar(FINALIZADA);
+        return compra;
+    }
+
     public String getCodigoCompra() {
         return codigoCompra;
     }
@@ -25,50 +75,309 @@ public class Compra {
         return cliente;
     }
 
+    /**
+     * Itens da compra. Em andamento, é a própria lista (percorra sincronizado
+     * na compra se houver adições concorrentes); encerrada, uma lista nova e
+     * imutável a cada chamada.
+     */
     public List<ItemCompra> getItens() {
-        return itens;
+        Andamento atual = andamento;
+        if (atual != null) {
+            return atual.itens;
+        }
+        int quantidade = itensCongelados.length / LONGS_POR_ITEM;
+        List<ItemCompra> itens = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            itens.add(new ItemCompra(getIngressoDoItem(i), getQuantidadeDoItem(i),
+                    getPrecoUnitarioDoItem(i), getVersaoPrecoDoItem(i), getAssentosDoItem(i)));
+        }
+        return Collections.unmodifiableList(itens);
+    }
+
+    public int getQuantidadeItens() {
+        Andamento atual = andamento;
+        return atual != null ? atual.itens.size() : itensCongelados.length / LONGS_POR_ITEM;
+    }
+
+    public Ingresso getIngressoDoItem(int indice) {
+        Andamento atual = andamento;
+        return atual != null ? atual.itens.get(indice).getIngresso()
+                : ingressosCongelados[indice];
+    }
+
+    public int getQuantidadeDoItem(int indice) {
+        Andamento atual = andamento;
+        return atual != null ? atual.itens.get(indice).getQuantidade() : (int) itensCongelados[LONGS_POR_ITEM * indice];
+    }
+
+    public long getPrecoUnitarioDoItem(int indice) {
+        Andamento atual = andamento;
+        return atual != null ? atual.itens.get(indice).getPrecoUnitarioCentavos() : itensCongelados[LONGS_POR_ITEM * indice + 1];
+    }
+
+    /** Versão do preço fixada pelo item (ver ItemCompra.getVersaoPreco). */
+    public long getVersaoPrecoDoItem(int indice) {
+        Andamento atual = andamento;
+        return atual != null ? atual.itens.get(indice).getVersaoPreco()
+                : itensCongelados[LONGS_POR_ITEM * indice + 2];
+    }
+
+    /** Assentos do item (null se o ingresso não tem lugar marcado). */
+    public BlocoAssentos getAssentosDoItem(int indice) {
+        Andamento atual = andamento;
+        if (atual != null) {
+            return atual.itens.get(indice).getAssentos();
+        }
+        return assentosCongelados == null ? null : assentosCongelados[indice];
     }
 
     public String getStatus() {
-        return status;
+        return NOMES_STATUS[status];
     }
 
     /**
-     * Adiciona um item à compra. Verifica disponibilidade no ingresso e atualiza estoque.
+     * Prazo da reserva temporária (0 se a compra não tem prazo ou já foi
+     * encerrada), no relógio de quem o definiu: com o GerenciadorReservas, o
+     * relógio monotônico da roda ({@code RodaTemporizacao.agora()}), não a época Unix.
      */
-    public void adicionarItem(Ingresso ingresso, int quantidade) {
-        if (status.equals("Finalizada")) {
-            throw new IllegalStateException("Não é possível adicionar item: compra já finalizada.");
+    public synchronized long getPrazoReserva() {
+        Andamento atual = andamento;
+        return atual == null ? 0 : atual.prazoReserva;
+    }
+
+    /** Momento da finalização em ms desde a época Unix (0 se ainda em andamento). */
+    public long getInstanteFinalizacao() {
+        return instanteFinalizacao;
+    }
+
+    /**
+     * Ordem em que a compra entrou no índice de finalização do CompraRepository
+     * (0 se ainda não entrou). Com log, é a posição do registro da compra no
+     * log e sobrevive a reinícios; sem log, um contador do repositório.
+     */
+    public long getSequenciaFinalizacao() {
+        return sequenciaFinalizacao;
+    }
+
+    /** Usado pelo repositório e pela recuperação; não altera uma sequência já definida. */
+    public void definirSequenciaFinalizacao(long sequencia) {
+        if (sequenciaFinalizacao == 0) {
+            sequenciaFinalizacao = sequencia;
+        }
+    }
+
+    /**
+     * Adiciona um item à compra. Reserva as unidades no ingresso de forma
+     * atômica (verificação e baixa de estoque na mesma operação).
+     * Para ingressos de lugar marcado, reserva os melhores assentos vizinhos.
+     * @return o item criado
+     */
+    public synchronized ItemCompra adicionarItem(Ingresso ingresso, int quantidade) {
+        verificarEmAndamento();
+        if (ingresso.temAssentos()) {
+            BlocoAssentos bloco = ingresso.reservarMelhoresAssentos(quantidade)
+                    .orElseThrow(() -> new IllegalStateException(
+                            "Não há " + quantidade + " assentos juntos disponíveis: " + ingresso.getTipo()));
+            return registrarItem(new ItemCompra(ingresso, bloco));
         }
-        if (!ingresso.verificarDisponibilidade(quantidade)) {
+        if (!ingresso.tentarReservar(quantidade)) {
             throw new IllegalStateException("Ingressos insuficientes: " + ingresso.getTipo());
         }
-        // atualiza estoque do ingresso
-        ingresso.vender(quantidade);
-        ItemCompra item = new ItemCompra(ingresso, quantidade);
-        itens.add(item);
+        return registrarItem(ingresso, quantidade);
+    }
+
+    /**
+     * Adiciona um item com assentos escolhidos pelo comprador.
+     * @return o item criado
+     */
+    public synchronized ItemCompra adicionarItem(Ingresso ingresso, BlocoAssentos assentos) {
+        verificarEmAndamento();
+        if (!ingresso.reservarAssentos(assentos)) {
+            throw new IllegalStateException("Assentos indisponíveis: " + assentos);
+        }
+        return registrarItem(new ItemCompra(ingresso, assentos));
+    }
+
+    /**
+     * Adiciona um item cujas unidades já foram reservadas no ingresso pelo
+     * chamador (por exemplo, numa reserva agrupada de um lote). Não mexe no estoque.
+     * @return o item criado
+     */
+    public synchronized ItemCompra adicionarItemReservado(Ingresso ingresso, int quantidade) {
+        verificarEmAndamento();
+        return registrarItem(ingresso, quantidade);
+    }
+
+    /** Mesmo que adicionarItemReservado(Ingresso, int), com o item já montado (ex.: com assentos). */
+    public synchronized ItemCompra adicionarItemReservado(ItemCompra item) {
+        verificarEmAndamento();
+        return registrarItem(item);
+    }
+
+    private void verificarEmAndamento() {
+        if (status == FINALIZADA) {
+            throw new IllegalStateException("Não é possível adicionar item: compra já finalizada.");
+        }
+        if (status == EXPIRADA) {
+            throw new IllegalStateException("Não é possível adicionar item: reserva da compra expirou.");
+        }
+    }
+
+    private ItemCompra registrarItem(Ingresso ingresso, int quantidade) {
+        return registrarItem(new ItemCompra(ingresso, quantidade));
+    }
+
+    private ItemCompra registrarItem(ItemCompra item) {
+        andamento.itens.add(item);
+        totalCentavos = Math.addExact(totalCentavos, item.getSubtotalCentavos());
+        return item;
+    }
+
+    /**
+     * Finaliza a compra, marcando status. Lança exceção se não houver itens
+     * ou se a compra já tiver sido finalizada ou expirada. Numa compra com
+     * reserva temporária, converte a reserva em venda.
+     */
+    public synchronized void finalizarCompra() {
+        finalizarCompra(null);
     }
 
     /**
-     * Finaliza a compra, marcando status. Lança exceção se não houver itens.
+     * Finaliza a compra como {@link #finalizarCompra()}, chamando
+     * {@code antesDeCongelar} depois das validações, com o instante de
+     * finalização já definido, e antes de a compra mudar de status (por
+     * exemplo, para gravar o log). Se a ação lançar exceção, a compra continua
+     * em andamento, com as unidades reservadas, e a exceção é propagada.
      */
-    public void finalizarCompra() {
-        if (itens.isEmpty()) {
+    public synchronized void finalizarCompra(Consumer<Compra> antesDeCongelar) {
+        if (status == FINALIZADA) {
+            throw new IllegalStateException("Compra já finalizada: " + codigoCompra);
+        }
+        if (status == EXPIRADA) {
+            throw new IllegalStateException("Reserva expirada: " + codigoCompra);
+        }
+        if (andamento.itens.isEmpty()) {
             throw new IllegalStateException("Não é possível finalizar uma compra vazia.");
         }
-        this.status = "Finalizada";
+        this.instanteFinalizacao = System.currentTimeMillis();
+        if (antesDeCongelar != null) {
+            try {
+                antesDeCongelar.accept(this);
+            } catch (RuntimeException e) {
+                this.instanteFinalizacao = 0;
+                throw e;
+            }
+        }
+        encerrar(FINALIZADA);
+    }
+
+    /**
+     * Inicia o prazo da reserva temporária. Só vale uma vez e só para
+     * compras em andamento.
+     * @return true se o prazo foi definido agora
+     */
+    public synchronized boolean iniciarPrazoReserva(long prazo) {
+        if (status != EM_ANDAMENTO || andamento.prazoReserva != 0) {
+            return false;
+        }
+        andamento.prazoReserva = prazo;
+        return true;
+    }
+
+    /**
+     * Registra uma ação para quando a compra deixar de estar em andamento
+     * (finalizada ou expirada). Se isso já aconteceu, a ação roda na hora.
+     * Várias ações rodam na ordem em que foram registradas.
+     */
+    public void aoEncerrar(Runnable acao) {
+        synchronized (this) {
+            if (status == EM_ANDAMENTO) {
+                Runnable anterior = andamento.aoEncerrar;
+                andamento.aoEncerrar = anterior == null ? acao : () -> {
+                    anterior.run();
+                    acao.run();
+                };
+                return;
+            }
+        }
+        acao.run();
+    }
+
+    /**
+     * Padrão GRASP: INFORMATION EXPERT
+     * Método aplicado em: expirar()
+     * Justificativa: só a Compra sabe quais unidades está retendo; ao expirar,
+     * devolve cada item ao estoque do seu Ingresso.
+     * @return true se a compra estava em andamento e expirou agora
+     */
+    public synchronized boolean expirar() {
+        if (status != EM_ANDAMENTO) {
+            return false;
+        }
+        for (ItemCompra item : andamento.itens) {
+            if (item.getAssentos() != null) {
+                item.getIngresso().liberarAssentos(item.getAssentos());
+            } else {
+                item.getIngresso().liberar(item.getQuantidade());
+            }
+        }
+        encerrar(EXPIRADA);
+        return true;
+    }
+
+    private void encerrar(byte novoStatus) {
+        Runnable acao = andamento.aoEncerrar;
+        congelar(novoStatus);
+        if (acao != null) {
+            acao.run();
+        }
+    }
+
+    /** Troca a lista de itens pela forma compacta e descarta o estado do checkout. */
+    private void congelar(byte novoStatus) {
+        List<ItemCompra> itens = andamento.itens;
+        Ingresso[] ingressos = new Ingresso[itens.size()];
+        long[] compactos = new long[LONGS_POR_ITEM * itens.size()];
+        BlocoAssentos[] assentos = null;
+        for (int i = 0; i < itens.size(); i++) {
+            ItemCompra item = itens.get(i);
+            int base = LONGS_POR_ITEM * i;
+            ingressos[i] = item.getIngresso();
+            compactos[base] = item.getQuantidade();
+            compactos[base + 1] = item.getPrecoUnitarioCentavos();
+            compactos[base + 2] = item.getVersaoPreco();
+            if (item.getAssentos() != null) {
+                if (assentos == null) {
+                    assentos = new BlocoAssentos[itens.size()];
+                }
+                assentos[i] = item.getAssentos();
+            }
+        }
+        ingressosCongelados = ingressos;
+        itensCongelados = compactos;
+        assentosCongelados = assentos;
+        status = novoStatus;
+        andamento = null; // escrita volátil: publica os campos acima
+    }
+
+    /**
+     * Total da compra em centavos. O valor é mantido a cada item adicionado,
+     * então a consulta não percorre os itens nem aloca nada.
+     */
+    public long calcularTotalCentavos() {
+        return totalCentavos;
     }
 
-    /** Calcula o total somando os subtotais dos itens. */
+    /** Total em reais (para exibição). */
     public double calcularTotal() {
-        return itens.stream().mapToDouble(ItemCompra::getSubtotal).sum();
+        return Dinheiro.paraReais(totalCentavos);
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        sb.append(String.format("Compra %s - Cliente: %s - Status: %s\n", codigoCompra, cliente.getNome(), status));
-        for (ItemCompra item : itens) {
+        sb.append(String.format("Compra %s - Cliente: %s - Status: %s\n", codigoCompra, cliente.getNome(), getStatus()));
+        for (ItemCompra item : getItens()) {
             sb.append("  ").append(item).append("\n");
         }
         sb.append(String.format("Total: R$ %.2f", calcularTotal()));
@@ -0,0 +1,26 @@
+package com.example.model;
+
+/**
+ * Conversões de valores monetários.
+ * Internamente o sistema guarda dinheiro como long em centavos (unidade mínima),
+ * o que torna as somas exatas mesmo com milhões de pedidos; double aparece apenas
+ * nas bordas (entrada de preços em reais e exibição).
+ */
+public final class Dinheiro {
+
+    private Dinheiro() {
+    }
+
+    /** Converte reais para centavos, arredondando para o centavo mais próximo. */
+    public static long paraCentavos(double reais) {
+        if (Double.isNaN(reais) || Double.isInfinite(reais)) {
+            throw new IllegalArgumentException("Valor monetário inválido: " + reais);
+        }
+        return Math.round(reais * 100.0);
+    }
+
+    /** Converte centavos para reais (apenas para exibição e APIs legadas). */
+    public static double paraReais(long centavos) {
+        return centavos / 100.0;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.model;
+
+/**
+ * Contador de estoque de um tipo de ingresso.
+ * Padrão GRASP aplicado: PROTECTED VARIATIONS
+ * Justificativa: Ingresso delega a contagem de unidades para esta interface,
+ * permitindo trocar a estratégia de concorrência (um único contador CAS ou
+ * um contador particionado para tipos muito disputados) sem alterar
+ * Ingresso, Compra ou os serviços.
+ *
+ * Contrato: nenhuma implementação deixa o estoque ficar negativo,
+ * mesmo com várias threads reservando ao mesmo tempo.
+ */
+public interface Estoque {
+
+    /**
+     * Tenta reservar a quantidade de forma atômica.
+     * @return true se as unidades foram retiradas do estoque; false se não havia o suficiente
+     */
+    boolean tentarReservar(int quantidade);
+
+    /**
+     * Reserva até {@code maximo} unidades, o quanto houver disponível.
+     * Nunca falha por falta de estoque: devolve a quantidade efetivamente retirada (0 a maximo).
+     */
+    int reservarAte(int maximo);
+
+    /** Devolve ao estoque unidades reservadas anteriormente. */
+    void liberar(int quantidade);
+
+    /** Quantidade disponível no momento da leitura (valor aproximado sob concorrência). */
+    int disponivel();
+
+    /**
+     * Redefine o estoque (operação administrativa, não concorre com reservas de forma linearizável).
+     * @return o estoque disponível imediatamente antes da troca; a diferença
+     *         para {@code quantidade} é o que entrou ou saiu do estoque
+     */
+    int definir(int quantidade);
+}
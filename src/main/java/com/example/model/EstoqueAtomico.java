@@ -0,0 +1,71 @@
+package com.example.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Estoque em um único contador atualizado por compare-and-set.
+ * A verificação e o decremento acontecem na mesma operação atômica,
+ * então duas threads nunca vendem a mesma unidade, e nenhuma thread
+ * fica bloqueada esperando outra.
+ */
+public class EstoqueAtomico implements Estoque {
+    private final AtomicInteger quantidade;
+
+    public EstoqueAtomico(int quantidadeInicial) {
+        if (quantidadeInicial < 0) {
+            throw new IllegalArgumentException("Estoque inicial não pode ser negativo.");
+        }
+        this.quantidade = new AtomicInteger(quantidadeInicial);
+    }
+
+    @Override
+    public boolean tentarReservar(int quantidade) {
+        validarQuantidade(quantidade);
+        while (true) {
+            int atual = this.quantidade.get();
+            if (atual < quantidade) {
+                return false;
+            }
+            if (this.quantidade.compareAndSet(atual, atual - quantidade)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public int reservarAte(int maximo) {
+        validarQuantidade(maximo);
+        while (true) {
+            int atual = this.quantidade.get();
+            int retirar = Math.min(atual, maximo);
+            if (retirar == 0 || this.quantidade.compareAndSet(atual, atual - retirar)) {
+                return retirar;
+            }
+        }
+    }
+
+    @Override
+    public void liberar(int quantidade) {
+        validarQuantidade(quantidade);
+        this.quantidade.addAndGet(quantidade);
+    }
+
+    @Override
+    public int disponivel() {
+        return quantidade.get();
+    }
+
+    @Override
+    public int definir(int quantidade) {
+        if (quantidade < 0) {
+            throw new IllegalArgumentException("Estoque não pode ser negativo.");
+        }
+        return this.quantidade.getAndSet(quantidade);
+    }
+
+    static void validarQuantidade(int quantidade) {
+        if (quantidade <= 0) {
+            throw new IllegalArgumentException("Quantidade deve ser positiva: " + quantidade);
+        }
+    }
+}
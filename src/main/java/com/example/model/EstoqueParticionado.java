@@ -0,0 +1,144 @@
+package com.example.model;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Estoque dividido em faixas (stripes) para tipos de ingresso muito disputados.
+ *
+ * Cada thread começa tentando a "sua" faixa, então compradores diferentes
+ * fazem CAS em contadores diferentes e não disputam a mesma linha de cache.
+ * Quando a faixa da thread não tem unidades suficientes, as demais faixas
+ * são tentadas em sequência. Só quando nenhuma faixa isolada atende o pedido
+ * (perto do esgotamento) as unidades são juntadas de várias faixas; esse
+ * caminho lento é serializado entre si para que dois pedidos grandes não se
+ * anulem, mas continua sem bloquear as reservas do caminho rápido.
+ *
+ * Nenhuma faixa fica negativa, portanto a soma também não.
+ */
+public class EstoqueParticionado implements Estoque {
+    /** Distância entre faixas no array: 16 ints = 64 bytes, uma linha de cache. */
+    private static final int ESPACAMENTO = 16;
+
+    private final int faixas;
+    private final AtomicIntegerArray contadores;
+    private final ReentrantLock caminhoLento = new ReentrantLock();
+
+    public EstoqueParticionado(int quantidadeInicial, int faixas) {
+        if (faixas <= 0) {
+            throw new IllegalArgumentException("Número de faixas deve ser positivo.");
+        }
+        this.faixas = faixas;
+        this.contadores = new AtomicIntegerArray(faixas * ESPACAMENTO);
+        definir(quantidadeInicial);
+    }
+
+    @Override
+    public boolean tentarReservar(int quantidade) {
+        EstoqueAtomico.validarQuantidade(quantidade);
+        int inicio = faixaDaThread();
+        for (int i = 0; i < faixas; i++) {
+            if (tentarFaixa((inicio + i) % faixas, quantidade)) {
+                return true;
+            }
+        }
+        return juntarDeVariasFaixas(quantidade, inicio);
+    }
+
+    private boolean tentarFaixa(int faixa, int quantidade) {
+        int indice = faixa * ESPACAMENTO;
+        while (true) {
+            int atual = contadores.get(indice);
+            if (atual < quantidade) {
+                return false;
+            }
+            if (contadores.compareAndSet(indice, atual, atual - quantidade)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean juntarDeVariasFaixas(int quantidade, int inicio) {
+        caminhoLento.lock();
+        try {
+            int obtido = 0;
+            for (int i = 0; i < faixas && obtido < quantidade; i++) {
+                obtido += retirarAte((inicio + i) % faixas, quantidade - obtido);
+            }
+            if (obtido == quantidade) {
+                return true;
+            }
+            if (obtido > 0) {
+                contadores.addAndGet(inicio * ESPACAMENTO, obtido);
+            }
+            return false;
+        } finally {
+            caminhoLento.unlock();
+        }
+    }
+
+    @Override
+    public int reservarAte(int maximo) {
+        EstoqueAtomico.validarQuantidade(maximo);
+        int inicio = faixaDaThread();
+        int obtido = 0;
+        for (int i = 0; i < faixas && obtido < maximo; i++) {
+            obtido += retirarAte((inicio + i) % faixas, maximo - obtido);
+        }
+        return obtido;
+    }
+
+    private int retirarAte(int faixa, int maximo) {
+        int indice = faixa * ESPACAMENTO;
+        while (true) {
+            int atual = contadores.get(indice);
+            int retirar = Math.min(atual, maximo);
+            if (retirar <= 0) {
+                return 0;
+            }
+            if (contadores.compareAndSet(indice, atual, atual - retirar)) {
+                return retirar;
+            }
+        }
+    }
+
+    @Override
+    public void liberar(int quantidade) {
+        EstoqueAtomico.validarQuantidade(quantidade);
+        contadores.addAndGet(faixaDaThread() * ESPACAMENTO, quantidade);
+    }
+
+    @Override
+    public int disponivel() {
+        int total = 0;
+        for (int i = 0; i < faixas; i++) {
+            total += contadores.get(i * ESPACAMENTO);
+        }
+        return total;
+    }
+
+    @Override
+    public int definir(int quantidade) {
+        if (quantidade < 0) {
+            throw new IllegalArgumentException("Estoque não pode ser negativo.");
+        }
+        int base = quantidade / faixas;
+        int resto = quantidade % faixas;
+        int anterior = 0;
+        for (int i = 0; i < faixas; i++) {
+            // cada faixa é trocada atomicamente: reservas concorrentes contam no valor antigo ou no novo
+            anterior += contadores.getAndSet(i * ESPACAMENTO, base + (i < resto ? 1 : 0));
+        }
+        return anterior;
+    }
+
+    public int getFaixas() {
+        return faixas;
+    }
+
+    private int faixaDaThread() {
+        long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (h >>> 16) % faixas;
+    }
+}
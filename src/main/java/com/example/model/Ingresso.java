@@ -4,6 +4,13 @@ package com.example.model;
 // LOCALIZAÇÃO: src/
 // ============================================
 
+import com.example.assento.BlocoAssentos;
+import com.example.assento.MapaAssentos;
+import com.example.metricas.Metricas;
+import com.example.metricas.Operacao;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
 /**
  * Representa um ingresso para um show.
  * Padrão GRASP aplicado: INFORMATION EXPERT
@@ -11,14 +18,59 @@ package com.example.model;
  * (tipo, preço, disponibilidade) e sabe como verificar disponibilidade.
  */
 public class Ingresso {
+    private static final Operacao RESERVAR = Metricas.operacao("estoque.reservar");
+
     private String tipo; // Ex: Pista, VIP, Camarote
-    private double preco;
-    private int quantidadeDisponivel;
+    // trocado por inteiro: leitores veem o preço antigo ou o novo, nunca metade
+    private volatile EstadoPreco preco;
+    private final Estoque estoque;
+    private final MapaAssentos assentos; // null para ingressos sem lugar marcado
 
     public Ingresso(String tipo, double preco, int quantidadeDisponivel) {
+        this(tipo, preco, new EstoqueAtomico(quantidadeDisponivel));
+    }
+
+    /**
+     * Permite escolher a estratégia de estoque, por exemplo um
+     * {@link EstoqueParticionado} para tipos muito disputados em abertura de vendas.
+     */
+    public Ingresso(String tipo, double preco, Estoque estoque) {
+        this(tipo, preco, estoque, null);
+    }
+
+    /**
+     * Ingresso com lugar marcado: cada unidade vendida é um assento do mapa.
+     * O estoque começa com os assentos livres do mapa e acompanha as reservas de assentos.
+     */
+    public Ingresso(String tipo, double preco, MapaAssentos assentos) {
+        this(tipo, preco, new EstoqueAtomico(assentos.getLivres()), assentos);
+    }
+
+    /**
+     * Preço vigente e, durante uma reprecificação em lote, o preço que o
+     * substitui assim que o lote for publicado.
+     */
+    private static final class EstadoPreco {
+        final VersaoPreco vigente;
+        final VersaoPreco pendente; // null fora de um lote
+        final BooleanSupplier publicado;
+
+        EstadoPreco(VersaoPreco vigente, VersaoPreco pendente, BooleanSupplier publicado) {
+            this.vigente = vigente;
+            this.pendente = pendente;
+            this.publicado = publicado;
+        }
+
+        VersaoPreco atual() {
+            return pendente != null && publicado.getAsBoolean() ? pendente : vigente;
+        }
+    }
+
+    private Ingresso(String tipo, double preco, Estoque estoque, MapaAssentos assentos) {
         this.tipo = tipo;
-        this.preco = preco;
-        this.quantidadeDisponivel = quantidadeDisponivel;
+        this.preco = new EstadoPreco(new VersaoPreco(1, Dinheiro.paraCentavos(preco)), null, null);
+        this.estoque = estoque;
+        this.assentos = assentos;
     }
 
     public String getTipo() { 
@@ -26,20 +78,107 @@ public class Ingresso {
     }
 
     public double getPreco() { 
-        return preco; 
+        return getVersaoPreco().getPreco(); 
+    }
+
+    /** Preço em centavos: a representação usada em todos os cálculos. */
+    public long getPrecoCentavos() {
+        return getVersaoPreco().getPrecoCentavos();
+    }
+
+    /** Preço atual junto com a sua versão, lidos numa única leitura. */
+    public VersaoPreco getVersaoPreco() {
+        return preco.atual();
     }
 
     public int getQuantidadeDisponivel() { 
-        return quantidadeDisponivel; 
+        return estoque.disponivel(); 
     }
 
     // --- MÉTODOS ADICIONADOS PARA UPDATE (CRUD) ---
+    /**
+     * Troca o preço do ingresso. Num ingresso do catálogo, prefira
+     * IngressoRepository.reprecificar: o retrato do catálogo só passa a
+     * mostrar o preço novo depois de publicado pelo repositório.
+     */
     public void setPreco(double preco) {
-        this.preco = preco;
+        publicarPreco(Dinheiro.paraCentavos(preco));
     }
 
+    /**
+     * Publica um preço novo com a versão seguinte à atual. Itens já criados
+     * continuam com a versão que fixaram.
+     * @return a versão publicada
+     */
+    public synchronized VersaoPreco publicarPreco(long precoCentavos) {
+        VersaoPreco nova = new VersaoPreco(preco.atual().getVersao() + 1, precoCentavos);
+        preco = new EstadoPreco(nova, null, null);
+        return nova;
+    }
+
+    /**
+     * Publica uma versão já numerada, por exemplo a gravada no log; as trocas
+     * seguintes continuam a partir dela.
+     */
+    public synchronized void publicarPreco(VersaoPreco versao) {
+        preco = new EstadoPreco(versao, null, null);
+    }
+
+    /**
+     * Prepara um preço que só passa a valer quando {@code publicado} ficar
+     * verdadeiro. Numa reprecificação em lote, todos os ingressos recebem a
+     * mesma condição (ex.: "o catálogo chegou à versão N"), então os preços
+     * novos passam a valer juntos, no mesmo instante em que o catálogo é
+     * trocado. Depois da publicação, chame {@link #confirmarPreco()}; se o lote
+     * não for publicado, {@link #descartarPreco()}.
+     */
+    public synchronized void prepararPreco(VersaoPreco versao, BooleanSupplier publicado) {
+        preco = new EstadoPreco(preco.atual(), versao, publicado);
+    }
+
+    /** Torna vigente o preço preparado, se já publicado, e solta a condição do lote. */
+    public synchronized void confirmarPreco() {
+        EstadoPreco atual = preco;
+        if (atual.pendente != null && atual.publicado.getAsBoolean()) {
+            preco = new EstadoPreco(atual.pendente, null, null);
+        }
+    }
+
+    /** Esquece o preço preparado e não publicado. */
+    public synchronized void descartarPreco() {
+        EstadoPreco atual = preco;
+        if (atual.pendente != null && !atual.publicado.getAsBoolean()) {
+            preco = new EstadoPreco(atual.vigente, null, null);
+        }
+    }
+
+    /**
+     * Troca o estoque disponível. Num ingresso do catálogo com log, use
+     * IngressoRepository.redefinirEstoque, que grava a alteração.
+     */
     public void setQuantidadeDisponivel(int quantidadeDisponivel) {
-        this.quantidadeDisponivel = quantidadeDisponivel;
+        redefinirQuantidadeDisponivel(quantidadeDisponivel);
+    }
+
+    /**
+     * Troca o estoque disponível, sem mexer nas unidades retidas por compras em andamento.
+     * @return o estoque disponível imediatamente antes da troca
+     */
+    public int redefinirQuantidadeDisponivel(int quantidadeDisponivel) {
+        if (assentos != null) {
+            throw new IllegalStateException("Estoque de " + tipo + " segue o mapa de assentos.");
+        }
+        return estoque.definir(quantidadeDisponivel);
+    }
+
+    /** Indica se o ingresso é de lugar marcado. */
+    public boolean temAssentos() {
+        return assentos != null;
+    }
+
+    /** Mapa de assentos do setor (null se o ingresso não tem lugar marcado). */
+    public MapaAssentos getAssentos() {
+        return assentos;
     }
     // --- FIM DAS ADIÇÕES ---
 
@@ -49,9 +188,89 @@ public class Ingresso {
      * Justificativa: Ingresso conhece sua própria quantidade disponível,
      * portanto é o especialista para verificar se há ingressos suficientes.
      * Isso mantém ALTA COESÃO.
+     *
+     * Atenção: sob concorrência o resultado é apenas indicativo; para vender
+     * use {@link #tentarReservar(int)}, que verifica e retira na mesma operação.
      */
     public boolean verificarDisponibilidade(int quantidade) {
-        return quantidadeDisponivel >= quantidade;
+        return estoque.disponivel() >= quantidade;
+    }
+
+    /**
+     * Padrão GRASP: INFORMATION EXPERT
+     * Método aplicado em: tentarReservar()
+     * Justificativa: a verificação e a retirada acontecem juntas, de forma
+     * atômica (CAS), no próprio estoque do ingresso. Assim não existe a janela
+     * entre "verificar" e "vender" em que dois compradores levam a mesma unidade.
+     * @return true se as unidades foram reservadas
+     */
+    public boolean tentarReservar(int quantidade) {
+        long inicio = RESERVAR.iniciar();
+        boolean reservado = estoque.tentarReservar(quantidade);
+        RESERVAR.concluir(inicio, reservado); // falta de estoque conta como falha
+        return reservado;
+    }
+
+    /**
+     * Reserva até {@code maximo} unidades, o quanto houver.
+     * Usado pelo processamento em lote: uma única operação atômica por tipo de ingresso.
+     * @return quantidade efetivamente reservada
+     */
+    public int reservarAte(int maximo) {
+        return estoque.reservarAte(maximo);
+    }
+
+    /**
+     * Devolve ao estoque unidades reservadas anteriormente.
+     */
+    public void liberar(int quantidade) {
+        estoque.liberar(quantidade);
+    }
+
+    /**
+     * Reserva os melhores {@code quantidade} assentos vizinhos disponíveis
+     * (ver MapaAssentos.reservarMelhores), retirando também as unidades do estoque.
+     * @return o bloco reservado, ou vazio se não há estoque ou assentos juntos
+     */
+    public Optional<BlocoAssentos> reservarMelhoresAssentos(int quantidade) {
+        exigirAssentos();
+        if (!tentarReservar(quantidade)) {
+            return Optional.empty();
+        }
+        Optional<BlocoAssentos> bloco = assentos.reservarMelhores(quantidade);
+        if (bloco.isEmpty()) {
+            estoque.liberar(quantidade);
+        }
+        return bloco;
+    }
+
+    /**
+     * Reserva exatamente os assentos do bloco, retirando as unidades do estoque.
+     * @return false se algum assento do bloco já estava ocupado
+     */
+    public boolean reservarAssentos(BlocoAssentos bloco) {
+        exigirAssentos();
+        if (!tentarReservar(bloco.getQuantidade())) {
+            return false;
+        }
+        if (!assentos.reservar(bloco)) {
+            estoque.liberar(bloco.getQuantidade());
+            return false;
+        }
+        return true;
+    }
+
+    /** Devolve ao mapa e ao estoque os assentos de um bloco reservado. */
+    public void liberarAssentos(BlocoAssentos bloco) {
+        exigirAssentos();
+        assentos.liberar(bloco);
+        estoque.liberar(bloco.getQuantidade());
+    }
+
+    private void exigirAssentos() {
+        if (assentos == null) {
+            throw new IllegalStateException("Ingresso sem lugar marcado: " + tipo);
+        }
     }
 
     /**
@@ -61,9 +280,7 @@ public class Ingresso {
      * mantendo a responsabilidade centralizada.
      */
     public void vender(int quantidade) {
-        if (verificarDisponibilidade(quantidade)) {
-            quantidadeDisponivel -= quantidade;
-        } else {
+        if (!tentarReservar(quantidade)) {
             throw new IllegalStateException("Ingressos insuficientes: " + tipo);
         }
     }
@@ -71,6 +288,6 @@ public class Ingresso {
     @Override
     public String toString() {
         return String.format("Ingresso [%s] R$ %.2f - Disponível: %d", 
-                           tipo, preco, quantidadeDisponivel);
+                           tipo, getPreco(), estoque.disponivel());
     }
 }
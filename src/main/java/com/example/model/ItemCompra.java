@@ -1,15 +1,53 @@
 package com.example.model;
 
+import com.example.assento.BlocoAssentos;
+
 /**
  * Representa um item dentro de uma compra: um ingresso e a quantidade comprada.
+ * O preço unitário e o subtotal (em centavos) são calculados uma única vez,
+ * na criação do item, a partir da versão de preço que o item fixa: trocas de
+ * preço posteriores no ingresso não o alteram.
  */
 public class ItemCompra {
-    private Ingresso ingresso;
-    private int quantidade;
+    private final Ingresso ingresso;
+    private final int quantidade;
+    private final long precoUnitarioCentavos;
+    private final long versaoPreco; // 0 quando o preço veio de fora (ex.: restauração antiga)
+    private final long subtotalCentavos;
+    private final BlocoAssentos assentos; // null para ingressos sem lugar marcado
 
     public ItemCompra(Ingresso ingresso, int quantidade) {
+        this(ingresso, quantidade, ingresso.getVersaoPreco());
+    }
+
+    /** Cria o item com uma versão de preço já lida (ex.: a de um retrato do catálogo). */
+    public ItemCompra(Ingresso ingresso, int quantidade, VersaoPreco preco) {
+        this(ingresso, quantidade, preco.getPrecoCentavos(), preco.getVersao(), null);
+    }
+
+    /** Cria o item com o preço unitário informado (ex.: ao restaurar uma compra gravada). */
+    public ItemCompra(Ingresso ingresso, int quantidade, long precoUnitarioCentavos) {
+        this(ingresso, quantidade, precoUnitarioCentavos, 0, null);
+    }
+
+    /** Item de lugar marcado: a quantidade é a do bloco de assentos. */
+    public ItemCompra(Ingresso ingresso, BlocoAssentos assentos) {
+        this(ingresso, assentos, ingresso.getVersaoPreco());
+    }
+
+    /** Item de lugar marcado com uma versão de preço já lida (ex.: ao restaurar uma compra gravada). */
+    public ItemCompra(Ingresso ingresso, BlocoAssentos assentos, VersaoPreco preco) {
+        this(ingresso, assentos.getQuantidade(), preco.getPrecoCentavos(), preco.getVersao(), assentos);
+    }
+
+    ItemCompra(Ingresso ingresso, int quantidade, long precoUnitarioCentavos, long versaoPreco,
+               BlocoAssentos assentos) {
         this.ingresso = ingresso;
         this.quantidade = quantidade;
+        this.precoUnitarioCentavos = precoUnitarioCentavos;
+        this.versaoPreco = versaoPreco;
+        this.subtotalCentavos = Math.multiplyExact(precoUnitarioCentavos, (long) quantidade);
+        this.assentos = assentos;
     }
 
     public Ingresso getIngresso() {
@@ -20,12 +58,31 @@ public class ItemCompra {
         return quantidade;
     }
 
+    public long getPrecoUnitarioCentavos() {
+        return precoUnitarioCentavos;
+    }
+
+    /** Versão do preço do ingresso em que o item foi vendido (0 se desconhecida). */
+    public long getVersaoPreco() {
+        return versaoPreco;
+    }
+
+    public long getSubtotalCentavos() {
+        return subtotalCentavos;
+    }
+
+    /** Assentos do item (null se o ingresso não tem lugar marcado). */
+    public BlocoAssentos getAssentos() {
+        return assentos;
+    }
+
     public double getSubtotal() {
-        return ingresso.getPreco() * quantidade;
+        return Dinheiro.paraReais(subtotalCentavos);
     }
 
     @Override
     public String toString() {
-        return String.format("%s x%d -> R$ %.2f", ingresso.getTipo(), quantidade, getSubtotal());
+        String texto = String.format("%s x%d -> R$ %.2f", ingresso.getTipo(), quantidade, getSubtotal());
+        return assentos == null ? texto : texto + " [" + assentos + "]";
     }
 }
@@ -0,0 +1,34 @@
+package com.example.model;
+
+/**
+ * Preço de um ingresso numa versão: imutável, publicado inteiro de uma vez.
+ * Quem guarda a referência (um item de compra, um retrato do catálogo) lê
+ * preço e versão sempre do mesmo par, mesmo com o preço sendo trocado.
+ */
+public final class VersaoPreco {
+    private final long versao;
+    private final long precoCentavos;
+
+    public VersaoPreco(long versao, long precoCentavos) {
+        this.versao = versao;
+        this.precoCentavos = precoCentavos;
+    }
+
+    /** Versão do preço no ingresso: 1 na criação, +1 a cada troca; 0 quando desconhecida. */
+    public long getVersao() {
+        return versao;
+    }
+
+    public long getPrecoCentavos() {
+        return precoCentavos;
+    }
+
+    public double getPreco() {
+        return Dinheiro.paraReais(precoCentavos);
+    }
+
+    @Override
+    public String toString() {
+        return "v" + versao + " " + precoCentavos;
+    }
+}
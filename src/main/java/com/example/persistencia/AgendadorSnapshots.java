@@ -0,0 +1,60 @@
+package com.example.persistencia;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Grava snapshots periodicamente numa thread de fundo, sem interromper as vendas.
+ */
+public class AgendadorSnapshots implements AutoCloseable {
+    private final GravadorSnapshot gravador;
+    private final ScheduledExecutorService executor;
+    private final AtomicLong gravados = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private volatile RuntimeException ultimaFalha;
+
+    public AgendadorSnapshots(GravadorSnapshot gravador, long intervalo, TimeUnit unidade) {
+        this.gravador = gravador;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "snapshots");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::gravarComSeguranca, intervalo, intervalo, unidade);
+    }
+
+    private void gravarComSeguranca() {
+        try {
+            gravador.gravar();
+            gravados.incrementAndGet();
+        } catch (RuntimeException e) {
+            // uma falha não pode matar o agendamento; o próximo ciclo tenta de novo
+            ultimaFalha = e;
+            falhas.incrementAndGet();
+        }
+    }
+
+    public long getGravados() {
+        return gravados.get();
+    }
+
+    public long getFalhas() {
+        return falhas.get();
+    }
+
+    public RuntimeException getUltimaFalha() {
+        return ultimaFalha;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.persistencia;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Convenções de nome e formato dos arquivos de snapshot.
+ *
+ * Formato (versão 1), todos os inteiros em big-endian:
+ * <pre>
+ * int   MAGICO ("SNAP")
+ * short versão
+ * long  segmento do log coberto   | int deslocamento
+ * int   quantidade de ingressos, seguida de [texto tipo][long preço][long versão do preço][int estoque]
+ * clientes: [byte 1][texto nome][texto email] ... [byte 0]
+ * compras:  [byte 1][texto código][texto email][long instante][long sequência de finalização][int n]
+ *           n x ([texto tipo][int quantidade][long preço unitário][long versão do preço][assentos]) ... [byte 0]
+ *           assentos: [byte 0] sem lugar marcado, ou [byte 1][texto setor][int fila][int primeiro][int quantidade]
+ * int   MAGICO_FIM ("FIM!") | int CRC32 de tudo o que vem antes
+ * </pre>
+ * O nome do arquivo contém a posição do log, então a ordem alfabética é a ordem cronológica.
+ */
+final class ArquivosSnapshot {
+    static final int MAGICO = 0x534E4150;
+    static final int MAGICO_FIM = 0x46494D21;
+    static final short VERSAO = 1;
+    static final String PREFIXO = "snapshot-";
+    static final String SUFIXO = ".snap";
+
+    private ArquivosSnapshot() {
+    }
+
+    static Path caminho(Path diretorio, PosicaoLog posicao) {
+        return diretorio.resolve(PREFIXO + preencher(posicao.getSegmento(), 12) + "-"
+                + preencher(posicao.getDeslocamento(), 10) + SUFIXO);
+    }
+
+    /** Snapshots existentes, do mais antigo para o mais recente. */
+    static List<Path> listar(Path diretorio) throws IOException {
+        if (!Files.isDirectory(diretorio)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.filter(p -> {
+                String nome = p.getFileName().toString();
+                return nome.startsWith(PREFIXO) && nome.endsWith(SUFIXO);
+            }).sorted().collect(Collectors.toList());
+        }
+    }
+
+    static PosicaoLog posicaoDoNome(Path arquivo) {
+        String nome = arquivo.getFileName().toString();
+        String meio = nome.substring(PREFIXO.length(), nome.length() - SUFIXO.length());
+        int traco = meio.indexOf('-');
+        return new PosicaoLog(Long.parseLong(meio.substring(0, traco)), Integer.parseInt(meio.substring(traco + 1)));
+    }
+
+    private static String preencher(long valor, int largura) {
+        String digitos = Long.toString(valor);
+        StringBuilder sb = new StringBuilder(largura);
+        for (int i = digitos.length(); i < largura; i++) {
+            sb.append('0');
+        }
+        return sb.append(digitos).toString();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.persistencia;
+
+import com.example.assento.BlocoAssentos;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Leitura e escrita de campos primitivos e textos em ByteBuffer.
+ * Textos são gravados como [short tamanho][bytes UTF-8]; o caminho comum
+ * (ASCII) é codificado caractere a caractere, sem criar arrays intermediários.
+ */
+final class CodificacaoBinaria {
+    static final int TAMANHO_MAXIMO_TEXTO = Short.MAX_VALUE;
+
+    private CodificacaoBinaria() {
+    }
+
+    /** Espaço máximo que o texto pode ocupar (3 bytes por caractere no pior caso). */
+    static int tamanhoMaximo(String texto) {
+        return 2 + texto.length() * 3;
+    }
+
+    static void escreverTexto(ByteBuffer destino, String texto) {
+        int inicio = destino.position();
+        destino.position(inicio + 2);
+        int n = texto.length();
+        boolean ascii = true;
+        for (int i = 0; i < n; i++) {
+            char c = texto.charAt(i);
+            if (c >= 0x80) {
+                ascii = false;
+                break;
+            }
+            destino.put((byte) c);
+        }
+        if (!ascii) {
+            destino.position(inicio + 2);
+            destino.put(texto.getBytes(StandardCharsets.UTF_8));
+        }
+        int tamanho = destino.position() - inicio - 2;
+        if (tamanho > TAMANHO_MAXIMO_TEXTO) {
+            throw new IllegalArgumentException("Texto grande demais para o formato binário: " + tamanho + " bytes");
+        }
+        destino.putShort(inicio, (short) tamanho);
+    }
+
+    /** Espaço máximo dos assentos de uma linha de compra: [byte 0] ou [byte 1][texto setor][int fila][int primeiro][int quantidade]. */
+    static int tamanhoMaximo(BlocoAssentos assentos) {
+        return assentos == null ? 1 : 1 + tamanhoMaximo(assentos.getSetor()) + 12;
+    }
+
+    static void escreverAssentos(ByteBuffer destino, BlocoAssentos assentos) {
+        if (assentos == null) {
+            destino.put((byte) 0);
+            return;
+        }
+        destino.put((byte) 1);
+        escreverTexto(destino, assentos.getSetor());
+        destino.putInt(assentos.getFila());
+        destino.putInt(assentos.getPrimeiro());
+        destino.putInt(assentos.getQuantidade());
+    }
+
+    static BlocoAssentos lerAssentos(ByteBuffer origem) {
+        if (origem.get() == 0) {
+            return null;
+        }
+        String setor = lerTexto(origem);
+        int fila = origem.getInt();
+        int primeiro = origem.getInt();
+        return new BlocoAssentos(setor, fila, primeiro, origem.getInt());
+    }
+
+    static String lerTexto(ByteBuffer origem) {
+        int tamanho = origem.getShort() & 0xFFFF;
+        byte[] bytes = new byte[tamanho];
+        origem.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
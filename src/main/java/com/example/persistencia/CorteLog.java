@@ -0,0 +1,27 @@
+package com.example.persistencia;
+
+import java.util.Map;
+
+/**
+ * Fotografia consistente tirada do log num instante: a posição final e o
+ * estado de cada ingresso (preço, versão do preço e estoque) exatamente como a reprodução do
+ * log até essa posição o reconstruiria.
+ */
+public final class CorteLog {
+    private final PosicaoLog posicao;
+    private final Map<String, long[]> ingressos;
+
+    CorteLog(PosicaoLog posicao, Map<String, long[]> ingressos) {
+        this.posicao = posicao;
+        this.ingressos = ingressos;
+    }
+
+    public PosicaoLog getPosicao() {
+        return posicao;
+    }
+
+    /** tipo -> {preço em centavos, quantidade disponível, versão do preço}. */
+    Map<String, long[]> getIngressos() {
+        return ingressos;
+    }
+}
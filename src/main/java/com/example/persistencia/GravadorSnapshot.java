@@ -0,0 +1,184 @@
+package com.example.persistencia;
+
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.repository.ClienteRepository;
+import com.example.repository.CompraRepository;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Grava snapshots binários dos repositórios enquanto as vendas continuam.
+ *
+ * Consistência: o snapshot é ancorado num {@link CorteLog} — a posição do log
+ * e o estoque consolidado dos ingressos nesse ponto exato. O corte espera as
+ * alterações de repositório em andamento (ver {@link LogCompras#abrirAlteracao()}),
+ * então toda alteração registrada antes dele já está nos mapas. Clientes e
+ * compras são percorridos depois, sem parar as vendas, e podem conter
+ * alterações posteriores ao corte; isso é inofensivo porque, na recuperação,
+ * a cauda do log a partir do corte é reaplicada por cima (gravações e remoções
+ * de clientes e compras são idempotentes, e as baixas de estoque da cauda
+ * partem exatamente do estoque do corte).
+ *
+ * O arquivo é escrito em blocos de 1 MB, com um .tmp renomeado atomicamente
+ * no final; são mantidos os dois snapshots mais recentes, e os segmentos do
+ * log anteriores ao mais antigo deles são apagados.
+ */
+public class GravadorSnapshot {
+    private static final int SNAPSHOTS_MANTIDOS = 2;
+    private static final int TAMANHO_BLOCO = 1 << 20;
+
+    private final Path diretorio;
+    private final LogCompras log;
+    private final ClienteRepository clientes;
+    private final CompraRepository compras;
+
+    public GravadorSnapshot(LogCompras log, ClienteRepository clientes, CompraRepository compras) {
+        this.diretorio = log.getDiretorio();
+        this.log = log;
+        this.clientes = clientes;
+        this.compras = compras;
+    }
+
+    /** Grava um snapshot completo. @return o arquivo gerado */
+    public Path gravar() {
+        CorteLog corte = log.capturarCorte();
+        Path destino = ArquivosSnapshot.caminho(diretorio, corte.getPosicao());
+        Path temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Saida saida = new Saida(canal);
+            saida.garantir(18);
+            saida.buffer.putInt(ArquivosSnapshot.MAGICO);
+            saida.buffer.putShort(ArquivosSnapshot.VERSAO);
+            saida.buffer.putLong(corte.getPosicao().getSegmento());
+            saida.buffer.putInt(corte.getPosicao().getDeslocamento());
+
+            Map<String, long[]> ingressos = corte.getIngressos();
+            saida.garantir(4);
+            saida.buffer.putInt(ingressos.size());
+            for (Map.Entry<String, long[]> e : ingressos.entrySet()) {
+                saida.garantir(CodificacaoBinaria.tamanhoMaximo(e.getKey()) + 20);
+                CodificacaoBinaria.escreverTexto(saida.buffer, e.getKey());
+                saida.buffer.putLong(e.getValue()[0]);
+                saida.buffer.putLong(e.getValue()[2]);
+                saida.buffer.putInt((int) e.getValue()[1]);
+            }
+
+            clientes.paraCada(saida::escreverCliente);
+            saida.garantir(1);
+            saida.buffer.put((byte) 0);
+
+            compras.paraCada(saida::escreverCompra);
+            saida.garantir(1);
+            saida.buffer.put((byte) 0);
+
+            saida.concluir();
+            canal.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+            limparAntigos();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return destino;
+    }
+
+    private void limparAntigos() throws IOException {
+        List<Path> existentes = ArquivosSnapshot.listar(diretorio);
+        int excedentes = existentes.size() - SNAPSHOTS_MANTIDOS;
+        for (int i = 0; i < excedentes; i++) {
+            Files.deleteIfExists(existentes.get(i));
+        }
+        if (excedentes >= 0) {
+            // o snapshot mais antigo mantido é o plano B se o mais recente estiver corrompido
+            log.descartarSegmentosAnteriores(ArquivosSnapshot.posicaoDoNome(existentes.get(excedentes)));
+        }
+    }
+
+    /** Buffer de saída em blocos, com CRC acumulado do que já foi escrito. */
+    private static final class Saida {
+        final FileChannel canal;
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_BLOCO);
+        final CRC32 crc = new CRC32();
+
+        Saida(FileChannel canal) {
+            this.canal = canal;
+        }
+
+        void garantir(int bytes) {
+            if (buffer.remaining() < bytes) {
+                descarregar();
+            }
+        }
+
+        void escreverCliente(Cliente cliente) {
+            garantir(1 + CodificacaoBinaria.tamanhoMaximo(cliente.getNome())
+                    + CodificacaoBinaria.tamanhoMaximo(cliente.getEmail()));
+            buffer.put((byte) 1);
+            CodificacaoBinaria.escreverTexto(buffer, cliente.getNome());
+            CodificacaoBinaria.escreverTexto(buffer, cliente.getEmail());
+        }
+
+        void escreverCompra(Compra compra) {
+            if (!compra.getStatus().equals("Finalizada")) {
+                return;
+            }
+            // compra finalizada é imutável: os acessores por índice leem a forma compacta sem alocar
+            int itens = compra.getQuantidadeItens();
+            int tamanho = 1 + CodificacaoBinaria.tamanhoMaximo(compra.getCodigoCompra())
+                    + CodificacaoBinaria.tamanhoMaximo(compra.getCliente().getEmail()) + 20;
+            for (int i = 0; i < itens; i++) {
+                tamanho += CodificacaoBinaria.tamanhoMaximo(compra.getIngressoDoItem(i).getTipo()) + 20
+                        + CodificacaoBinaria.tamanhoMaximo(compra.getAssentosDoItem(i));
+            }
+            garantir(tamanho);
+            buffer.put((byte) 1);
+            CodificacaoBinaria.escreverTexto(buffer, compra.getCodigoCompra());
+            CodificacaoBinaria.escreverTexto(buffer, compra.getCliente().getEmail());
+            buffer.putLong(compra.getInstanteFinalizacao());
+            buffer.putLong(compra.getSequenciaFinalizacao());
+            buffer.putInt(itens);
+            for (int i = 0; i < itens; i++) {
+                CodificacaoBinaria.escreverTexto(buffer, compra.getIngressoDoItem(i).getTipo());
+                buffer.putInt(compra.getQuantidadeDoItem(i));
+                buffer.putLong(compra.getPrecoUnitarioDoItem(i));
+                buffer.putLong(compra.getVersaoPrecoDoItem(i));
+                CodificacaoBinaria.escreverAssentos(buffer, compra.getAssentosDoItem(i));
+            }
+        }
+
+        void concluir() {
+            garantir(8);
+            buffer.putInt(ArquivosSnapshot.MAGICO_FIM);
+            descarregar();
+            buffer.putInt((int) crc.getValue());
+            descarregar();
+        }
+
+        private void descarregar() {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            try {
+                while (buffer.hasRemaining()) {
+                    canal.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.clear();
+        }
+    }
+}
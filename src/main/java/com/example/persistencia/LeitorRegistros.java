@@ -0,0 +1,43 @@
+package com.example.persistencia;
+
+import com.example.assento.BlocoAssentos;
+
+/**
+ * Recebe os registros do log durante a reprodução (replay), na ordem em que foram gravados.
+ */
+public interface LeitorRegistros {
+
+    void clienteSalvo(String nome, String email);
+
+    void clienteRemovido(String email);
+
+    /**
+     * @param versaoPreco versão do preço no ingresso
+     * @param quantidadeDisponivel estoque do ingresso, ou {@link LogCompras#ESTOQUE_MANTIDO}
+     *                             para só trocar o preço de um ingresso existente
+     */
+    void ingressoSalvo(String tipo, long precoCentavos, long versaoPreco, int quantidadeDisponivel);
+
+    void ingressoRemovido(String tipo);
+
+    /**
+     * Reprecificação em lote, gravada num único registro; só troca preços de
+     * ingressos existentes. Os arrays seguem as regras de {@link #compraFinalizada}.
+     */
+    void precosPublicados(int quantidade, String[] tipos, long[] precosCentavos, long[] versoesPreco);
+
+    /** Unidades somadas (ou, se negativo, retiradas) do estoque do ingresso. */
+    void estoqueAjustado(String tipo, int diferenca);
+
+    /**
+     * Compra finalizada. Os arrays têm uma posição por item e só são válidos
+     * durante a chamada (podem ser reutilizados pelo leitor do log).
+     *
+     * @param sequencia ordem da compra no índice de finalização: a posição do
+     *                  registro no log (ver {@link com.example.model.Compra#getSequenciaFinalizacao()})
+     * @param assentos bloco de assentos de cada item (null nos itens sem lugar marcado)
+     */
+    void compraFinalizada(String codigo, String emailCliente, long instanteFinalizacao, long sequencia,
+                          int quantidadeItens, String[] tipos, int[] quantidades, long[] precosCentavos,
+                          long[] versoesPreco, BlocoAssentos[] assentos);
+}
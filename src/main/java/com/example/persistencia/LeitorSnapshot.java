@@ -0,0 +1,182 @@
+package com.example.persistencia;
+
+import com.example.assento.BlocoAssentos;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Carrega o snapshot mais recente e válido.
+ *
+ * A leitura é feita em blocos de 4 MB direto do FileChannel para um buffer
+ * direto, e os campos são decodificados no próprio buffer (nada de
+ * desserialização por objeto). Antes de aplicar qualquer dado o arquivo
+ * inteiro é conferido (marcador de fim e CRC32); um snapshot truncado ou
+ * corrompido é ignorado e o anterior é usado.
+ */
+final class LeitorSnapshot {
+    private static final int TAMANHO_BLOCO = 4 << 20;
+
+    private LeitorSnapshot() {
+    }
+
+    /**
+     * Aplica o snapshot válido mais recente ao leitor.
+     * @return a posição do log coberta pelo snapshot, ou vazio se não houver snapshot válido
+     */
+    static Optional<PosicaoLog> carregarMaisRecente(Path diretorio, LeitorRegistros leitor) {
+        try {
+            List<Path> snapshots = ArquivosSnapshot.listar(diretorio);
+            for (int i = snapshots.size() - 1; i >= 0; i--) {
+                Path arquivo = snapshots.get(i);
+                if (valido(arquivo)) {
+                    return Optional.of(aplicar(arquivo, leitor));
+                }
+            }
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean valido(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            long tamanho = canal.size();
+            if (tamanho < 26) {
+                return false;
+            }
+            CRC32 crc = new CRC32();
+            ByteBuffer bloco = ByteBuffer.allocateDirect(TAMANHO_BLOCO);
+            long restante = tamanho - 4;
+            while (restante > 0) {
+                bloco.clear();
+                bloco.limit((int) Math.min(bloco.capacity(), restante));
+                int lidos = canal.read(bloco);
+                if (lidos < 0) {
+                    return false;
+                }
+                bloco.flip();
+                crc.update(bloco);
+                restante -= lidos;
+            }
+            ByteBuffer fim = ByteBuffer.allocate(8);
+            canal.read(fim, tamanho - 8);
+            fim.flip();
+            return fim.getInt() == ArquivosSnapshot.MAGICO_FIM && fim.getInt() == (int) crc.getValue();
+        }
+    }
+
+    private static PosicaoLog aplicar(Path arquivo, LeitorRegistros leitor) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            Entrada e = new Entrada(canal);
+            e.garantir(18);
+            if (e.buffer.getInt() != ArquivosSnapshot.MAGICO) {
+                throw new IOException("Arquivo não é um snapshot: " + arquivo);
+            }
+            short versao = e.buffer.getShort();
+            if (versao != ArquivosSnapshot.VERSAO) {
+                throw new IOException("Versão de snapshot não suportada: " + versao);
+            }
+            PosicaoLog posicao = new PosicaoLog(e.buffer.getLong(), e.buffer.getInt());
+
+            e.garantir(4);
+            int ingressos = e.buffer.getInt();
+            for (int i = 0; i < ingressos; i++) {
+                String tipo = e.texto();
+                e.garantir(20);
+                long preco = e.buffer.getLong();
+                long versaoPreco = e.buffer.getLong();
+                leitor.ingressoSalvo(tipo, preco, versaoPreco, e.buffer.getInt());
+            }
+
+            while (e.marcador()) {
+                String nome = e.texto();
+                leitor.clienteSalvo(nome, e.texto());
+            }
+
+            String[] tipos = new String[8];
+            int[] quantidades = new int[8];
+            long[] precos = new long[8];
+            long[] versoes = new long[8];
+            BlocoAssentos[] assentos = new BlocoAssentos[8];
+            while (e.marcador()) {
+                String codigo = e.texto();
+                String email = e.texto();
+                e.garantir(20);
+                long instante = e.buffer.getLong();
+                long sequencia = e.buffer.getLong();
+                int n = e.buffer.getInt();
+                if (tipos.length < n) {
+                    tipos = new String[n];
+                    quantidades = new int[n];
+                    precos = new long[n];
+                    versoes = new long[n];
+                    assentos = new BlocoAssentos[n];
+                }
+                for (int i = 0; i < n; i++) {
+                    tipos[i] = e.texto();
+                    e.garantir(20);
+                    quantidades[i] = e.buffer.getInt();
+                    precos[i] = e.buffer.getLong();
+                    versoes[i] = e.buffer.getLong();
+                    assentos[i] = e.assentos();
+                }
+                leitor.compraFinalizada(codigo, email, instante, sequencia, n, tipos, quantidades, precos, versoes, assentos);
+            }
+            return posicao;
+        }
+    }
+
+    /** Janela de leitura sobre o arquivo, recarregada em blocos. */
+    private static final class Entrada {
+        final FileChannel canal;
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_BLOCO);
+
+        Entrada(FileChannel canal) {
+            this.canal = canal;
+            buffer.limit(0);
+        }
+
+        void garantir(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            buffer.compact();
+            while (buffer.position() < bytes) {
+                if (canal.read(buffer) < 0) {
+                    throw new IOException("Snapshot terminou antes do esperado.");
+                }
+            }
+            buffer.flip();
+        }
+
+        boolean marcador() throws IOException {
+            garantir(1);
+            return buffer.get() == 1;
+        }
+
+        String texto() throws IOException {
+            garantir(2);
+            int tamanho = buffer.getShort(buffer.position()) & 0xFFFF;
+            garantir(2 + tamanho);
+            return CodificacaoBinaria.lerTexto(buffer);
+        }
+
+        BlocoAssentos assentos() throws IOException {
+            if (!marcador()) {
+                return null;
+            }
+            String setor = texto();
+            garantir(12);
+            int fila = buffer.getInt();
+            int primeiro = buffer.getInt();
+            return new BlocoAssentos(setor, fila, primeiro, buffer.getInt());
+        }
+    }
+}
@@ -0,0 +1,593 @@
+package com.example.persistencia;
+
+import com.example.assento.BlocoAssentos;
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import com.example.model.ItemCompra;
+import com.example.model.VersaoPreco;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Log de persistência (write-ahead log) somente de acréscimo, gravado em
+ * segmentos mapeados em memória.
+ * Padrão GRASP aplicado: PURE FABRICATION e INDIRECTION
+ * Justificativa: durabilidade não é responsabilidade das entidades nem dos
+ * repositórios em memória; o log é uma classe auxiliar à qual os
+ * repositórios delegam a gravação de cada alteração.
+ *
+ * Formato de cada registro: [int tamanho do conteúdo][int CRC32][byte tipo][conteúdo].
+ * Um tamanho zero marca o fim dos dados do segmento (arquivos novos são
+ * preenchidos com zeros). Registros incompletos ou com CRC inválido — o que
+ * sobra de uma queda no meio da escrita — encerram a leitura daquele segmento.
+ *
+ * Escrita: cada thread codifica o registro no seu próprio buffer (sem
+ * serialização Java nem reflexão); só a cópia para o segmento mapeado
+ * acontece sob um lock curto. Os bytes vão para o cache de páginas do SO no
+ * momento da cópia, portanto sobrevivem à queda do processo; para sobreviver
+ * à queda da máquina chame {@link #sincronizar()} (fsync) na frequência desejada.
+ *
+ * Ao ser aberto, o log sempre começa um segmento novo; os anteriores ficam
+ * intactos para a reprodução.
+ *
+ * Estoque no log: um ingresso novo é gravado com o estoque disponível; daí
+ * em diante, o log só registra o que muda as unidades não vendidas — ajustes
+ * administrativos (como diferença, ver {@link #registrarEstoqueAjustado}) e
+ * compras finalizadas. Reservas de compras em andamento não são gravadas:
+ * numa queda, as unidades retidas voltam ao estoque.
+ *
+ * Sob o mesmo lock da escrita, o log mantém o estado consolidado de cada
+ * ingresso (último preço com a sua versão e unidades não vendidas, já
+ * descontadas as compras gravadas), para
+ * que um snapshot possa ser tirado num ponto exato do log sem parar as vendas
+ * (ver {@link #capturarCorte()}). Para que o corte também valha para os
+ * mapas em memória, os repositórios gravam o registro e aplicam a mudança
+ * entre {@link #abrirAlteracao()} e {@link #fecharAlteracao()}.
+ */
+public class LogCompras implements AutoCloseable {
+    public static final int TAMANHO_SEGMENTO_PADRAO = 64 * 1024 * 1024;
+    /** Quantidade de um registro de ingresso que só troca o preço e mantém o estoque já registrado. */
+    public static final int ESTOQUE_MANTIDO = -1;
+
+    static final String PREFIXO_SEGMENTO = "segmento-";
+    static final String SUFIXO_SEGMENTO = ".wal";
+    private static final int CABECALHO = 4 + 4 + 1;
+
+    private final Path diretorio;
+    private final int tamanhoSegmento;
+    private final ReentrantLock escrita = new ReentrantLock();
+    /** leitura: alteração de repositório em andamento; escrita: captura do corte. */
+    private final ReentrantReadWriteLock alteracoes = new ReentrantReadWriteLock();
+    private final ThreadLocal<Codificador> codificadores = ThreadLocal.withInitial(Codificador::new);
+    private MappedByteBuffer segmentoAtual;
+    private long numeroSegmentoAtual;
+    private volatile boolean fechado;
+    /** tipo -> {preço em centavos, quantidade, versão do preço}; protegido pelo lock de escrita. */
+    private final Map<String, long[]> ingressosConsolidados = new HashMap<>();
+
+    public LogCompras(Path diretorio) {
+        this(diretorio, TAMANHO_SEGMENTO_PADRAO);
+    }
+
+    public LogCompras(Path diretorio, int tamanhoSegmento) {
+        if (tamanhoSegmento < 1024) {
+            throw new IllegalArgumentException("Segmento muito pequeno: " + tamanhoSegmento);
+        }
+        this.diretorio = diretorio;
+        this.tamanhoSegmento = tamanhoSegmento;
+        try {
+            Files.createDirectories(diretorio);
+            List<Long> existentes = listarSegmentos(diretorio);
+            long ultimo = existentes.isEmpty() ? 0 : existentes.get(existentes.size() - 1);
+            abrirSegmento(ultimo + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ---------- Escrita ----------
+
+    /**
+     * Início de uma alteração de repositório: o registro no log e a mudança no
+     * mapa em memória devem acontecer antes do {@link #fecharAlteracao()}
+     * correspondente (num finally). Alterações rodam em paralelo entre si;
+     * só o {@link #capturarCorte()} espera as que estão em andamento.
+     * Abra a alteração antes de tomar qualquer trava do repositório.
+     */
+    public void abrirAlteracao() {
+        alteracoes.readLock().lock();
+    }
+
+    public void fecharAlteracao() {
+        alteracoes.readLock().unlock();
+    }
+
+    public void registrarClienteSalvo(Cliente cliente) {
+        Codificador c = codificadores.get();
+        ByteBuffer b = c.iniciar(TipoRegistro.CLIENTE_SALVO,
+                CodificacaoBinaria.tamanhoMaximo(cliente.getNome()) + CodificacaoBinaria.tamanhoMaximo(cliente.getEmail()));
+        CodificacaoBinaria.escreverTexto(b, cliente.getNome());
+        CodificacaoBinaria.escreverTexto(b, cliente.getEmail());
+        anexar(c, null);
+    }
+
+    public void registrarClienteRemovido(String email) {
+        Codificador c = codificadores.get();
+        ByteBuffer b = c.iniciar(TipoRegistro.CLIENTE_REMOVIDO, CodificacaoBinaria.tamanhoMaximo(email));
+        CodificacaoBinaria.escreverTexto(b, email);
+        anexar(c, null);
+    }
+
+    public void registrarIngressoSalvo(Ingresso ingresso) {
+        registrarIngressoSalvo(ingresso.getTipo(), ingresso.getVersaoPreco(), ingresso.getQuantidadeDisponivel());
+    }
+
+    /**
+     * Mesmo registro, com o preço e a quantidade informados (ex.: um preço
+     * ainda não publicado no ingresso). Com {@link #ESTOQUE_MANTIDO}, o
+     * registro só troca o preço: o estoque de um ingresso já registrado
+     * segue o que o log já tem, sem desfazer as reservas em andamento.
+     */
+    public void registrarIngressoSalvo(String tipo, VersaoPreco preco, int quantidade) {
+        long precoCentavos = preco.getPrecoCentavos();
+        long versao = preco.getVersao();
+        Codificador c = codificadores.get();
+        ByteBuffer b = c.iniciar(TipoRegistro.INGRESSO_SALVO, CodificacaoBinaria.tamanhoMaximo(tipo) + 20);
+        CodificacaoBinaria.escreverTexto(b, tipo);
+        b.putLong(precoCentavos);
+        b.putLong(versao);
+        b.putInt(quantidade);
+        anexar(c, m -> {
+            long[] estado = m.get(tipo);
+            if (quantidade != ESTOQUE_MANTIDO) {
+                m.put(tipo, new long[] {precoCentavos, quantidade, versao});
+            } else if (estado != null) {
+                estado[0] = precoCentavos;
+                estado[2] = versao;
+            } else {
+                m.put(tipo, new long[] {precoCentavos, 0, versao});
+            }
+        });
+    }
+
+    /**
+     * Reprecificação em lote num único registro: se a gravação falhar, nenhum
+     * preço do lote vai para o log. O estoque de cada tipo é mantido.
+     */
+    public void registrarPrecosPublicados(String[] tipos, VersaoPreco[] precos) {
+        int estimativa = 4;
+        for (String tipo : tipos) {
+            estimativa += CodificacaoBinaria.tamanhoMaximo(tipo) + 16;
+        }
+        Codificador c = codificadores.get();
+        ByteBuffer b = c.iniciar(TipoRegistro.PRECOS_PUBLICADOS, estimativa);
+        b.putInt(tipos.length);
+        for (int i = 0; i < tipos.length; i++) {
+            CodificacaoBinaria.escreverTexto(b, tipos[i]);
+            b.putLong(precos[i].getPrecoCentavos());
+            b.putLong(precos[i].getVersao());
+        }
+        anexar(c, m -> {
+            for (int i = 0; i < tipos.length; i++) {
+                long[] estado = m.get(tipos[i]);
+                if (estado != null) {
+                    estado[0] = precos[i].getPrecoCentavos();
+                    estado[2] = precos[i].getVersao();
+                }
+            }
+        });
+    }
+
+    /**
+     * Ajuste administrativo de estoque, gravado como diferença: somada às
+     * unidades não vendidas, vale com ou sem reservas em andamento no momento
+     * do ajuste (ver Estoque.definir, que devolve o valor anterior).
+     */
+    public void registrarEstoqueAjustado(String tipo, int diferenca) {
+        Codificador c = codificadores.get();
+        ByteBuffer b = c.iniciar(TipoRegistro.ESTOQUE_AJUSTADO, CodificacaoBinaria.tamanhoMaximo(tipo) + 4);
+        CodificacaoBinaria.escreverTexto(b, tipo);
+        b.putInt(diferenca);
+        anexar(c, m -> {
+            long[] estado = m.get(tipo);
+            if (estado != null) {
+                estado[1] = Math.max(0, estado[1] + diferenca);
+            }
+        });
+    }
+
+    public void registrarIngressoRemovido(String tipo) {
+        Codificador c = codificadores.get();
+        ByteBuffer b = c.iniciar(TipoRegistro.INGRESSO_REMOVIDO, CodificacaoBinaria.tamanhoMaximo(tipo));
+        CodificacaoBinaria.escreverTexto(b, tipo);
+        anexar(c, m -> m.remove(tipo));
+    }
+
+    /**
+     * Grava a compra finalizada e suas linhas num único registro, de modo que
+     * a compra e as baixas de estoque correspondentes são recuperadas juntas ou não são.
+     * @return posição do registro no log (ver {@link #sequencia}), que a reprodução entrega de novo
+     */
+    public long registrarCompraFinalizada(Compra compra) {
+        List<ItemCompra> itens = compra.getItens();
+        int estimativa = CodificacaoBinaria.tamanhoMaximo(compra.getCodigoCompra())
+                + CodificacaoBinaria.tamanhoMaximo(compra.getCliente().getEmail()) + 8 + 4;
+        for (ItemCompra item : itens) {
+            estimativa += CodificacaoBinaria.tamanhoMaximo(item.getIngresso().getTipo()) + 20
+                    + CodificacaoBinaria.tamanhoMaximo(item.getAssentos());
+        }
+        Codificador c = codificadores.get();
+        ByteBuffer b = c.iniciar(TipoRegistro.COMPRA_FINALIZADA, estimativa);
+        CodificacaoBinaria.escreverTexto(b, compra.getCodigoCompra());
+        CodificacaoBinaria.escreverTexto(b, compra.getCliente().getEmail());
+        b.putLong(compra.getInstanteFinalizacao());
+        b.putInt(itens.size());
+        for (ItemCompra item : itens) {
+            CodificacaoBinaria.escreverTexto(b, item.getIngresso().getTipo());
+            b.putInt(item.getQuantidade());
+            b.putLong(item.getPrecoUnitarioCentavos());
+            b.putLong(item.getVersaoPreco());
+            CodificacaoBinaria.escreverAssentos(b, item.getAssentos());
+        }
+        return anexar(c, m -> {
+            for (ItemCompra item : itens) {
+                long[] estado = m.get(item.getIngresso().getTipo());
+                if (estado != null) {
+                    estado[1] = Math.max(0, estado[1] - item.getQuantidade());
+                }
+            }
+        });
+    }
+
+    /**
+     * Copia o registro codificado para o segmento e, sob o mesmo lock, aplica
+     * {@code consolidar} ao estado consolidado dos ingressos.
+     * @return posição do registro (ver {@link #sequencia})
+     */
+    private long anexar(Codificador c, Consumer<Map<String, long[]>> consolidar) {
+        ByteBuffer b = c.buffer;
+        int tamanhoConteudo = b.position() - CABECALHO;
+        c.crc.reset();
+        c.crc.update(b.array(), 8, tamanhoConteudo + 1);
+        b.putInt(0, tamanhoConteudo);
+        b.putInt(4, (int) c.crc.getValue());
+        b.flip();
+        if (b.remaining() + 4 > tamanhoSegmento) {
+            throw new IllegalArgumentException("Registro maior que o segmento do log: " + b.remaining() + " bytes");
+        }
+        escrita.lock();
+        try {
+            if (fechado) {
+                throw new IllegalStateException("Log de persistência fechado.");
+            }
+            // mantém sempre 4 bytes livres para o marcador de fim (tamanho zero)
+            if (segmentoAtual.remaining() < b.remaining() + 4) {
+                abrirSegmento(numeroSegmentoAtual + 1);
+            }
+            long posicao = sequencia(numeroSegmentoAtual, segmentoAtual.position());
+            segmentoAtual.put(b);
+            if (consolidar != null) {
+                consolidar.accept(ingressosConsolidados);
+            }
+            return posicao;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    /**
+     * Captura, de forma atômica em relação às escritas, a posição atual do
+     * log e o estado consolidado dos ingressos. Antes espera as alterações de
+     * repositório em andamento: todo registro anterior ao corte já está nos
+     * mapas em memória quando o snapshot os percorre. Bloqueia os escritores
+     * apenas por esse tempo e pelo de copiar o mapa de ingressos (milhares de
+     * entradas, não milhões).
+     */
+    public CorteLog capturarCorte() {
+        alteracoes.writeLock().lock();
+        escrita.lock();
+        try {
+            Map<String, long[]> copia = new HashMap<>(ingressosConsolidados.size() * 2);
+            for (Map.Entry<String, long[]> e : ingressosConsolidados.entrySet()) {
+                copia.put(e.getKey(), e.getValue().clone());
+            }
+            return new CorteLog(new PosicaoLog(numeroSegmentoAtual, segmentoAtual.position()), copia);
+        } finally {
+            escrita.unlock();
+            alteracoes.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Posição a partir da qual ainda pode haver registros não aplicados aos
+     * repositórios: espera as alterações em andamento, como o
+     * {@link #capturarCorte()}, mas sem copiar nada. Todo registro com
+     * posição menor já está nos mapas em memória.
+     */
+    public long limiteAplicado() {
+        alteracoes.writeLock().lock();
+        escrita.lock();
+        try {
+            return sequencia(numeroSegmentoAtual, segmentoAtual.position());
+        } finally {
+            escrita.unlock();
+            alteracoes.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Posição no log como um único long crescente: segmento nos bits altos,
+     * deslocamento nos 32 baixos. Segmentos novos têm sempre número maior,
+     * então a ordem se mantém entre reaberturas do log.
+     */
+    static long sequencia(long segmento, int deslocamento) {
+        return (segmento << 32) | deslocamento;
+    }
+
+    /**
+     * Recarrega o estado consolidado dos ingressos (usado na recuperação,
+     * antes de qualquer escrita).
+     */
+    void restaurarIngressoConsolidado(String tipo, VersaoPreco preco, int quantidade) {
+        escrita.lock();
+        try {
+            ingressosConsolidados.put(tipo, new long[] {preco.getPrecoCentavos(), quantidade, preco.getVersao()});
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    /** Apaga os segmentos inteiramente anteriores à posição (já cobertos por um snapshot). */
+    public void descartarSegmentosAnteriores(PosicaoLog posicao) {
+        try {
+            for (long numero : listarSegmentos(diretorio)) {
+                if (numero < posicao.getSegmento() && numero != numeroSegmentoAtual) {
+                    Files.deleteIfExists(caminhoSegmento(diretorio, numero));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Força a gravação em disco (fsync) de tudo o que já foi anexado ao segmento atual. */
+    public void sincronizar() {
+        escrita.lock();
+        try {
+            segmentoAtual.force();
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        escrita.lock();
+        try {
+            if (!fechado) {
+                segmentoAtual.force();
+                fechado = true;
+            }
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    public Path getDiretorio() {
+        return diretorio;
+    }
+
+    private void abrirSegmento(long numero) throws IOException {
+        if (segmentoAtual != null) {
+            segmentoAtual.force();
+        }
+        Path arquivo = caminhoSegmento(diretorio, numero);
+        try (RandomAccessFile raf = new RandomAccessFile(arquivo.toFile(), "rw")) {
+            raf.setLength(tamanhoSegmento);
+            segmentoAtual = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, tamanhoSegmento);
+        }
+        numeroSegmentoAtual = numero;
+    }
+
+    // ---------- Leitura ----------
+
+    /**
+     * Reproduz todos os registros válidos do diretório, em ordem.
+     * Pode ser chamado sem abrir o log para escrita.
+     * @return quantidade de registros reproduzidos
+     */
+    public static long reproduzir(Path diretorio, LeitorRegistros leitor) {
+        return reproduzir(diretorio, PosicaoLog.INICIO, leitor);
+    }
+
+    /**
+     * Reproduz apenas a cauda do log, a partir de {@code inicio} (por exemplo a
+     * posição gravada num snapshot).
+     */
+    public static long reproduzir(Path diretorio, PosicaoLog inicio, LeitorRegistros leitor) {
+        long total = 0;
+        try {
+            for (long numero : listarSegmentos(diretorio)) {
+                if (numero < inicio.getSegmento()) {
+                    continue;
+                }
+                int deslocamento = numero == inicio.getSegmento() ? inicio.getDeslocamento() : 0;
+                total += reproduzirSegmento(diretorio, numero, deslocamento, leitor);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return total;
+    }
+
+    private static long reproduzirSegmento(Path diretorio, long numero, int deslocamento, LeitorRegistros leitor)
+            throws IOException {
+        ByteBuffer dados;
+        try (FileChannel canal = FileChannel.open(caminhoSegmento(diretorio, numero), StandardOpenOption.READ)) {
+            dados = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        dados.position(deslocamento);
+        CRC32 crc = new CRC32();
+        Linhas linhas = new Linhas();
+        long total = 0;
+        while (dados.remaining() >= CABECALHO) {
+            int inicio = dados.position();
+            int tamanho = dados.getInt();
+            int crcGravado = dados.getInt();
+            if (tamanho <= 0 || tamanho + 1 > dados.remaining()) {
+                break; // fim dos dados ou registro incompleto
+            }
+            ByteBuffer registro = dados.slice(inicio + 8, tamanho + 1);
+            crc.reset();
+            crc.update(registro.duplicate());
+            if ((int) crc.getValue() != crcGravado) {
+                break; // escrita interrompida por queda
+            }
+            TipoRegistro tipo = TipoRegistro.deCodigo(registro.get());
+            if (tipo == null) {
+                break;
+            }
+            decodificar(tipo, registro, leitor, linhas, sequencia(numero, inicio));
+            dados.position(inicio + CABECALHO + tamanho);
+            total++;
+        }
+        return total;
+    }
+
+    private static void decodificar(TipoRegistro tipo, ByteBuffer b, LeitorRegistros leitor, Linhas linhas,
+                                    long posicao) {
+        switch (tipo) {
+            case CLIENTE_SALVO: {
+                String nome = CodificacaoBinaria.lerTexto(b);
+                leitor.clienteSalvo(nome, CodificacaoBinaria.lerTexto(b));
+                break;
+            }
+            case CLIENTE_REMOVIDO:
+                leitor.clienteRemovido(CodificacaoBinaria.lerTexto(b));
+                break;
+            case INGRESSO_SALVO: {
+                String tipoIngresso = CodificacaoBinaria.lerTexto(b);
+                long preco = b.getLong();
+                long versao = b.getLong();
+                leitor.ingressoSalvo(tipoIngresso, preco, versao, b.getInt());
+                break;
+            }
+            case INGRESSO_REMOVIDO:
+                leitor.ingressoRemovido(CodificacaoBinaria.lerTexto(b));
+                break;
+            case PRECOS_PUBLICADOS: {
+                int n = b.getInt();
+                linhas.garantir(n);
+                for (int i = 0; i < n; i++) {
+                    linhas.tipos[i] = CodificacaoBinaria.lerTexto(b);
+                    linhas.precos[i] = b.getLong();
+                    linhas.versoes[i] = b.getLong();
+                }
+                leitor.precosPublicados(n, linhas.tipos, linhas.precos, linhas.versoes);
+                break;
+            }
+            case ESTOQUE_AJUSTADO: {
+                String tipoIngresso = CodificacaoBinaria.lerTexto(b);
+                leitor.estoqueAjustado(tipoIngresso, b.getInt());
+                break;
+            }
+            case COMPRA_FINALIZADA: {
+                String codigo = CodificacaoBinaria.lerTexto(b);
+                String email = CodificacaoBinaria.lerTexto(b);
+                long instante = b.getLong();
+                int n = b.getInt();
+                linhas.garantir(n);
+                for (int i = 0; i < n; i++) {
+                    linhas.tipos[i] = CodificacaoBinaria.lerTexto(b);
+                    linhas.quantidades[i] = b.getInt();
+                    linhas.precos[i] = b.getLong();
+                    linhas.versoes[i] = b.getLong();
+                    linhas.assentos[i] = CodificacaoBinaria.lerAssentos(b);
+                }
+                leitor.compraFinalizada(codigo, email, instante, posicao, n, linhas.tipos, linhas.quantidades,
+                        linhas.precos, linhas.versoes, linhas.assentos);
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    static List<Long> listarSegmentos(Path diretorio) throws IOException {
+        if (!Files.isDirectory(diretorio)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.map(p -> p.getFileName().toString())
+                    .filter(n -> n.startsWith(PREFIXO_SEGMENTO) && n.endsWith(SUFIXO_SEGMENTO))
+                    .map(n -> Long.parseLong(n.substring(PREFIXO_SEGMENTO.length(), n.length() - SUFIXO_SEGMENTO.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    static Path caminhoSegmento(Path diretorio, long numero) {
+        String digitos = Long.toString(numero);
+        StringBuilder nome = new StringBuilder(PREFIXO_SEGMENTO);
+        for (int i = digitos.length(); i < 12; i++) {
+            nome.append('0');
+        }
+        return diretorio.resolve(nome.append(digitos).append(SUFIXO_SEGMENTO).toString());
+    }
+
+    /** Buffer de codificação reutilizado por thread. */
+    private static final class Codificador {
+        ByteBuffer buffer = ByteBuffer.allocate(512);
+        final CRC32 crc = new CRC32();
+
+        ByteBuffer iniciar(TipoRegistro tipo, int tamanhoMaximoConteudo) {
+            int necessario = CABECALHO + tamanhoMaximoConteudo;
+            if (buffer.capacity() < necessario) {
+                buffer = ByteBuffer.allocate(Integer.highestOneBit(necessario) << 1);
+            }
+            buffer.clear();
+            buffer.position(8);
+            buffer.put(tipo.codigo);
+            return buffer;
+        }
+    }
+
+    /** Arrays reaproveitados para as linhas de compra durante a leitura. */
+    private static final class Linhas {
+        String[] tipos = new String[8];
+        int[] quantidades = new int[8];
+        long[] precos = new long[8];
+        long[] versoes = new long[8];
+        BlocoAssentos[] assentos = new BlocoAssentos[8];
+
+        void garantir(int n) {
+            if (tipos.length < n) {
+                tipos = new String[n];
+                quantidades = new int[n];
+                precos = new long[n];
+                versoes = new long[n];
+                assentos = new BlocoAssentos[n];
+            }
+        }
+    }
+}
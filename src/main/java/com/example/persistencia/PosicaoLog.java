@@ -0,0 +1,50 @@
+package com.example.persistencia;
+
+/**
+ * Posição no log de persistência: número do segmento e deslocamento (em bytes) dentro dele.
+ * Os registros a partir desta posição formam a "cauda" que ainda precisa ser reproduzida.
+ */
+public final class PosicaoLog implements Comparable<PosicaoLog> {
+    public static final PosicaoLog INICIO = new PosicaoLog(0, 0);
+
+    private final long segmento;
+    private final int deslocamento;
+
+    public PosicaoLog(long segmento, int deslocamento) {
+        this.segmento = segmento;
+        this.deslocamento = deslocamento;
+    }
+
+    public long getSegmento() {
+        return segmento;
+    }
+
+    public int getDeslocamento() {
+        return deslocamento;
+    }
+
+    @Override
+    public int compareTo(PosicaoLog outra) {
+        int c = Long.compare(segmento, outra.segmento);
+        return c != 0 ? c : Integer.compare(deslocamento, outra.deslocamento);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof PosicaoLog)) {
+            return false;
+        }
+        PosicaoLog outra = (PosicaoLog) o;
+        return segmento == outra.segmento && deslocamento == outra.deslocamento;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(segmento) * 31 + deslocamento;
+    }
+
+    @Override
+    public String toString() {
+        return segmento + ":" + deslocamento;
+    }
+}
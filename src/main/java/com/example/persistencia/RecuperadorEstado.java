@@ -0,0 +1,171 @@
+package com.example.persistencia;
+
+import com.example.assento.BlocoAssentos;
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Dinheiro;
+import com.example.model.Ingresso;
+import com.example.model.ItemCompra;
+import com.example.model.VersaoPreco;
+import com.example.repository.ClienteRepository;
+import com.example.repository.CompraRepository;
+import com.example.repository.IngressoRepository;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reconstrói o estado dos repositórios a partir do snapshot mais recente
+ * (se houver) e da cauda do log de persistência.
+ *
+ * Clientes e ingressos são regravados com o último valor registrado; um
+ * ingresso que já está no repositório (por exemplo, cadastrado pela aplicação
+ * antes da recuperação, com estoque particionado, motor de inventário ou mapa
+ * de assentos) é atualizado no lugar, mantendo a instância, o modo de estoque
+ * e a instância para a qual as compras já restauradas apontam; ajustes
+ * de estoque são somados ao ingresso; cada compra finalizada é recolocada no
+ * CompraRepository e as suas linhas dão baixa no estoque do ingresso
+ * correspondente; linhas de lugar marcado reocupam o seu bloco no mapa de
+ * assentos do ingresso. Compras que estavam em andamento no momento da queda nunca
+ * chegaram ao log, então as unidades que elas seguravam voltam ao estoque.
+ */
+public class RecuperadorEstado implements LeitorRegistros {
+    private final ClienteRepository clientes;
+    private final IngressoRepository ingressos;
+    private final CompraRepository compras;
+    /** Um ingresso avulso por tipo removido, compartilhado pelas compras que o citam. */
+    private final Map<String, Ingresso> avulsos = new HashMap<>();
+    /** Falso ao carregar o snapshot: o estoque gravado nele já desconta as compras. */
+    private boolean darBaixaNoEstoque = true;
+
+    public RecuperadorEstado(ClienteRepository clientes, IngressoRepository ingressos, CompraRepository compras) {
+        this.clientes = clientes;
+        this.ingressos = ingressos;
+        this.compras = compras;
+    }
+
+    /**
+     * Carrega o snapshot mais recente e reproduz a cauda do log existente em
+     * {@code diretorio} nos repositórios (que devem estar sem log anexado),
+     * abre um log novo para escrita e o anexa aos três repositórios.
+     * @return o log aberto, que deve ser fechado pelo chamador
+     */
+    public static LogCompras recuperarEAbrir(Path diretorio, ClienteRepository clientes,
+                                             IngressoRepository ingressos, CompraRepository compras) {
+        RecuperadorEstado recuperador = new RecuperadorEstado(clientes, ingressos, compras);
+        recuperador.darBaixaNoEstoque = false;
+        PosicaoLog inicio = LeitorSnapshot.carregarMaisRecente(diretorio, recuperador).orElse(PosicaoLog.INICIO);
+        recuperador.darBaixaNoEstoque = true;
+        LogCompras.reproduzir(diretorio, inicio, recuperador);
+
+        LogCompras log = new LogCompras(diretorio);
+        for (Ingresso ingresso : ingressos.findAll()) {
+            log.restaurarIngressoConsolidado(ingresso.getTipo(), ingresso.getVersaoPreco(),
+                    ingresso.getQuantidadeDisponivel());
+        }
+        clientes.anexarLog(log);
+        ingressos.anexarLog(log);
+        compras.anexarLog(log);
+        return log;
+    }
+
+    @Override
+    public void clienteSalvo(String nome, String email) {
+        clientes.save(new Cliente(nome, email));
+    }
+
+    @Override
+    public void clienteRemovido(String email) {
+        clientes.deleteByEmail(email);
+    }
+
+    @Override
+    public void ingressoSalvo(String tipo, long precoCentavos, long versaoPreco, int quantidadeDisponivel) {
+        Optional<Ingresso> existente = ingressos.findByTipo(tipo);
+        if (existente.isEmpty()) {
+            int quantidade = quantidadeDisponivel == LogCompras.ESTOQUE_MANTIDO ? 0 : quantidadeDisponivel;
+            Ingresso novo = new Ingresso(tipo, Dinheiro.paraReais(precoCentavos), quantidade);
+            novo.publicarPreco(new VersaoPreco(versaoPreco, precoCentavos));
+            ingressos.save(novo);
+            return;
+        }
+        Ingresso ingresso = existente.get();
+        if (ingresso.getVersaoPreco().getVersao() != versaoPreco || ingresso.getPrecoCentavos() != precoCentavos) {
+            ingresso.publicarPreco(new VersaoPreco(versaoPreco, precoCentavos));
+            ingressos.save(ingresso); // republica o catálogo com o preço restaurado
+        }
+        // com lugar marcado, o estoque segue o mapa de assentos
+        if (quantidadeDisponivel != LogCompras.ESTOQUE_MANTIDO && !ingresso.temAssentos()) {
+            ingresso.redefinirQuantidadeDisponivel(quantidadeDisponivel);
+        }
+    }
+
+    @Override
+    public void precosPublicados(int quantidade, String[] tipos, long[] precosCentavos, long[] versoesPreco) {
+        for (int i = 0; i < quantidade; i++) {
+            if (ingressos.findByTipo(tipos[i]).isPresent()) {
+                ingressoSalvo(tipos[i], precosCentavos[i], versoesPreco[i], LogCompras.ESTOQUE_MANTIDO);
+            }
+        }
+    }
+
+    @Override
+    public void estoqueAjustado(String tipo, int diferenca) {
+        Optional<Ingresso> ingresso = ingressos.findByTipo(tipo);
+        if (ingresso.isEmpty() || diferenca == 0) {
+            return;
+        }
+        if (diferenca > 0) {
+            ingresso.get().liberar(diferenca);
+        } else {
+            darBaixa(ingresso.get(), -diferenca);
+        }
+    }
+
+    @Override
+    public void ingressoRemovido(String tipo) {
+        ingressos.deleteByTipo(tipo);
+    }
+
+    @Override
+    public void compraFinalizada(String codigo, String emailCliente, long instanteFinalizacao, long sequencia,
+                                 int quantidadeItens, String[] tipos, int[] quantidades, long[] precosCentavos,
+                                 long[] versoesPreco, BlocoAssentos[] assentos) {
+        Cliente cliente = clientes.findByEmail(emailCliente)
+                .orElseGet(() -> new Cliente(emailCliente, emailCliente)); // cliente removido antes da compra
+        List<ItemCompra> itens = new ArrayList<>(quantidadeItens);
+        for (int i = 0; i < quantidadeItens; i++) {
+            Ingresso ingresso = ingressoParaBaixa(tipos[i], precosCentavos[i]);
+            VersaoPreco preco = new VersaoPreco(versoesPreco[i], precosCentavos[i]);
+            BlocoAssentos bloco = assentos[i];
+            if (bloco != null && ingresso.temAssentos()) {
+                // o estoque de lugar marcado segue o mapa, que não vai para o snapshot: o bloco é
+                // reocupado também na carga do snapshot; se já estiver ocupado (a mesma compra
+                // reaparece no trecho do log após o corte), nada muda
+                ingresso.reservarAssentos(bloco);
+            } else if (darBaixaNoEstoque) {
+                darBaixa(ingresso, quantidades[i]);
+            }
+            itens.add(bloco != null
+                    ? new ItemCompra(ingresso, bloco, preco)
+                    : new ItemCompra(ingresso, quantidades[i], preco));
+        }
+        Compra compra = Compra.restaurarFinalizada(codigo, cliente, instanteFinalizacao, itens);
+        compra.definirSequenciaFinalizacao(sequencia); // mesma posição de antes da queda: marcos de exportação seguem valendo
+        compras.save(compra);
+    }
+
+    private Ingresso ingressoParaBaixa(String tipo, long precoCentavos) {
+        // se o tipo foi removido depois, a compra continua apontando para um ingresso avulso
+        return ingressos.findByTipo(tipo).orElseGet(() ->
+                avulsos.computeIfAbsent(tipo, t -> new Ingresso(t, Dinheiro.paraReais(precoCentavos), 0)));
+    }
+
+    private static void darBaixa(Ingresso ingresso, int quantidade) {
+        // retira o quanto houver: o estoque não fica negativo em nenhum modo de estoque
+        ingresso.reservarAte(quantidade);
+    }
+}
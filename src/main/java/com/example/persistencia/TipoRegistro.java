@@ -0,0 +1,38 @@
+package com.example.persistencia;
+
+/**
+ * Tipos de registro gravados no log de persistência.
+ * O código numérico é o byte gravado em disco e nunca deve ser reaproveitado.
+ */
+enum TipoRegistro {
+    CLIENTE_SALVO(1),
+    CLIENTE_REMOVIDO(2),
+    /** Ingresso salvo: preço com a sua versão e estoque (ou LogCompras.ESTOQUE_MANTIDO). */
+    INGRESSO_SALVO(3),
+    INGRESSO_REMOVIDO(4),
+    /** Compra finalizada com suas linhas (e o bloco de assentos de cada uma); cada linha é também a baixa de estoque do ingresso. */
+    COMPRA_FINALIZADA(5),
+    /** Diferença somada às unidades não vendidas de um ingresso (ajuste administrativo). */
+    ESTOQUE_AJUSTADO(6),
+    /** Reprecificação em lote: n x (tipo, preço, versão), aplicada inteira ou não. */
+    PRECOS_PUBLICADOS(7);
+
+    final byte codigo;
+
+    TipoRegistro(int codigo) {
+        this.codigo = (byte) codigo;
+    }
+
+    static TipoRegistro deCodigo(byte codigo) {
+        switch (codigo) {
+            case 1: return CLIENTE_SALVO;
+            case 2: return CLIENTE_REMOVIDO;
+            case 3: return INGRESSO_SALVO;
+            case 4: return INGRESSO_REMOVIDO;
+            case 5: return COMPRA_FINALIZADA;
+            case 6: return ESTOQUE_AJUSTADO;
+            case 7: return PRECOS_PUBLICADOS;
+            default: return null;
+        }
+    }
+}
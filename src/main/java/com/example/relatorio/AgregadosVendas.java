@@ -0,0 +1,141 @@
+package com.example.relatorio;
+
+import com.example.model.Compra;
+import com.example.model.Dinheiro;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Totais de vendas mantidos de forma incremental.
+ * Padrão GRASP aplicado: PURE FABRICATION
+ * Justificativa: em vez de varrer todas as compras a cada consulta, os
+ * totais são atualizados uma única vez, quando a compra é finalizada.
+ * Consultas custam O(1) (mais a soma das células de cada acumulador).
+ *
+ * Os acumuladores são LongAdder (receita em centavos, exata): cada thread incrementa a sua
+ * própria célula, então checkouts simultâneos não disputam o mesmo contador.
+ * Cada leitura individual é consistente; leituras de acumuladores diferentes
+ * podem refletir instantes ligeiramente diferentes enquanto há compras em curso.
+ */
+public class AgregadosVendas {
+    private final LongAdder receitaCentavos = new LongAdder();
+    private final LongAdder comprasFinalizadas = new LongAdder();
+    private final ConcurrentHashMap<String, LongAdder> ingressosPorTipo = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> comprasPorCliente = new ConcurrentHashMap<>();
+
+    /** Registra uma compra recém-finalizada. Deve ser chamado uma única vez por compra. */
+    public void registrar(Compra compra) {
+        for (int i = 0; i < compra.getQuantidadeItens(); i++) {
+            ingressosPorTipo.computeIfAbsent(compra.getIngressoDoItem(i).getTipo(), t -> new LongAdder())
+                    .add(compra.getQuantidadeDoItem(i));
+        }
+        comprasPorCliente.computeIfAbsent(compra.getCliente().getEmail(), e -> new LongAdder()).increment();
+        receitaCentavos.add(compra.calcularTotalCentavos());
+        comprasFinalizadas.increment();
+    }
+
+    public long getReceitaTotalCentavos() {
+        return receitaCentavos.sum();
+    }
+
+    public double getReceitaTotal() {
+        return Dinheiro.paraReais(receitaCentavos.sum());
+    }
+
+    public long getComprasFinalizadas() {
+        return comprasFinalizadas.sum();
+    }
+
+    public long getIngressosVendidos(String tipo) {
+        LongAdder contador = ingressosPorTipo.get(tipo);
+        return contador == null ? 0 : contador.sum();
+    }
+
+    public long getComprasDoCliente(String email) {
+        LongAdder contador = comprasPorCliente.get(email);
+        return contador == null ? 0 : contador.sum();
+    }
+
+    /**
+     * Recalcula tudo a partir das compras e compara com os acumuladores.
+     * É uma varredura completa: use apenas para conferência, com o sistema
+     * sem checkouts em andamento.
+     * @return descrição de cada divergência encontrada (vazia se tudo confere)
+     */
+    public List<String> verificar(Iterable<Compra> compras) {
+        return verificar(StreamSupport.stream(compras.spliterator(), false));
+    }
+
+    /**
+     * Mesmo que verificar(Iterable), a partir de um stream. Com um stream
+     * paralelo (ex.: {@code compraRepository.parallelStream()}), cada parte é
+     * recalculada numa thread e os parciais são combinados no final.
+     */
+    public List<String> verificar(Stream<Compra> compras) {
+        Recalculo recalculo = compras.collect(Recalculo::new, Recalculo::acumular, Recalculo::combinar);
+
+        List<String> divergencias = new ArrayList<>();
+        if (recalculo.receita != getReceitaTotalCentavos()) {
+            divergencias.add("receita (centavos): agregado=" + getReceitaTotalCentavos()
+                    + " recalculado=" + recalculo.receita);
+        }
+        if (recalculo.finalizadas != getComprasFinalizadas()) {
+            divergencias.add("compras: agregado=" + getComprasFinalizadas()
+                    + " recalculado=" + recalculo.finalizadas);
+        }
+        comparar("ingressos do tipo ", recalculo.porTipo, ingressosPorTipo, divergencias);
+        comparar("compras do cliente ", recalculo.porCliente, comprasPorCliente, divergencias);
+        return divergencias;
+    }
+
+    /** Totais recalculados de uma parte das compras. */
+    private static final class Recalculo {
+        long receita;
+        long finalizadas;
+        final Map<String, Long> porTipo = new HashMap<>();
+        final Map<String, Long> porCliente = new HashMap<>();
+
+        void acumular(Compra compra) {
+            if (!compra.getStatus().equals("Finalizada")) {
+                return;
+            }
+            finalizadas++;
+            receita += compra.calcularTotalCentavos();
+            porCliente.merge(compra.getCliente().getEmail(), 1L, Long::sum);
+            for (int i = 0; i < compra.getQuantidadeItens(); i++) {
+                porTipo.merge(compra.getIngressoDoItem(i).getTipo(), (long) compra.getQuantidadeDoItem(i), Long::sum);
+            }
+        }
+
+        void combinar(Recalculo outro) {
+            receita += outro.receita;
+            finalizadas += outro.finalizadas;
+            outro.porTipo.forEach((tipo, quantidade) -> porTipo.merge(tipo, quantidade, Long::sum));
+            outro.porCliente.forEach((email, quantidade) -> porCliente.merge(email, quantidade, Long::sum));
+        }
+    }
+
+    private static void comparar(String rotulo, Map<String, Long> esperado,
+                                 Map<String, LongAdder> agregado, List<String> divergencias) {
+        for (Map.Entry<String, Long> entrada : esperado.entrySet()) {
+            LongAdder contador = agregado.get(entrada.getKey());
+            long valor = contador == null ? 0 : contador.sum();
+            if (valor != entrada.getValue()) {
+                divergencias.add(rotulo + entrada.getKey() + ": agregado=" + valor
+                        + " recalculado=" + entrada.getValue());
+            }
+        }
+        for (Map.Entry<String, LongAdder> entrada : agregado.entrySet()) {
+            if (!esperado.containsKey(entrada.getKey()) && entrada.getValue().sum() != 0) {
+                divergencias.add(rotulo + entrada.getKey() + ": agregado=" + entrada.getValue().sum()
+                        + " recalculado=0");
+            }
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.example.relatorio;
+
+import com.example.model.Compra;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * Motor de relatórios de vendas sobre as compras finalizadas, em formato colunar.
+ * Padrão GRASP aplicado: PURE FABRICATION
+ * Justificativa: relatórios de grande volume não cabem no modelo de objetos
+ * (uma Compra e vários ItemCompra por venda); esta classe guarda só o que os
+ * relatórios precisam, em vetores primitivos.
+ *
+ * Cada linha é um item vendido: id do tipo de ingresso, id do cliente,
+ * quantidade, preço unitário em centavos e instante da finalização. As
+ * linhas ficam em blocos de 65.536 posições (um vetor por coluna); tipos e
+ * emails viram ids por dicionário. Um item ocupa 28 bytes.
+ *
+ * Registrar uma compra não bloqueia o checkout: a compra entra numa fila sem
+ * locks e é copiada para as colunas depois, em lotes, por quem conseguir a
+ * trava de escrita (a própria thread que registra, a cada 4.096 compras, ou o
+ * relatório seguinte). Os agrupamentos rodam em paralelo no ForkJoinPool
+ * comum. Com poucos grupos (tipos, períodos largos), as tarefas dividem os
+ * blocos e cada uma soma num vetor próprio, indexado pelo id do grupo,
+ * somados no fim. Com muitos grupos (clientes, períodos finos), um vetor por
+ * tarefa custaria grupos x blocos; aí as tarefas dividem a faixa de ids,
+ * cada uma percorre todos os blocos e soma só os seus grupos, direto no
+ * vetor do resultado.
+ *
+ * Ligue ao controller com {@code controller.aoFinalizar(relatorio::registrar)}.
+ */
+public class RelatorioColunar {
+    private static final int BITS_BLOCO = 16;
+    private static final int LINHAS_POR_BLOCO = 1 << BITS_BLOCO;
+    private static final int CONSOLIDAR_A_CADA = 4096;
+    private static final int MAXIMO_PERIODOS = 10_000_000;
+    /** Acima disso, um vetor de somas por bloco pesa mais que o próprio bloco: divide-se por grupos. */
+    private static final int MAXIMO_GRUPOS_POR_BLOCO = 4096;
+
+    private final ConcurrentLinkedQueue<Compra> fila = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger naFila = new AtomicInteger();
+    private final ReentrantLock escrita = new ReentrantLock();
+
+    // estado abaixo só é lido ou alterado com a trava de escrita
+    private Bloco[] blocos = new Bloco[0];
+    private long linhas;
+    private final Map<String, Integer> idPorTipo = new HashMap<>();
+    private final List<String> tipos = new ArrayList<>();
+    private final Map<String, Integer> idPorCliente = new HashMap<>();
+    private final List<String> clientes = new ArrayList<>();
+    private long menorInstante = Long.MAX_VALUE;
+    private long maiorInstante = Long.MIN_VALUE;
+
+    /**
+     * Enfileira uma compra finalizada para os relatórios. Compras em outro
+     * status são ignoradas. Seguro para chamar de várias threads.
+     */
+    public void registrar(Compra compra) {
+        if (!compra.getStatus().equals("Finalizada")) {
+            return;
+        }
+        fila.offer(compra);
+        if (naFila.incrementAndGet() >= CONSOLIDAR_A_CADA && escrita.tryLock()) {
+            try {
+                drenar();
+            } finally {
+                escrita.unlock();
+            }
+        }
+    }
+
+    /** Copia para as colunas tudo o que estiver na fila. */
+    public void consolidar() {
+        escrita.lock();
+        try {
+            drenar();
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    /** Linhas (itens vendidos) registradas, consolidando antes a fila. */
+    public long getLinhas() {
+        escrita.lock();
+        try {
+            drenar();
+            return linhas;
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    private void drenar() {
+        Compra compra;
+        while ((compra = fila.poll()) != null) {
+            naFila.decrementAndGet();
+            int cliente = id(compra.getCliente().getEmail(), idPorCliente, clientes);
+            long instante = compra.getInstanteFinalizacao();
+            menorInstante = Math.min(menorInstante, instante);
+            maiorInstante = Math.max(maiorInstante, instante);
+            for (int i = 0; i < compra.getQuantidadeItens(); i++) {
+                acrescentar(id(compra.getIngressoDoItem(i).getTipo(), idPorTipo, tipos), cliente,
+                        compra.getQuantidadeDoItem(i), compra.getPrecoUnitarioDoItem(i), instante);
+            }
+        }
+    }
+
+    private static int id(String chave, Map<String, Integer> ids, List<String> nomes) {
+        Integer id = ids.get(chave);
+        if (id == null) {
+            id = nomes.size();
+            ids.put(chave, id);
+            nomes.add(chave);
+        }
+        return id;
+    }
+
+    private void acrescentar(int tipo, int cliente, int quantidade, long preco, long instante) {
+        int indiceBloco = (int) (linhas >>> BITS_BLOCO);
+        int posicao = (int) (linhas & (LINHAS_POR_BLOCO - 1));
+        if (indiceBloco == blocos.length) {
+            blocos = Arrays.copyOf(blocos, indiceBloco + 1);
+            blocos[indiceBloco] = new Bloco();
+        }
+        Bloco bloco = blocos[indiceBloco];
+        bloco.tipo[posicao] = tipo;
+        bloco.cliente[posicao] = cliente;
+        bloco.quantidade[posicao] = quantidade;
+        bloco.precoCentavos[posicao] = preco;
+        bloco.instante[posicao] = instante;
+        linhas++;
+    }
+
+    /** Receita e ingressos de todas as vendas consolidadas. */
+    public TotaisVenda totalGeral() {
+        Recorte recorte = recortar();
+        Parcial parcial = agrupar(recorte, Dimensao.GERAL, 1, 0, 1);
+        return new TotaisVenda(parcial.receita[0], parcial.ingressos[0]);
+    }
+
+    /** Totais por tipo de ingresso, em ordem de tipo. */
+    public SortedMap<String, TotaisVenda> porTipoIngresso() {
+        Recorte recorte = recortar();
+        return nomear(agrupar(recorte, Dimensao.TIPO, recorte.tipos.length, 0, 1), recorte.tipos);
+    }
+
+    /** Totais por email do cliente, em ordem de email. */
+    public SortedMap<String, TotaisVenda> porCliente() {
+        Recorte recorte = recortar();
+        return nomear(agrupar(recorte, Dimensao.CLIENTE, recorte.clientes.length, 0, 1), recorte.clientes);
+    }
+
+    /**
+     * Totais por período de finalização. A chave é o início do período em ms
+     * desde a época Unix, alinhado a múltiplos da largura; só aparecem
+     * períodos com vendas.
+     */
+    public SortedMap<Long, TotaisVenda> porPeriodo(long largura, TimeUnit unidade) {
+        long larguraMs = unidade.toMillis(largura);
+        if (larguraMs <= 0) {
+            throw new IllegalArgumentException("Largura do período deve ser de ao menos 1 ms.");
+        }
+        Recorte recorte = recortar();
+        SortedMap<Long, TotaisVenda> resultado = new TreeMap<>();
+        if (recorte.linhas == 0) {
+            return resultado;
+        }
+        long base = Math.floorDiv(recorte.menorInstante, larguraMs) * larguraMs;
+        long periodos = (recorte.maiorInstante - base) / larguraMs + 1;
+        if (periodos > MAXIMO_PERIODOS) {
+            throw new IllegalArgumentException("Períodos demais para a largura informada: " + periodos);
+        }
+        Parcial parcial = agrupar(recorte, Dimensao.PERIODO, (int) periodos, base, larguraMs);
+        for (int p = 0; p < periodos; p++) {
+            if (parcial.ingressos[p] != 0 || parcial.receita[p] != 0) {
+                resultado.put(base + p * larguraMs, new TotaisVenda(parcial.receita[p], parcial.ingressos[p]));
+            }
+        }
+        return resultado;
+    }
+
+    private static SortedMap<String, TotaisVenda> nomear(Parcial parcial, String[] nomes) {
+        SortedMap<String, TotaisVenda> resultado = new TreeMap<>();
+        for (int id = 0; id < nomes.length; id++) {
+            if (parcial.ingressos[id] != 0 || parcial.receita[id] != 0) {
+                resultado.put(nomes[id], new TotaisVenda(parcial.receita[id], parcial.ingressos[id]));
+            }
+        }
+        return resultado;
+    }
+
+    /** Consolida a fila e fotografa o que os relatórios vão ler. */
+    private Recorte recortar() {
+        escrita.lock();
+        try {
+            drenar();
+            return new Recorte(blocos, linhas, tipos.toArray(new String[0]), clientes.toArray(new String[0]),
+                    menorInstante, maiorInstante);
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    private static Parcial agrupar(Recorte recorte, Dimensao dimensao, int grupos, long base, long largura) {
+        int quantidadeBlocos = (int) ((recorte.linhas + LINHAS_POR_BLOCO - 1) >>> BITS_BLOCO);
+        if (grupos > MAXIMO_GRUPOS_POR_BLOCO) {
+            return agruparPorFaixa(recorte, quantidadeBlocos, dimensao, grupos, base, largura);
+        }
+        return IntStream.range(0, quantidadeBlocos).parallel().collect(
+                () -> new Parcial(grupos),
+                (parcial, b) -> parcial.somar(recorte.blocos[b], linhasNoBloco(recorte, b), dimensao, base, largura,
+                        0, grupos),
+                Parcial::combinar);
+    }
+
+    /** Um único vetor de somas: cada tarefa escreve só na sua faixa de ids, sem combinar no fim. */
+    private static Parcial agruparPorFaixa(Recorte recorte, int quantidadeBlocos, Dimensao dimensao, int grupos,
+                                           long base, long largura) {
+        Parcial total = new Parcial(grupos);
+        int faixas = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), grupos / MAXIMO_GRUPOS_POR_BLOCO));
+        IntStream.range(0, faixas).parallel().forEach(f -> {
+            int inicio = (int) ((long) grupos * f / faixas);
+            int fim = (int) ((long) grupos * (f + 1) / faixas);
+            for (int b = 0; b < quantidadeBlocos; b++) {
+                total.somar(recorte.blocos[b], linhasNoBloco(recorte, b), dimensao, base, largura, inicio, fim);
+            }
+        });
+        return total;
+    }
+
+    private static int linhasNoBloco(Recorte recorte, int bloco) {
+        return (int) Math.min(LINHAS_POR_BLOCO, recorte.linhas - ((long) bloco << BITS_BLOCO));
+    }
+
+    private enum Dimensao { GERAL, TIPO, CLIENTE, PERIODO }
+
+    private static final class Bloco {
+        final int[] tipo = new int[LINHAS_POR_BLOCO];
+        final int[] cliente = new int[LINHAS_POR_BLOCO];
+        final int[] quantidade = new int[LINHAS_POR_BLOCO];
+        final long[] precoCentavos = new long[LINHAS_POR_BLOCO];
+        final long[] instante = new long[LINHAS_POR_BLOCO];
+    }
+
+    private static final class Recorte {
+        final Bloco[] blocos;
+        final long linhas;
+        final String[] tipos;
+        final String[] clientes;
+        final long menorInstante;
+        final long maiorInstante;
+
+        Recorte(Bloco[] blocos, long linhas, String[] tipos, String[] clientes,
+                long menorInstante, long maiorInstante) {
+            this.blocos = blocos;
+            this.linhas = linhas;
+            this.tipos = tipos;
+            this.clientes = clientes;
+            this.menorInstante = menorInstante;
+            this.maiorInstante = maiorInstante;
+        }
+    }
+
+    /** Somas de uma parte dos blocos, indexadas pelo id do grupo. */
+    private static final class Parcial {
+        final long[] receita;
+        final long[] ingressos;
+
+        Parcial(int grupos) {
+            receita = new long[grupos];
+            ingressos = new long[grupos];
+        }
+
+        /** Soma as linhas do bloco cujo grupo está em [primeiroGrupo, fimGrupos). */
+        void somar(Bloco bloco, int fim, Dimensao dimensao, long base, long largura,
+                   int primeiroGrupo, int fimGrupos) {
+            int[] quantidade = bloco.quantidade;
+            long[] preco = bloco.precoCentavos;
+            int faixa = fimGrupos - primeiroGrupo;
+            // um laço por dimensão, para o laço interno não ter desvio por dimensão;
+            // a faixa de grupos vira uma única comparação sem sinal por linha
+            switch (dimensao) {
+                case GERAL:
+                    for (int i = 0; i < fim; i++) {
+                        receita[0] += quantidade[i] * preco[i];
+                        ingressos[0] += quantidade[i];
+                    }
+                    break;
+                case TIPO:
+                    somarPorChave(bloco.tipo, quantidade, preco, fim, primeiroGrupo, faixa);
+                    break;
+                case CLIENTE:
+                    somarPorChave(bloco.cliente, quantidade, preco, fim, primeiroGrupo, faixa);
+                    break;
+                case PERIODO:
+                    long[] instante = bloco.instante;
+                    for (int i = 0; i < fim; i++) {
+                        int p = (int) ((instante[i] - base) / largura);
+                        if (Integer.compareUnsigned(p - primeiroGrupo, faixa) < 0) {
+                            receita[p] += quantidade[i] * preco[i];
+                            ingressos[p] += quantidade[i];
+                        }
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Dimensão desconhecida: " + dimensao);
+            }
+        }
+
+        private void somarPorChave(int[] chave, int[] quantidade, long[] preco, int fim,
+                                   int primeiroGrupo, int faixa) {
+            for (int i = 0; i < fim; i++) {
+                int g = chave[i];
+                if (Integer.compareUnsigned(g - primeiroGrupo, faixa) < 0) {
+                    receita[g] += quantidade[i] * preco[i];
+                    ingressos[g] += quantidade[i];
+                }
+            }
+        }
+
+        void combinar(Parcial outra) {
+            for (int g = 0; g < receita.length; g++) {
+                receita[g] += outra.receita[g];
+                ingressos[g] += outra.ingressos[g];
+            }
+        }
+    }
+}
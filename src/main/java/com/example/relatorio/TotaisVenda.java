@@ -0,0 +1,34 @@
+package com.example.relatorio;
+
+import com.example.model.Dinheiro;
+
+/**
+ * Receita e ingressos vendidos de um grupo (tipo, cliente ou período).
+ */
+public final class TotaisVenda {
+    private final long receitaCentavos;
+    private final long ingressos;
+
+    TotaisVenda(long receitaCentavos, long ingressos) {
+        this.receitaCentavos = receitaCentavos;
+        this.ingressos = ingressos;
+    }
+
+    public long getReceitaCentavos() {
+        return receitaCentavos;
+    }
+
+    /** Receita em reais (para exibição). */
+    public double getReceita() {
+        return Dinheiro.paraReais(receitaCentavos);
+    }
+
+    public long getIngressos() {
+        return ingressos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("R$ %.2f (%d ingressos)", getReceita(), ingressos);
+    }
+}
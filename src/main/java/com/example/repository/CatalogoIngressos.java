@@ -0,0 +1,193 @@
+package com.example.repository;
+
+import com.example.model.Ingresso;
+import com.example.model.VersaoPreco;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Retrato imutável do catálogo de ingressos numa versão: os tipos em ordem,
+ * o ingresso de cada tipo e o preço publicado para ele nesta versão.
+ *
+ * Quem tem o retrato lê sem travas e sempre vê um catálogo coerente: uma
+ * reprecificação em lote aparece inteira numa versão seguinte, nunca pela
+ * metade. O estoque não faz parte do retrato: {@code getQuantidadeDisponivel}
+ * do ingresso é sempre o valor atual, porque as reservas precisam dele.
+ *
+ * Padrão GRASP aplicado: PURE FABRICATION
+ * Justificativa: a versão do catálogo não é responsabilidade de nenhum
+ * ingresso isolado; esta classe existe para que o repositório publique
+ * todas as mudanças de uma vez (copy-on-write) e os leitores compartilhem
+ * o mesmo retrato.
+ */
+public final class CatalogoIngressos {
+    static final CatalogoIngressos VAZIO =
+            new CatalogoIngressos(0, new String[0], new Ingresso[0], new VersaoPreco[0]);
+
+    private final long versao;
+    // arrays nunca alterados depois de publicados; versões seguidas podem compartilhá-los
+    private final String[] tipos; // ordenado
+    private final Ingresso[] ingressos;
+    private final VersaoPreco[] precos;
+
+    private CatalogoIngressos(long versao, String[] tipos, Ingresso[] ingressos, VersaoPreco[] precos) {
+        this.versao = versao;
+        this.tipos = tipos;
+        this.ingressos = ingressos;
+        this.precos = precos;
+    }
+
+    /** Versão do catálogo: +1 a cada alteração publicada pelo repositório. */
+    public long getVersao() {
+        return versao;
+    }
+
+    public int getTamanho() {
+        return tipos.length;
+    }
+
+    public Optional<Ingresso> buscar(String tipo) {
+        int i = indiceDe(tipo);
+        return i >= 0 ? Optional.of(ingressos[i]) : Optional.empty();
+    }
+
+    /** Preço do tipo nesta versão do catálogo, ou null se o tipo não existe nela. */
+    public VersaoPreco precoDe(String tipo) {
+        int i = indiceDe(tipo);
+        return i >= 0 ? precos[i] : null;
+    }
+
+    /** Ingressos em ordem de tipo. */
+    public List<Ingresso> getIngressos() {
+        return Collections.unmodifiableList(Arrays.asList(ingressos));
+    }
+
+    public Ingresso getIngresso(int indice) {
+        return ingressos[indice];
+    }
+
+    public VersaoPreco getPreco(int indice) {
+        return precos[indice];
+    }
+
+    int indiceDe(String tipo) {
+        return Arrays.binarySearch(tipos, tipo);
+    }
+
+    /** Nova versão com o ingresso inserido ou substituído, com o preço que ele tem agora. */
+    CatalogoIngressos com(Ingresso ingresso) {
+        int i = indiceDe(ingresso.getTipo());
+        if (i >= 0) {
+            Ingresso[] novosIngressos = ingressos.clone();
+            VersaoPreco[] novosPrecos = precos.clone();
+            novosIngressos[i] = ingresso;
+            novosPrecos[i] = ingresso.getVersaoPreco();
+            return new CatalogoIngressos(versao + 1, tipos, novosIngressos, novosPrecos);
+        }
+        int posicao = -i - 1;
+        int n = tipos.length;
+        String[] novosTipos = new String[n + 1];
+        Ingresso[] novosIngressos = new Ingresso[n + 1];
+        VersaoPreco[] novosPrecos = new VersaoPreco[n + 1];
+        abrirEspaco(tipos, novosTipos, posicao);
+        abrirEspaco(ingressos, novosIngressos, posicao);
+        abrirEspaco(precos, novosPrecos, posicao);
+        novosTipos[posicao] = ingresso.getTipo();
+        novosIngressos[posicao] = ingresso;
+        novosPrecos[posicao] = ingresso.getVersaoPreco();
+        return new CatalogoIngressos(versao + 1, novosTipos, novosIngressos, novosPrecos);
+    }
+
+    private static <T> void abrirEspaco(T[] origem, T[] destino, int posicao) {
+        System.arraycopy(origem, 0, destino, 0, posicao);
+        System.arraycopy(origem, posicao, destino, posicao + 1, origem.length - posicao);
+    }
+
+    /** Nova versão sem o tipo (a mesma instância se o tipo não existe). */
+    CatalogoIngressos sem(String tipo) {
+        int i = indiceDe(tipo);
+        if (i < 0) {
+            return this;
+        }
+        return new CatalogoIngressos(versao + 1, fecharEspaco(tipos, new String[tipos.length - 1], i),
+                fecharEspaco(ingressos, new Ingresso[tipos.length - 1], i),
+                fecharEspaco(precos, new VersaoPreco[tipos.length - 1], i));
+    }
+
+    private static <T> T[] fecharEspaco(T[] origem, T[] destino, int posicao) {
+        System.arraycopy(origem, 0, destino, 0, posicao);
+        System.arraycopy(origem, posicao + 1, destino, posicao, destino.length - posicao);
+        return destino;
+    }
+
+    /**
+     * Nova versão com os ingressos do lote, que já vem em ordem de tipo e só
+     * com tipos ausentes do catálogo: uma intercalação, O(n + lote).
+     */
+    CatalogoIngressos comNovos(List<Ingresso> ordenados) {
+        int total = tipos.length + ordenados.size();
+        String[] novosTipos = new String[total];
+        Ingresso[] novosIngressos = new Ingresso[total];
+        VersaoPreco[] novosPrecos = new VersaoPreco[total];
+        int a = 0;
+        int b = 0;
+        for (int k = 0; k < total; k++) {
+            if (b == ordenados.size()
+                    || (a < tipos.length && tipos[a].compareTo(ordenados.get(b).getTipo()) < 0)) {
+                novosTipos[k] = tipos[a];
+                novosIngressos[k] = ingressos[a];
+                novosPrecos[k] = precos[a];
+                a++;
+            } else {
+                Ingresso ingresso = ordenados.get(b++);
+                novosTipos[k] = ingresso.getTipo();
+                novosIngressos[k] = ingresso;
+                novosPrecos[k] = ingresso.getVersaoPreco();
+            }
+        }
+        return new CatalogoIngressos(versao + 1, novosTipos, novosIngressos, novosPrecos);
+    }
+
+    /** Nova versão com outros preços nas posições indicadas; tipos e ingressos são compartilhados. */
+    CatalogoIngressos comPrecos(int[] indices, VersaoPreco[] novos) {
+        VersaoPreco[] novosPrecos = precos.clone();
+        for (int k = 0; k < indices.length; k++) {
+            novosPrecos[indices[k]] = novos[k];
+        }
+        return new CatalogoIngressos(versao + 1, tipos, ingressos, novosPrecos);
+    }
+
+    /** Entradas em ordem de tipo a partir do cursor (exclusivo), sempre desta versão. */
+    Iterator<Map.Entry<String, Ingresso>> aPartirDe(String cursor) {
+        String chave = Paginacao.chaveDoCursor(cursor);
+        int inicio = 0;
+        if (chave != null) {
+            int i = indiceDe(chave);
+            inicio = i >= 0 ? i + 1 : -i - 1;
+        }
+        int primeiro = inicio;
+        return new Iterator<Map.Entry<String, Ingresso>>() {
+            private int proximo = primeiro;
+
+            @Override
+            public boolean hasNext() {
+                return proximo < tipos.length;
+            }
+
+            @Override
+            public Map.Entry<String, Ingresso> next() {
+                if (proximo >= tipos.length) {
+                    throw new NoSuchElementException();
+                }
+                int i = proximo++;
+                return new AbstractMap.SimpleImmutableEntry<>(tipos[i], ingressos[i]);
+            }
+        };
+    }
+}
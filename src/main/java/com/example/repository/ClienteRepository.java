@@ -1,33 +1,58 @@
 package com.example.repository;
 
 import com.example.model.Cliente;
-import java.util.ArrayList;
-import java.util.HashMap;
+import com.example.persistencia.LogCompras;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
 
 /**
- * Repositório em memória para Cliente.
- * Usa o 'email' como chave única.
+ * Repositório de clientes, com o 'email' como chave única.
+ * Com um {@link LogCompras} anexado, cada alteração também é gravada no log.
+ *
+ * Padrão GRASP aplicado: PROTECTED VARIATIONS
+ * Justificativa: serviços, recuperação e importação dependem só desta
+ * interface; a forma de guardar os clientes (objetos no heap em
+ * {@link ClienteRepositoryNoHeap}, registros fora do heap em
+ * {@link ClienteRepositoryForaDoHeap}) muda sem alterar quem os usa.
+ *
+ * Contrato: o Cliente devolvido pode ser uma cópia do registro guardado;
+ * alterar o objeto só tem efeito depois de {@link #save}.
  */
-public class ClienteRepository {
-    private Map<String, Cliente> clientes = new HashMap<>();
+public interface ClienteRepository {
 
-    public Cliente save(Cliente cliente) {
-        clientes.put(cliente.getEmail(), cliente);
-        return cliente;
-    }
+    /** Passa a gravar as alterações no log (anexe depois de recuperar o estado). */
+    void anexarLog(LogCompras log);
 
-    public Optional<Cliente> findByEmail(String email) {
-        return Optional.ofNullable(clientes.get(email));
-    }
+    /** Insere o cliente ou substitui o registro do mesmo email. */
+    Cliente save(Cliente cliente);
 
-    public List<Cliente> findAll() {
-        return new ArrayList<>(clientes.values());
-    }
+    /**
+     * Inserção em lote para cargas grandes: grava só os clientes cujo email
+     * ainda não existe (o primeiro vence, inclusive dentro do próprio lote) e
+     * informa o índice de cada duplicado recusado.
+     * @return quantos clientes foram inseridos
+     */
+    int insertAll(List<Cliente> lote, IntConsumer aoRecusar);
 
-    public void deleteByEmail(String email) {
-        clientes.remove(email);
-    }
+    /** Na métrica, registro não encontrado conta como falha. */
+    Optional<Cliente> findByEmail(String email);
+
+    List<Cliente> findAll();
+
+    /** Página em ordem de email, começando depois do cursor (null para a primeira). */
+    Pagina<Cliente> buscarPagina(String cursor, int tamanho);
+
+    /** Stream ordenado por email a partir do cursor (null para o início), lido sob demanda. */
+    Stream<Cliente> streamOrdenado(String cursor);
+
+    void deleteByEmail(String email);
+
+    /**
+     * Percorre os registros atuais sem copiá-los para uma lista, em ordem não
+     * especificada. Pode refletir gravações feitas durante o percurso.
+     */
+    void paraCada(Consumer<? super Cliente> acao);
 }
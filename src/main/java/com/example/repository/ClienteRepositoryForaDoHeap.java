@@ -0,0 +1,867 @@
+package com.example.repository;
+
+import com.example.metricas.Metricas;
+import com.example.metricas.Operacao;
+import com.example.model.Cliente;
+import com.example.persistencia.LogCompras;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Repositório de clientes fora do heap, para cadastros de dezenas de milhões
+ * de clientes sem objetos para o GC percorrer.
+ *
+ * Estrutura, toda em ByteBuffers diretos:
+ * - tabela de espalhamento com endereçamento aberto (sondagem linear) sobre os
+ *   bytes UTF-8 do email; cada posição é um long com os 24 bits altos do hash
+ *   (descartam a maioria das colisões sem ler o registro) e o endereço do
+ *   registro + 1 nos 40 bits baixos; 0 é posição vazia e -1 é lápide;
+ * - registros gravados em sequência em segmentos de tamanho fixo:
+ *   [short tamanho do email][short tamanho do nome][email UTF-8][nome UTF-8].
+ *
+ * Buscas não guardam objetos: findByEmail cria o Cliente (uma cópia) só ao
+ * encontrar o registro, e o contrato de {@link ClienteRepository} pede
+ * {@link #save} para gravar uma alteração. Um nome novo com o mesmo tamanho
+ * em bytes é regravado no lugar; com outro tamanho, o registro é gravado de
+ * novo no fim e o antigo vira espaço morto. Remoções deixam lápide na tabela.
+ * Acima de 70% de posições ocupadas (vivas ou lápides) a tabela é
+ * reconstruída sem lápides, dobrando quando precisa; quando mais da metade dos
+ * bytes gravados está morta, os registros vivos são copiados para segmentos
+ * novos (compactação).
+ *
+ * Concorrência: findByEmail tenta uma leitura otimista do StampedLock e só
+ * trava se houve escrita no meio; escritas usam a trava exclusiva. Varreduras
+ * (findAll, paraCada e as páginas) seguram a trava de leitura do começo ao
+ * fim, e gravações esperam o percurso terminar; a ação de {@link #paraCada}
+ * não pode gravar neste repositório.
+ *
+ * Páginas e {@link #streamOrdenado} seguem a ordem dos bytes UTF-8 do email,
+ * que coincide com a ordem de String exceto entre caracteres acima de U+FFFF
+ * e a faixa U+E000–U+FFFF. Sem índice ordenado, cada página custa uma
+ * varredura da tabela (seleção dos menores emails depois do cursor).
+ *
+ * Limites: email e nome com até 65.535 bytes em UTF-8; até 2^27 posições na
+ * tabela. A memória direta é limitada por -XX:MaxDirectMemorySize (por
+ * padrão, o tamanho máximo do heap).
+ * Com um {@link LogCompras} anexado, cada alteração também é gravada no log.
+ */
+public class ClienteRepositoryForaDoHeap implements ClienteRepository {
+    private static final Operacao SALVAR = Metricas.operacao("repositorio.cliente.save");
+    private static final Operacao INSERIR = Metricas.operacao("repositorio.cliente.insertAll");
+    private static final Operacao BUSCAR = Metricas.operacao("repositorio.cliente.findByEmail");
+
+    public static final int CAPACIDADE_INICIAL_PADRAO = 1 << 16;
+    public static final int TAMANHO_SEGMENTO_PADRAO = 1 << 24;
+    /** Cabe um registro com email e nome do tamanho máximo. */
+    public static final int TAMANHO_SEGMENTO_MINIMO = 1 << 18;
+    /** 2^27 posições de 8 bytes: a tabela inteira num único ByteBuffer. */
+    private static final int CAPACIDADE_MAXIMA = 1 << 27;
+    private static final int TAMANHO_MAXIMO_TEXTO = 0xFFFF;
+    private static final int CABECALHO = 4;
+    private static final int PAGINA_STREAM = 1000;
+
+    private static final long VAZIA = 0;
+    private static final long LAPIDE = -1;
+    private static final int BITS_ENDERECO = 40;
+    private static final long MASCARA_ENDERECO = (1L << BITS_ENDERECO) - 1;
+    /** Resultado de {@link #localizar} quando a tabela não tem posição livre (só em leituras rasgadas). */
+    private static final int SEM_POSICAO = Integer.MIN_VALUE;
+
+    private static final ThreadLocal<Rascunho> RASCUNHO = ThreadLocal.withInitial(Rascunho::new);
+
+    private final StampedLock trava = new StampedLock();
+    private final int bitsSegmento;
+    private ByteBuffer tabela;
+    private ByteBuffer[] segmentos = new ByteBuffer[4];
+    private int segmentoAtual = -1;
+    private int livreNoSegmento;
+    private int ocupadas; // vivas + lápides
+    private int vivos;
+    private long bytesGravados; // inclui a sobra no fim de cada segmento
+    private long bytesMortos;
+    private volatile LogCompras log;
+
+    public ClienteRepositoryForaDoHeap() {
+        this(CAPACIDADE_INICIAL_PADRAO, TAMANHO_SEGMENTO_PADRAO);
+    }
+
+    /**
+     * @param capacidadeInicial posições iniciais da tabela (arredondada para potência de 2)
+     * @param tamanhoSegmento bytes por segmento de registros (potência de 2, ao menos {@link #TAMANHO_SEGMENTO_MINIMO})
+     */
+    public ClienteRepositoryForaDoHeap(int capacidadeInicial, int tamanhoSegmento) {
+        if (capacidadeInicial <= 0 || capacidadeInicial > CAPACIDADE_MAXIMA) {
+            throw new IllegalArgumentException("Capacidade inicial deve estar entre 1 e " + CAPACIDADE_MAXIMA + ".");
+        }
+        if (tamanhoSegmento < TAMANHO_SEGMENTO_MINIMO || Integer.bitCount(tamanhoSegmento) != 1) {
+            throw new IllegalArgumentException("Tamanho do segmento deve ser potência de 2 e ao menos "
+                    + TAMANHO_SEGMENTO_MINIMO + ".");
+        }
+        this.bitsSegmento = Integer.numberOfTrailingZeros(tamanhoSegmento);
+        int capacidade = Math.max(16, Integer.highestOneBit(capacidadeInicial - 1) << 1);
+        this.tabela = ByteBuffer.allocateDirect(capacidade << 3);
+    }
+
+    /** Passa a gravar as alterações no log (anexe depois de recuperar o estado). */
+    @Override
+    public void anexarLog(LogCompras log) {
+        this.log = log;
+    }
+
+    /**
+     * Insere o cliente ou substitui o registro do mesmo email. Email e nome são
+     * validados antes de gravar o log.
+     * @throws IllegalArgumentException se email ou nome passar de 65.535 bytes
+     */
+    @Override
+    public Cliente save(Cliente cliente) {
+        long inicio = SALVAR.iniciar();
+        try {
+            Rascunho rascunho = Rascunho.obter();
+            rascunho.preparar(cliente.getEmail(), cliente.getNome());
+            LogCompras atual = abrirAlteracao();
+            try {
+                if (atual != null) {
+                    atual.registrarClienteSalvo(cliente);
+                }
+                long carimbo = trava.writeLock();
+                try {
+                    gravar(rascunho, true);
+                } finally {
+                    trava.unlockWrite(carimbo);
+                }
+            } finally {
+                fecharAlteracao(atual);
+            }
+        } catch (RuntimeException e) {
+            SALVAR.falha(inicio);
+            throw e;
+        }
+        SALVAR.sucesso(inicio);
+        return cliente;
+    }
+
+    /**
+     * Inserção em lote para cargas grandes, com a trava exclusiva tomada uma vez
+     * por lote: buscas e snapshots esperam o lote terminar. Como em {@link ClienteRepositoryNoHeap},
+     * o log é gravado depois de cada inserção, para não registrar os duplicados.
+     * Um email ou nome acima do limite interrompe o lote com
+     * IllegalArgumentException, mantendo o que já foi inserido.
+     * @return quantos registros foram inseridos
+     */
+    @Override
+    public int insertAll(List<Cliente> lote, IntConsumer aoRecusar) {
+        long inicio = INSERIR.iniciar();
+        int inseridos = 0;
+        LogCompras atual = abrirAlteracao();
+        try {
+            Rascunho rascunho = Rascunho.obter();
+            long carimbo = trava.writeLock();
+            try {
+                for (int i = 0; i < lote.size(); i++) {
+                    Cliente cliente = lote.get(i);
+                    rascunho.preparar(cliente.getEmail(), cliente.getNome());
+                    if (!gravar(rascunho, false)) {
+                        aoRecusar.accept(i);
+                        continue;
+                    }
+                    inseridos++;
+                    if (atual != null) {
+                        atual.registrarClienteSalvo(cliente);
+                    }
+                }
+            } finally {
+                trava.unlockWrite(carimbo);
+            }
+        } catch (RuntimeException e) {
+            INSERIR.falha(inicio);
+            throw e;
+        } finally {
+            fecharAlteracao(atual);
+        }
+        INSERIR.sucesso(inicio);
+        return inseridos;
+    }
+
+    /**
+     * Devolve um Cliente novo, com o nome decodificado do registro.
+     * Na métrica, registro não encontrado conta como falha.
+     */
+    @Override
+    public Optional<Cliente> findByEmail(String email) {
+        long inicio = BUSCAR.iniciar();
+        String nome = null;
+        Rascunho rascunho = Rascunho.obter();
+        int tamanho = rascunho.codificarEmail(email);
+        if (tamanho >= 0) {
+            long hash = hash(rascunho.email, tamanho);
+            long carimbo = trava.tryOptimisticRead();
+            if (carimbo != 0) {
+                try {
+                    nome = buscarNome(rascunho, tamanho, hash);
+                } catch (RuntimeException e) {
+                    carimbo = 0; // endereço lido no meio de uma escrita
+                }
+                if (!trava.validate(carimbo)) {
+                    carimbo = 0;
+                }
+            }
+            if (carimbo == 0) {
+                carimbo = trava.readLock();
+                try {
+                    nome = buscarNome(rascunho, tamanho, hash);
+                } finally {
+                    trava.unlockRead(carimbo);
+                }
+            }
+        }
+        BUSCAR.concluir(inicio, nome != null);
+        return nome == null ? Optional.empty() : Optional.of(new Cliente(nome, email));
+    }
+
+    @Override
+    public List<Cliente> findAll() {
+        List<Cliente> todos = new ArrayList<>();
+        paraCada(todos::add);
+        return todos;
+    }
+
+    /**
+     * Página em ordem de bytes UTF-8 do email, começando depois do cursor (null
+     * para a primeira). Percorre a tabela inteira mantendo só os menores
+     * emails num heap de tamanho + 1.
+     */
+    @Override
+    public Pagina<Cliente> buscarPagina(String cursor, int tamanho) {
+        Paginacao.validarTamanho(tamanho);
+        return Paginacao.paginar(selecionar(Paginacao.chaveDoCursor(cursor), tamanho + 1).iterator(), tamanho);
+    }
+
+    /**
+     * Stream ordenado por email a partir do cursor (null para o início), lido sob
+     * demanda em blocos de 1.000 clientes; cada bloco é uma varredura da tabela.
+     */
+    @Override
+    public Stream<Cliente> streamOrdenado(String cursor) {
+        return Paginacao.valores(new Percurso(Paginacao.chaveDoCursor(cursor)));
+    }
+
+    @Override
+    public void deleteByEmail(String email) {
+        LogCompras atual = abrirAlteracao();
+        try {
+            if (atual != null) {
+                atual.registrarClienteRemovido(email);
+            }
+            remover(email);
+        } finally {
+            fecharAlteracao(atual);
+        }
+    }
+
+    private void remover(String email) {
+        Rascunho rascunho = Rascunho.obter();
+        int tamanho = rascunho.codificarEmail(email);
+        if (tamanho < 0) {
+            return;
+        }
+        long hash = hash(rascunho.email, tamanho);
+        long carimbo = trava.writeLock();
+        try {
+            int i = localizar(tabela, segmentos, rascunho.email, tamanho, hash);
+            if (i < 0) {
+                return;
+            }
+            long endereco = (tabela.getLong(i << 3) & MASCARA_ENDERECO) - 1;
+            bytesMortos += tamanhoRegistro(endereco);
+            tabela.putLong(i << 3, LAPIDE);
+            vivos--;
+            compactarSePreciso();
+        } finally {
+            trava.unlockWrite(carimbo);
+        }
+    }
+
+    /**
+     * Com log anexado, abre a alteração (ver {@link LogCompras#abrirAlteracao()})
+     * antes da trava da tabela, sempre nesta ordem.
+     * @return o log em uso, ou null
+     */
+    private LogCompras abrirAlteracao() {
+        LogCompras atual = log;
+        if (atual != null) {
+            atual.abrirAlteracao();
+        }
+        return atual;
+    }
+
+    private static void fecharAlteracao(LogCompras atual) {
+        if (atual != null) {
+            atual.fecharAlteracao();
+        }
+    }
+
+    /**
+     * Percorre os registros em ordem da tabela, criando um Cliente por registro,
+     * com a trava de leitura tomada durante todo o percurso: gravações esperam,
+     * e a ação não pode gravar neste repositório.
+     */
+    @Override
+    public void paraCada(Consumer<? super Cliente> acao) {
+        long carimbo = trava.readLock();
+        try {
+            Rascunho rascunho = Rascunho.obter();
+            int capacidade = tabela.capacity() >>> 3;
+            for (int i = 0; i < capacidade; i++) {
+                long posicao = tabela.getLong(i << 3);
+                if (posicao != VAZIA && posicao != LAPIDE) {
+                    acao.accept(materializar(rascunho, (posicao & MASCARA_ENDERECO) - 1));
+                }
+            }
+        } finally {
+            trava.unlockRead(carimbo);
+        }
+    }
+
+    /** Clientes guardados. */
+    public int getQuantidade() {
+        long carimbo = trava.readLock();
+        try {
+            return vivos;
+        } finally {
+            trava.unlockRead(carimbo);
+        }
+    }
+
+    /** Memória direta reservada: tabela mais segmentos alocados. */
+    public long getBytesForaDoHeap() {
+        long carimbo = trava.readLock();
+        try {
+            return tabela.capacity() + ((long) (segmentoAtual + 1) << bitsSegmento);
+        } finally {
+            trava.unlockRead(carimbo);
+        }
+    }
+
+    /** Bytes de registros substituídos ou removidos, liberados na próxima compactação. */
+    public long getBytesMortos() {
+        long carimbo = trava.readLock();
+        try {
+            return bytesMortos;
+        } finally {
+            trava.unlockRead(carimbo);
+        }
+    }
+
+    // ---- tabela e registros (chamados com a trava adequada) ----
+
+    /**
+     * Grava o registro preparado no rascunho.
+     * @return false se o email já existe e substituir é false
+     */
+    private boolean gravar(Rascunho r, boolean substituir) {
+        long hash = hash(r.email, r.tamanhoEmail);
+        int i = localizar(tabela, segmentos, r.email, r.tamanhoEmail, hash);
+        long etiqueta = hash & ~MASCARA_ENDERECO;
+        if (i >= 0) {
+            if (!substituir) {
+                return false;
+            }
+            long endereco = (tabela.getLong(i << 3) & MASCARA_ENDERECO) - 1;
+            ByteBuffer segmento = segmentos[(int) (endereco >>> bitsSegmento)];
+            int inicio = posicaoNoSegmento(endereco);
+            int nomeAtual = segmento.getShort(inicio + 2) & 0xFFFF;
+            if (nomeAtual == r.tamanhoNome) {
+                segmento.put(inicio + CABECALHO + r.tamanhoEmail, r.nome, 0, r.tamanhoNome);
+                return true;
+            }
+            long novo = anexar(r.email, r.tamanhoEmail, r.nome, r.tamanhoNome);
+            bytesMortos += CABECALHO + r.tamanhoEmail + nomeAtual;
+            tabela.putLong(i << 3, etiqueta | (novo + 1));
+            compactarSePreciso();
+            return true;
+        }
+        if (i == SEM_POSICAO) {
+            throw new IllegalStateException("Tabela de clientes sem posição livre.");
+        }
+        int destino = -i - 1;
+        long endereco = anexar(r.email, r.tamanhoEmail, r.nome, r.tamanhoNome);
+        if (tabela.getLong(destino << 3) == VAZIA) {
+            ocupadas++;
+        }
+        tabela.putLong(destino << 3, etiqueta | (endereco + 1));
+        vivos++;
+        if (ocupadas > (tabela.capacity() >>> 3) * 7L / 10) {
+            reconstruirTabela();
+        }
+        return true;
+    }
+
+    /**
+     * Sondagem linear a partir do hash. Recebe tabela e segmentos como
+     * parâmetros para a leitura otimista trabalhar sobre uma única versão deles.
+     * @return a posição do email, ou -(posição livre para inseri-lo) - 1
+     *         (reaproveitando a primeira lápide do caminho)
+     */
+    private int localizar(ByteBuffer tabela, ByteBuffer[] segmentos, byte[] email, int tamanho, long hash) {
+        int capacidade = tabela.capacity() >>> 3;
+        int mascara = capacidade - 1;
+        long etiqueta = hash >>> BITS_ENDERECO;
+        int lapide = -1;
+        int i = (int) hash & mascara;
+        for (int passos = 0; passos < capacidade; passos++) {
+            long posicao = tabela.getLong(i << 3);
+            if (posicao == VAZIA) {
+                return -(lapide >= 0 ? lapide : i) - 1;
+            }
+            if (posicao == LAPIDE) {
+                if (lapide < 0) {
+                    lapide = i;
+                }
+            } else if (posicao >>> BITS_ENDERECO == etiqueta
+                    && emailIgual(segmentos, (posicao & MASCARA_ENDERECO) - 1, email, tamanho)) {
+                return i;
+            }
+            i = (i + 1) & mascara;
+        }
+        return lapide >= 0 ? -lapide - 1 : SEM_POSICAO;
+    }
+
+    private boolean emailIgual(ByteBuffer[] segmentos, long endereco, byte[] email, int tamanho) {
+        ByteBuffer segmento = segmentos[(int) (endereco >>> bitsSegmento)];
+        int inicio = posicaoNoSegmento(endereco);
+        if ((segmento.getShort(inicio) & 0xFFFF) != tamanho) {
+            return false;
+        }
+        inicio += CABECALHO;
+        for (int b = 0; b < tamanho; b++) {
+            if (segmento.get(inicio + b) != email[b]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Lê tabela e segmentos uma vez: pode rodar sob leitura otimista. */
+    private String buscarNome(Rascunho r, int tamanhoEmail, long hash) {
+        ByteBuffer tabela = this.tabela;
+        ByteBuffer[] segmentos = this.segmentos;
+        int i = localizar(tabela, segmentos, r.email, tamanhoEmail, hash);
+        if (i < 0) {
+            return null;
+        }
+        long endereco = (tabela.getLong(i << 3) & MASCARA_ENDERECO) - 1;
+        ByteBuffer segmento = segmentos[(int) (endereco >>> bitsSegmento)];
+        int inicio = posicaoNoSegmento(endereco);
+        int tamanhoNome = segmento.getShort(inicio + 2) & 0xFFFF;
+        byte[] nome = r.nome(tamanhoNome);
+        segmento.get(inicio + CABECALHO + tamanhoEmail, nome, 0, tamanhoNome);
+        return new String(nome, 0, tamanhoNome, StandardCharsets.UTF_8);
+    }
+
+    private Cliente materializar(Rascunho r, long endereco) {
+        ByteBuffer segmento = segmentos[(int) (endereco >>> bitsSegmento)];
+        int inicio = posicaoNoSegmento(endereco);
+        int tamanhoEmail = segmento.getShort(inicio) & 0xFFFF;
+        int tamanhoNome = segmento.getShort(inicio + 2) & 0xFFFF;
+        byte[] email = r.email(tamanhoEmail);
+        byte[] nome = r.nome(tamanhoNome);
+        segmento.get(inicio + CABECALHO, email, 0, tamanhoEmail);
+        segmento.get(inicio + CABECALHO + tamanhoEmail, nome, 0, tamanhoNome);
+        return new Cliente(new String(nome, 0, tamanhoNome, StandardCharsets.UTF_8),
+                new String(email, 0, tamanhoEmail, StandardCharsets.UTF_8));
+    }
+
+    private int tamanhoRegistro(long endereco) {
+        ByteBuffer segmento = segmentos[(int) (endereco >>> bitsSegmento)];
+        int inicio = posicaoNoSegmento(endereco);
+        return CABECALHO + (segmento.getShort(inicio) & 0xFFFF) + (segmento.getShort(inicio + 2) & 0xFFFF);
+    }
+
+    private int posicaoNoSegmento(long endereco) {
+        return (int) (endereco & ((1L << bitsSegmento) - 1));
+    }
+
+    /** Grava o registro no fim do segmento atual, abrindo outro se não couber. */
+    private long anexar(byte[] email, int tamanhoEmail, byte[] nome, int tamanhoNome) {
+        int tamanho = CABECALHO + tamanhoEmail + tamanhoNome;
+        int tamanhoSegmento = 1 << bitsSegmento;
+        if (segmentoAtual < 0 || livreNoSegmento + tamanho > tamanhoSegmento) {
+            if (segmentoAtual >= 0) {
+                bytesGravados += tamanhoSegmento - livreNoSegmento;
+                bytesMortos += tamanhoSegmento - livreNoSegmento;
+            }
+            abrirSegmento();
+        }
+        ByteBuffer segmento = segmentos[segmentoAtual];
+        int inicio = livreNoSegmento;
+        segmento.putShort(inicio, (short) tamanhoEmail);
+        segmento.putShort(inicio + 2, (short) tamanhoNome);
+        segmento.put(inicio + CABECALHO, email, 0, tamanhoEmail);
+        segmento.put(inicio + CABECALHO + tamanhoEmail, nome, 0, tamanhoNome);
+        livreNoSegmento += tamanho;
+        bytesGravados += tamanho;
+        return ((long) segmentoAtual << bitsSegmento) | inicio;
+    }
+
+    private void abrirSegmento() {
+        int proximo = segmentoAtual + 1;
+        if (((long) (proximo + 1) << bitsSegmento) >= MASCARA_ENDERECO) {
+            throw new IllegalStateException("Limite de endereços dos segmentos de clientes atingido.");
+        }
+        if (proximo == segmentos.length) {
+            segmentos = Arrays.copyOf(segmentos, segmentos.length * 2);
+        }
+        segmentos[proximo] = ByteBuffer.allocateDirect(1 << bitsSegmento);
+        segmentoAtual = proximo;
+        livreNoSegmento = 0;
+    }
+
+    /**
+     * Reconstrói a tabela sem lápides, com capacidade para que os vivos ocupem
+     * no máximo metade dela: dobra só se a remoção das lápides não bastar.
+     */
+    private void reconstruirTabela() {
+        long capacidade = tabela.capacity() >>> 3;
+        while ((vivos + 1) * 2L > capacidade) {
+            capacidade *= 2;
+        }
+        if (capacidade > CAPACIDADE_MAXIMA) {
+            throw new IllegalStateException("Capacidade máxima de clientes atingida: " + vivos);
+        }
+        ByteBuffer nova = ByteBuffer.allocateDirect((int) capacidade << 3);
+        int mascara = (int) capacidade - 1;
+        Rascunho rascunho = Rascunho.obter();
+        int antiga = tabela.capacity() >>> 3;
+        for (int i = 0; i < antiga; i++) {
+            long posicao = tabela.getLong(i << 3);
+            if (posicao == VAZIA || posicao == LAPIDE) {
+                continue;
+            }
+            long endereco = (posicao & MASCARA_ENDERECO) - 1;
+            ByteBuffer segmento = segmentos[(int) (endereco >>> bitsSegmento)];
+            int inicio = posicaoNoSegmento(endereco);
+            int tamanhoEmail = segmento.getShort(inicio) & 0xFFFF;
+            byte[] email = rascunho.email(tamanhoEmail);
+            segmento.get(inicio + CABECALHO, email, 0, tamanhoEmail);
+            int j = (int) hash(email, tamanhoEmail) & mascara;
+            while (nova.getLong(j << 3) != VAZIA) {
+                j = (j + 1) & mascara;
+            }
+            nova.putLong(j << 3, posicao);
+        }
+        tabela = nova;
+        ocupadas = vivos;
+    }
+
+    /** Compacta quando mais da metade dos bytes gravados está morta (e ao menos um segmento inteiro). */
+    private void compactarSePreciso() {
+        if (bytesMortos >= 1L << bitsSegmento && bytesMortos * 2 > bytesGravados) {
+            compactar();
+        }
+    }
+
+    /** Copia os registros vivos para segmentos novos e atualiza os endereços na tabela. */
+    private void compactar() {
+        ByteBuffer[] antigos = segmentos;
+        segmentos = new ByteBuffer[4];
+        segmentoAtual = -1;
+        livreNoSegmento = 0;
+        bytesGravados = 0;
+        bytesMortos = 0;
+        Rascunho rascunho = Rascunho.obter();
+        int capacidade = tabela.capacity() >>> 3;
+        for (int i = 0; i < capacidade; i++) {
+            long posicao = tabela.getLong(i << 3);
+            if (posicao == VAZIA || posicao == LAPIDE) {
+                continue;
+            }
+            long endereco = (posicao & MASCARA_ENDERECO) - 1;
+            ByteBuffer segmento = antigos[(int) (endereco >>> bitsSegmento)];
+            int inicio = posicaoNoSegmento(endereco);
+            int tamanhoEmail = segmento.getShort(inicio) & 0xFFFF;
+            int tamanhoNome = segmento.getShort(inicio + 2) & 0xFFFF;
+            byte[] email = rascunho.email(tamanhoEmail);
+            byte[] nome = rascunho.nome(tamanhoNome);
+            segmento.get(inicio + CABECALHO, email, 0, tamanhoEmail);
+            segmento.get(inicio + CABECALHO + tamanhoEmail, nome, 0, tamanhoNome);
+            long novo = anexar(email, tamanhoEmail, nome, tamanhoNome);
+            tabela.putLong(i << 3, (posicao & ~MASCARA_ENDERECO) | (novo + 1));
+        }
+    }
+
+    /**
+     * Os tamanho + 1 menores emails depois da chave, em ordem de bytes UTF-8,
+     * como entradas prontas para {@link Paginacao}.
+     */
+    private List<Map.Entry<String, Cliente>> selecionar(String depois, int quantidade) {
+        byte[] limite = depois == null ? null : depois.getBytes(StandardCharsets.UTF_8);
+        PriorityQueue<Candidato> maiores = new PriorityQueue<>(quantidade + 1,
+                (a, b) -> Arrays.compareUnsigned(b.email, a.email));
+        List<Map.Entry<String, Cliente>> entradas = new ArrayList<>(quantidade);
+        long carimbo = trava.readLock();
+        try {
+            int capacidade = tabela.capacity() >>> 3;
+            for (int i = 0; i < capacidade; i++) {
+                long posicao = tabela.getLong(i << 3);
+                if (posicao == VAZIA || posicao == LAPIDE) {
+                    continue;
+                }
+                long endereco = (posicao & MASCARA_ENDERECO) - 1;
+                ByteBuffer segmento = segmentos[(int) (endereco >>> bitsSegmento)];
+                int inicio = posicaoNoSegmento(endereco);
+                int tamanhoEmail = segmento.getShort(inicio) & 0xFFFF;
+                if (limite != null && comparar(segmento, inicio + CABECALHO, tamanhoEmail, limite) <= 0) {
+                    continue;
+                }
+                if (maiores.size() == quantidade
+                        && comparar(segmento, inicio + CABECALHO, tamanhoEmail, maiores.peek().email) >= 0) {
+                    continue;
+                }
+                byte[] email = new byte[tamanhoEmail];
+                segmento.get(inicio + CABECALHO, email);
+                maiores.add(new Candidato(email, endereco));
+                if (maiores.size() > quantidade) {
+                    maiores.poll();
+                }
+            }
+            Candidato[] ordem = maiores.toArray(new Candidato[0]);
+            Arrays.sort(ordem, (a, b) -> Arrays.compareUnsigned(a.email, b.email));
+            Rascunho rascunho = Rascunho.obter();
+            for (Candidato candidato : ordem) {
+                Cliente cliente = materializar(rascunho, candidato.endereco);
+                entradas.add(new AbstractMap.SimpleImmutableEntry<>(cliente.getEmail(), cliente));
+            }
+        } finally {
+            trava.unlockRead(carimbo);
+        }
+        return entradas;
+    }
+
+    /** Comparação sem sinal, byte a byte, de um email no segmento com outro em memória. */
+    private static int comparar(ByteBuffer segmento, int inicio, int tamanho, byte[] outro) {
+        int minimo = Math.min(tamanho, outro.length);
+        for (int b = 0; b < minimo; b++) {
+            int diferenca = (segmento.get(inicio + b) & 0xFF) - (outro[b] & 0xFF);
+            if (diferenca != 0) {
+                return diferenca;
+            }
+        }
+        return tamanho - outro.length;
+    }
+
+    /** FNV-1a de 64 bits seguido da finalização do MurmurHash3, que espalha os bits altos (etiqueta). */
+    private static long hash(byte[] bytes, int tamanho) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < tamanho; i++) {
+            h ^= bytes[i] & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Candidato {
+        final byte[] email;
+        final long endereco;
+
+        Candidato(byte[] email, long endereco) {
+            this.email = email;
+            this.endereco = endereco;
+        }
+    }
+
+    /** Entradas em ordem de email, buscadas em blocos a cada esgotamento. */
+    private final class Percurso implements Iterator<Map.Entry<String, Cliente>> {
+        private String depois;
+        private Iterator<Map.Entry<String, Cliente>> bloco;
+        private boolean fim;
+
+        Percurso(String depois) {
+            this.depois = depois;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if ((bloco == null || !bloco.hasNext()) && !fim) {
+                List<Map.Entry<String, Cliente>> entradas = selecionar(depois, PAGINA_STREAM);
+                fim = entradas.size() < PAGINA_STREAM;
+                if (!entradas.isEmpty()) {
+                    depois = entradas.get(entradas.size() - 1).getKey();
+                }
+                bloco = entradas.iterator();
+            }
+            return bloco.hasNext();
+        }
+
+        @Override
+        public Map.Entry<String, Cliente> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return bloco.next();
+        }
+    }
+
+    /**
+     * Vetores por thread para email e nome em UTF-8, reaproveitados em cada
+     * operação para buscas e gravações não alocarem além do Cliente devolvido.
+     * Começam pequenos e crescem até o tamanho do texto codificado; acima de
+     * {@link #TAMANHO_RETIDO} valem só para a operação corrente, então cada thread
+     * (inclusive uma virtual por requisição) retém no máximo alguns KB.
+     */
+    private static final class Rascunho {
+        private static final int TAMANHO_INICIAL = 64;
+        private static final int TAMANHO_RETIDO = 1024;
+
+        byte[] email = new byte[TAMANHO_INICIAL];
+        byte[] nome = new byte[TAMANHO_INICIAL];
+        int tamanhoEmail;
+        int tamanhoNome;
+
+        /** O rascunho da thread, com os vetores de uma operação anterior grande já descartados. */
+        static Rascunho obter() {
+            Rascunho r = RASCUNHO.get();
+            if (r.email.length > TAMANHO_RETIDO) {
+                r.email = new byte[TAMANHO_INICIAL];
+            }
+            if (r.nome.length > TAMANHO_RETIDO) {
+                r.nome = new byte[TAMANHO_INICIAL];
+            }
+            return r;
+        }
+
+        /** O vetor de email, com ao menos o tamanho pedido. */
+        byte[] email(int tamanho) {
+            if (email.length < tamanho) {
+                email = new byte[crescer(email.length, tamanho)];
+            }
+            return email;
+        }
+
+        /** O vetor de nome, com ao menos o tamanho pedido. */
+        byte[] nome(int tamanho) {
+            if (nome.length < tamanho) {
+                nome = new byte[crescer(nome.length, tamanho)];
+            }
+            return nome;
+        }
+
+        /** Dobra até o tamanho retido; acima dele, o tamanho exato. */
+        private static int crescer(int atual, int tamanho) {
+            return tamanho > TAMANHO_RETIDO ? tamanho : Math.max(tamanho, Math.min(atual * 2, TAMANHO_RETIDO));
+        }
+
+        void preparar(String email, String nome) {
+            tamanhoEmail = codificar(email, email(tamanhoMaximo(email)), "email");
+            tamanhoNome = codificar(nome, nome(tamanhoMaximo(nome)), "nome");
+        }
+
+        /** Para buscas e remoções: -1 se o email passa do limite (e então não está guardado). */
+        int codificarEmail(String email) {
+            return utf8(email, email(tamanhoMaximo(email)));
+        }
+
+        private static int codificar(String texto, byte[] destino, String campo) {
+            int tamanho = utf8(texto, destino);
+            if (tamanho < 0) {
+                throw new IllegalArgumentException("O " + campo + " do cliente passa de "
+                        + TAMANHO_MAXIMO_TEXTO + " bytes em UTF-8.");
+            }
+            return tamanho;
+        }
+
+        /**
+         * Quanto o vetor precisa ter para {@link #utf8}: 3 bytes por char cobrem
+         * qualquer texto (um par de surrogates vira 4 bytes); se o limite ficar
+         * abaixo disso, conta o tamanho exato em UTF-8, sem passar de um byte
+         * além do limite.
+         */
+        private static int tamanhoMaximo(String texto) {
+            long folgado = texto.length() * 3L;
+            if (folgado <= TAMANHO_RETIDO) {
+                return (int) folgado;
+            }
+            int n = 0;
+            for (int i = 0; i < texto.length() && n <= TAMANHO_MAXIMO_TEXTO; i++) {
+                char c = texto.charAt(i);
+                if (c < 0x80 || Character.isSurrogate(c) && !(Character.isHighSurrogate(c)
+                        && i + 1 < texto.length() && Character.isLowSurrogate(texto.charAt(i + 1)))) {
+                    n++;
+                } else if (c < 0x800) {
+                    n += 2;
+                } else if (Character.isHighSurrogate(c)) {
+                    n += 4;
+                    i++;
+                } else {
+                    n += 3;
+                }
+            }
+            return Math.min(n, TAMANHO_MAXIMO_TEXTO);
+        }
+
+        /**
+         * Codifica em UTF-8 como String.getBytes (surrogate isolado vira '?').
+         * @return o tamanho em bytes, ou -1 se não couber no vetor
+         */
+        private static int utf8(String texto, byte[] destino) {
+            int n = 0;
+            int limite = destino.length;
+            for (int i = 0; i < texto.length(); i++) {
+                char c = texto.charAt(i);
+                if (c < 0x80) {
+                    if (n >= limite) {
+                        return -1;
+                    }
+                    destino[n++] = (byte) c;
+                } else if (c < 0x800) {
+                    if (n + 2 > limite) {
+                        return -1;
+                    }
+                    destino[n++] = (byte) (0xC0 | c >> 6);
+                    destino[n++] = (byte) (0x80 | c & 0x3F);
+                } else if (Character.isHighSurrogate(c) && i + 1 < texto.length()
+                        && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                    int ponto = Character.toCodePoint(c, texto.charAt(++i));
+                    if (n + 4 > limite) {
+                        return -1;
+                    }
+                    destino[n++] = (byte) (0xF0 | ponto >> 18);
+                    destino[n++] = (byte) (0x80 | ponto >> 12 & 0x3F);
+                    destino[n++] = (byte) (0x80 | ponto >> 6 & 0x3F);
+                    destino[n++] = (byte) (0x80 | ponto & 0x3F);
+                } else if (Character.isSurrogate(c)) {
+                    if (n >= limite) {
+                        return -1;
+                    }
+                    destino[n++] = '?';
+                } else {
+                    if (n + 3 > limite) {
+                        return -1;
+                    }
+                    destino[n++] = (byte) (0xE0 | c >> 12);
+                    destino[n++] = (byte) (0x80 | c >> 6 & 0x3F);
+                    destino[n++] = (byte) (0x80 | c & 0x3F);
+                }
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.repository;
+
+import com.example.model.Cliente;
+import com.example.metricas.Metricas;
+import com.example.metricas.Operacao;
+import com.example.persistencia.LogCompras;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.IntConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Repositório de clientes no heap: cada Cliente é um objeto, num
+ * ConcurrentSkipListMap ordenado por email. Buscas devolvem a própria
+ * instância guardada.
+ * Com um {@link LogCompras} anexado, cada alteração também é gravada no log.
+ */
+public class ClienteRepositoryNoHeap implements ClienteRepository {
+    private static final Operacao SALVAR = Metricas.operacao("repositorio.cliente.save");
+    private static final Operacao INSERIR = Metricas.operacao("repositorio.cliente.insertAll");
+    private static final Operacao BUSCAR = Metricas.operacao("repositorio.cliente.findByEmail");
+
+    private ConcurrentSkipListMap<String, Cliente> clientes = new ConcurrentSkipListMap<>(); // ordenado por email
+    private volatile LogCompras log;
+
+    /** Passa a gravar as alterações no log (anexe depois de recuperar o estado). */
+    @Override
+    public void anexarLog(LogCompras log) {
+        this.log = log;
+    }
+
+    @Override
+    public Cliente save(Cliente cliente) {
+        long inicio = SALVAR.iniciar();
+        try {
+            LogCompras atual = log;
+            if (atual == null) {
+                clientes.put(cliente.getEmail(), cliente);
+            } else {
+                atual.abrirAlteracao();
+                try {
+                    atual.registrarClienteSalvo(cliente);
+                    clientes.put(cliente.getEmail(), cliente);
+                } finally {
+                    atual.fecharAlteracao();
+                }
+            }
+        } catch (RuntimeException e) {
+            SALVAR.falha(inicio);
+            throw e;
+        }
+        SALVAR.sucesso(inicio);
+        return cliente;
+    }
+
+    /**
+     * Inserção em lote para cargas grandes: grava só os registros cujo email ainda
+     * não existe (o primeiro vence, inclusive dentro do próprio lote) e informa o
+     * índice de cada duplicado recusado. O lote é inserido em ordem de email: em
+     * lotes grandes, inserções vizinhas percorrem o mesmo caminho da skip list, o que
+     * é bem mais rápido que inserir em ordem aleatória. Diferente de {@link #save},
+     * o log é gravado depois da inserção, para não registrar os duplicados; um
+     * snapshot espera o lote terminar.
+     * A métrica mede o lote inteiro.
+     * @return quantos registros foram inseridos
+     */
+    @Override
+    public int insertAll(List<Cliente> lote, IntConsumer aoRecusar) {
+        long inicio = INSERIR.iniciar();
+        int inseridos = 0;
+        LogCompras atual = log;
+        if (atual != null) {
+            atual.abrirAlteracao();
+        }
+        try {
+            Integer[] ordem = new Integer[lote.size()];
+            Arrays.setAll(ordem, i -> i);
+            Arrays.sort(ordem, Comparator.comparing(i -> lote.get(i).getEmail())); // estável: o primeiro vence
+            for (int i : ordem) {
+                Cliente cliente = lote.get(i);
+                if (clientes.putIfAbsent(cliente.getEmail(), cliente) != null) {
+                    aoRecusar.accept(i);
+                    continue;
+                }
+                inseridos++;
+                if (atual != null) {
+                    atual.registrarClienteSalvo(cliente);
+                }
+            }
+        } catch (RuntimeException e) {
+            INSERIR.falha(inicio);
+            throw e;
+        } finally {
+            if (atual != null) {
+                atual.fecharAlteracao();
+            }
+        }
+        INSERIR.sucesso(inicio);
+        return inseridos;
+    }
+
+    /** Na métrica, registro não encontrado conta como falha. */
+    @Override
+    public Optional<Cliente> findByEmail(String email) {
+        long inicio = BUSCAR.iniciar();
+        Cliente encontrado = clientes.get(email);
+        BUSCAR.concluir(inicio, encontrado != null);
+        return Optional.ofNullable(encontrado);
+    }
+
+    @Override
+    public List<Cliente> findAll() {
+        return new ArrayList<>(clientes.values());
+    }
+
+    /**
+     * Página em ordem de email, começando depois do cursor (null para a primeira).
+     * Não copia o repositório: lê só os itens da página.
+     */
+    @Override
+    public Pagina<Cliente> buscarPagina(String cursor, int tamanho) {
+        return Paginacao.paginar(Paginacao.aPartirDe(clientes, cursor), tamanho);
+    }
+
+    /** Stream ordenado por email a partir do cursor (null para o início), lido sob demanda. */
+    @Override
+    public Stream<Cliente> streamOrdenado(String cursor) {
+        return Paginacao.valores(Paginacao.aPartirDe(clientes, cursor));
+    }
+
+    @Override
+    public void deleteByEmail(String email) {
+        LogCompras atual = log;
+        if (atual == null) {
+            clientes.remove(email);
+            return;
+        }
+        atual.abrirAlteracao();
+        try {
+            atual.registrarClienteRemovido(email);
+            clientes.remove(email);
+        } finally {
+            atual.fecharAlteracao();
+        }
+    }
+
+    /**
+     * Percorre os registros atuais sem copiá-los para uma lista.
+     * A iteração é fracamente consistente: pode refletir gravações feitas durante o percurso.
+     */
+    @Override
+    public void paraCada(Consumer<? super Cliente> acao) {
+        clientes.values().forEach(acao);
+    }
+}
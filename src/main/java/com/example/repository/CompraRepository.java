@@ -1,29 +1,461 @@
 package com.example.repository;
 
 import com.example.model.Compra;
+import com.example.metricas.Metricas;
+import com.example.metricas.Operacao;
+import com.example.persistencia.LogCompras;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Repositório em memória para Compra.
  * Usa o 'codigoCompra' como chave única.
+ * Com um {@link LogCompras} anexado, cada compra finalizada é gravada no
+ * log antes de ficar visível no repositório.
+ *
+ * As compras ficam distribuídas em fragmentos (um ConcurrentSkipListMap
+ * cada, ordenado pelo código), escolhidos pelo hash do código. Gravações e
+ * buscas tocam um único fragmento; varreduras completas dividem o trabalho
+ * por fragmento e rodam em paralelo no ForkJoinPool comum, sem copiar as
+ * compras para uma lista. Consultas paginadas intercalam os fragmentos em
+ * ordem de código (que segue a ordem de criação, ver GeradorCodigoPorBlocos).
+ *
+ * Índices secundários por email do cliente, por tipo de ingresso dos itens
+ * e por status são mantidos em save(), sob a trava do fragmento da compra:
+ * gravações concorrentes da mesma compra não deixam o índice divergente.
+ * Consultas pelos índices custam O(resultados) e são fracamente consistentes
+ * com gravações em andamento, como as demais leituras. As compras finalizadas
+ * também ficam num índice pela ordem em que entraram nele (ver
+ * {@link Compra#getSequenciaFinalizacao()}), lido pelas exportações
+ * incrementais (ver streamFinalizadas).
  */
 public class CompraRepository {
-    private Map<String, Compra> compras = new HashMap<>();
+    private static final String[] STATUS = {"Em Andamento", "Finalizada", "Expirada"};
+    private static final Operacao SALVAR = Metricas.operacao("repositorio.compra.save");
+    private static final Operacao BUSCAR = Metricas.operacao("repositorio.compra.findByCodigo");
+
+    private final Fragmentos<Compra> compras;
+    private final IndiceSecundario<Compra> porCliente = new IndiceSecundario<>();
+    private final IndiceSecundario<Compra> porTipoIngresso = new IndiceSecundario<>();
+    private final IndiceSecundario<Compra> porStatus = new IndiceSecundario<>();
+    private final ConcurrentSkipListMap<Long, Compra> porFinalizacao = new ConcurrentSkipListMap<>();
+    private long ultimaSequencia; // protegido por porFinalizacao
+    private volatile LogCompras log;
+
+    public CompraRepository() {
+        this(Fragmentos.quantidadePadrao());
+    }
+
+    /** @param fragmentos quantidade de fragmentos (arredondada para potência de 2) */
+    public CompraRepository(int fragmentos) {
+        this.compras = new Fragmentos<>(fragmentos);
+    }
+
+    /** Passa a gravar as compras finalizadas no log (anexe depois de recuperar o estado). */
+    public void anexarLog(LogCompras log) {
+        this.log = log;
+    }
 
     public Compra save(Compra compra) {
-        compras.put(compra.getCodigoCompra(), compra);
+        long inicio = SALVAR.iniciar();
+        try {
+            gravar(compra);
+        } catch (RuntimeException e) {
+            SALVAR.falha(inicio);
+            throw e;
+        }
+        SALVAR.sucesso(inicio);
+        return compra;
+    }
+
+    /**
+     * Finaliza a compra e a grava. Com log anexado, o registro é gravado antes
+     * de a compra mudar de status (ver {@link Compra#finalizarCompra(Consumer)}):
+     * se a gravação falhar, a compra continua em andamento, com o estoque
+     * reservado, e a exceção é propagada.
+     * @throws IllegalStateException se a compra não puder ser finalizada
+     */
+    public Compra finalizarESalvar(Compra compra) {
+        long inicio = SALVAR.iniciar();
+        try {
+            LogCompras atual = log;
+            if (atual == null) {
+                compra.finalizarCompra();
+                aplicar(compra);
+            } else {
+                atual.abrirAlteracao();
+                try {
+                    compra.finalizarCompra(c -> c.definirSequenciaFinalizacao(atual.registrarCompraFinalizada(c)));
+                    aplicar(compra);
+                } finally {
+                    atual.fecharAlteracao();
+                }
+            }
+        } catch (RuntimeException e) {
+            SALVAR.falha(inicio);
+            throw e;
+        }
+        SALVAR.sucesso(inicio);
         return compra;
     }
 
+    private void gravar(Compra compra) {
+        LogCompras atual = log;
+        if (atual == null) {
+            aplicar(compra);
+            return;
+        }
+        atual.abrirAlteracao();
+        try {
+            if (compra.getStatus().equals("Finalizada")) {
+                compra.definirSequenciaFinalizacao(atual.registrarCompraFinalizada(compra));
+            }
+            aplicar(compra);
+        } finally {
+            atual.fecharAlteracao();
+        }
+    }
+
+    private void aplicar(Compra compra) {
+        String codigo = compra.getCodigoCompra();
+        ConcurrentSkipListMap<String, Compra> fragmento = compras.fragmento(codigo);
+        synchronized (fragmento) {
+            Compra anterior = compras.gravar(codigo, compra);
+            if (anterior != null && anterior != compra) {
+                desindexar(anterior);
+            }
+            indexar(compra);
+        }
+    }
+
+    private void indexar(Compra compra) {
+        String codigo = compra.getCodigoCompra();
+        porCliente.adicionar(compra.getCliente().getEmail(), codigo, compra);
+        for (String tipo : tiposDosItens(compra)) {
+            porTipoIngresso.adicionar(tipo, codigo, compra);
+        }
+        // o status da mesma instância pode ter mudado desde a última gravação
+        String status = compra.getStatus();
+        for (String outro : STATUS) {
+            if (!outro.equals(status)) {
+                porStatus.remover(outro, codigo);
+            }
+        }
+        porStatus.adicionar(status, codigo, compra);
+        if (status.equals("Finalizada")) {
+            indexarFinalizada(compra);
+        }
+    }
+
+    private void desindexar(Compra compra) {
+        String codigo = compra.getCodigoCompra();
+        porCliente.remover(compra.getCliente().getEmail(), codigo);
+        for (String tipo : tiposDosItens(compra)) {
+            porTipoIngresso.remover(tipo, codigo);
+        }
+        porStatus.remover(compra.getStatus(), codigo);
+        if (compra.getStatus().equals("Finalizada")) {
+            porFinalizacao.remove(compra.getSequenciaFinalizacao(), compra);
+        }
+    }
+
+    /**
+     * Sem log, a sequência vem do contador, atribuída e publicada sob a mesma
+     * trava: o índice só cresce no fim, e quem o percorre nunca vê uma compra
+     * sem ver as de sequência menor. Com log, a sequência já veio da posição
+     * do registro e a ordem é garantida pelo {@link #limiteFinalizadas()}.
+     */
+    private void indexarFinalizada(Compra compra) {
+        synchronized (porFinalizacao) {
+            if (compra.getSequenciaFinalizacao() == 0) {
+                compra.definirSequenciaFinalizacao(ultimaSequencia + 1);
+            }
+            ultimaSequencia = Math.max(ultimaSequencia, compra.getSequenciaFinalizacao());
+            porFinalizacao.put(compra.getSequenciaFinalizacao(), compra);
+        }
+    }
+
+    private static Set<String> tiposDosItens(Compra compra) {
+        Set<String> tipos = new HashSet<>(4);
+        // o monitor da compra protege a lista de itens contra adições concorrentes
+        synchronized (compra) {
+            for (int i = 0; i < compra.getQuantidadeItens(); i++) {
+                tipos.add(compra.getIngressoDoItem(i).getTipo());
+            }
+        }
+        return tipos;
+    }
+
+    /** Na métrica, compra não encontrada conta como falha. */
     public Optional<Compra> findByCodigo(String codigo) {
-        return Optional.ofNullable(compras.get(codigo));
+        long inicio = BUSCAR.iniciar();
+        Compra compra = compras.fragmento(codigo).get(codigo);
+        BUSCAR.concluir(inicio, compra != null);
+        return Optional.ofNullable(compra);
     }
 
+    /**
+     * Copia todas as compras para uma lista nova. Custo O(n) em alocação a
+     * cada chamada; para relatórios prefira buscarPagina(), stream(),
+     * parallelStream() ou somar().
+     */
     public List<Compra> findAll() {
-        return new ArrayList<>(compras.values());
+        List<Compra> todas = new ArrayList<>(contar());
+        paraCada(todas::add);
+        return todas;
+    }
+
+    /**
+     * Página de compras em ordem de código, começando depois do cursor
+     * (null para a primeira página).
+     */
+    public Pagina<Compra> buscarPagina(String cursor, int tamanho) {
+        return Paginacao.paginar(Paginacao.aPartirDe(compras.todos(), cursor), tamanho);
+    }
+
+    /**
+     * Stream ordenado por código a partir do cursor (null para o início),
+     * lido sob demanda do armazenamento vivo.
+     */
+    public Stream<Compra> streamOrdenado(String cursor) {
+        return Paginacao.valores(Paginacao.aPartirDe(compras.todos(), cursor));
+    }
+
+    /**
+     * Compras finalizadas em ordem de sequência de finalização, com sequência
+     * maior que {@code aposSequencia} e menor que {@code limite}.
+     * Lido sob demanda do índice vivo, sem cópia e sem travas: uma exportação
+     * incremental guarda a última sequência lida e continua dela na próxima vez.
+     * Com {@code limite} vindo de {@link #limiteFinalizadas()}, nenhuma compra
+     * pode entrar depois antes da última lida.
+     */
+    public Stream<Compra> streamFinalizadas(long aposSequencia, long limite) {
+        NavigableMap<Long, Compra> faixa = porFinalizacao.subMap(aposSequencia, false, limite, false);
+        return StreamSupport.stream(faixa.values().spliterator(), false);
+    }
+
+    /**
+     * Sequência a partir da qual ainda podem entrar compras no índice de
+     * finalização; todas as de sequência menor já estão nele. Com log, espera
+     * as gravações em andamento (ver {@link LogCompras#limiteAplicado()}).
+     */
+    public long limiteFinalizadas() {
+        LogCompras atual = log;
+        if (atual != null) {
+            return atual.limiteAplicado();
+        }
+        synchronized (porFinalizacao) {
+            return ultimaSequencia + 1;
+        }
+    }
+
+    /** Compras do cliente, em ordem de código. O(resultados). */
+    public List<Compra> findByCliente(String email) {
+        return new ArrayList<>(porCliente.buscar(email).values());
+    }
+
+    public Pagina<Compra> buscarPorCliente(String email, String cursor, int tamanho) {
+        return Paginacao.paginar(Paginacao.aPartirDe(porCliente.buscar(email), cursor), tamanho);
+    }
+
+    /** Compras com pelo menos um item do tipo de ingresso, em ordem de código. O(resultados). */
+    public List<Compra> findByTipoIngresso(String tipo) {
+        return new ArrayList<>(porTipoIngresso.buscar(tipo).values());
+    }
+
+    public Pagina<Compra> buscarPorTipoIngresso(String tipo, String cursor, int tamanho) {
+        return Paginacao.paginar(Paginacao.aPartirDe(porTipoIngresso.buscar(tipo), cursor), tamanho);
+    }
+
+    /** Compras no status informado ("Em Andamento", "Finalizada"...), em ordem de código. */
+    public List<Compra> findByStatus(String status) {
+        return new ArrayList<>(porStatus.buscar(status).values());
+    }
+
+    public Pagina<Compra> buscarPorStatus(String status, String cursor, int tamanho) {
+        return Paginacao.paginar(Paginacao.aPartirDe(porStatus.buscar(status), cursor), tamanho);
+    }
+
+    public int contarPorStatus(String status) {
+        return porStatus.contar(status);
+    }
+
+    /**
+     * Tira o cliente do índice por email em O(1), por exemplo quando o
+     * cadastro é excluído (ver ClienteService.aoDeletarCliente). As compras
+     * continuam no repositório, acessíveis por código e pelos demais índices.
+     */
+    public void esquecerCliente(String email) {
+        porCliente.removerChave(email);
+    }
+
+    /** Quantidade de compras (aproximada sob escrita concorrente). */
+    public int contar() {
+        return compras.tamanho();
+    }
+
+    /**
+     * Percorre os registros atuais sem copiá-los para uma lista.
+     * A iteração é fracamente consistente: pode refletir gravações feitas durante o percurso.
+     */
+    public void paraCada(Consumer<? super Compra> acao) {
+        for (ConcurrentSkipListMap<String, Compra> fragmento : compras.todos()) {
+            fragmento.values().forEach(acao);
+        }
+    }
+
+    /** Stream sequencial sobre o armazenamento vivo (fracamente consistente, sem cópia). */
+    public Stream<Compra> stream() {
+        return StreamSupport.stream(compras.valores(), false);
+    }
+
+    /** Stream paralelo: divide primeiro por fragmento, depois dentro de cada fragmento. */
+    public Stream<Compra> parallelStream() {
+        return StreamSupport.stream(compras.valores(), true);
+    }
+
+    /** Soma um valor por compra em paralelo (ex.: {@code Compra::calcularTotalCentavos}). */
+    public long somar(ToLongFunction<? super Compra> valor) {
+        return parallelStream().mapToLong(valor).sum();
+    }
+
+    /** Chave do índice de finalização; código null vem antes de qualquer código do mesmo instante. */
+    /** Fragmentação por hash do código. */
+    static final class Fragmentos<V> {
+        private final ConcurrentSkipListMap<String, V>[] mapas;
+        private final int mascara;
+        private final LongAdder tamanho = new LongAdder(); // size() do skip list é O(n)
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Fragmentos(int quantidade) {
+            if (quantidade <= 0) {
+                throw new IllegalArgumentException("Quantidade de fragmentos deve ser positiva.");
+            }
+            int capacidade = 1;
+            while (capacidade < quantidade) {
+                capacidade <<= 1;
+            }
+            mapas = new ConcurrentSkipListMap[capacidade];
+            for (int i = 0; i < capacidade; i++) {
+                mapas[i] = new ConcurrentSkipListMap<>();
+            }
+            mascara = capacidade - 1;
+        }
+
+        /** Quatro fragmentos por núcleo, para as varreduras paralelas terem folga de balanceamento. */
+        static int quantidadePadrao() {
+            return Math.max(4, Runtime.getRuntime().availableProcessors() * 4);
+        }
+
+        ConcurrentSkipListMap<String, V> fragmento(String chave) {
+            int h = chave.hashCode();
+            return mapas[(h ^ (h >>> 16) ^ (h >>> 24)) & mascara];
+        }
+
+        /** @return o valor anterior da chave, ou null se ela é nova */
+        V gravar(String chave, V valor) {
+            V anterior = fragmento(chave).put(chave, valor);
+            if (anterior == null) {
+                tamanho.increment();
+            }
+            return anterior;
+        }
+
+        ConcurrentSkipListMap<String, V>[] todos() {
+            return mapas;
+        }
+
+        int tamanho() {
+            return (int) Math.min(tamanho.sum(), Integer.MAX_VALUE);
+        }
+
+        Spliterator<V> valores() {
+            return new SpliteratorFragmentos<>(mapas, 0, mapas.length, Math.max(1, tamanho.sum() / mapas.length));
+        }
+    }
+
+    /**
+     * Divide a faixa de fragmentos ao meio enquanto houver mais de um; com um
+     * só, delega ao spliterator do próprio ConcurrentSkipListMap, que também se divide.
+     */
+    private static final class SpliteratorFragmentos<V> implements Spliterator<V> {
+        private final ConcurrentSkipListMap<String, V>[] mapas;
+        private int inicio;
+        private final int fim;
+        private final long estimativaPorFragmento;
+        private Spliterator<V> atual;
+
+        SpliteratorFragmentos(ConcurrentSkipListMap<String, V>[] mapas, int inicio, int fim,
+                              long estimativaPorFragmento) {
+            this.mapas = mapas;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.estimativaPorFragmento = estimativaPorFragmento;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super V> acao) {
+            while (true) {
+                if (atual == null) {
+                    if (inicio >= fim) {
+                        return false;
+                    }
+                    atual = mapas[inicio++].values().spliterator();
+                }
+                if (atual.tryAdvance(acao)) {
+                    return true;
+                }
+                atual = null;
+            }
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super V> acao) {
+            if (atual != null) {
+                atual.forEachRemaining(acao);
+                atual = null;
+            }
+            while (inicio < fim) {
+                mapas[inicio++].values().forEach(acao);
+            }
+        }
+
+        @Override
+        public Spliterator<V> trySplit() {
+            if (atual == null && fim - inicio > 1) {
+                int meio = (inicio + fim) >>> 1;
+                Spliterator<V> primeiraMetade = new SpliteratorFragmentos<>(mapas, inicio, meio,
+                        estimativaPorFragmento);
+                inicio = meio;
+                return primeiraMetade;
+            }
+            if (atual == null && fim - inicio == 1) {
+                atual = mapas[inicio++].values().spliterator();
+            }
+            return atual == null ? null : atual.trySplit();
+        }
+
+        @Override
+        public long estimateSize() {
+            // estimativa: contar um skip list exigiria percorrê-lo
+            long total = (fim - inicio) * estimativaPorFragmento;
+            return atual == null ? total : total + Math.min(atual.estimateSize(), estimativaPorFragmento);
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.CONCURRENT | Spliterator.NONNULL;
+        }
     }
 }
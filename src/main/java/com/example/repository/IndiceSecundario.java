@@ -0,0 +1,48 @@
+package com.example.repository;
+
+import java.util.Collections;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice secundário: para cada valor da chave (email, tipo, status...), as
+ * entradas que o têm, ordenadas pela chave primária. Uma consulta devolve
+ * direto o mapa do valor, então custa O(resultados) e pode ser paginada
+ * com os mesmos cursores do repositório.
+ */
+final class IndiceSecundario<V> {
+    private final ConcurrentHashMap<String, ConcurrentSkipListMap<String, V>> entradas = new ConcurrentHashMap<>();
+
+    void adicionar(String chave, String primaria, V valor) {
+        entradas.compute(chave, (k, mapa) -> {
+            ConcurrentSkipListMap<String, V> destino = mapa != null ? mapa : new ConcurrentSkipListMap<>();
+            destino.put(primaria, valor);
+            return destino;
+        });
+    }
+
+    /** Remove a entrada; o valor da chave some do índice quando fica sem entradas. */
+    void remover(String chave, String primaria) {
+        entradas.computeIfPresent(chave, (k, mapa) -> {
+            mapa.remove(primaria);
+            return mapa.isEmpty() ? null : mapa;
+        });
+    }
+
+    /** Descarta todas as entradas de um valor da chave em O(1). */
+    void removerChave(String chave) {
+        entradas.remove(chave);
+    }
+
+    NavigableMap<String, V> buscar(String chave) {
+        ConcurrentSkipListMap<String, V> mapa = entradas.get(chave);
+        return mapa != null ? mapa : Collections.emptyNavigableMap();
+    }
+
+    /** Quantidade de entradas do valor da chave (O(resultados)). */
+    int contar(String chave) {
+        ConcurrentSkipListMap<String, V> mapa = entradas.get(chave);
+        return mapa == null ? 0 : mapa.size();
+    }
+}
@@ -1,33 +1,255 @@
 package com.example.repository;
 
 import com.example.model.Ingresso;
+import com.example.model.VersaoPreco;
+import com.example.metricas.Metricas;
+import com.example.metricas.Operacao;
+import com.example.persistencia.LogCompras;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
 
 /**
  * Repositório em memória para Ingresso.
  * Usa o 'tipo' como chave única.
+ * Com um {@link LogCompras} anexado, cada alteração também é gravada no log.
+ * As baixas de estoque das vendas não passam por aqui: elas são gravadas
+ * junto com a compra finalizada (ver CompraRepository). O estoque só vai para
+ * o log quando o ingresso entra no catálogo; regravar o mesmo ingresso ou
+ * reprecificá-lo mantém o estoque registrado, e ajustes administrativos
+ * passam por {@link #redefinirEstoque}.
+ *
+ * O catálogo é guardado como um {@link CatalogoIngressos} imutável
+ * (copy-on-write): leituras pegam o retrato atual numa leitura volátil, sem
+ * travas, e cada gravação monta um retrato novo e o publica de uma vez.
+ * As gravações são serializadas entre si e gravam o log na ordem em que
+ * publicam. Copiar o catálogo a cada gravação serve porque ingressos são
+ * poucos e mudam raramente; cargas grandes devem usar {@link #insertAll},
+ * que publica uma vez por lote.
  */
 public class IngressoRepository {
-    private Map<String, Ingresso> ingressos = new HashMap<>();
+    private static final Operacao SALVAR = Metricas.operacao("repositorio.ingresso.save");
+    private static final Operacao INSERIR = Metricas.operacao("repositorio.ingresso.insertAll");
+    private static final Operacao BUSCAR = Metricas.operacao("repositorio.ingresso.findByTipo");
+    private static final Operacao REPRECIFICAR = Metricas.operacao("repositorio.ingresso.reprecificar");
+    private static final Operacao REDEFINIR_ESTOQUE = Metricas.operacao("repositorio.ingresso.redefinirEstoque");
+
+    private final Object escrita = new Object();
+    private volatile CatalogoIngressos catalogo = CatalogoIngressos.VAZIO; // alterado sob 'escrita'
+    private volatile LogCompras log;
+
+    /** Passa a gravar as alterações no log (anexe depois de recuperar o estado). */
+    public void anexarLog(LogCompras log) {
+        this.log = log;
+    }
+
+    /** Retrato atual do catálogo; continua coerente mesmo com gravações depois da leitura. */
+    public CatalogoIngressos catalogo() {
+        return catalogo;
+    }
 
     public Ingresso save(Ingresso ingresso) {
-        ingressos.put(ingresso.getTipo(), ingresso);
+        long inicio = SALVAR.iniciar();
+        try {
+            synchronized (escrita) {
+                if (log != null) {
+                    if (catalogo.buscar(ingresso.getTipo()).orElse(null) == ingresso) {
+                        // o mesmo ingresso: o estoque atual desconta reservas que o log não tem
+                        log.registrarIngressoSalvo(ingresso.getTipo(), ingresso.getVersaoPreco(),
+                                LogCompras.ESTOQUE_MANTIDO);
+                    } else {
+                        log.registrarIngressoSalvo(ingresso);
+                    }
+                }
+                catalogo = catalogo.com(ingresso);
+            }
+        } catch (RuntimeException e) {
+            SALVAR.falha(inicio);
+            throw e;
+        }
+        SALVAR.sucesso(inicio);
         return ingresso;
     }
 
+    /**
+     * Inserção em lote para cargas grandes: grava só os registros cujo tipo ainda
+     * não existe (o primeiro vence, inclusive dentro do próprio lote) e informa o
+     * índice de cada duplicado recusado. O lote é ordenado por tipo e intercalado
+     * com o catálogo numa única cópia, publicada no fim: leitores veem o lote
+     * inteiro ou nada dele. Os duplicados são recusados antes de gravar o log,
+     * para não registrá-los. A métrica mede o lote inteiro.
+     * @return quantos registros foram inseridos
+     */
+    public int insertAll(List<Ingresso> lote, IntConsumer aoRecusar) {
+        long inicio = INSERIR.iniciar();
+        int inseridos;
+        try {
+            Integer[] ordem = new Integer[lote.size()];
+            Arrays.setAll(ordem, i -> i);
+            Arrays.sort(ordem, Comparator.comparing(i -> lote.get(i).getTipo())); // estável: o primeiro vence
+            synchronized (escrita) {
+                CatalogoIngressos atual = catalogo;
+                List<Ingresso> novos = new ArrayList<>(lote.size());
+                try {
+                    String anterior = null;
+                    for (int i : ordem) {
+                        Ingresso ingresso = lote.get(i);
+                        if (ingresso.getTipo().equals(anterior) || atual.indiceDe(ingresso.getTipo()) >= 0) {
+                            aoRecusar.accept(i);
+                            continue;
+                        }
+                        anterior = ingresso.getTipo();
+                        if (log != null) {
+                            log.registrarIngressoSalvo(ingresso);
+                        }
+                        novos.add(ingresso);
+                    }
+                } finally {
+                    if (!novos.isEmpty()) { // publica o que já foi para o log, mesmo se o lote parou no meio
+                        catalogo = atual.comNovos(novos);
+                    }
+                }
+                inseridos = novos.size();
+            }
+        } catch (RuntimeException e) {
+            INSERIR.falha(inicio);
+            throw e;
+        }
+        INSERIR.sucesso(inicio);
+        return inseridos;
+    }
+
+    /** Na métrica, registro não encontrado conta como falha. */
     public Optional<Ingresso> findByTipo(String tipo) {
-        return Optional.ofNullable(ingressos.get(tipo));
+        long inicio = BUSCAR.iniciar();
+        Optional<Ingresso> encontrado = catalogo.buscar(tipo);
+        BUSCAR.concluir(inicio, encontrado.isPresent());
+        return encontrado;
     }
 
     public List<Ingresso> findAll() {
-        return new ArrayList<>(ingressos.values());
+        return new ArrayList<>(catalogo.getIngressos());
+    }
+
+    /**
+     * Página em ordem de tipo, começando depois do cursor (null para a primeira).
+     * Não copia o repositório: lê só os itens da página.
+     */
+    public Pagina<Ingresso> buscarPagina(String cursor, int tamanho) {
+        return Paginacao.paginar(catalogo.aPartirDe(cursor), tamanho);
+    }
+
+    /**
+     * Stream ordenado por tipo a partir do cursor (null para o início), lido sob
+     * demanda e inteiro do mesmo retrato do catálogo.
+     */
+    public Stream<Ingresso> streamOrdenado(String cursor) {
+        return Paginacao.valores(catalogo.aPartirDe(cursor));
     }
 
     public void deleteByTipo(String tipo) {
-        ingressos.remove(tipo);
+        synchronized (escrita) {
+            if (log != null) {
+                log.registrarIngressoRemovido(tipo);
+            }
+            catalogo = catalogo.sem(tipo);
+        }
+    }
+
+    /**
+     * Troca o estoque disponível do tipo e grava no log a diferença para o
+     * valor anterior. Unidades retidas por compras em andamento continuam
+     * retidas: se a compra expirar, voltam ao estoque por cima do valor novo.
+     * @return o ingresso
+     * @throws IllegalArgumentException se o tipo não existe
+     */
+    public Ingresso redefinirEstoque(String tipo, int quantidade) {
+        long inicio = REDEFINIR_ESTOQUE.iniciar();
+        Ingresso ingresso;
+        try {
+            synchronized (escrita) {
+                ingresso = catalogo.buscar(tipo)
+                        .orElseThrow(() -> new IllegalArgumentException("Ingresso não encontrado: " + tipo));
+                int anterior = ingresso.redefinirQuantidadeDisponivel(quantidade);
+                if (log != null && anterior != quantidade) {
+                    // só depois da troca se sabe a diferença; reservas concorrentes já estão nela
+                    log.registrarEstoqueAjustado(tipo, quantidade - anterior);
+                }
+            }
+        } catch (RuntimeException e) {
+            REDEFINIR_ESTOQUE.falha(inicio);
+            throw e;
+        }
+        REDEFINIR_ESTOQUE.sucesso(inicio);
+        return ingresso;
+    }
+
+    /**
+     * Troca o preço de vários tipos numa única versão do catálogo: quem lê o
+     * catálogo vê todos os preços antigos ou todos os novos. Cada ingresso
+     * recebe uma versão de preço nova, preparada antes (ver
+     * Ingresso.prepararPreco) e válida a partir da troca do catálogo: quem lê
+     * o preço do próprio ingresso (o checkout, listagens) também vê o lote
+     * inteiro ou nada dele. Itens de compra já criados continuam com a versão
+     * que fixaram. O lote vai para o log num único registro.
+     * @param precosCentavos preço novo, em centavos, por tipo
+     * @return o catálogo publicado
+     * @throws IllegalArgumentException se algum tipo não existe (nada é alterado)
+     */
+    public CatalogoIngressos reprecificar(Map<String, Long> precosCentavos) {
+        long inicio = REPRECIFICAR.iniciar();
+        CatalogoIngressos publicado;
+        try {
+            synchronized (escrita) {
+                CatalogoIngressos atual = catalogo;
+                int[] indices = new int[precosCentavos.size()];
+                long[] precos = new long[indices.length];
+                int k = 0;
+                for (Map.Entry<String, Long> entrada : precosCentavos.entrySet()) {
+                    int i = atual.indiceDe(entrada.getKey());
+                    if (i < 0) {
+                        throw new IllegalArgumentException("Ingresso não encontrado: " + entrada.getKey());
+                    }
+                    indices[k] = i;
+                    precos[k++] = entrada.getValue();
+                }
+                String[] tipos = new String[indices.length];
+                VersaoPreco[] novos = new VersaoPreco[indices.length];
+                for (k = 0; k < indices.length; k++) {
+                    Ingresso ingresso = atual.getIngresso(indices[k]);
+                    tipos[k] = ingresso.getTipo();
+                    novos[k] = new VersaoPreco(ingresso.getVersaoPreco().getVersao() + 1, precos[k]);
+                }
+                if (log != null) {
+                    log.registrarPrecosPublicados(tipos, novos);
+                }
+                long versaoNova = atual.getVersao() + 1;
+                BooleanSupplier publicadoNoCatalogo = () -> catalogo.getVersao() >= versaoNova;
+                try {
+                    for (k = 0; k < indices.length; k++) {
+                        atual.getIngresso(indices[k]).prepararPreco(novos[k], publicadoNoCatalogo);
+                    }
+                    publicado = atual.comPrecos(indices, novos);
+                    catalogo = publicado; // uma escrita volátil publica os preços de todos os ingressos
+                } finally {
+                    for (k = 0; k < indices.length; k++) {
+                        Ingresso ingresso = atual.getIngresso(indices[k]);
+                        ingresso.confirmarPreco();
+                        ingresso.descartarPreco(); // só age se a troca do catálogo não aconteceu
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            REPRECIFICAR.falha(inicio);
+            throw e;
+        }
+        REPRECIFICAR.sucesso(inicio);
+        return publicado;
     }
 }
@@ -0,0 +1,33 @@
+package com.example.repository;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Uma página de resultados em ordem estável (pela chave do repositório) e o
+ * cursor para continuar de onde ela parou. O cursor é opaco e não depende de
+ * posição: inserções e remoções entre uma página e outra não fazem itens
+ * pularem nem repetirem; a próxima página começa logo depois da última chave lida.
+ */
+public final class Pagina<T> {
+    private final List<T> itens;
+    private final String proximoCursor;
+
+    Pagina(List<T> itens, String proximoCursor) {
+        this.itens = Collections.unmodifiableList(itens);
+        this.proximoCursor = proximoCursor;
+    }
+
+    public List<T> getItens() {
+        return itens;
+    }
+
+    /** Cursor da página seguinte, ou null se esta é a última. */
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+
+    public boolean temProxima() {
+        return proximoCursor != null;
+    }
+}
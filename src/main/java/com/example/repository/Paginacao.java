@@ -0,0 +1,141 @@
+package com.example.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Apoio à paginação por cursor dos repositórios: codificação do cursor,
+ * montagem das páginas e intercalação ordenada de vários mapas (fragmentos).
+ */
+final class Paginacao {
+    /** Maior página aceita, para uma consulta não virar um findAll disfarçado. */
+    static final int TAMANHO_MAXIMO = 10_000;
+
+    private Paginacao() {
+    }
+
+    static String cursorApos(String chave) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(chave.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** @return a chave depois da qual continuar, ou null para começar do início */
+    static String chaveDoCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+
+    /** Entradas de um mapa ordenado a partir do cursor (exclusivo). */
+    static <V> Iterator<Map.Entry<String, V>> aPartirDe(NavigableMap<String, V> mapa, String cursor) {
+        String chave = chaveDoCursor(cursor);
+        return (chave == null ? mapa : mapa.tailMap(chave, false)).entrySet().iterator();
+    }
+
+    /** Intercala, em ordem de chave, mapas ordenados disjuntos, a partir do cursor (exclusivo). */
+    static <V> Iterator<Map.Entry<String, V>> aPartirDe(NavigableMap<String, V>[] mapas, String cursor) {
+        List<Iterator<Map.Entry<String, V>>> fontes = new ArrayList<>(mapas.length);
+        for (NavigableMap<String, V> mapa : mapas) {
+            fontes.add(aPartirDe(mapa, cursor));
+        }
+        return new Intercalacao<>(fontes);
+    }
+
+    static void validarTamanho(int tamanho) {
+        if (tamanho <= 0 || tamanho > TAMANHO_MAXIMO) {
+            throw new IllegalArgumentException("Tamanho de página deve estar entre 1 e " + TAMANHO_MAXIMO + ".");
+        }
+    }
+
+    static <V> Pagina<V> paginar(Iterator<Map.Entry<String, V>> entradas, int tamanho) {
+        validarTamanho(tamanho);
+        List<V> itens = new ArrayList<>(Math.min(tamanho, 256));
+        String ultimaChave = null;
+        while (itens.size() < tamanho && entradas.hasNext()) {
+            Map.Entry<String, V> entrada = entradas.next();
+            itens.add(entrada.getValue());
+            ultimaChave = entrada.getKey();
+        }
+        String proximo = entradas.hasNext() ? cursorApos(ultimaChave) : null;
+        return new Pagina<>(itens, proximo);
+    }
+
+    /** Stream sequencial e ordenado sobre as entradas, consumidas sob demanda. */
+    static <V> Stream<V> valores(Iterator<Map.Entry<String, V>> entradas) {
+        Iterator<V> valores = new Iterator<V>() {
+            @Override
+            public boolean hasNext() {
+                return entradas.hasNext();
+            }
+
+            @Override
+            public V next() {
+                return entradas.next().getValue();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(valores,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Intercalação k-way com fila de prioridade: O(log k) por item, e só a
+     * cabeça de cada fonte fica em memória.
+     */
+    private static final class Intercalacao<V> implements Iterator<Map.Entry<String, V>> {
+        private final PriorityQueue<Cabeca<V>> fila;
+
+        Intercalacao(List<Iterator<Map.Entry<String, V>>> fontes) {
+            fila = new PriorityQueue<>(Math.max(1, fontes.size()),
+                    (a, b) -> a.entrada.getKey().compareTo(b.entrada.getKey()));
+            for (Iterator<Map.Entry<String, V>> fonte : fontes) {
+                if (fonte.hasNext()) {
+                    fila.add(new Cabeca<>(fonte.next(), fonte));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !fila.isEmpty();
+        }
+
+        @Override
+        public Map.Entry<String, V> next() {
+            Cabeca<V> cabeca = fila.poll();
+            if (cabeca == null) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<String, V> entrada = cabeca.entrada;
+            if (cabeca.fonte.hasNext()) {
+                cabeca.entrada = cabeca.fonte.next();
+                fila.add(cabeca);
+            }
+            return entrada;
+        }
+    }
+
+    private static final class Cabeca<V> {
+        Map.Entry<String, V> entrada;
+        final Iterator<Map.Entry<String, V>> fonte;
+
+        Cabeca(Map.Entry<String, V> entrada, Iterator<Map.Entry<String, V>> fonte) {
+            this.entrada = entrada;
+            this.fonte = fonte;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.reserva;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Tarefa agendada numa RodaTemporizacao. O estado é disputado entre quem
+ * cancela e a thread da roda; os ponteiros e as voltas restantes pertencem
+ * só à thread da roda.
+ */
+public final class Agendamento {
+    private static final int PENDENTE = 0;
+    private static final int CANCELADO = 1;
+    private static final int EXECUTADO = 2;
+    private static final AtomicIntegerFieldUpdater<Agendamento> ESTADO =
+            AtomicIntegerFieldUpdater.newUpdater(Agendamento.class, "estado");
+
+    private final RodaTemporizacao roda;
+    final Runnable tarefa;
+    final long prazo;
+    private volatile int estado;
+
+    // mantidos pela thread da roda
+    long voltas;
+    Agendamento anterior;
+    Agendamento proximo;
+    Balde balde;
+
+    Agendamento(RodaTemporizacao roda, Runnable tarefa, long prazo) {
+        this.roda = roda;
+        this.tarefa = tarefa;
+        this.prazo = prazo;
+    }
+
+    /** Prazo, no relógio da roda (ms). */
+    public long getPrazo() {
+        return prazo;
+    }
+
+    /**
+     * Cancela a tarefa. A remoção do balde é feita depois, pela thread da roda.
+     * @return false se a tarefa já tinha sido executada ou cancelada
+     */
+    public boolean cancelar() {
+        if (!ESTADO.compareAndSet(this, PENDENTE, CANCELADO)) {
+            return false;
+        }
+        roda.cancelado(this);
+        return true;
+    }
+
+    public boolean isCancelado() {
+        return estado == CANCELADO;
+    }
+
+    boolean marcarExecutado() {
+        return ESTADO.compareAndSet(this, PENDENTE, EXECUTADO);
+    }
+
+    /** Lista duplamente ligada de agendamentos de uma posição da roda. */
+    static final class Balde {
+        private Agendamento primeiro;
+        private Agendamento ultimo;
+
+        void adicionar(Agendamento agendamento) {
+            agendamento.balde = this;
+            if (ultimo == null) {
+                primeiro = ultimo = agendamento;
+            } else {
+                ultimo.proximo = agendamento;
+                agendamento.anterior = ultimo;
+                ultimo = agendamento;
+            }
+        }
+
+        void remover(Agendamento agendamento) {
+            Agendamento seguinte = agendamento.proximo;
+            if (agendamento.anterior != null) {
+                agendamento.anterior.proximo = seguinte;
+            } else {
+                primeiro = seguinte;
+            }
+            if (seguinte != null) {
+                seguinte.anterior = agendamento.anterior;
+            } else {
+                ultimo = agendamento.anterior;
+            }
+            agendamento.anterior = null;
+            agendamento.proximo = null;
+            agendamento.balde = null;
+        }
+
+        Agendamento primeiro() {
+            return primeiro;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.reserva;
+
+import com.example.model.Compra;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Modo de reserva temporária: o estoque retido por uma compra em andamento
+ * tem validade. Ao receber o primeiro item, a compra ganha um prazo; se não
+ * for finalizada até lá, expira e devolve as unidades ao estoque.
+ * Padrão GRASP aplicado: PURE FABRICATION e LOW COUPLING
+ * Justificativa: Compra continua sendo a especialista na própria transição
+ * de estado (expirar, finalizar); esta classe só decide quando expirar, com
+ * a ajuda da RodaTemporizacao.
+ *
+ * Cada compra acompanhada custa um Agendamento na roda; finalizar a compra
+ * cancela o agendamento, então carrinhos concluídos não ficam retidos.
+ */
+public class GerenciadorReservas implements AutoCloseable {
+    private final RodaTemporizacao roda;
+    private final long validadeMs;
+    private volatile Consumer<Compra> aoExpirar = compra -> { };
+
+    /** Reservas com a validade informada, numa roda própria com relógio do sistema. */
+    public GerenciadorReservas(long validade, TimeUnit unidade) {
+        this(RodaTemporizacao.iniciarPadrao(), validade, unidade);
+    }
+
+    /** Permite informar a roda (por exemplo, com relógio manual em testes). */
+    public GerenciadorReservas(RodaTemporizacao roda, long validade, TimeUnit unidade) {
+        if (validade <= 0) {
+            throw new IllegalArgumentException("Validade da reserva deve ser positiva.");
+        }
+        this.roda = roda;
+        this.validadeMs = unidade.toMillis(validade);
+    }
+
+    /** Chamado (na thread da roda) para cada compra que expirou. */
+    public void setAoExpirar(Consumer<Compra> aoExpirar) {
+        this.aoExpirar = aoExpirar;
+    }
+
+    /**
+     * Começa a contar o prazo da compra, se ainda não estiver contando.
+     * Chamadas repetidas (um item depois do outro) não renovam o prazo.
+     */
+    public void acompanhar(Compra compra) {
+        long prazo = roda.agora() + validadeMs;
+        if (!compra.iniciarPrazoReserva(prazo)) {
+            return;
+        }
+        Agendamento agendamento = roda.agendar(validadeMs, TimeUnit.MILLISECONDS, () -> expirar(compra));
+        compra.aoEncerrar(agendamento::cancelar);
+    }
+
+    private void expirar(Compra compra) {
+        if (compra.expirar()) {
+            aoExpirar.accept(compra);
+        }
+    }
+
+    /** Compras cujo prazo ainda está correndo. */
+    public long getReservasAtivas() {
+        return roda.getPendentes();
+    }
+
+    public RodaTemporizacao getRoda() {
+        return roda;
+    }
+
+    @Override
+    public void close() {
+        roda.close();
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.reserva;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Roda de temporização com hash (hashed timer wheel) para prazos em massa.
+ * Padrão GRASP aplicado: PURE FABRICATION
+ * Justificativa: nenhuma classe do domínio deveria saber contar o tempo de
+ * milhões de carrinhos; a roda isola essa responsabilidade.
+ *
+ * Agendar e cancelar custam O(1) e não tomam lock: a tarefa entra numa fila
+ * e só a thread da roda mexe nos baldes. A cada tick a roda visita um único
+ * balde, então o custo é proporcional aos prazos que vencem, não ao total de
+ * prazos pendentes (sem varredura periódica e sem uma thread por carrinho).
+ * Uma tarefa nunca roda antes do prazo e roda no máximo um tick depois dele.
+ */
+public class RodaTemporizacao implements AutoCloseable {
+    private final long tickMs;
+    private final Agendamento.Balde[] baldes;
+    private final int mascara;
+    private final LongSupplier relogio;
+    private final long inicio;
+    private final ConcurrentLinkedQueue<Agendamento> entrada = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Agendamento> cancelados = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pendentes = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private long tickAtual; // só a thread da roda
+    private volatile Thread trabalhador;
+    private volatile boolean encerrada;
+
+    /**
+     * @param tickMs    resolução da roda em ms
+     * @param tamanho   número de baldes (arredondado para potência de 2)
+     * @param relogio   fonte de tempo em ms, monotônica (o relógio de parede pode voltar
+     *                  ou saltar com ajustes do NTP); em testes pode ser um relógio manual
+     */
+    public RodaTemporizacao(long tickMs, int tamanho, LongSupplier relogio) {
+        if (tickMs <= 0 || tamanho <= 0) {
+            throw new IllegalArgumentException("Tick e tamanho da roda devem ser positivos.");
+        }
+        int capacidade = 1;
+        while (capacidade < tamanho) {
+            capacidade <<= 1;
+        }
+        this.tickMs = tickMs;
+        this.baldes = new Agendamento.Balde[capacidade];
+        for (int i = 0; i < capacidade; i++) {
+            baldes[i] = new Agendamento.Balde();
+        }
+        this.mascara = capacidade - 1;
+        this.relogio = relogio;
+        this.inicio = relogio.getAsLong();
+    }
+
+    /** Roda com o relógio monotônico da JVM e tick de 100 ms, já girando numa thread de fundo. */
+    public static RodaTemporizacao iniciarPadrao() {
+        RodaTemporizacao roda = new RodaTemporizacao(100, 512,
+                () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+        roda.iniciar();
+        return roda;
+    }
+
+    /** Inicia a thread da roda. Sem ela, quem usa a roda chama avancar(). */
+    public synchronized void iniciar() {
+        if (trabalhador != null) {
+            return;
+        }
+        Thread thread = new Thread(this::girar, "roda-temporizacao");
+        thread.setDaemon(true);
+        trabalhador = thread;
+        thread.start();
+    }
+
+    /** Momento atual no relógio da roda (ms). */
+    public long agora() {
+        return relogio.getAsLong();
+    }
+
+    public Agendamento agendar(long atraso, TimeUnit unidade, Runnable tarefa) {
+        if (encerrada) {
+            throw new IllegalStateException("Roda de temporização encerrada.");
+        }
+        Agendamento agendamento = new Agendamento(this, tarefa, agora() + unidade.toMillis(atraso));
+        pendentes.incrementAndGet();
+        entrada.offer(agendamento);
+        return agendamento;
+    }
+
+    void cancelado(Agendamento agendamento) {
+        pendentes.decrementAndGet();
+        cancelados.offer(agendamento);
+    }
+
+    /** Tarefas agendadas que ainda não rodaram nem foram canceladas. */
+    public long getPendentes() {
+        return pendentes.get();
+    }
+
+    /** Tarefas que lançaram exceção ao rodar (a roda segue girando). */
+    public long getFalhas() {
+        return falhas.get();
+    }
+
+    /**
+     * Processa todos os ticks vencidos até o momento atual do relógio.
+     * Deve ser chamado por uma única thread: a da roda, ou o próprio teste
+     * quando a roda não foi iniciada.
+     */
+    public void avancar() {
+        long alvo = Math.floorDiv(agora() - inicio, tickMs);
+        while (tickAtual <= alvo) {
+            transferirEntradas();
+            removerCancelados();
+            expirar(baldes[(int) (tickAtual & mascara)]);
+            tickAtual++;
+        }
+    }
+
+    private void transferirEntradas() {
+        Agendamento agendamento;
+        while ((agendamento = entrada.poll()) != null) {
+            if (agendamento.isCancelado()) {
+                continue;
+            }
+            // arredonda para cima: a tarefa nunca vence antes do prazo
+            long tick = Math.max(tickAtual, Math.floorDiv(agendamento.prazo - inicio + tickMs - 1, tickMs));
+            agendamento.voltas = (tick - tickAtual) / baldes.length;
+            baldes[(int) (tick & mascara)].adicionar(agendamento);
+        }
+    }
+
+    private void removerCancelados() {
+        Agendamento agendamento;
+        while ((agendamento = cancelados.poll()) != null) {
+            if (agendamento.balde != null) {
+                agendamento.balde.remover(agendamento);
+            }
+        }
+    }
+
+    private void expirar(Agendamento.Balde balde) {
+        Agendamento agendamento = balde.primeiro();
+        while (agendamento != null) {
+            Agendamento seguinte = agendamento.proximo;
+            if (agendamento.voltas > 0) {
+                agendamento.voltas--;
+            } else {
+                balde.remover(agendamento);
+                if (agendamento.marcarExecutado()) {
+                    pendentes.decrementAndGet();
+                    executar(agendamento);
+                }
+            }
+            agendamento = seguinte;
+        }
+    }
+
+    private void executar(Agendamento agendamento) {
+        try {
+            agendamento.tarefa.run();
+        } catch (RuntimeException e) {
+            falhas.incrementAndGet();
+        }
+    }
+
+    private void girar() {
+        long tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        while (!encerrada) {
+            avancar();
+            LockSupport.parkNanos(this, tickNanos);
+        }
+    }
+
+    /** Para a thread da roda. Tarefas pendentes não rodam mais. */
+    @Override
+    public void close() {
+        encerrada = true;
+        Thread thread = trabalhador;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
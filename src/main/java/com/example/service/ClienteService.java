@@ -1,12 +1,47 @@
 package com.example.service;
 
+import com.example.cache.Cache;
+import com.example.cache.CacheDesligado;
+import com.example.cache.EstatisticasCache;
 import com.example.model.Cliente;
 import com.example.repository.ClienteRepository;
+import com.example.repository.ClienteRepositoryNoHeap;
+import com.example.repository.Pagina;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 public class ClienteService {
-    private ClienteRepository clienteRepository = new ClienteRepository();
+    private ClienteRepository clienteRepository;
+    private final Cache<String, Cliente> cache;
+    private final List<Consumer<String>> aoDeletar = new CopyOnWriteArrayList<>();
+
+    public ClienteService() {
+        this(new ClienteRepositoryNoHeap());
+    }
+
+    public ClienteService(ClienteRepository clienteRepository) {
+        this(clienteRepository, new CacheDesligado<>());
+    }
+
+    /**
+     * Com um cache na frente do repositório: {@link #getCliente} lê pelo
+     * cache, e alterações gravam no repositório e invalidam o email.
+     */
+    public ClienteService(ClienteRepository clienteRepository, Cache<String, Cliente> cache) {
+        this.clienteRepository = clienteRepository;
+        this.cache = cache;
+    }
+
+    /**
+     * Registra uma ação chamada com o email de cada cliente excluído, por
+     * exemplo {@code compraRepository::esquecerCliente} para manter o índice
+     * de compras por cliente em dia sem que o serviço conheça as compras.
+     */
+    public void aoDeletarCliente(Consumer<String> acao) {
+        aoDeletar.add(acao);
+    }
 
     // CREATE
     public Cliente criarCliente(String nome, String email) {
@@ -19,7 +54,7 @@ public class ClienteService {
 
     // READ (Single)
     public Optional<Cliente> getCliente(String email) {
-        return clienteRepository.findByEmail(email);
+        return Optional.ofNullable(cache.obter(email, e -> clienteRepository.findByEmail(e).orElse(null)));
     }
 
     // READ (All)
@@ -27,6 +62,11 @@ public class ClienteService {
         return clienteRepository.findAll();
     }
 
+    // READ (paginado, em ordem de email)
+    public Pagina<Cliente> listarClientes(String cursor, int tamanho) {
+        return clienteRepository.buscarPagina(cursor, tamanho);
+    }
+
     // UPDATE (Ex: apenas nome)
     public Cliente atualizarNomeCliente(String email, String novoNome) {
         Cliente cliente = clienteRepository.findByEmail(email)
@@ -34,7 +74,11 @@ public class ClienteService {
         
         cliente.setNome(novoNome); // Requer setter no modelo
         
-        return clienteRepository.save(cliente);
+        try {
+            return clienteRepository.save(cliente);
+        } finally {
+            cache.invalidar(email);
+        }
     }
 
     // DELETE
@@ -43,5 +87,13 @@ public class ClienteService {
             throw new RuntimeException("Cliente não encontrado: " + email);
         }
         clienteRepository.deleteByEmail(email);
+        cache.invalidar(email);
+        for (Consumer<String> acao : aoDeletar) {
+            acao.accept(email);
+        }
+    }
+
+    public EstatisticasCache getEstatisticasCache() {
+        return cache.estatisticas();
     }
 }
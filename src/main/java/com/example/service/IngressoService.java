@@ -1,12 +1,40 @@
 package com.example.service;
 
+import com.example.cache.Cache;
+import com.example.cache.CacheDesligado;
+import com.example.cache.EstatisticasCache;
+import com.example.inventario.MotorInventario;
+import com.example.model.Dinheiro;
+import com.example.model.EstoqueParticionado;
 import com.example.model.Ingresso;
+import com.example.repository.CatalogoIngressos;
 import com.example.repository.IngressoRepository;
+import com.example.repository.Pagina;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class IngressoService {
-    private IngressoRepository ingressoRepository = new IngressoRepository();
+    private IngressoRepository ingressoRepository;
+    private final Cache<String, Ingresso> cache;
+
+    public IngressoService() {
+        this(new IngressoRepository());
+    }
+
+    public IngressoService(IngressoRepository ingressoRepository) {
+        this(ingressoRepository, new CacheDesligado<>());
+    }
+
+    /**
+     * Com um cache na frente do repositório: {@link #getIngresso} lê pelo
+     * cache, e alterações gravam no repositório e invalidam o tipo.
+     */
+    public IngressoService(IngressoRepository ingressoRepository, Cache<String, Ingresso> cache) {
+        this.ingressoRepository = ingressoRepository;
+        this.cache = cache;
+    }
 
     // CREATE
     public Ingresso criarIngresso(String tipo, double preco, int quantidade) {
@@ -17,14 +45,44 @@ public class IngressoService {
         return ingressoRepository.save(novo);
     }
 
+    // CREATE (tipo muito disputado: estoque particionado em faixas)
+    public Ingresso criarIngresso(String tipo, double preco, int quantidade, int faixasEstoque) {
+        if (ingressoRepository.findByTipo(tipo).isPresent()) {
+            throw new IllegalArgumentException("Ingresso com este tipo já existe.");
+        }
+        Ingresso novo = new Ingresso(tipo, preco, new EstoqueParticionado(quantidade, faixasEstoque));
+        return ingressoRepository.save(novo);
+    }
+
+    // CREATE (estoque controlado pela thread do motor de inventário)
+    public Ingresso criarIngresso(String tipo, double preco, int quantidade, MotorInventario motor) {
+        if (ingressoRepository.findByTipo(tipo).isPresent()) {
+            throw new IllegalArgumentException("Ingresso com este tipo já existe.");
+        }
+        Ingresso novo = new Ingresso(tipo, preco, motor.novoEstoque(quantidade));
+        return ingressoRepository.save(novo);
+    }
+
     // READ (Single)
     public Optional<Ingresso> getIngresso(String tipo) {
-        return ingressoRepository.findByTipo(tipo);
+        return Optional.ofNullable(cache.obter(tipo, t -> ingressoRepository.findByTipo(t).orElse(null)));
     }
 
-    // READ (All)
+    // READ (All): lista imutável, em ordem de tipo, de um único retrato do catálogo.
+    // Os preços lidos dos ingressos mudam todos juntos numa reprecificação em lote;
+    // para ler a listagem inteira numa mesma versão de preços, use catalogo().
     public List<Ingresso> listarIngressos() {
-        return ingressoRepository.findAll();
+        return ingressoRepository.catalogo().getIngressos();
+    }
+
+    // READ (retrato versionado, com os preços publicados nele)
+    public CatalogoIngressos catalogo() {
+        return ingressoRepository.catalogo();
+    }
+
+    // READ (paginado, em ordem de tipo)
+    public Pagina<Ingresso> listarIngressos(String cursor, int tamanho) {
+        return ingressoRepository.buscarPagina(cursor, tamanho);
     }
 
     // UPDATE
@@ -32,10 +90,30 @@ public class IngressoService {
         Ingresso ingresso = ingressoRepository.findByTipo(tipo)
                 .orElseThrow(() -> new RuntimeException("Ingresso não encontrado: " + tipo));
         
-        ingresso.setPreco(novoPreco); // Requer setter no modelo
-        ingresso.setQuantidadeDisponivel(novaQtd); // Requer setter no modelo
-        
-        return ingressoRepository.save(ingresso);
+        long centavos = Dinheiro.paraCentavos(novoPreco);
+        try {
+            // estoque é sempre o atual, fora das versões; o log recebe a diferença
+            ingressoRepository.redefinirEstoque(tipo, novaQtd);
+            ingressoRepository.reprecificar(Map.of(tipo, centavos)); // grava no log e publica a versão nova
+            return ingresso;
+        } finally {
+            cache.invalidar(tipo);
+        }
+    }
+
+    /**
+     * UPDATE em lote: troca o preço de vários tipos numa única versão do
+     * catálogo (ver IngressoRepository.reprecificar).
+     * @param novosPrecos preço novo, em reais, por tipo
+     */
+    public CatalogoIngressos reprecificar(Map<String, Double> novosPrecos) {
+        Map<String, Long> centavos = new LinkedHashMap<>();
+        novosPrecos.forEach((tipo, preco) -> centavos.put(tipo, Dinheiro.paraCentavos(preco)));
+        try {
+            return ingressoRepository.reprecificar(centavos);
+        } finally {
+            novosPrecos.keySet().forEach(cache::invalidar);
+        }
     }
 
     // DELETE
@@ -44,5 +122,10 @@ public class IngressoService {
             throw new RuntimeException("Ingresso não encontrado: " + tipo);
         }
         ingressoRepository.deleteByTipo(tipo);
+        cache.invalidar(tipo);
+    }
+
+    public EstatisticasCache getEstatisticasCache() {
+        return cache.estatisticas();
     }
 }
@@ -1,21 +1,54 @@
 package com.example.view;
 
 import com.example.controller.CompraController;
+import com.example.evento.AssinanteEventos;
+import com.example.evento.EventoCompra;
 import com.example.model.Compra;
 import com.example.model.Ingresso;
 import com.example.model.ItemCompra;
-import java.util.List;
+import com.example.repository.Pagina;
 
 /**
  * Classe de interface (View) para exibir informações e interagir com usuário.
+ * Também é assinante dos eventos de compra: registre-a com
+ * {@code controller.getEventos().assinar(view)} para acompanhar o checkout no console.
  */
-public class CompraView {
+public class CompraView implements AssinanteEventos {
+    private static final int TAMANHO_PAGINA = 100;
     private CompraController controller;
 
     public CompraView(CompraController controller) {
         this.controller = controller;
     }
 
+    /**
+     * Traduz cada evento do checkout para a mensagem correspondente.
+     * Executado na thread consumidora de eventos, fora da thread do comprador.
+     */
+    @Override
+    public void aoReceber(EventoCompra evento) {
+        switch (evento.getTipo()) {
+            case COMPRA_INICIADA:
+                exibirNovaCompraIniciada(evento.getCompra());
+                break;
+            case ITEM_ADICIONADO:
+                exibirItemAdicionado(evento.getItem());
+                break;
+            case COMPRA_FINALIZADA:
+                exibirSucesso("-> Compra registrada no sistema!");
+                break;
+            case ITEM_REJEITADO:
+            case FINALIZACAO_REJEITADA:
+                exibirErro(evento.getMensagem());
+                break;
+            case COMPRA_EXPIRADA:
+                exibirErro("Compra " + evento.getCompra().getCodigoCompra() + ": " + evento.getMensagem());
+                break;
+            default:
+                break;
+        }
+    }
+
     public void exibirCabecalho() {
         System.out.println("╔════════════════════════════════════════╗");
         System.out.println("║  SISTEMA DE VENDAS DE INGRESSOS        ║");
@@ -53,15 +86,25 @@ public class CompraView {
         System.out.println(compra);
     }
 
+    /**
+     * Exibe as compras página a página: a memória usada não depende de
+     * quantas compras existem, só do tamanho da página.
+     */
     public void exibirComprasRealizadas() {
         System.out.println("\n=== COMPRAS REALIZADAS ===");
-        List<Compra> compras = controller.listarComprasRealizadas();
-        if (compras.isEmpty()) {
+        Pagina<Compra> pagina = controller.listarComprasRealizadas(null, TAMANHO_PAGINA);
+        if (pagina.getItens().isEmpty()) {
             System.out.println("Nenhuma compra realizada ainda.");
-        } else {
-            for (Compra c : compras) {
+            return;
+        }
+        while (true) {
+            for (Compra c : pagina.getItens()) {
                 System.out.println(c);
             }
+            if (!pagina.temProxima()) {
+                break;
+            }
+            pagina = controller.listarComprasRealizadas(pagina.getProximoCursor(), TAMANHO_PAGINA);
         }
     }
 
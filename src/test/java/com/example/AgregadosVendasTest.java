@@ -0,0 +1,41 @@
+package com.example;
+
+import com.example.controller.CompraController;
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+public class AgregadosVendasTest {
+
+    @Test
+    public void aggregatesMatchFullRecomputeUnderConcurrentCheckouts() throws Exception {
+        CompraController controller = new CompraController();
+        controller.setModoVerificacao(true);
+        Ingresso pista = new Ingresso("Pista", 120.0, 100_000);
+        Ingresso vip = new Ingresso("VIP", 220.0, 100_000);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            Cliente cliente = new Cliente("Cliente " + t, "c" + t + "@ex.com");
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    Compra compra = controller.iniciarNovaCompra(cliente);
+                    controller.adicionarItemNaCompra(compra, pista, 2);
+                    controller.adicionarItemNaCompra(compra, vip, 1);
+                    controller.finalizarCompra(compra);
+                    controller.finalizarCompra(compra); // segunda finalização é rejeitada
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(2000 * 460.0, controller.calcularTotalCompras(), 0.001);
+        assertEquals(2000 * 46_000L, controller.calcularTotalComprasCentavos());
+        assertEquals(4000, controller.getAgregados().getIngressosVendidos("Pista"));
+        assertEquals(500, controller.getAgregados().getComprasDoCliente("c3@ex.com"));
+    }
+}
@@ -0,0 +1,170 @@
+package com.example;
+
+import com.example.cache.Cache;
+import com.example.cache.CacheLru;
+import com.example.cache.CacheWTinyLfu;
+import com.example.cache.EstatisticasCache;
+import com.example.repository.ClienteRepositoryForaDoHeap;
+import com.example.repository.IngressoRepository;
+import com.example.service.ClienteService;
+import com.example.service.IngressoService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class CacheTest {
+
+    private static final Function<String, String> MAIUSCULAS = String::toUpperCase;
+
+    @Test
+    public void lruEvictsLeastRecentlyUsedEntry() {
+        Cache<String, String> cache = new CacheLru<>("teste.lru", 3);
+        cache.obter("a", MAIUSCULAS);
+        cache.obter("b", MAIUSCULAS);
+        cache.obter("c", MAIUSCULAS);
+        cache.obter("a", MAIUSCULAS); // "b" passa a ser o menos recente
+        cache.obter("d", MAIUSCULAS);
+
+        AtomicInteger cargas = new AtomicInteger();
+        Function<String, String> contando = chave -> {
+            cargas.incrementAndGet();
+            return chave.toUpperCase();
+        };
+        assertEquals("A", cache.obter("a", contando));
+        assertEquals("C", cache.obter("c", contando));
+        assertEquals(0, cargas.get());
+        assertEquals("B", cache.obter("b", contando));
+        assertEquals(1, cargas.get());
+
+        EstatisticasCache estatisticas = cache.estatisticas();
+        assertEquals(3, estatisticas.getAcertos());
+        assertEquals(5, estatisticas.getFaltas());
+        assertEquals(2, estatisticas.getRemocoes());
+        assertEquals(3, estatisticas.getEntradas());
+    }
+
+    @Test
+    public void absentValuesAreNotCachedAndWeightBoundsTheCache() {
+        Cache<String, String> cache = new CacheLru<>("teste.peso", 10, (chave, valor) -> valor.length());
+        AtomicInteger cargas = new AtomicInteger();
+        Function<String, String> ausente = chave -> {
+            cargas.incrementAndGet();
+            return null;
+        };
+        assertNull(cache.obter("x", ausente));
+        assertNull(cache.obter("x", ausente));
+        assertEquals(2, cargas.get());
+
+        cache.colocar("um", "1234");
+        cache.colocar("dois", "12345");
+        cache.colocar("tres", "123"); // 12 > 10: sai "um"
+        assertEquals(8, cache.estatisticas().getPeso());
+        assertEquals(2, cache.estatisticas().getEntradas());
+        cache.colocar("grande", "12345678901"); // nunca caberia
+        assertEquals(2, cache.estatisticas().getEntradas());
+        assertNull(cache.obter("grande", ausente));
+    }
+
+    @Test
+    public void tinyLfuKeepsHotKeysThatAScanFlushesFromLru() {
+        int[] acertosLru = acertosAposVarredura(new CacheLru<>("teste.varredura.lru", 100));
+        int[] acertosTinyLfu = acertosAposVarredura(new CacheWTinyLfu<>("teste.varredura.tinylfu", 100));
+
+        assertEquals(0, acertosLru[1]);
+        assertTrue(acertosTinyLfu[1] >= 45, "acertos depois da varredura: " + acertosTinyLfu[1]);
+        assertTrue(acertosTinyLfu[0] >= acertosLru[0]);
+    }
+
+    /** 50 chaves quentes, uma varredura de 10.000 chaves únicas e de novo as quentes. */
+    private static int[] acertosAposVarredura(Cache<String, String> cache) {
+        for (int rodada = 0; rodada < 20; rodada++) {
+            for (int i = 0; i < 50; i++) {
+                cache.obter("quente" + i, MAIUSCULAS);
+            }
+        }
+        long antes = cache.estatisticas().getAcertos();
+        for (int i = 0; i < 10_000; i++) {
+            cache.obter("varredura" + i, MAIUSCULAS);
+        }
+        long depoisVarredura = cache.estatisticas().getAcertos();
+        for (int i = 0; i < 50; i++) {
+            cache.obter("quente" + i, MAIUSCULAS);
+        }
+        return new int[] {(int) antes, (int) (cache.estatisticas().getAcertos() - depoisVarredura)};
+    }
+
+    @Test
+    public void valueLoadedConcurrentlyWithAnInvalidationIsNotCached() {
+        Cache<String, String> cache = new CacheWTinyLfu<>("teste.corrida", 100);
+        String antigo = cache.obter("k", chave -> {
+            cache.invalidar(chave); // gravação no repositório durante a carga
+            return "antigo";
+        });
+        assertEquals("antigo", antigo);
+        assertEquals("novo", cache.obter("k", chave -> "novo"));
+        assertEquals("novo", cache.obter("k", chave -> "outro"));
+    }
+
+    @Test
+    public void servicesReadThroughCacheAndInvalidateOnWrites() {
+        ClienteService clientes = new ClienteService(new ClienteRepositoryForaDoHeap(),
+                new CacheWTinyLfu<>("teste.clientes", 1_000));
+        clientes.criarCliente("Ana", "ana@ex.com");
+        assertEquals("Ana", clientes.getCliente("ana@ex.com").get().getNome());
+        assertEquals("Ana", clientes.getCliente("ana@ex.com").get().getNome());
+        assertEquals(1, clientes.getEstatisticasCache().getAcertos());
+
+        clientes.atualizarNomeCliente("ana@ex.com", "Ana Beatriz");
+        assertEquals("Ana Beatriz", clientes.getCliente("ana@ex.com").get().getNome());
+        clientes.deletarCliente("ana@ex.com");
+        assertFalse(clientes.getCliente("ana@ex.com").isPresent());
+
+        IngressoService ingressos = new IngressoService(new IngressoRepository(),
+                new CacheLru<>("teste.ingressos", 1_000));
+        ingressos.criarIngresso("Pista", 120.0, 100);
+        assertEquals(120.0, ingressos.getIngresso("Pista").get().getPreco());
+        ingressos.atualizarIngresso("Pista", 150.0, 80);
+        assertEquals(150.0, ingressos.getIngresso("Pista").get().getPreco());
+        assertEquals(1, ingressos.getEstatisticasCache().getEntradas()); // recarregado depois da invalidação
+        ingressos.deletarIngresso("Pista");
+        assertFalse(ingressos.getIngresso("Pista").isPresent());
+    }
+
+    @Test
+    public void concurrentReadersNeverExceedTheBoundOrSeeWrongValues() throws InterruptedException {
+        Cache<String, String> cache = new CacheWTinyLfu<>("teste.concorrente", 64);
+        List<Thread> threads = new ArrayList<>();
+        AtomicInteger erros = new AtomicInteger();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                for (int i = 0; i < 50_000; i++) {
+                    String chave = "k" + Math.min(aleatorio.nextInt(1_000), aleatorio.nextInt(1_000));
+                    if (!cache.obter(chave, MAIUSCULAS).equals(chave.toUpperCase())) {
+                        erros.incrementAndGet();
+                    }
+                    if (i % 1_000 == 0) {
+                        cache.invalidar(chave);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        EstatisticasCache estatisticas = cache.estatisticas();
+        assertEquals(0, erros.get());
+        assertTrue(estatisticas.getEntradas() <= 64);
+        assertEquals(estatisticas.getEntradas(), estatisticas.getPeso());
+        assertEquals(200_000, estatisticas.getAcertos() + estatisticas.getFaltas());
+    }
+}
@@ -0,0 +1,190 @@
+package com.example;
+
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import com.example.model.ItemCompra;
+import com.example.repository.CatalogoIngressos;
+import com.example.repository.IngressoRepository;
+import com.example.repository.Pagina;
+import com.example.service.IngressoService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class CatalogoIngressosTest {
+
+    @Test
+    public void snapshotKeepsItsPricesAfterABulkReprice() {
+        IngressoService servico = new IngressoService(new IngressoRepository());
+        servico.criarIngresso("Pista", 100.0, 50);
+        servico.criarIngresso("VIP", 300.0, 10);
+        CatalogoIngressos antes = servico.catalogo();
+
+        CatalogoIngressos depois = servico.reprecificar(Map.of("Pista", 120.0, "VIP", 350.0));
+
+        assertEquals(antes.getVersao() + 1, depois.getVersao());
+        assertEquals(10_000, antes.precoDe("Pista").getPrecoCentavos());
+        assertEquals(30_000, antes.precoDe("VIP").getPrecoCentavos());
+        assertEquals(12_000, depois.precoDe("Pista").getPrecoCentavos());
+        assertEquals(35_000, depois.precoDe("VIP").getPrecoCentavos());
+        assertEquals(2, depois.precoDe("Pista").getVersao());
+        assertSame(servico.catalogo(), depois);
+        assertEquals(120.0, servico.getIngresso("Pista").get().getPreco());
+        assertNull(depois.precoDe("Camarote"));
+    }
+
+    @Test
+    public void repriceWithAnUnknownTypeChangesNothing() {
+        IngressoRepository repositorio = new IngressoRepository();
+        repositorio.save(new Ingresso("Pista", 100.0, 50));
+        CatalogoIngressos antes = repositorio.catalogo();
+        Map<String, Long> precos = new HashMap<>();
+        precos.put("Pista", 1L);
+        precos.put("Nenhum", 2L);
+
+        assertThrows(IllegalArgumentException.class, () -> repositorio.reprecificar(precos));
+        assertSame(antes, repositorio.catalogo());
+        assertEquals(10_000, repositorio.findByTipo("Pista").get().getPrecoCentavos());
+    }
+
+    @Test
+    public void itemsPinThePriceVersionTheyWereSoldAt() {
+        IngressoRepository repositorio = new IngressoRepository();
+        Ingresso pista = repositorio.save(new Ingresso("Pista", 100.0, 50));
+        Compra compra = new Compra("C1", new Cliente("Ana", "ana@ex.com"));
+        ItemCompra item = compra.adicionarItem(pista, 2);
+
+        repositorio.reprecificar(Map.of("Pista", 15_000L));
+        ItemCompra depois = new ItemCompra(pista, 1);
+        compra.finalizarCompra();
+
+        assertEquals(1, item.getVersaoPreco());
+        assertEquals(2, depois.getVersaoPreco());
+        assertEquals(15_000, depois.getPrecoUnitarioCentavos());
+        assertEquals(10_000, compra.getPrecoUnitarioDoItem(0)); // forma congelada
+        assertEquals(1, compra.getVersaoPrecoDoItem(0));
+        assertEquals(1, compra.getItens().get(0).getVersaoPreco());
+        assertEquals(20_000, compra.calcularTotalCentavos());
+    }
+
+    @Test
+    public void writesPublishNewVersionsWithoutTouchingOldSnapshots() {
+        IngressoRepository repositorio = new IngressoRepository();
+        repositorio.save(new Ingresso("B", 1.0, 1));
+        CatalogoIngressos v1 = repositorio.catalogo();
+        List<Integer> recusados = new ArrayList<>();
+        int inseridos = repositorio.insertAll(List.of(new Ingresso("D", 1.0, 1), new Ingresso("A", 1.0, 1),
+                new Ingresso("B", 2.0, 1), new Ingresso("C", 1.0, 1), new Ingresso("A", 3.0, 1)), recusados::add);
+        CatalogoIngressos v2 = repositorio.catalogo();
+        repositorio.deleteByTipo("C");
+        repositorio.deleteByTipo("inexistente");
+
+        assertEquals(3, inseridos);
+        assertEquals(List.of(4, 2), recusados); // em ordem de tipo: "A" repetido, depois "B"
+        assertEquals(v1.getVersao() + 1, v2.getVersao());
+        assertEquals(1, v1.getTamanho());
+        assertEquals(List.of("A", "B", "C", "D"), tipos(v2.getIngressos()));
+        assertEquals(100, v2.precoDe("A").getPrecoCentavos()); // o primeiro vence
+        assertEquals(List.of("A", "B", "D"), tipos(repositorio.findAll()));
+        assertTrue(v2.buscar("C").isPresent());
+        assertFalse(repositorio.findByTipo("C").isPresent());
+
+        Pagina<Ingresso> primeira = repositorio.buscarPagina(null, 2);
+        assertEquals(List.of("A", "B"), tipos(primeira.getItens()));
+        assertEquals(List.of("D"), tipos(repositorio.buscarPagina(primeira.getProximoCursor(), 2).getItens()));
+        assertEquals(List.of("B", "D"), tipos(repositorio.streamOrdenado(
+                repositorio.buscarPagina(null, 1).getProximoCursor()).collect(Collectors.toList())));
+    }
+
+    @Test
+    public void concurrentListingsNeverSeeAHalfAppliedReprice() throws InterruptedException {
+        IngressoRepository repositorio = new IngressoRepository();
+        IngressoService servico = new IngressoService(repositorio);
+        int tipos = 300;
+        for (int i = 0; i < tipos; i++) {
+            servico.criarIngresso("Setor " + i, 100.0, 1_000);
+        }
+        AtomicBoolean parar = new AtomicBoolean();
+        ConcurrentHashMap.KeySetView<String, Boolean> erros = ConcurrentHashMap.newKeySet();
+        Thread leitor = new Thread(() -> {
+            while (!parar.get()) {
+                CatalogoIngressos catalogo = servico.catalogo();
+                long preco = catalogo.getPreco(0).getPrecoCentavos();
+                for (int i = 1; i < catalogo.getTamanho(); i++) {
+                    if (catalogo.getPreco(i).getPrecoCentavos() != preco) {
+                        erros.add("versão " + catalogo.getVersao() + ", posição " + i);
+                    }
+                }
+            }
+        });
+        leitor.start();
+        for (int rodada = 1; rodada <= 200; rodada++) {
+            Map<String, Long> precos = new HashMap<>();
+            for (int i = 0; i < tipos; i++) {
+                precos.put("Setor " + i, 10_000L + rodada);
+            }
+            repositorio.reprecificar(precos);
+        }
+        parar.set(true);
+        leitor.join();
+        assertTrue(erros.isEmpty(), erros::toString);
+        assertEquals(201, servico.getIngresso("Setor 7").get().getVersaoPreco().getVersao());
+    }
+
+    @Test
+    public void ingressoPricesSwitchAtTheSameInstantAsTheCatalog() throws InterruptedException {
+        IngressoRepository repositorio = new IngressoRepository();
+        IngressoService servico = new IngressoService(repositorio);
+        int tipos = 300;
+        for (int i = 0; i < tipos; i++) {
+            servico.criarIngresso("Setor " + i, 100.0, 1_000);
+        }
+        List<Ingresso> ingressos = servico.listarIngressos();
+        AtomicBoolean parar = new AtomicBoolean();
+        ConcurrentHashMap.KeySetView<String, Boolean> erros = ConcurrentHashMap.newKeySet();
+        Thread leitor = new Thread(() -> {
+            while (!parar.get()) {
+                // os preços só sobem: uma leitura posterior nunca pode ver um preço mais antigo
+                long anterior = servico.catalogo().getPreco(0).getPrecoCentavos();
+                for (int i = ingressos.size() - 1; i >= 0; i--) {
+                    long preco = ingressos.get(i).getPrecoCentavos();
+                    if (preco < anterior) {
+                        erros.add("posição " + i + ": " + preco + " depois de " + anterior);
+                    }
+                    anterior = preco;
+                }
+                if (servico.catalogo().getPreco(tipos - 1).getPrecoCentavos() < anterior) {
+                    erros.add("catálogo atrás dos ingressos");
+                }
+            }
+        });
+        leitor.start();
+        for (int rodada = 1; rodada <= 200; rodada++) {
+            Map<String, Long> precos = new HashMap<>();
+            for (int i = 0; i < tipos; i++) {
+                precos.put("Setor " + i, 10_000L + rodada);
+            }
+            repositorio.reprecificar(precos);
+        }
+        parar.set(true);
+        leitor.join();
+        assertTrue(erros.isEmpty(), erros::toString);
+        assertEquals(10_200, ingressos.get(0).getPrecoCentavos());
+    }
+
+    private static List<String> tipos(List<Ingresso> ingressos) {
+        return ingressos.stream().map(Ingresso::getTipo).collect(Collectors.toList());
+    }
+}
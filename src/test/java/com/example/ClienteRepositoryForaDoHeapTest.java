@@ -0,0 +1,218 @@
+package com.example;
+
+import com.example.model.Cliente;
+import com.example.repository.ClienteRepositoryForaDoHeap;
+import com.example.repository.ClienteRepositoryNoHeap;
+import com.example.repository.Pagina;
+import com.example.service.ClienteService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class ClienteRepositoryForaDoHeapTest {
+
+    private static final int SEGMENTO = ClienteRepositoryForaDoHeap.TAMANHO_SEGMENTO_MINIMO;
+
+    @Test
+    public void findByEmailMaterializesACopyOnDemand() {
+        ClienteRepositoryForaDoHeap repositorio = new ClienteRepositoryForaDoHeap();
+        Cliente ana = new Cliente("Ana Souza", "ana@email.com");
+        repositorio.save(ana);
+        repositorio.save(new Cliente("João Ñandú 🎫", "joão@exemplo.com.br"));
+
+        Cliente encontrado = repositorio.findByEmail("ana@email.com").get();
+        assertNotSame(ana, encontrado);
+        assertEquals("Ana Souza", encontrado.getNome());
+        encontrado.setNome("Outro");
+        assertEquals("Ana Souza", repositorio.findByEmail("ana@email.com").get().getNome());
+        assertEquals("João Ñandú 🎫", repositorio.findByEmail("joão@exemplo.com.br").get().getNome());
+        assertFalse(repositorio.findByEmail("ana@email.co").isPresent());
+        assertEquals(2, repositorio.getQuantidade());
+    }
+
+    @Test
+    public void updatesInPlaceOrAppendsAndDeletesLeaveTombstones() {
+        ClienteRepositoryForaDoHeap repositorio = new ClienteRepositoryForaDoHeap();
+        repositorio.save(new Cliente("Ana", "ana@ex.com"));
+        repositorio.save(new Cliente("Bia", "ana@ex.com")); // mesmo tamanho: regrava no lugar
+        assertEquals(0, repositorio.getBytesMortos());
+        assertEquals("Bia", repositorio.findByEmail("ana@ex.com").get().getNome());
+
+        repositorio.save(new Cliente("Ana Maria", "ana@ex.com"));
+        assertEquals(4 + "ana@ex.com".length() + 3, repositorio.getBytesMortos());
+        assertEquals("Ana Maria", repositorio.findByEmail("ana@ex.com").get().getNome());
+
+        repositorio.deleteByEmail("ana@ex.com");
+        repositorio.deleteByEmail("nunca@ex.com");
+        assertFalse(repositorio.findByEmail("ana@ex.com").isPresent());
+        assertEquals(0, repositorio.getQuantidade());
+
+        repositorio.save(new Cliente("De Novo", "ana@ex.com"));
+        assertEquals("De Novo", repositorio.findByEmail("ana@ex.com").get().getNome());
+        assertEquals(1, repositorio.findAll().size());
+    }
+
+    @Test
+    public void serviceUpdatesAndDeletesThroughTheOffHeapBackend() {
+        ClienteService servico = new ClienteService(new ClienteRepositoryForaDoHeap());
+        servico.criarCliente("Ana", "ana@ex.com");
+        assertThrows(IllegalArgumentException.class, () -> servico.criarCliente("Outra", "ana@ex.com"));
+
+        servico.atualizarNomeCliente("ana@ex.com", "Ana Beatriz");
+        assertEquals("Ana Beatriz", servico.getCliente("ana@ex.com").get().getNome());
+
+        servico.deletarCliente("ana@ex.com");
+        assertFalse(servico.getCliente("ana@ex.com").isPresent());
+        assertThrows(RuntimeException.class, () -> servico.deletarCliente("ana@ex.com"));
+    }
+
+    @Test
+    public void growsRehashesAndCompactsWithoutLosingRecords() {
+        ClienteRepositoryForaDoHeap repositorio = new ClienteRepositoryForaDoHeap(16, SEGMENTO);
+        int total = 40_000;
+        for (int i = 0; i < total; i++) {
+            repositorio.save(new Cliente("Cliente " + i, "c" + i + "@ex.com"));
+        }
+        assertEquals(total, repositorio.getQuantidade());
+        // troca todos os nomes por outros mais longos e remove metade: sobra bem mais de um segmento morto
+        for (int i = 0; i < total; i++) {
+            if (i % 2 == 0) {
+                repositorio.deleteByEmail("c" + i + "@ex.com");
+            } else {
+                repositorio.save(new Cliente("Cliente renomeado " + i, "c" + i + "@ex.com"));
+            }
+        }
+        assertEquals(total / 2, repositorio.getQuantidade());
+        assertTrue(repositorio.getBytesMortos() < SEGMENTO * 2L, "deveria ter compactado");
+        for (int i = 0; i < total; i++) {
+            String email = "c" + i + "@ex.com";
+            if (i % 2 == 0) {
+                assertFalse(repositorio.findByEmail(email).isPresent(), email);
+            } else {
+                assertEquals("Cliente renomeado " + i, repositorio.findByEmail(email).get().getNome());
+            }
+        }
+        // reinserir sobre as lápides
+        for (int i = 0; i < total; i += 2) {
+            repositorio.save(new Cliente("Volta " + i, "c" + i + "@ex.com"));
+        }
+        assertEquals(total, repositorio.findAll().size());
+        assertEquals("Volta 0", repositorio.findByEmail("c0@ex.com").get().getNome());
+    }
+
+    @Test
+    public void pagesFollowEmailOrderLikeTheHeapRepository() {
+        ClienteRepositoryForaDoHeap foraDoHeap = new ClienteRepositoryForaDoHeap(16, SEGMENTO);
+        ClienteRepositoryNoHeap noHeap = new ClienteRepositoryNoHeap();
+        for (int i = 0; i < 2_500; i++) {
+            Cliente cliente = new Cliente("N" + i, "cliente" + (i * 7919 % 2_500) + "@ex.com");
+            foraDoHeap.save(cliente);
+            noHeap.save(cliente);
+        }
+        foraDoHeap.deleteByEmail("cliente5@ex.com");
+        noHeap.deleteByEmail("cliente5@ex.com");
+
+        List<String> lidos = new ArrayList<>();
+        String cursor = null;
+        do {
+            Pagina<Cliente> pagina = foraDoHeap.buscarPagina(cursor, 300);
+            Pagina<Cliente> esperada = noHeap.buscarPagina(cursor, 300);
+            assertEquals(esperada.getProximoCursor(), pagina.getProximoCursor());
+            pagina.getItens().forEach(c -> lidos.add(c.getEmail()));
+            cursor = pagina.getProximoCursor();
+        } while (cursor != null);
+
+        List<String> esperados = noHeap.findAll().stream().map(Cliente::getEmail).collect(Collectors.toList());
+        assertEquals(esperados, lidos);
+        String meio = noHeap.buscarPagina(null, 1_200).getProximoCursor();
+        assertEquals(esperados.subList(1_200, esperados.size()),
+                foraDoHeap.streamOrdenado(meio).map(Cliente::getEmail).collect(Collectors.toList()));
+        assertNull(foraDoHeap.buscarPagina(null, 10_000).getProximoCursor());
+        assertThrows(IllegalArgumentException.class, () -> foraDoHeap.buscarPagina(null, 0));
+    }
+
+    @Test
+    public void insertAllRefusesDuplicatesAndOversizedTextIsRejected() {
+        ClienteRepositoryForaDoHeap repositorio = new ClienteRepositoryForaDoHeap();
+        repositorio.save(new Cliente("Antiga", "b@ex.com"));
+        List<Integer> recusados = new ArrayList<>();
+        int inseridos = repositorio.insertAll(List.of(new Cliente("A", "a@ex.com"), new Cliente("B", "b@ex.com"),
+                new Cliente("A2", "a@ex.com"), new Cliente("C", "c@ex.com")), recusados::add);
+
+        assertEquals(2, inseridos);
+        assertEquals(List.of(1, 2), recusados);
+        assertEquals("Antiga", repositorio.findByEmail("b@ex.com").get().getNome());
+        assertEquals("A", repositorio.findByEmail("a@ex.com").get().getNome());
+
+        String longo = "ç".repeat(40_000); // 80.000 bytes em UTF-8
+        assertThrows(IllegalArgumentException.class, () -> repositorio.save(new Cliente(longo, "d@ex.com")));
+        assertFalse(repositorio.findByEmail(longo).isPresent());
+        String maximo = "x".repeat(65_535);
+        repositorio.save(new Cliente(maximo, maximo));
+        assertEquals(maximo, repositorio.findByEmail(maximo).get().getNome());
+    }
+
+    @Test
+    public void textOfEverySizeRoundTripsAfterLargerAndSmallerRecords() {
+        ClienteRepositoryForaDoHeap repositorio = new ClienteRepositoryForaDoHeap(16, SEGMENTO);
+        int[] tamanhos = {3, 70, 400, 1_500, 9_000, 5}; // 7 bytes por repetição
+        for (int rodada = 0; rodada < 3; rodada++) { // a terceira rodada sobrescreve e força compactação
+            for (int i = 0; i < tamanhos.length; i++) {
+                String texto = "é🎫a".repeat(tamanhos[i]);
+                repositorio.save(new Cliente(texto + rodada, texto + "@ex.com"));
+                assertEquals(texto + rodada, repositorio.findByEmail(texto + "@ex.com").get().getNome());
+                assertFalse(repositorio.findByEmail("x" + texto).isPresent());
+            }
+        }
+        List<Cliente> todos = repositorio.findAll();
+        assertEquals(tamanhos.length, todos.size());
+        for (int tamanho : tamanhos) {
+            String texto = "é🎫a".repeat(tamanho);
+            assertTrue(todos.stream().anyMatch(c -> c.getEmail().equals(texto + "@ex.com")
+                    && c.getNome().equals(texto + 2)), texto);
+        }
+        assertEquals(tamanhos.length, repositorio.streamOrdenado(null).count());
+    }
+
+    @Test
+    public void concurrentReadersSeeConsistentRecordsDuringWrites() throws InterruptedException {
+        ClienteRepositoryForaDoHeap repositorio = new ClienteRepositoryForaDoHeap(16, SEGMENTO);
+        for (int i = 0; i < 1_000; i++) {
+            repositorio.save(new Cliente("Nome " + i, "c" + i + "@ex.com"));
+        }
+        AtomicBoolean parar = new AtomicBoolean();
+        ConcurrentHashMap.KeySetView<String, Boolean> erros = ConcurrentHashMap.newKeySet();
+        Thread leitor = new Thread(() -> {
+            while (!parar.get()) {
+                for (int i = 0; i < 1_000; i++) {
+                    String nome = repositorio.findByEmail("c" + i + "@ex.com").get().getNome();
+                    if (!nome.endsWith(" " + i)) {
+                        erros.add(nome);
+                    }
+                }
+            }
+        });
+        leitor.start();
+        for (int rodada = 0; rodada < 20; rodada++) {
+            for (int i = 0; i < 1_000; i++) {
+                repositorio.save(new Cliente("Nome" + "x".repeat(rodada % 5) + " " + i, "c" + i + "@ex.com"));
+            }
+            for (int i = 1_000; i < 3_000; i++) { // força reconstruções da tabela
+                repositorio.save(new Cliente("Extra " + i, "extra" + rodada + "-" + i + "@ex.com"));
+                repositorio.deleteByEmail("extra" + rodada + "-" + i + "@ex.com");
+            }
+        }
+        parar.set(true);
+        leitor.join();
+        assertTrue(erros.isEmpty(), erros::toString);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example;
+
+import com.example.assento.MapaAssentos;
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import com.example.model.ItemCompra;
+import com.example.repository.IngressoRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+public class CompraCongeladaTest {
+
+    private final Cliente cliente = new Cliente("Ana Souza", "ana@email.com");
+
+    @Test
+    public void finalizedPurchaseKeepsItemsThroughGettersAndIndexAccessors() {
+        Ingresso pista = new Ingresso("Pista", 120.0, 10);
+        Ingresso cadeira = new Ingresso("Cadeira", 80.0, new MapaAssentos("Setor A", 2, 10));
+        Compra compra = new Compra("C1", cliente);
+        compra.adicionarItem(pista, 3);
+        compra.adicionarItem(cadeira, 2);
+        pista.setPreco(999.0); // o preço do item já foi fixado
+        compra.finalizarCompra();
+
+        assertEquals("Finalizada", compra.getStatus());
+        assertEquals(2, compra.getQuantidadeItens());
+        assertSame(pista, compra.getIngressoDoItem(0));
+        assertEquals(3, compra.getQuantidadeDoItem(0));
+        assertEquals(12_000, compra.getPrecoUnitarioDoItem(0));
+        assertNull(compra.getAssentosDoItem(0));
+        assertNotNull(compra.getAssentosDoItem(1));
+        assertEquals(2, compra.getAssentosDoItem(1).getQuantidade());
+
+        List<ItemCompra> itens = compra.getItens();
+        assertEquals(2, itens.size());
+        assertSame(cadeira, itens.get(1).getIngresso());
+        assertEquals(16_000, itens.get(1).getSubtotalCentavos());
+        assertEquals(52_000, compra.calcularTotalCentavos());
+        assertThrows(UnsupportedOperationException.class, () -> itens.add(new ItemCompra(pista, 1)));
+        assertThrows(IllegalStateException.class, () -> compra.adicionarItem(pista, 1));
+        assertEquals(0, compra.getPrazoReserva());
+    }
+
+    @Test
+    public void expiredPurchaseIsFrozenAfterReturningStock() {
+        Ingresso pista = new Ingresso("Pista", 50.0, 10);
+        Compra compra = new Compra("C2", cliente);
+        compra.adicionarItem(pista, 4);
+        compra.iniciarPrazoReserva(1);
+        compra.expirar();
+
+        assertEquals("Expirada", compra.getStatus());
+        assertEquals(10, pista.getQuantidadeDisponivel());
+        assertEquals(4, compra.getItens().get(0).getQuantidade());
+    }
+
+    @Test
+    public void restoredPurchaseIsFrozen() {
+        Ingresso vip = new Ingresso("VIP", 200.0, 5);
+        Compra compra = Compra.restaurarFinalizada("C3", cliente, 1234L, List.of(new ItemCompra(vip, 2, 15_000)));
+        assertEquals("Finalizada", compra.getStatus());
+        assertEquals(1234L, compra.getInstanteFinalizacao());
+        assertEquals(30_000, compra.calcularTotalCentavos());
+        assertEquals(15_000, compra.getPrecoUnitarioDoItem(0));
+        assertSame(vip, compra.getIngressoDoItem(0));
+    }
+
+    @Test
+    public void concurrentFirstFreezesOfAnIngressoAllResolveToIt() throws InterruptedException {
+        IngressoRepository repositorio = new IngressoRepository();
+        Ingresso show = repositorio.save(new Ingresso("Show", 60.0, 100));
+        List<Compra> compras = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Compra compra = new Compra("C" + i, cliente);
+            compra.adicionarItem(show, 1);
+            compras.add(compra);
+        }
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (Compra compra : compras) {
+            Thread t = new Thread(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                compra.finalizarCompra();
+            });
+            t.start();
+            threads.add(t);
+        }
+        largada.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+        repositorio.deleteByTipo("Show");
+
+        for (Compra compra : compras) {
+            assertSame(show, compra.getIngressoDoItem(0)); // removido do catálogo, a compra guarda a referência
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example;
+
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import com.example.relatorio.AgregadosVendas;
+import com.example.repository.CompraRepository;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class CompraRepositoryTest {
+
+    private final Ingresso pista = new Ingresso("Pista", 120.0, Integer.MAX_VALUE);
+
+    @Test
+    public void concurrentSavesAreAllVisibleToLookupsAndScans() throws Exception {
+        CompraRepository repositorio = new CompraRepository(8);
+        int threads = 8;
+        int porThread = 5_000;
+        CountDownLatch fim = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            new Thread(() -> {
+                for (int i = 0; i < porThread; i++) {
+                    repositorio.save(finalizada("C" + thread + "-" + i, 1 + i % 3));
+                    repositorio.findByCodigo("C" + thread + "-" + (i / 2)).orElseThrow();
+                }
+                fim.countDown();
+            }).start();
+        }
+        fim.await();
+
+        int total = threads * porThread;
+        assertEquals(total, repositorio.contar());
+        assertEquals(total, repositorio.findAll().size());
+        Set<String> codigos = repositorio.parallelStream().map(Compra::getCodigoCompra).collect(Collectors.toSet());
+        assertEquals(total, codigos.size());
+        assertTrue(repositorio.findByCodigo("C7-4999").isPresent());
+    }
+
+    @Test
+    public void parallelSumMatchesSequentialScan() {
+        CompraRepository repositorio = new CompraRepository(1);
+        long esperado = 0;
+        for (int i = 0; i < 20_000; i++) {
+            Compra compra = repositorio.save(finalizada("C" + i, 1 + i % 4));
+            esperado += compra.calcularTotalCentavos();
+        }
+        assertEquals(esperado, repositorio.somar(Compra::calcularTotalCentavos));
+        assertEquals(esperado, repositorio.stream().mapToLong(Compra::calcularTotalCentavos).sum());
+    }
+
+    @Test
+    public void parallelVerificationAgreesWithAggregates() {
+        CompraRepository repositorio = new CompraRepository(16);
+        AgregadosVendas agregados = new AgregadosVendas();
+        for (int i = 0; i < 10_000; i++) {
+            agregados.registrar(repositorio.save(finalizada("C" + i, 2)));
+        }
+        assertTrue(agregados.verificar(repositorio.parallelStream()).isEmpty());
+        agregados.registrar(finalizada("fora-do-repositorio", 1));
+        assertEquals(4, agregados.verificar(repositorio.parallelStream()).size());
+    }
+
+    private Compra finalizada(String codigo, int quantidade) {
+        Compra compra = new Compra(codigo, new Cliente("Cliente", codigo + "@email.com"));
+        compra.adicionarItem(pista, quantidade);
+        compra.finalizarCompra();
+        return compra;
+    }
+}
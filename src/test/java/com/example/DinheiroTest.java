@@ -0,0 +1,31 @@
+package com.example;
+
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+public class DinheiroTest {
+
+    @Test
+    public void centsSumsAreExact() {
+        Ingresso ingresso = new Ingresso("Meia", 0.10, 1_000_000);
+        Compra compra = new Compra("T002", new Cliente("Z", "z@z.com"));
+        for (int i = 0; i < 1_000; i++) {
+            compra.adicionarItem(ingresso, 3);
+        }
+        assertEquals(30_000L, compra.calcularTotalCentavos());
+        assertEquals(300.0, compra.calcularTotal(), 0.0);
+    }
+
+    @Test
+    public void subtotalKeepsPriceAtTimeOfSale() {
+        Ingresso ingresso = new Ingresso("VIP", 200.0, 10);
+        Compra compra = new Compra("T003", new Cliente("Z", "z@z.com"));
+        compra.adicionarItem(ingresso, 2);
+        ingresso.setPreco(999.99);
+        assertEquals(40_000L, compra.getItens().get(0).getSubtotalCentavos());
+        assertEquals(40_000L, compra.calcularTotalCentavos());
+    }
+}
@@ -0,0 +1,157 @@
+package com.example;
+
+import com.example.model.Estoque;
+import com.example.model.EstoqueAtomico;
+import com.example.model.EstoqueParticionado;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class EstoqueConcorrenteTest {
+
+    private static final int THREADS = 32;
+    private static final int ESTOQUE = 20_000;
+
+    @Test
+    public void atomicStockNeverOversells() throws Exception {
+        assertNoOversell(new EstoqueAtomico(ESTOQUE));
+    }
+
+    @Test
+    public void stripedStockNeverOversells() throws Exception {
+        assertNoOversell(new EstoqueParticionado(ESTOQUE, 8));
+    }
+
+    @Test
+    public void stripedStockGathersAcrossStripesNearSellOut() {
+        Estoque estoque = new EstoqueParticionado(10, 4);
+        assertTrue(estoque.tentarReservar(7));
+        assertFalse(estoque.tentarReservar(4));
+        assertEquals(3, estoque.disponivel());
+        assertTrue(estoque.tentarReservar(3));
+        assertEquals(0, estoque.disponivel());
+    }
+
+    @Test
+    public void reserveUpToTakesWhatIsLeftAcrossStripes() {
+        Estoque estoque = new EstoqueParticionado(10, 4);
+        assertEquals(6, estoque.reservarAte(6));
+        assertEquals(4, estoque.reservarAte(9));
+        assertEquals(0, estoque.reservarAte(1));
+        estoque.liberar(2);
+        assertEquals(2, new EstoqueAtomico(2).reservarAte(5));
+    }
+
+    @Test
+    public void throughputComparedWithCoarseLock() throws Exception {
+        int total = 2_000_000;
+        long cas = medirNanos(() -> new EstoqueAtomico(total), total);
+        long faixas = medirNanos(() -> new EstoqueParticionado(total, 16), total);
+        long bloqueio = medirNanos(() -> new EstoqueComBloqueio(total), total);
+        System.out.printf("Reservas/s com %d threads -> synchronized: %,d | CAS: %,d | faixas: %,d%n",
+                THREADS, total * 1_000_000_000L / bloqueio,
+                total * 1_000_000_000L / cas, total * 1_000_000_000L / faixas);
+    }
+
+    private void assertNoOversell(Estoque estoque) throws Exception {
+        AtomicInteger vendidos = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        Thread[] compradores = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            compradores[t] = new Thread(() -> {
+                aguardar(largada);
+                int quantidade = 1;
+                while (estoque.disponivel() > 0) {
+                    if (estoque.tentarReservar(quantidade)) {
+                        vendidos.addAndGet(quantidade);
+                    }
+                    quantidade = quantidade % 3 + 1;
+                }
+            });
+            compradores[t].start();
+        }
+        largada.countDown();
+        for (Thread comprador : compradores) {
+            comprador.join();
+        }
+        assertEquals(ESTOQUE, vendidos.get());
+        assertEquals(0, estoque.disponivel());
+    }
+
+    private long medirNanos(Supplier<Estoque> fabrica, int total) throws Exception {
+        Estoque estoque = fabrica.get();
+        CountDownLatch largada = new CountDownLatch(1);
+        Thread[] compradores = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            compradores[t] = new Thread(() -> {
+                aguardar(largada);
+                while (estoque.tentarReservar(1)) {
+                    // compra até esgotar
+                }
+            });
+            compradores[t].start();
+        }
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Thread comprador : compradores) {
+            comprador.join();
+        }
+        long duracao = Math.max(1, System.nanoTime() - inicio);
+        assertEquals(0, estoque.disponivel());
+        return duracao;
+    }
+
+    private static void aguardar(CountDownLatch largada) {
+        try {
+            largada.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Linha de base: verificação e baixa protegidas por um único monitor. */
+    private static class EstoqueComBloqueio implements Estoque {
+        private int quantidade;
+
+        EstoqueComBloqueio(int quantidade) {
+            this.quantidade = quantidade;
+        }
+
+        @Override
+        public synchronized boolean tentarReservar(int quantidade) {
+            if (this.quantidade < quantidade) {
+                return false;
+            }
+            this.quantidade -= quantidade;
+            return true;
+        }
+
+        @Override
+        public synchronized int reservarAte(int maximo) {
+            int retirar = Math.min(this.quantidade, maximo);
+            this.quantidade -= retirar;
+            return retirar;
+        }
+
+        @Override
+        public synchronized void liberar(int quantidade) {
+            this.quantidade += quantidade;
+        }
+
+        @Override
+        public synchronized int disponivel() {
+            return quantidade;
+        }
+
+        @Override
+        public synchronized int definir(int quantidade) {
+            int anterior = this.quantidade;
+            this.quantidade = quantidade;
+            return anterior;
+        }
+    }
+}
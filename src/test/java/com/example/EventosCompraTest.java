@@ -0,0 +1,105 @@
+package com.example;
+
+import com.example.codigo.GeradorCodigoPorBlocos;
+import com.example.controller.CompraController;
+import com.example.evento.AssinanteEventos;
+import com.example.evento.EventoCompra;
+import com.example.evento.PoliticaFilaCheia;
+import com.example.evento.PublicadorEventos;
+import com.example.evento.SaidaMemoria;
+import com.example.evento.TipoEventoCompra;
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class EventosCompraTest {
+
+    @Test
+    public void checkoutStepsArePublishedInOrder() {
+        CompraController controller = new CompraController();
+        SaidaMemoria memoria = new SaidaMemoria();
+        controller.getEventos().assinar(memoria);
+
+        Ingresso ingresso = new Ingresso("Pista", 50.0, 2);
+        Compra compra = controller.iniciarNovaCompra(new Cliente("Teste", "teste@ex.com"));
+        controller.adicionarItemNaCompra(compra, ingresso, 2);
+        controller.adicionarItemNaCompra(compra, ingresso, 1);
+        controller.finalizarCompra(compra);
+        controller.getEventos().esvaziar();
+
+        List<TipoEventoCompra> tipos = memoria.getEventos().stream()
+                .map(EventoCompra::getTipo)
+                .collect(Collectors.toList());
+        assertEquals(List.of(TipoEventoCompra.COMPRA_INICIADA, TipoEventoCompra.ITEM_ADICIONADO,
+                TipoEventoCompra.ITEM_REJEITADO, TipoEventoCompra.COMPRA_FINALIZADA), tipos);
+    }
+
+    @Test
+    public void dropPolicyNeverBlocksTheBuyer() throws Exception {
+        PublicadorEventos eventos = new PublicadorEventos(4, PoliticaFilaCheia.DESCARTAR);
+        CountDownLatch liberar = new CountDownLatch(1);
+        eventos.assinar(new AssinanteEventos() {
+            @Override
+            public void aoReceber(EventoCompra evento) {
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        CompraController controller = new CompraController(GeradorCodigoPorBlocos.padrao(), eventos);
+        Cliente cliente = new Cliente("Teste", "teste@ex.com");
+        for (int i = 0; i < 100; i++) {
+            controller.iniciarNovaCompra(cliente);
+        }
+        assertTrue(eventos.getDescartados() > 0);
+        liberar.countDown();
+        eventos.fechar();
+    }
+
+    @Test
+    public void everyAcceptedEventIsDeliveredWhenClosingDuringPublication() throws Exception {
+        for (int rodada = 0; rodada < 20; rodada++) {
+            PublicadorEventos eventos = new PublicadorEventos(64, PoliticaFilaCheia.BLOQUEAR);
+            SaidaMemoria memoria = new SaidaMemoria();
+            eventos.assinar(memoria);
+            EventoCompra evento = EventoCompra.compraIniciada(new Compra("C1", new Cliente("Teste", "teste@ex.com")));
+            AtomicLong aceitos = new AtomicLong();
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Thread> publicadores = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                Thread publicador = new Thread(() -> {
+                    try {
+                        largada.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    for (int i = 0; i < 2_000; i++) {
+                        if (eventos.publicar(evento)) {
+                            aceitos.incrementAndGet();
+                        }
+                    }
+                });
+                publicador.start();
+                publicadores.add(publicador);
+            }
+            largada.countDown();
+            Thread.sleep(1);
+            eventos.fechar();
+            for (Thread publicador : publicadores) {
+                publicador.join();
+            }
+
+            assertEquals(aceitos.get(), memoria.getEventos().size());
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example;
+
+import com.example.exportacao.ExportadorCompras;
+import com.example.exportacao.FormatoExportacao;
+import com.example.exportacao.MarcoExportacao;
+import com.example.exportacao.ResultadoExportacao;
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import com.example.model.ItemCompra;
+import com.example.persistencia.GravadorSnapshot;
+import com.example.persistencia.LogCompras;
+import com.example.persistencia.RecuperadorEstado;
+import com.example.repository.ClienteRepository;
+import com.example.repository.ClienteRepositoryNoHeap;
+import com.example.repository.CompraRepository;
+import com.example.repository.IngressoRepository;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ExportadorComprasTest {
+
+    // 2024-05-01T13:45:00.120Z
+    private static final long INSTANTE = 1_714_571_100_120L;
+
+    @TempDir
+    Path pasta;
+
+    private final Ingresso pista = new Ingresso("Pista", 120.50, 1000);
+    private final Ingresso setor = new Ingresso("Setor \"A\", Norte", 80.0, 1000);
+    private final Cliente ana = new Cliente("Ana", "ana@ex.com");
+    private final Cliente joao = new Cliente("João", "joão@ex.com");
+
+    private CompraRepository repositorioComCompras() {
+        CompraRepository compras = new CompraRepository();
+        compras.save(Compra.restaurarFinalizada("C0", ana, INSTANTE,
+                List.of(new ItemCompra(pista, 1))));
+        compras.save(Compra.restaurarFinalizada("C1", ana, INSTANTE,
+                List.of(new ItemCompra(pista, 2), new ItemCompra(setor, 3))));
+        compras.save(Compra.restaurarFinalizada("C2", joao, INSTANTE + 1000,
+                List.of(new ItemCompra(setor, 1))));
+        Compra emAndamento = new Compra("C9", ana);
+        emAndamento.adicionarItem(pista, 1);
+        compras.save(emAndamento);
+        return compras;
+    }
+
+    private ResultadoExportacao exportar(CompraRepository compras, FormatoExportacao formato, Path arquivo)
+            throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            return new ExportadorCompras(compras).exportar(canal, formato, MarcoExportacao.INICIO);
+        }
+    }
+
+    @Test
+    public void exportsCsvLinePerItemInFinalizationOrder() throws IOException {
+        Path arquivo = pasta.resolve("vendas.csv");
+        ResultadoExportacao resultado = exportar(repositorioComCompras(), FormatoExportacao.CSV, arquivo);
+
+        assertEquals(3, resultado.getCompras());
+        assertEquals(new MarcoExportacao(3), resultado.getMarco()); // C2, a terceira a entrar no índice
+        assertEquals("codigo,cliente,finalizada_em,tipo,quantidade,preco_unitario,subtotal\n"
+                        + "C0,ana@ex.com,2024-05-01T13:45:00.120Z,Pista,1,120.50,120.50\n"
+                        + "C1,ana@ex.com,2024-05-01T13:45:00.120Z,Pista,2,120.50,241.00\n"
+                        + "C1,ana@ex.com,2024-05-01T13:45:00.120Z,\"Setor \"\"A\"\", Norte\",3,80.00,240.00\n"
+                        + "C2,joão@ex.com,2024-05-01T13:45:01.120Z,\"Setor \"\"A\"\", Norte\",1,80.00,80.00\n",
+                Files.readString(arquivo, StandardCharsets.UTF_8));
+        assertEquals(Files.size(arquivo), resultado.getBytes());
+    }
+
+    @Test
+    public void exportsNdjsonObjectPerPurchase() throws IOException {
+        Path arquivo = pasta.resolve("vendas.ndjson");
+        exportar(repositorioComCompras(), FormatoExportacao.NDJSON, arquivo);
+
+        List<String> linhas = Files.readAllLines(arquivo, StandardCharsets.UTF_8);
+        assertEquals(3, linhas.size());
+        assertEquals("{\"codigo\":\"C1\",\"cliente\":\"ana@ex.com\",\"finalizadaEm\":1714571100120,"
+                + "\"totalCentavos\":48100,\"itens\":["
+                + "{\"tipo\":\"Pista\",\"quantidade\":2,\"precoUnitarioCentavos\":12050,\"subtotalCentavos\":24100},"
+                + "{\"tipo\":\"Setor \\\"A\\\", Norte\",\"quantidade\":3,\"precoUnitarioCentavos\":8000,"
+                + "\"subtotalCentavos\":24000}]}", linhas.get(1));
+        assertTrue(linhas.get(2).startsWith("{\"codigo\":\"C2\",\"cliente\":\"joão@ex.com\""));
+    }
+
+    @Test
+    public void exportsBinaryRecords() throws IOException {
+        Path arquivo = pasta.resolve("vendas.bin");
+        exportar(repositorioComCompras(), FormatoExportacao.BINARIO, arquivo);
+
+        ByteBuffer b = ByteBuffer.wrap(Files.readAllBytes(arquivo));
+        assertEquals(0x56454E44, b.getInt());
+        assertEquals(1, b.getShort());
+        String[] codigos = new String[3];
+        for (int c = 0; c < 3; c++) {
+            assertEquals(1, b.get());
+            codigos[c] = texto(b);
+            String email = texto(b);
+            long instante = b.getLong();
+            long total = b.getLong();
+            int itens = b.getInt();
+            long soma = 0;
+            for (int i = 0; i < itens; i++) {
+                texto(b);
+                int quantidade = b.getInt();
+                soma += quantidade * b.getLong();
+            }
+            assertEquals(total, soma);
+            if (c == 2) {
+                assertEquals("joão@ex.com", email);
+                assertEquals(INSTANTE + 1000, instante);
+            }
+        }
+        assertEquals(List.of("C0", "C1", "C2"), List.of(codigos));
+        assertEquals(0, b.get());
+        assertEquals(0, b.remaining());
+    }
+
+    private static String texto(ByteBuffer b) {
+        byte[] bytes = new byte[b.getShort()];
+        b.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void incrementalExportContinuesFromSavedCheckpoint() throws IOException {
+        CompraRepository compras = repositorioComCompras();
+        ExportadorCompras exportador = new ExportadorCompras(compras);
+        Path destino = pasta.resolve("exportacao");
+
+        ResultadoExportacao primeira = exportador.exportarIncremental(destino, FormatoExportacao.CSV);
+        assertEquals(3, primeira.getCompras());
+        assertEquals(5, Files.readAllLines(primeira.getArquivo()).size());
+        assertEquals("3\n", Files.readString(destino.resolve("marco-csv.txt")));
+
+        // C3 entra no índice depois do marco com um instante anterior ao de C2: ainda é exportada
+        compras.save(Compra.restaurarFinalizada("C3", ana, INSTANTE, List.of(new ItemCompra(pista, 1))));
+        compras.save(Compra.restaurarFinalizada("C4", joao, INSTANTE + 2000, List.of(new ItemCompra(pista, 4))));
+
+        ResultadoExportacao segunda = exportador.exportarIncremental(destino, FormatoExportacao.CSV);
+        assertEquals(2, segunda.getCompras());
+        List<String> linhas = Files.readAllLines(segunda.getArquivo());
+        assertEquals(3, linhas.size());
+        assertTrue(linhas.get(1).startsWith("C3,"));
+        assertTrue(linhas.get(2).startsWith("C4,"));
+
+        ResultadoExportacao terceira = exportador.exportarIncremental(destino, FormatoExportacao.CSV);
+        assertEquals(0, terceira.getCompras());
+        assertNull(terceira.getArquivo());
+        assertEquals(segunda.getMarco(), terceira.getMarco());
+        // o marco do NDJSON é independente: a primeira exportação nesse formato leva tudo
+        assertEquals(5, exportador.exportarIncremental(destino, FormatoExportacao.NDJSON).getCompras());
+    }
+
+    @Test
+    public void checkpointFromTheLogStillHoldsAfterARestart() throws IOException {
+        Path dados = pasta.resolve("dados");
+        Path destino = pasta.resolve("exportacao");
+        ClienteRepository clientes = new ClienteRepositoryNoHeap();
+        CompraRepository compras = new CompraRepository();
+        LogCompras log = RecuperadorEstado.recuperarEAbrir(dados, clientes, new IngressoRepository(), compras);
+        compras.save(Compra.restaurarFinalizada("C1", ana, INSTANTE, List.of(new ItemCompra(pista, 1))));
+        new GravadorSnapshot(log, clientes, compras).gravar();
+        compras.save(Compra.restaurarFinalizada("C2", ana, INSTANTE, List.of(new ItemCompra(pista, 2))));
+        assertEquals(2, new ExportadorCompras(compras).exportarIncremental(destino, FormatoExportacao.CSV)
+                .getCompras());
+        log.close();
+
+        CompraRepository depois = new CompraRepository();
+        LogCompras reaberto = RecuperadorEstado.recuperarEAbrir(dados, new ClienteRepositoryNoHeap(),
+                new IngressoRepository(), depois);
+        // relógio atrasado depois do reinício: o marco não depende dele
+        depois.save(Compra.restaurarFinalizada("C3", joao, INSTANTE - 60_000, List.of(new ItemCompra(pista, 3))));
+        ResultadoExportacao resultado = new ExportadorCompras(depois)
+                .exportarIncremental(destino, FormatoExportacao.CSV);
+        reaberto.close();
+
+        assertEquals(1, resultado.getCompras());
+        List<String> linhas = Files.readAllLines(resultado.getArquivo());
+        assertEquals(2, linhas.size());
+        assertTrue(linhas.get(1).startsWith("C3,"));
+    }
+
+    @Test
+    public void exportsManyPurchasesAcrossSeveralGatheringWrites() throws IOException {
+        CompraRepository compras = new CompraRepository();
+        int total = 30_000;
+        for (int i = 0; i < total; i++) {
+            compras.save(Compra.restaurarFinalizada(String.format("C%06d", i), ana, INSTANTE + i,
+                    List.of(new ItemCompra(pista, 1 + i % 3), new ItemCompra(setor, 1))));
+        }
+        Path arquivo = pasta.resolve("grande.ndjson");
+
+        ResultadoExportacao resultado = exportar(compras, FormatoExportacao.NDJSON, arquivo);
+
+        assertEquals(total, resultado.getCompras());
+        assertTrue(resultado.getBytes() > 1 << 20);
+        assertEquals(Files.size(arquivo), resultado.getBytes());
+        List<String> linhas = Files.readAllLines(arquivo, StandardCharsets.UTF_8);
+        assertEquals(total, linhas.size());
+        assertTrue(linhas.get(total - 1).startsWith("{\"codigo\":\"C029999\""));
+    }
+}
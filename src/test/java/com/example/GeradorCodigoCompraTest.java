@@ -0,0 +1,90 @@
+package com.example;
+
+import com.example.codigo.FonteDeBlocos;
+import com.example.codigo.GeradorCodigoPorBlocos;
+import com.example.controller.CompraController;
+import com.example.model.Cliente;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class GeradorCodigoCompraTest {
+
+    @Test
+    public void codesAreUniqueAcrossThreadsAndControllers() throws Exception {
+        CompraController controllerA = new CompraController();
+        CompraController controllerB = new CompraController();
+        Cliente cliente = new Cliente("Teste", "teste@ex.com");
+        Set<String> codigos = ConcurrentHashMap.newKeySet();
+        int porThread = 1_000;
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            CompraController controller = t % 2 == 0 ? controllerA : controllerB;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < porThread; i++) {
+                    codigos.add(controller.iniciarNovaCompra(cliente).getCodigoCompra());
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(threads.length * porThread, codigos.size());
+    }
+
+    @Test
+    public void aThreadPerRequestSharesBlocksInsteadOfOpeningOneEach() throws Exception {
+        GeradorCodigoPorBlocos gerador = new GeradorCodigoPorBlocos(new FonteDeBlocos(5));
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        int requisicoes = 2_000;
+        for (int i = 0; i < requisicoes; i++) {
+            Thread requisicao = new Thread(() -> ids.add(gerador.proximoId())); // uma thread nova por requisição
+            requisicao.start();
+            requisicao.join();
+        }
+        Set<Long> blocos = new HashSet<>();
+        for (long id : ids) {
+            blocos.add(id >>> FonteDeBlocos.BITS_SEQUENCIA);
+        }
+        assertEquals(requisicoes, ids.size());
+        assertTrue(blocos.size() <= GeradorCodigoPorBlocos.FAIXAS, "blocos abertos: " + blocos.size());
+    }
+
+    @Test
+    public void codesStayOrderedAfterRestart() throws Exception {
+        GeradorCodigoPorBlocos antes = new GeradorCodigoPorBlocos(new FonteDeBlocos(3));
+        String ultimoAntes = null;
+        for (int i = 0; i < 10_000; i++) {
+            String codigo = antes.proximoCodigo();
+            if (ultimoAntes != null) {
+                assertTrue(codigo.compareTo(ultimoAntes) > 0);
+            }
+            ultimoAntes = codigo;
+        }
+        Thread.sleep(5);
+        GeradorCodigoPorBlocos depois = new GeradorCodigoPorBlocos(new FonteDeBlocos(3));
+        assertTrue(depois.proximoCodigo().compareTo(ultimoAntes) > 0);
+    }
+
+    @Test
+    public void differentNodesNeverCollide() {
+        GeradorCodigoPorBlocos no1 = new GeradorCodigoPorBlocos(new FonteDeBlocos(1));
+        GeradorCodigoPorBlocos no2 = new GeradorCodigoPorBlocos(new FonteDeBlocos(2));
+        assertNotEquals(no1.proximoCodigo(), no2.proximoCodigo());
+    }
+
+    @Test
+    public void encodingRoundTrips() {
+        long id = new FonteDeBlocos(7).reservarBloco() + 42;
+        String codigo = GeradorCodigoPorBlocos.codificar(id);
+        assertEquals(14, codigo.length());
+        assertEquals(id, GeradorCodigoPorBlocos.decodificar(codigo));
+    }
+}
@@ -0,0 +1,164 @@
+package com.example;
+
+import com.example.importacao.FormatoCatalogo;
+import com.example.importacao.ImportadorCatalogo;
+import com.example.importacao.LinhaRejeitada;
+import com.example.importacao.ResultadoImportacao;
+import com.example.model.Cliente;
+import com.example.model.Ingresso;
+import com.example.repository.ClienteRepository;
+import com.example.repository.ClienteRepositoryNoHeap;
+import com.example.repository.IngressoRepository;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ImportadorCatalogoTest {
+
+    @TempDir
+    Path pasta;
+
+    private static ReadableByteChannel canal(String conteudo) {
+        return Channels.newChannel(new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void importsCsvClientesAndReportsRejectedLines() throws IOException {
+        ClienteRepository repositorio = new ClienteRepositoryNoHeap();
+        repositorio.save(new Cliente("Antiga", "antiga@ex.com"));
+        String csv = "﻿id,email,nome\r\n"
+                + "1,ana@ex.com,Ana\r\n"
+                + "2, bia@ex.com ,\"Silva, Bia \"\"B\"\"\"\r\n"
+                + "\r\n"
+                + "3,sem-arroba,Carlos\n"
+                + "4,ana@ex.com,Ana Repetida\n"
+                + "5,antiga@ex.com,Outra\n"
+                + "6,dani@ex.com\n"
+                + "7,\"eva@ex.com,Eva\n"
+                + "8,joão@ex.com,João";
+
+        ResultadoImportacao resultado = new ImportadorCatalogo(2)
+                .importarClientes(canal(csv), FormatoCatalogo.CSV, repositorio);
+
+        assertEquals(8, resultado.getLidas());
+        assertEquals(3, resultado.getImportadas());
+        assertEquals(5, resultado.getRejeitadas());
+        assertEquals("Silva, Bia \"B\"", repositorio.findByEmail("bia@ex.com").get().getNome());
+        assertEquals("Ana", repositorio.findByEmail("ana@ex.com").get().getNome());
+        assertEquals("Antiga", repositorio.findByEmail("antiga@ex.com").get().getNome());
+        assertEquals("João", repositorio.findByEmail("joão@ex.com").get().getNome());
+
+        List<LinhaRejeitada> rejeicoes = resultado.getPrimeirasRejeicoes();
+        assertEquals(List.of(5L, 6L, 7L, 8L, 9L), rejeicoes.stream().map(LinhaRejeitada::getNumero).toList());
+        assertTrue(rejeicoes.get(0).getMotivo().startsWith("email inválido"));
+        assertEquals("email já cadastrado", rejeicoes.get(1).getMotivo());
+        assertEquals("email já cadastrado", rejeicoes.get(2).getMotivo());
+        assertEquals("esperados 3 campos, encontrados 2", rejeicoes.get(3).getMotivo());
+        assertTrue(rejeicoes.get(4).getMotivo().startsWith("aspas sem fechamento"));
+    }
+
+    @Test
+    public void importsNdjsonClientes() throws IOException {
+        ClienteRepository repositorio = new ClienteRepositoryNoHeap();
+        String ndjson = "{\"nome\":\"Ana \\\"A\\\"\",\"email\":\"ana@ex.com\",\"idade\":30}\n"
+                + "  { \"email\" : \"bia@ex.com\" , \"nome\" : \"B\\u00eda\" }  \n"
+                + "{\"nome\":null,\"email\":\"nulo@ex.com\"}\n"
+                + "{\"nome\":\"Caio\",\"email\":\"caio@ex.com\",\"tags\":[1]}\n"
+                + "[1,2]\n"
+                + "{\"nome\":\"Duda\",\"email\":\"duda@ex.com\"} extra\n"
+                + "{\"nome\":\"Eva\",\"email\":\"eva@ex.com\",}\n";
+
+        ResultadoImportacao resultado = new ImportadorCatalogo()
+                .importarClientes(canal(ndjson), FormatoCatalogo.NDJSON, repositorio);
+
+        assertEquals(7, resultado.getLidas());
+        assertEquals(2, resultado.getImportadas());
+        assertEquals("Ana \"A\"", repositorio.findByEmail("ana@ex.com").get().getNome());
+        assertEquals("Bía", repositorio.findByEmail("bia@ex.com").get().getNome());
+        List<LinhaRejeitada> rejeicoes = resultado.getPrimeirasRejeicoes();
+        assertEquals(List.of(3L, 4L, 5L, 6L, 7L), rejeicoes.stream().map(LinhaRejeitada::getNumero).toList());
+        assertEquals("nome vazio", rejeicoes.get(0).getMotivo());
+        assertTrue(rejeicoes.get(1).getMotivo().startsWith("valor não suportado"));
+        assertEquals("a linha não é um objeto JSON", rejeicoes.get(2).getMotivo());
+        assertEquals("conteúdo após o objeto JSON", rejeicoes.get(3).getMotivo());
+        assertTrue(rejeicoes.get(4).getMotivo().startsWith("esperada uma chave"));
+    }
+
+    @Test
+    public void importsIngressosFromFileRejectingDuplicatesBeforeCreatingThem() throws IOException {
+        IngressoRepository repositorio = new IngressoRepository();
+        repositorio.save(new Ingresso("Camarote", 500.0, 10));
+        Path arquivo = pasta.resolve("ingressos.csv");
+        Files.writeString(arquivo, "tipo,preco,quantidade\n"
+                + "Pista,120.50,1000\n"
+                + "VIP,abc,10\n"
+                + "Meia,60,-1\n"
+                + "Pista,99,5\n"
+                + "Camarote,450,5\n"
+                + "Setor A,80,2.5\n"
+                + "Setor B,NaN,3\n"
+                + "Setor C,75,300\n");
+
+        ResultadoImportacao resultado = new ImportadorCatalogo().importarIngressos(arquivo, repositorio);
+
+        assertEquals(8, resultado.getLidas());
+        assertEquals(2, resultado.getImportadas());
+        assertEquals(12_050, repositorio.findByTipo("Pista").get().getPrecoCentavos());
+        assertEquals(1000, repositorio.findByTipo("Pista").get().getQuantidadeDisponivel());
+        assertEquals(300, repositorio.findByTipo("Setor C").get().getQuantidadeDisponivel());
+        assertEquals(500.0, repositorio.findByTipo("Camarote").get().getPreco());
+        assertFalse(repositorio.findByTipo("VIP").isPresent());
+        assertEquals(List.of("preço inválido: abc", "quantidade inválida: -1", "tipo já cadastrado",
+                        "tipo já cadastrado", "quantidade inválida: 2.5", "preço inválido: NaN"),
+                resultado.getPrimeirasRejeicoes().stream().map(LinhaRejeitada::getMotivo).toList());
+    }
+
+    @Test
+    public void handlesManyBatchesAndLinesLongerThanTheReadBuffer() throws IOException {
+        StringBuilder csv = new StringBuilder("nome,email\n");
+        int clientes = 50_000;
+        for (int i = clientes - 1; i >= 0; i--) {
+            csv.append("Cliente ").append(i).append(",c").append(i).append("@ex.com\n");
+        }
+        String nomeLongo = "x".repeat(3 << 20);
+        csv.append(nomeLongo).append(",longo@ex.com\n");
+        csv.append("Cliente 7,c7@ex.com\n"); // duplicado do início do arquivo, em outro lote
+        Path arquivo = pasta.resolve("clientes.csv");
+        Files.writeString(arquivo, csv);
+        ClienteRepository repositorio = new ClienteRepositoryNoHeap();
+
+        ResultadoImportacao resultado = new ImportadorCatalogo(1000).importarClientes(arquivo, repositorio);
+
+        assertEquals(clientes + 2, resultado.getLidas());
+        assertEquals(clientes + 1, resultado.getImportadas());
+        assertEquals(1, resultado.getRejeitadas());
+        assertEquals(clientes + 3, resultado.getPrimeirasRejeicoes().get(0).getNumero());
+        assertEquals(nomeLongo, repositorio.findByEmail("longo@ex.com").get().getNome());
+        assertEquals(clientes + 1, repositorio.findAll().size());
+        assertTrue(resultado.getLinhasPorSegundo() > 0);
+    }
+
+    @Test
+    public void rejectsCsvHeaderWithoutRequiredColumn() {
+        assertThrows(IllegalArgumentException.class, () -> new ImportadorCatalogo()
+                .importarClientes(canal("nome,telefone\nAna,123\n"), FormatoCatalogo.CSV, new ClienteRepositoryNoHeap()));
+    }
+
+    @Test
+    public void detectsFormatFromExtension() {
+        assertEquals(FormatoCatalogo.NDJSON, FormatoCatalogo.doArquivo(Path.of("clientes.NDJSON")));
+        assertEquals(FormatoCatalogo.NDJSON, FormatoCatalogo.doArquivo(Path.of("dados/clientes.jsonl")));
+        assertEquals(FormatoCatalogo.CSV, FormatoCatalogo.doArquivo(Path.of("clientes.csv")));
+    }
+}
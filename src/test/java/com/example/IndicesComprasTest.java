@@ -0,0 +1,109 @@
+package com.example;
+
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import com.example.repository.CompraRepository;
+import com.example.repository.Pagina;
+import com.example.service.ClienteService;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class IndicesComprasTest {
+
+    private final Ingresso pista = new Ingresso("Pista", 120.0, Integer.MAX_VALUE);
+    private final Ingresso vip = new Ingresso("VIP", 220.0, Integer.MAX_VALUE);
+    private final Cliente ana = new Cliente("Ana Souza", "ana@email.com");
+    private final Cliente carlos = new Cliente("Carlos Lima", "carlos@email.com");
+
+    @Test
+    public void indexesAnswerByClientTypeAndStatus() {
+        CompraRepository repositorio = new CompraRepository(4);
+        Compra c1 = compra("C1", ana, pista);
+        Compra c2 = compra("C2", ana, vip);
+        Compra c3 = compra("C3", carlos, pista);
+        c3.adicionarItem(vip, 1);
+        repositorio.save(c1);
+        repositorio.save(c2);
+        repositorio.save(c3);
+
+        assertEquals(List.of("C1", "C2"), codigos(repositorio.findByCliente("ana@email.com")));
+        assertEquals(List.of("C2", "C3"), codigos(repositorio.findByTipoIngresso("VIP")));
+        assertEquals(3, repositorio.contarPorStatus("Em Andamento"));
+
+        c2.finalizarCompra();
+        repositorio.save(c2);
+        assertEquals(List.of("C2"), codigos(repositorio.findByStatus("Finalizada")));
+        assertEquals(List.of("C1", "C3"), codigos(repositorio.findByStatus("Em Andamento")));
+
+        Pagina<Compra> pagina = repositorio.buscarPorTipoIngresso("Pista", null, 1);
+        assertEquals(List.of("C1"), codigos(pagina.getItens()));
+        assertEquals(List.of("C3"), codigos(repositorio.buscarPorTipoIngresso("Pista", pagina.getProximoCursor(), 1).getItens()));
+    }
+
+    @Test
+    public void replacingPurchaseMovesItsIndexEntries() {
+        CompraRepository repositorio = new CompraRepository(4);
+        repositorio.save(compra("C1", ana, pista));
+        repositorio.save(compra("C1", carlos, vip));
+        assertTrue(repositorio.findByCliente("ana@email.com").isEmpty());
+        assertTrue(repositorio.findByTipoIngresso("Pista").isEmpty());
+        assertEquals(List.of("C1"), codigos(repositorio.findByCliente("carlos@email.com")));
+    }
+
+    @Test
+    public void deletingClientDropsItsIndexWithoutTouchingPurchases() {
+        CompraRepository repositorio = new CompraRepository(4);
+        ClienteService clientes = new ClienteService();
+        clientes.aoDeletarCliente(repositorio::esquecerCliente);
+        clientes.criarCliente("Ana Souza", "ana@email.com");
+        repositorio.save(compra("C1", ana, pista));
+
+        clientes.deletarCliente("ana@email.com");
+        assertTrue(repositorio.findByCliente("ana@email.com").isEmpty());
+        assertTrue(repositorio.findByCodigo("C1").isPresent());
+        assertEquals(1, repositorio.findByTipoIngresso("Pista").size());
+    }
+
+    @Test
+    public void concurrentSavesKeepIndexesConsistent() throws Exception {
+        CompraRepository repositorio = new CompraRepository(4);
+        int threads = 8;
+        int porThread = 2_000;
+        CountDownLatch fim = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            new Thread(() -> {
+                for (int i = 0; i < porThread; i++) {
+                    Compra compra = compra("C" + (i % 500), i % 2 == 0 ? ana : carlos, thread % 2 == 0 ? pista : vip);
+                    repositorio.save(compra);
+                }
+                fim.countDown();
+            }).start();
+        }
+        fim.await();
+
+        // cada código aparece exatamente uma vez em cada índice, e no valor da última gravação
+        assertEquals(500, repositorio.findByCliente("ana@email.com").size()
+                + repositorio.findByCliente("carlos@email.com").size());
+        assertEquals(500, repositorio.findByTipoIngresso("Pista").size()
+                + repositorio.findByTipoIngresso("VIP").size());
+        for (Compra compra : repositorio.findAll()) {
+            assertTrue(repositorio.findByCliente(compra.getCliente().getEmail()).contains(compra));
+        }
+    }
+
+    private Compra compra(String codigo, Cliente cliente, Ingresso ingresso) {
+        Compra compra = new Compra(codigo, cliente);
+        compra.adicionarItem(ingresso, 1);
+        return compra;
+    }
+
+    private static List<String> codigos(List<Compra> compras) {
+        return compras.stream().map(Compra::getCodigoCompra).collect(Collectors.toList());
+    }
+}
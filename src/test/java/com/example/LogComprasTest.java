@@ -0,0 +1,254 @@
+package com.example;
+
+import com.example.assento.BlocoAssentos;
+import com.example.assento.MapaAssentos;
+import com.example.codigo.GeradorCodigoPorBlocos;
+import com.example.controller.CompraController;
+import com.example.evento.PublicadorEventos;
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.EstoqueParticionado;
+import com.example.model.Ingresso;
+import com.example.persistencia.GravadorSnapshot;
+import com.example.persistencia.LogCompras;
+import com.example.persistencia.RecuperadorEstado;
+import com.example.repository.ClienteRepository;
+import com.example.repository.ClienteRepositoryNoHeap;
+import com.example.repository.CompraRepository;
+import com.example.repository.IngressoRepository;
+import com.example.service.ClienteService;
+import com.example.service.IngressoService;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class LogComprasTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    public void stateIsRebuiltFromLogAfterRestart() {
+        Sistema antes = Sistema.abrir(diretorio);
+        antes.ingressos.criarIngresso("Pista", 120.0, 100);
+        antes.clientes.criarCliente("Ana", "ana@email.com");
+        antes.clientes.criarCliente("Carlos", "carlos@email.com");
+        antes.clientes.atualizarNomeCliente("ana@email.com", "Ana Souza");
+        antes.clientes.deletarCliente("carlos@email.com");
+        Cliente ana = antes.clientes.getCliente("ana@email.com").orElseThrow();
+        Ingresso pista = antes.ingressos.getIngresso("Pista").orElseThrow();
+        for (int i = 0; i < 10; i++) {
+            Compra compra = antes.controller.iniciarNovaCompra(ana);
+            antes.controller.adicionarItemNaCompra(compra, pista, 3);
+            antes.controller.finalizarCompra(compra);
+        }
+        Compra abandonada = antes.controller.iniciarNovaCompra(ana);
+        antes.controller.adicionarItemNaCompra(abandonada, pista, 5);
+        antes.log.close();
+
+        Sistema depois = Sistema.abrir(diretorio);
+        assertEquals(10, depois.controller.listarComprasRealizadas().size());
+        assertEquals(70, depois.ingressos.getIngresso("Pista").orElseThrow().getQuantidadeDisponivel());
+        assertEquals("Ana Souza", depois.clientes.getCliente("ana@email.com").orElseThrow().getNome());
+        assertTrue(depois.clientes.getCliente("carlos@email.com").isEmpty());
+        assertEquals(10 * 36_000L, depois.controller.calcularTotalComprasCentavos());
+        depois.log.close();
+    }
+
+    @Test
+    public void tornRecordAtTailIsIgnored() throws Exception {
+        Sistema antes = Sistema.abrir(diretorio);
+        antes.clientes.criarCliente("Ana", "ana@email.com");
+        antes.clientes.criarCliente("Bia", "bia@email.com");
+        antes.log.close();
+
+        Path segmento;
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            segmento = arquivos.sorted().reduce((a, b) -> b).orElseThrow();
+        }
+        try (RandomAccessFile arquivo = new RandomAccessFile(segmento.toFile(), "rw")) {
+            int primeiro = arquivo.readInt();
+            arquivo.seek(9 + primeiro + 9 + 3); // dentro do conteúdo do segundo registro
+            arquivo.writeByte(0x7F);
+        }
+
+        Sistema depois = Sistema.abrir(diretorio);
+        assertTrue(depois.clientes.getCliente("ana@email.com").isPresent());
+        assertTrue(depois.clientes.getCliente("bia@email.com").isEmpty());
+        depois.log.close();
+    }
+
+    @Test
+    public void stockUpdatesWithOpenCartsReplayToTheLiveStock() {
+        Sistema antes = Sistema.abrir(diretorio);
+        antes.ingressos.criarIngresso("Pista", 120.0, 100);
+        antes.ingressos.criarIngresso("VIP", 300.0, 20);
+        antes.clientes.criarCliente("Ana", "ana@email.com");
+        Cliente ana = antes.clientes.getCliente("ana@email.com").orElseThrow();
+        Ingresso pista = antes.ingressos.getIngresso("Pista").orElseThrow();
+        Ingresso vip = antes.ingressos.getIngresso("VIP").orElseThrow();
+        Compra finalizada = antes.controller.iniciarNovaCompra(ana);
+        antes.controller.adicionarItemNaCompra(finalizada, pista, 10);
+        Compra aberta = antes.controller.iniciarNovaCompra(ana); // continua aberta na queda
+        antes.controller.adicionarItemNaCompra(aberta, pista, 4);
+        Compra expirada = antes.controller.iniciarNovaCompra(ana);
+        antes.controller.adicionarItemNaCompra(expirada, vip, 5);
+
+        antes.ingressos.atualizarIngresso("Pista", 130.0, 90);
+        antes.ingressos.atualizarIngresso("VIP", 300.0, 20);
+        assertTrue(antes.controller.finalizarCompra(finalizada));
+        assertTrue(expirada.expirar());
+        assertEquals(90, pista.getQuantidadeDisponivel());
+        assertEquals(25, vip.getQuantidadeDisponivel());
+        antes.log.close();
+
+        Sistema depois = Sistema.abrir(diretorio);
+        Ingresso pistaDepois = depois.ingressos.getIngresso("Pista").orElseThrow();
+        assertEquals(94, pistaDepois.getQuantidadeDisponivel()); // as 4 da compra aberta voltam
+        assertEquals(13_000, pistaDepois.getPrecoCentavos());
+        assertEquals(25, depois.ingressos.getIngresso("VIP").orElseThrow().getQuantidadeDisponivel());
+        depois.log.close();
+    }
+
+    @Test
+    public void replayUpdatesARegisteredIngressoInPlace() {
+        Sistema antes = Sistema.abrir(diretorio);
+        antes.ingressos.criarIngresso("Pista", 120.0, 100, 4);
+        antes.clientes.criarCliente("Ana", "ana@email.com");
+        Compra compra = antes.controller.iniciarNovaCompra(antes.clientes.getCliente("ana@email.com").orElseThrow());
+        antes.controller.adicionarItemNaCompra(compra, antes.ingressos.getIngresso("Pista").orElseThrow(), 10);
+        antes.controller.finalizarCompra(compra);
+        antes.ingressos.atualizarIngresso("Pista", 150.0, 50);
+        antes.log.close();
+
+        // a aplicação cadastra o tipo com o seu modo de estoque antes de recuperar
+        IngressoRepository ingressos = new IngressoRepository();
+        CompraRepository compras = new CompraRepository();
+        Ingresso particionado = ingressos.save(new Ingresso("Pista", 120.0, new EstoqueParticionado(100, 4)));
+        LogCompras log = RecuperadorEstado.recuperarEAbrir(diretorio, new ClienteRepositoryNoHeap(),
+                ingressos, compras);
+        assertSame(particionado, ingressos.findByTipo("Pista").orElseThrow());
+        assertEquals(50, particionado.getQuantidadeDisponivel());
+        assertEquals(15_000, particionado.getPrecoCentavos());
+        assertSame(particionado, compras.findAll().get(0).getIngressoDoItem(0));
+        log.close();
+    }
+
+    @Test
+    public void seatedSalesReclaimTheirSeatsOnRecovery() {
+        IngressoRepository ingressos = new IngressoRepository();
+        CompraRepository compras = new CompraRepository();
+        ClienteRepository clientes = new ClienteRepositoryNoHeap();
+        LogCompras log = RecuperadorEstado.recuperarEAbrir(diretorio, clientes, ingressos, compras);
+        Ingresso cadeira = ingressos.save(new Ingresso("Cadeira", 80.0, new MapaAssentos("Setor A", 2, 10)));
+        Cliente ana = clientes.save(new Cliente("Ana", "ana@email.com"));
+        CompraController controller = new CompraController(compras, GeradorCodigoPorBlocos.padrao(),
+                new PublicadorEventos());
+        BlocoAssentos noSnapshot = new BlocoAssentos("Setor A", 0, 2, 3);
+        BlocoAssentos naCauda = new BlocoAssentos("Setor A", 1, 5, 2);
+        Compra primeira = controller.iniciarNovaCompra(ana);
+        assertTrue(controller.adicionarAssentosNaCompra(primeira, cadeira, noSnapshot));
+        assertTrue(controller.finalizarCompra(primeira));
+        new GravadorSnapshot(log, clientes, compras).gravar();
+        Compra segunda = controller.iniciarNovaCompra(ana);
+        assertTrue(controller.adicionarAssentosNaCompra(segunda, cadeira, naCauda));
+        assertTrue(controller.finalizarCompra(segunda));
+        log.close();
+
+        // o mapa não é persistido: a aplicação cadastra o setor vazio antes de recuperar
+        IngressoRepository ingressosDepois = new IngressoRepository();
+        CompraRepository comprasDepois = new CompraRepository();
+        Ingresso recuperado = ingressosDepois.save(new Ingresso("Cadeira", 80.0, new MapaAssentos("Setor A", 2, 10)));
+        LogCompras reaberto = RecuperadorEstado.recuperarEAbrir(diretorio, new ClienteRepositoryNoHeap(),
+                ingressosDepois, comprasDepois);
+        assertEquals(15, recuperado.getQuantidadeDisponivel());
+        assertFalse(recuperado.reservarAssentos(noSnapshot));
+        assertFalse(recuperado.reservarAssentos(naCauda));
+        assertFalse(recuperado.reservarAssentos(new BlocoAssentos("Setor A", 0, 4, 2)));
+        assertTrue(recuperado.reservarAssentos(new BlocoAssentos("Setor A", 0, 5, 2)));
+        assertEquals(noSnapshot, comprasDepois.findByCodigo(primeira.getCodigoCompra()).orElseThrow()
+                .getAssentosDoItem(0));
+        assertEquals(naCauda, comprasDepois.findByCodigo(segunda.getCodigoCompra()).orElseThrow()
+                .getAssentosDoItem(0));
+        reaberto.close();
+    }
+
+    @Test
+    public void priceVersionsSurviveARestart() {
+        Sistema antes = Sistema.abrir(diretorio);
+        antes.ingressos.criarIngresso("Pista", 100.0, 50);
+        antes.clientes.criarCliente("Ana", "ana@email.com");
+        Cliente ana = antes.clientes.getCliente("ana@email.com").orElseThrow();
+        Ingresso pista = antes.ingressos.getIngresso("Pista").orElseThrow();
+        Compra primeira = antes.controller.iniciarNovaCompra(ana);
+        antes.controller.adicionarItemNaCompra(primeira, pista, 1);
+        antes.controller.finalizarCompra(primeira);
+        antes.ingressos.reprecificar(Map.of("Pista", 110.0));
+        antes.ingressos.atualizarIngresso("Pista", 120.0, 40);
+        Compra terceira = antes.controller.iniciarNovaCompra(ana);
+        antes.controller.adicionarItemNaCompra(terceira, pista, 1);
+        antes.controller.finalizarCompra(terceira);
+        antes.log.close();
+
+        Sistema depois = Sistema.abrir(diretorio);
+        Ingresso pistaDepois = depois.ingressos.getIngresso("Pista").orElseThrow();
+        assertEquals(3, pistaDepois.getVersaoPreco().getVersao());
+        assertEquals(3, depois.ingressos.catalogo().precoDe("Pista").getVersao());
+        assertEquals(1, depois.controller.buscarCompra(primeira.getCodigoCompra()).orElseThrow().getVersaoPrecoDoItem(0));
+        assertEquals(3, depois.controller.buscarCompra(terceira.getCodigoCompra()).orElseThrow().getVersaoPrecoDoItem(0));
+        depois.ingressos.reprecificar(Map.of("Pista", 130.0));
+        assertEquals(4, pistaDepois.getVersaoPreco().getVersao()); // não colide com as versões já fixadas
+        depois.log.close();
+    }
+
+    @Test
+    public void failedLogWriteLeavesThePurchaseOpenWithItsStockHeld() {
+        CompraRepository compras = new CompraRepository();
+        LogCompras log = new LogCompras(diretorio, 1024);
+        compras.anexarLog(log);
+        CompraController controller = new CompraController(compras, GeradorCodigoPorBlocos.padrao(),
+                new PublicadorEventos());
+        Ingresso enorme = new Ingresso("X".repeat(2_000), 10.0, 5); // registro maior que o segmento
+        Compra compra = controller.iniciarNovaCompra(new Cliente("Ana", "ana@email.com"));
+        controller.adicionarItemNaCompra(compra, enorme, 2);
+
+        assertThrows(IllegalArgumentException.class, () -> controller.finalizarCompra(compra));
+        assertEquals("Em Andamento", compra.getStatus());
+        assertEquals(0, compra.getInstanteFinalizacao());
+        assertTrue(compras.findByCodigo(compra.getCodigoCompra()).isEmpty());
+        assertEquals(3, enorme.getQuantidadeDisponivel());
+        assertTrue(compra.expirar());
+        assertEquals(5, enorme.getQuantidadeDisponivel());
+        log.close();
+    }
+
+    private static final class Sistema {
+        ClienteService clientes;
+        IngressoService ingressos;
+        CompraController controller;
+        LogCompras log;
+
+        static Sistema abrir(Path diretorio) {
+            ClienteRepository clienteRepository = new ClienteRepositoryNoHeap();
+            IngressoRepository ingressoRepository = new IngressoRepository();
+            CompraRepository compraRepository = new CompraRepository();
+            Sistema sistema = new Sistema();
+            sistema.log = RecuperadorEstado.recuperarEAbrir(diretorio, clienteRepository,
+                    ingressoRepository, compraRepository);
+            sistema.clientes = new ClienteService(clienteRepository);
+            sistema.ingressos = new IngressoService(ingressoRepository);
+            sistema.controller = new CompraController(compraRepository, GeradorCodigoPorBlocos.padrao(),
+                    new PublicadorEventos());
+            return sistema;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example;
+
+import com.example.codigo.GeradorCodigoPorBlocos;
+import com.example.controller.CompraController;
+import com.example.controller.PedidoCompra;
+import com.example.controller.ProcessadorLoteCompras;
+import com.example.controller.ResultadoPedido;
+import com.example.controller.StatusPedido;
+import com.example.evento.PublicadorEventos;
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.repository.CompraRepository;
+import com.example.service.IngressoService;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.Test;
+
+public class LoteComprasTest {
+
+    private final Cliente ana = new Cliente("Ana Souza", "ana@email.com");
+    private final Cliente bruno = new Cliente("Bruno Lima", "bruno@email.com");
+
+    @Test
+    public void eachRequestIsAllOrNothingInSubmissionOrder() {
+        IngressoService ingressos = new IngressoService();
+        ingressos.criarIngresso("Pista", 100.0, 5);
+        CompraController controller = new CompraController();
+        ProcessadorLoteCompras lote = new ProcessadorLoteCompras(controller, ingressos);
+
+        List<ResultadoPedido> resultados = lote.processar(List.of(
+                new PedidoCompra(ana, "Pista", 3),
+                new PedidoCompra(bruno, "Pista", 4),
+                new PedidoCompra(bruno, "Pista", 2)));
+
+        assertEquals(StatusPedido.ACEITO, resultados.get(0).getStatus());
+        assertEquals(StatusPedido.ESTOQUE_INSUFICIENTE, resultados.get(1).getStatus());
+        assertNull(resultados.get(1).getCodigoCompra());
+        assertEquals(StatusPedido.ACEITO, resultados.get(2).getStatus());
+        assertEquals(0, ingressos.getIngresso("Pista").get().getQuantidadeDisponivel());
+        assertEquals(2, controller.listarComprasRealizadas().size());
+    }
+
+    @Test
+    public void unusedUnitsReturnToStockAndInvalidRequestsAreReported() {
+        IngressoService ingressos = new IngressoService();
+        ingressos.criarIngresso("VIP", 300.0, 10);
+        CompraController controller = new CompraController();
+        ProcessadorLoteCompras lote = new ProcessadorLoteCompras(controller, ingressos);
+
+        List<ResultadoPedido> resultados = lote.processar(List.of(
+                new PedidoCompra(ana, "VIP", 4),
+                new PedidoCompra(ana, "Camarote", 1),
+                new PedidoCompra(ana, "VIP", 0),
+                new PedidoCompra(bruno, "VIP", 20)));
+
+        assertEquals(StatusPedido.ACEITO, resultados.get(0).getStatus());
+        assertEquals(StatusPedido.INGRESSO_INEXISTENTE, resultados.get(1).getStatus());
+        assertEquals(StatusPedido.QUANTIDADE_INVALIDA, resultados.get(2).getStatus());
+        assertEquals(StatusPedido.ESTOQUE_INSUFICIENTE, resultados.get(3).getStatus());
+        assertEquals(6, ingressos.getIngresso("VIP").get().getQuantidadeDisponivel());
+    }
+
+    @Test
+    public void acceptedRequestsOfSameClientShareOneFinalizedPurchase() {
+        IngressoService ingressos = new IngressoService();
+        ingressos.criarIngresso("Pista", 100.0, 50);
+        ingressos.criarIngresso("VIP", 300.0, 50);
+        CompraController controller = new CompraController();
+        ProcessadorLoteCompras lote = new ProcessadorLoteCompras(controller, ingressos);
+
+        List<ResultadoPedido> resultados = lote.processar(List.of(
+                new PedidoCompra(ana, "Pista", 2),
+                new PedidoCompra(ana, "VIP", 1)));
+
+        String codigo = resultados.get(0).getCodigoCompra();
+        assertNotNull(codigo);
+        assertEquals(codigo, resultados.get(1).getCodigoCompra());
+        Compra compra = controller.listarComprasRealizadas().get(0);
+        assertEquals("Finalizada", compra.getStatus());
+        assertEquals(50_000L, compra.calcularTotalCentavos());
+        assertEquals(50_000L, controller.calcularTotalComprasCentavos());
+    }
+
+    @Test
+    public void failedFinalizationReturnsStockAndMarksOnlyThatClientsRequests() {
+        IngressoService ingressos = new IngressoService();
+        ingressos.criarIngresso("Pista", 100.0, 10);
+        CompraRepository compras = new CompraRepository() {
+            @Override
+            public Compra finalizarESalvar(Compra compra) {
+                if (compra.getCliente().getEmail().equals(bruno.getEmail())) {
+                    throw new UncheckedIOException(new IOException("disco cheio"));
+                }
+                return super.finalizarESalvar(compra);
+            }
+        };
+        CompraController controller = new CompraController(compras, GeradorCodigoPorBlocos.padrao(),
+                new PublicadorEventos());
+        ProcessadorLoteCompras lote = new ProcessadorLoteCompras(controller, ingressos);
+
+        List<ResultadoPedido> resultados = lote.processar(List.of(
+                new PedidoCompra(ana, "Pista", 3),
+                new PedidoCompra(bruno, "Pista", 2),
+                new PedidoCompra(bruno, "Pista", 1)));
+
+        assertEquals(StatusPedido.ACEITO, resultados.get(0).getStatus());
+        assertNotNull(resultados.get(0).getCodigoCompra());
+        assertEquals(StatusPedido.FALHA_FINALIZACAO, resultados.get(1).getStatus());
+        assertNull(resultados.get(1).getCodigoCompra());
+        assertEquals(StatusPedido.FALHA_FINALIZACAO, resultados.get(2).getStatus());
+        assertEquals(7, ingressos.getIngresso("Pista").get().getQuantidadeDisponivel());
+        assertEquals(1, controller.listarComprasRealizadas().size());
+    }
+}
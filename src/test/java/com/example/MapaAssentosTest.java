@@ -0,0 +1,115 @@
+package com.example;
+
+import com.example.assento.BlocoAssentos;
+import com.example.assento.MapaAssentos;
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import com.example.model.ItemCompra;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class MapaAssentosTest {
+
+    @Test
+    public void claimAndReleaseSingleSeats() {
+        MapaAssentos mapa = new MapaAssentos("Setor A", 10, 100);
+        assertTrue(mapa.reservar(3, 70));
+        assertFalse(mapa.reservar(3, 70));
+        assertTrue(mapa.isOcupado(3, 70));
+        assertEquals(999, mapa.getLivres());
+        mapa.liberar(new BlocoAssentos("Setor A", 3, 70, 1));
+        assertFalse(mapa.isOcupado(3, 70));
+        assertThrows(IllegalArgumentException.class, () -> mapa.reservar(10, 0));
+    }
+
+    @Test
+    public void bestAvailablePrefersFrontRowAndCenter() {
+        MapaAssentos mapa = new MapaAssentos("Setor A", 3, 20);
+        assertEquals(new BlocoAssentos("Setor A", 0, 8, 4), mapa.reservarMelhores(4).get());
+        // o centro está ocupado: vai para o lado mais próximo
+        assertEquals(new BlocoAssentos("Setor A", 0, 4, 4), mapa.reservarMelhores(4).get());
+        // a fila 0 não tem mais 9 vizinhos livres (sobram 0-3 e 12-19)
+        assertEquals(new BlocoAssentos("Setor A", 1, 5, 9), mapa.reservarMelhores(9).get());
+        assertEquals(new BlocoAssentos("Setor A", 0, 12, 8), mapa.reservarMelhores(8).get());
+    }
+
+    @Test
+    public void blocksSpanningWordsAreAllOrNothing() {
+        MapaAssentos mapa = new MapaAssentos("Setor A", 1, 200);
+        assertTrue(mapa.reservar(0, 130));
+        assertFalse(mapa.reservar(new BlocoAssentos("Setor A", 0, 60, 80)));
+        for (int assento = 60; assento < 130; assento++) {
+            assertFalse(mapa.isOcupado(0, assento), "assento " + assento + " ficou preso");
+        }
+        assertTrue(mapa.reservar(new BlocoAssentos("Setor A", 0, 60, 70)));
+        assertEquals(200 - 71, mapa.getLivres());
+        assertFalse(mapa.reservarMelhores(130).isPresent());
+        assertEquals(new BlocoAssentos("Setor A", 0, 131, 69), mapa.reservarMelhores(69).get());
+    }
+
+    @Test
+    public void concurrentBuyersNeverShareASeat() throws Exception {
+        MapaAssentos mapa = new MapaAssentos("Setor A", 50, 64);
+        int threads = 8;
+        AtomicInteger vendidos = new AtomicInteger();
+        AtomicInteger conflitos = new AtomicInteger();
+        int[][] dono = new int[50][64];
+        CountDownLatch fim = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int comprador = t + 1;
+            new Thread(() -> {
+                Optional<BlocoAssentos> bloco;
+                while ((bloco = mapa.reservarMelhores(1 + comprador % 4)).isPresent()) {
+                    BlocoAssentos b = bloco.get();
+                    for (int a = b.getPrimeiro(); a < b.getPrimeiro() + b.getQuantidade(); a++) {
+                        synchronized (dono) {
+                            if (dono[b.getFila()][a] != 0) {
+                                conflitos.incrementAndGet();
+                            }
+                            dono[b.getFila()][a] = comprador;
+                        }
+                    }
+                    vendidos.addAndGet(b.getQuantidade());
+                }
+                fim.countDown();
+            }).start();
+        }
+        fim.await();
+        assertEquals(0, conflitos.get());
+        assertEquals(50 * 64 - mapa.getLivres(), vendidos.get());
+    }
+
+    @Test
+    public void largeVenueFitsInTensOfKilobytes() {
+        MapaAssentos mapa = new MapaAssentos("Arena", 240, 260);
+        assertEquals(62_400, mapa.getCapacidade());
+        assertTrue(mapa.getBytesBitmap() <= 10 * 1024);
+    }
+
+    @Test
+    public void purchaseReservesConcreteSeatsAndReleasesThemOnExpiry() {
+        MapaAssentos mapa = new MapaAssentos("Cadeira Inferior", 5, 10);
+        Ingresso cadeira = new Ingresso("Cadeira Inferior", 150.0, mapa);
+        Compra compra = new Compra("C1", new Cliente("Ana Souza", "ana@email.com"));
+
+        ItemCompra melhores = compra.adicionarItem(cadeira, 2);
+        assertEquals(new BlocoAssentos("Cadeira Inferior", 0, 4, 2), melhores.getAssentos());
+        ItemCompra escolhidos = compra.adicionarItem(cadeira, new BlocoAssentos("Cadeira Inferior", 4, 0, 3));
+        assertEquals(3, escolhidos.getQuantidade());
+        assertThrows(IllegalStateException.class,
+                () -> compra.adicionarItem(cadeira, new BlocoAssentos("Cadeira Inferior", 4, 2, 2)));
+        assertEquals(45, cadeira.getQuantidadeDisponivel());
+        assertEquals(75_000L, compra.calcularTotalCentavos());
+
+        assertTrue(compra.expirar());
+        assertEquals(50, mapa.getLivres());
+        assertEquals(50, cadeira.getQuantidadeDisponivel());
+    }
+}
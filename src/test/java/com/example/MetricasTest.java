@@ -0,0 +1,127 @@
+package com.example;
+
+import com.example.assento.BlocoAssentos;
+import com.example.assento.MapaAssentos;
+import com.example.controller.CompraController;
+import com.example.metricas.HistogramaLatencia;
+import com.example.metricas.Metricas;
+import com.example.metricas.Operacao;
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class MetricasTest {
+
+    @Test
+    public void percentilesStayWithinBucketError() {
+        HistogramaLatencia histograma = new HistogramaLatencia();
+        for (long nanos = 1; nanos <= 1_000_000; nanos++) {
+            histograma.registrar(nanos);
+        }
+        assertEquals(1_000_000, histograma.getContagem());
+        assertEquals(1_000_000, histograma.getMaximo());
+        assertEquals(500_000.5, histograma.getMedia(), 0.001);
+        assertWithin(500_000, histograma.getPercentil(50));
+        assertWithin(990_000, histograma.getPercentil(99));
+        assertEquals(1_000_000, histograma.getPercentil(100));
+        assertEquals(1, histograma.getPercentil(0));
+
+        histograma.reiniciar();
+        assertEquals(0, histograma.getContagem());
+        assertEquals(0, histograma.getPercentil(99));
+    }
+
+    @Test
+    public void checkoutStepsAreCountedAndPublishedOverJmx() throws Exception {
+        int amostragem = Metricas.getAmostragem();
+        Metricas.setAmostragem(1);
+        try {
+            medirCheckout();
+        } finally {
+            Metricas.setAmostragem(amostragem);
+        }
+    }
+
+    private void medirCheckout() throws Exception {
+        Operacao finalizar = Metricas.operacao("checkout.finalizar");
+        Operacao reservar = Metricas.operacao("estoque.reservar");
+        long finalizadas = finalizar.getSucessos();
+        long rejeitadas = finalizar.getFalhas();
+        long semEstoque = reservar.getFalhas();
+
+        CompraController controller = new CompraController();
+        Ingresso pista = new Ingresso("Pista", 100.0, 1);
+        Compra compra = controller.iniciarNovaCompra(new Cliente("Ana", "ana@ex.com"));
+        controller.adicionarItemNaCompra(compra, pista, 1);
+        controller.adicionarItemNaCompra(compra, pista, 1); // sem estoque
+        controller.finalizarCompra(compra);
+        controller.finalizarCompra(compra); // já finalizada
+
+        if (!Metricas.HABILITADAS) {
+            return;
+        }
+        assertEquals(finalizadas + 1, finalizar.getSucessos());
+        assertEquals(rejeitadas + 1, finalizar.getFalhas());
+        assertEquals(semEstoque + 1, reservar.getFalhas());
+        assertTrue(finalizar.getMaximoMicros() > 0);
+
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        assertEquals(finalizar.getSucessos(),
+                servidor.getAttribute(Metricas.nomeJmx("checkout.finalizar"), "Sucessos"));
+        assertTrue(Metricas.relatorio().contains("repositorio.compra.save"));
+    }
+
+    @Test
+    public void seatReservationsAreCountedLikeAnyOtherItem() {
+        Operacao adicionar = Metricas.operacao("checkout.adicionarItem");
+        Operacao reservar = Metricas.operacao("estoque.reservar");
+        long adicionados = adicionar.getSucessos();
+        long rejeitados = adicionar.getFalhas();
+        long reservados = reservar.getSucessos();
+
+        CompraController controller = new CompraController();
+        Ingresso cadeira = new Ingresso("Cadeira", 80.0, new MapaAssentos("Setor A", 1, 4));
+        Compra compra = controller.iniciarNovaCompra(new Cliente("Ana", "ana@ex.com"));
+        controller.adicionarAssentosNaCompra(compra, cadeira, new BlocoAssentos("Setor A", 0, 0, 2));
+        controller.adicionarAssentosNaCompra(compra, cadeira, new BlocoAssentos("Setor A", 0, 1, 2)); // ocupado
+        controller.adicionarItemNaCompra(compra, cadeira, 1); // melhores assentos
+
+        if (!Metricas.HABILITADAS) {
+            return;
+        }
+        assertEquals(adicionados + 2, adicionar.getSucessos());
+        assertEquals(rejeitados + 1, adicionar.getFalhas());
+        assertEquals(reservados + 3, reservar.getSucessos()); // o bloco ocupado passa pelo estoque e volta
+    }
+
+    @Test
+    public void samplingTimesOnlyPartOfTheCallsButCountsAll() {
+        int amostragem = Metricas.getAmostragem();
+        Metricas.setAmostragem(5); // arredonda para 8
+        try {
+            assertEquals(8, Metricas.getAmostragem());
+            Operacao operacao = Metricas.operacao("teste.amostragem");
+            for (int i = 0; i < 80_000; i++) {
+                operacao.sucesso(operacao.iniciar());
+            }
+            if (!Metricas.HABILITADAS) {
+                return;
+            }
+            assertEquals(80_000, operacao.getSucessos());
+            long cronometradas = operacao.getLatencias().getContagem();
+            assertTrue(cronometradas > 8_000 && cronometradas < 12_000, "cronometradas: " + cronometradas);
+        } finally {
+            Metricas.setAmostragem(amostragem);
+        }
+    }
+
+    private static void assertWithin(long esperado, long obtido) {
+        double erro = Math.abs(obtido - esperado) / (double) esperado;
+        assertTrue(erro <= 1.0 / 16, "esperado ~" + esperado + ", obtido " + obtido);
+    }
+}
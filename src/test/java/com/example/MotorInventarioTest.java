@@ -0,0 +1,142 @@
+package com.example;
+
+import com.example.controller.CompraController;
+import com.example.inventario.MotorInventario;
+import com.example.inventario.TipoComando;
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import com.example.service.IngressoService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class MotorInventarioTest {
+
+    @Test
+    public void commandsApplyInPublicationOrder() {
+        MotorInventario motor = new MotorInventario(8, 4);
+        int pista = motor.registrar(5);
+        List<String> resultados = new ArrayList<>();
+        motor.publicar(TipoComando.RESERVAR, pista, 3, (r, d) -> resultados.add(r + "/" + d));
+        motor.publicar(TipoComando.RESERVAR, pista, 3, (r, d) -> resultados.add(r + "/" + d));
+        motor.publicar(TipoComando.RESERVAR_ATE, pista, 3, (r, d) -> resultados.add(r + "/" + d));
+        motor.publicar(TipoComando.REPOR, pista, 10, (r, d) -> resultados.add(r + "/" + d));
+        motor.publicar(TipoComando.LIBERAR, pista, 1, null);
+        assertEquals(5, motor.disponivel(pista)); // nada aplicado ainda
+        assertEquals(5, motor.getPendentes());
+
+        assertEquals(5, motor.processar());
+        assertEquals(List.of("3/2", "0/2", "2/0", "0/10"), resultados);
+        assertEquals(11, motor.disponivel(pista));
+
+        motor.publicar(TipoComando.DEFINIR, pista, 0, null);
+        motor.processar();
+        assertEquals(0, motor.disponivel(pista));
+        assertThrows(IllegalArgumentException.class, () -> motor.publicar(TipoComando.RESERVAR, pista, 0, null));
+        assertThrows(IllegalArgumentException.class, () -> motor.publicar(TipoComando.RESERVAR, 3, 1, null));
+    }
+
+    @Test
+    public void producersWaitForSpaceWhenRingIsFull() throws Exception {
+        try (MotorInventario motor = new MotorInventario(16, 1)) {
+            motor.iniciar();
+            int pista = motor.registrar(0);
+            LongAdder concluidos = new LongAdder();
+            Thread[] produtores = new Thread[8];
+            for (int t = 0; t < produtores.length; t++) {
+                produtores[t] = new Thread(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        motor.publicar(TipoComando.REPOR, pista, 1, (r, d) -> concluidos.increment());
+                    }
+                });
+                produtores[t].start();
+            }
+            for (Thread produtor : produtores) {
+                produtor.join();
+            }
+            CompletableFuture<Integer> ultimo = motor.enviar(TipoComando.RESERVAR, pista, 1);
+            assertEquals(1, ultimo.get(5, TimeUnit.SECONDS));
+            assertEquals(80_000, concluidos.sum());
+            assertEquals(79_999, motor.disponivel(pista));
+        }
+    }
+
+    @Test
+    public void engineBackedStockNeverOversellsUnderContention() throws Exception {
+        try (MotorInventario motor = new MotorInventario(1024, 4)) {
+            motor.iniciar();
+            IngressoService ingressos = new IngressoService();
+            Ingresso pista = ingressos.criarIngresso("Pista", 100.0, 1000, motor);
+            CompraController controller = new CompraController();
+            AtomicInteger vendidos = new AtomicInteger();
+            Thread[] compradores = new Thread[8];
+            for (int t = 0; t < compradores.length; t++) {
+                Cliente cliente = new Cliente("Cliente " + t, "c" + t + "@ex.com");
+                compradores[t] = new Thread(() -> {
+                    for (int i = 0; i < 300; i++) {
+                        Compra compra = controller.iniciarNovaCompra(cliente);
+                        if (controller.adicionarItemNaCompra(compra, pista, 1) && controller.finalizarCompra(compra)) {
+                            vendidos.incrementAndGet();
+                        }
+                    }
+                });
+                compradores[t].start();
+            }
+            for (Thread comprador : compradores) {
+                comprador.join();
+            }
+            assertEquals(1000, vendidos.get());
+            assertEquals(0, pista.getQuantidadeDisponivel());
+            assertFalse(pista.tentarReservar(1));
+
+            ingressos.atualizarIngresso("Pista", 120.0, 50);
+            assertEquals(50, pista.getQuantidadeDisponivel());
+            assertTrue(pista.tentarReservar(50));
+            assertEquals(0, motor.getFalhas());
+        }
+    }
+
+    @Test
+    public void everyAcceptedCommandCompletesWhenTheEngineClosesMidway() throws Exception {
+        for (int rodada = 0; rodada < 20; rodada++) {
+            MotorInventario motor = new MotorInventario(2, 1); // anel mínimo: produtores esperando espaço
+            motor.iniciar();
+            Ingresso pista = new Ingresso("Pista", 100.0, motor.novoEstoque(0));
+            LongAdder liberados = new LongAdder();
+            LongAdder recusados = new LongAdder();
+            Thread[] produtores = new Thread[4];
+            for (int t = 0; t < produtores.length; t++) {
+                produtores[t] = new Thread(() -> {
+                    for (int i = 0; i < 2_000; i++) {
+                        try {
+                            pista.liberar(1);
+                            liberados.increment();
+                        } catch (IllegalStateException e) {
+                            recusados.increment();
+                            return;
+                        }
+                    }
+                });
+                produtores[t].start();
+            }
+            Thread.sleep(1);
+            motor.close();
+            for (Thread produtor : produtores) {
+                produtor.join(TimeUnit.SECONDS.toMillis(10));
+                assertFalse(produtor.isAlive(), "comando publicado antes do close ficou sem conclusão");
+            }
+            assertEquals(liberados.sum(), pista.getQuantidadeDisponivel());
+            assertEquals(0, motor.getPendentes());
+            assertThrows(IllegalStateException.class, () -> pista.liberar(1));
+        }
+    }
+}
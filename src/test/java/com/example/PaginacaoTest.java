@@ -0,0 +1,83 @@
+package com.example;
+
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import com.example.repository.ClienteRepository;
+import com.example.repository.ClienteRepositoryNoHeap;
+import com.example.repository.CompraRepository;
+import com.example.repository.IngressoRepository;
+import com.example.repository.Pagina;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class PaginacaoTest {
+
+    private final Ingresso pista = new Ingresso("Pista", 120.0, Integer.MAX_VALUE);
+    private final Cliente ana = new Cliente("Ana Souza", "ana@email.com");
+
+    @Test
+    public void purchasePagesFollowCodeOrderAcrossShards() {
+        CompraRepository repositorio = new CompraRepository(8);
+        List<String> esperados = new ArrayList<>();
+        for (int i = 0; i < 1_005; i++) {
+            String codigo = String.format("C%05d", i);
+            repositorio.save(new Compra(codigo, ana));
+            esperados.add(codigo);
+        }
+
+        List<String> lidos = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            Pagina<Compra> pagina = repositorio.buscarPagina(cursor, 100);
+            pagina.getItens().forEach(c -> lidos.add(c.getCodigoCompra()));
+            cursor = pagina.getProximoCursor();
+            paginas++;
+        } while (cursor != null);
+
+        assertEquals(esperados, lidos);
+        assertEquals(11, paginas);
+        assertEquals(esperados.subList(500, 1_005),
+                repositorio.streamOrdenado(repositorio.buscarPagina(null, 500).getProximoCursor())
+                        .map(Compra::getCodigoCompra).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void cursorResumesAfterLastKeyDespiteConcurrentInserts() {
+        ClienteRepository clientes = new ClienteRepositoryNoHeap();
+        for (String email : new String[] {"a@x.com", "c@x.com", "e@x.com", "g@x.com"}) {
+            clientes.save(new Cliente(email, email));
+        }
+        Pagina<Cliente> primeira = clientes.buscarPagina(null, 2);
+        assertEquals("c@x.com", primeira.getItens().get(1).getEmail());
+
+        clientes.save(new Cliente("b", "b@x.com")); // antes do cursor: não aparece
+        clientes.save(new Cliente("d", "d@x.com")); // depois do cursor: aparece
+        clientes.deleteByEmail("e@x.com");
+
+        Pagina<Cliente> segunda = clientes.buscarPagina(primeira.getProximoCursor(), 2);
+        assertEquals(List.of("d@x.com", "g@x.com"),
+                segunda.getItens().stream().map(Cliente::getEmail).collect(Collectors.toList()));
+        assertFalse(segunda.temProxima());
+    }
+
+    @Test
+    public void lastPageHasNoCursorAndInvalidRequestsAreRejected() {
+        IngressoRepository ingressos = new IngressoRepository();
+        ingressos.save(pista);
+        ingressos.save(new Ingresso("VIP", 220.0, 10));
+        Pagina<Ingresso> pagina = ingressos.buscarPagina(null, 2);
+        assertEquals(2, pagina.getItens().size());
+        assertFalse(pagina.temProxima());
+        assertTrue(ingressos.buscarPagina(null, 1).temProxima());
+        assertThrows(IllegalArgumentException.class, () -> ingressos.buscarPagina(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> ingressos.buscarPagina("%%%", 10));
+    }
+}
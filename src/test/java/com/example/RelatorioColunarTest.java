@@ -0,0 +1,131 @@
+package com.example;
+
+import com.example.controller.CompraController;
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import com.example.model.ItemCompra;
+import com.example.relatorio.RelatorioColunar;
+import com.example.relatorio.TotaisVenda;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class RelatorioColunarTest {
+
+    @Test
+    public void reportsMatchAggregatesUnderConcurrentCheckouts() throws Exception {
+        CompraController controller = new CompraController();
+        RelatorioColunar relatorio = new RelatorioColunar();
+        controller.aoFinalizar(relatorio::registrar);
+        Ingresso pista = new Ingresso("Pista", 120.0, 100_000);
+        Ingresso vip = new Ingresso("VIP", 220.0, 100_000);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            Cliente cliente = new Cliente("Cliente " + t, "c" + t + "@ex.com");
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 2500; i++) {
+                    Compra compra = controller.iniciarNovaCompra(cliente);
+                    controller.adicionarItemNaCompra(compra, pista, 2);
+                    controller.adicionarItemNaCompra(compra, vip, 1);
+                    controller.finalizarCompra(compra);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(20_000, relatorio.getLinhas());
+        TotaisVenda total = relatorio.totalGeral();
+        assertEquals(controller.calcularTotalComprasCentavos(), total.getReceitaCentavos());
+        assertEquals(30_000, total.getIngressos());
+
+        SortedMap<String, TotaisVenda> porTipo = relatorio.porTipoIngresso();
+        assertEquals(controller.getAgregados().getIngressosVendidos("Pista"), porTipo.get("Pista").getIngressos());
+        assertEquals(10_000 * 2 * 12_000L, porTipo.get("Pista").getReceitaCentavos());
+        assertEquals(10_000 * 22_000L, porTipo.get("VIP").getReceitaCentavos());
+
+        SortedMap<String, TotaisVenda> porCliente = relatorio.porCliente();
+        assertEquals(4, porCliente.size());
+        assertEquals(2500 * 46_000L, porCliente.get("c3@ex.com").getReceitaCentavos());
+    }
+
+    @Test
+    public void groupsByPeriodAndIgnoresUnfinishedPurchases() {
+        RelatorioColunar relatorio = new RelatorioColunar();
+        Cliente cliente = new Cliente("Ana", "ana@ex.com");
+        Ingresso pista = new Ingresso("Pista", 100.0, 10);
+        long hora = TimeUnit.HOURS.toMillis(1);
+        relatorio.registrar(finalizada(cliente, pista, 1, 10 * hora + 5));
+        relatorio.registrar(finalizada(cliente, pista, 2, 10 * hora + hora - 1));
+        relatorio.registrar(finalizada(cliente, pista, 3, 13 * hora));
+        relatorio.registrar(new Compra("EM-ANDAMENTO", cliente));
+
+        SortedMap<Long, TotaisVenda> porHora = relatorio.porPeriodo(1, TimeUnit.HOURS);
+        assertEquals(2, porHora.size());
+        assertEquals(3, porHora.get(10 * hora).getIngressos());
+        assertEquals(30_000, porHora.get(10 * hora).getReceitaCentavos());
+        assertEquals(3, porHora.get(13 * hora).getIngressos());
+        assertTrue(relatorio.porPeriodo(1, TimeUnit.DAYS).containsKey(0L));
+    }
+
+    @Test
+    public void manyClientsAreSummedWithoutAnArrayPerBlock() {
+        RelatorioColunar relatorio = new RelatorioColunar();
+        Ingresso pista = new Ingresso("Pista", 100.0, 10);
+        List<ItemCompra> itens = List.of(new ItemCompra(pista, 1), new ItemCompra(pista, 2),
+                new ItemCompra(pista, 3), new ItemCompra(pista, 4));
+        int clientes = 100_000;
+        Cliente[] cliente = new Cliente[clientes];
+        for (int c = 0; c < clientes; c++) {
+            cliente[c] = new Cliente("Cliente " + c, "c" + c + "@ex.com");
+        }
+        int compras = 16 * 65_536 / itens.size(); // 16 blocos de linhas
+        for (int m = 0; m < compras; m++) {
+            relatorio.registrar(Compra.restaurarFinalizada("C" + m, cliente[m % clientes], m, itens));
+        }
+        relatorio.porCliente(); // consolida a fila e aquece o caminho
+
+        Map<Long, Long> inicio = alocadoPorThread();
+        SortedMap<String, TotaisVenda> porCliente = relatorio.porCliente();
+        long alocado = 0;
+        for (Map.Entry<Long, Long> fim : alocadoPorThread().entrySet()) {
+            alocado += fim.getValue() - inicio.getOrDefault(fim.getKey(), 0L);
+        }
+
+        assertEquals(clientes, porCliente.size());
+        long porVolta = compras / clientes; // os primeiros clientes recebem uma compra a mais
+        assertEquals((porVolta + 1) * 10 * 10_000, porCliente.get("c0@ex.com").getReceitaCentavos());
+        assertEquals(porVolta * 10 * 10_000, porCliente.get("c99999@ex.com").getReceitaCentavos());
+        // o resultado (vetor de somas, mapa e totais) fica perto de 9 MB; cada vetor
+        // de somas a mais, um por bloco ou por tarefa, custaria outros 1,6 MB
+        assertTrue(alocado < 12L << 20, "alocado no agrupamento: " + alocado + " bytes");
+    }
+
+    /** Bytes alocados por cada thread viva, inclusive as do ForkJoinPool comum. */
+    private static Map<Long, Long> alocadoPorThread() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] ids = threads.getAllThreadIds();
+        long[] bytes = threads.getThreadAllocatedBytes(ids);
+        Map<Long, Long> porThread = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            if (bytes[i] >= 0) {
+                porThread.put(ids[i], bytes[i]);
+            }
+        }
+        return porThread;
+    }
+
+    private static Compra finalizada(Cliente cliente, Ingresso ingresso, int quantidade, long instante) {
+        return Compra.restaurarFinalizada("C-" + instante, cliente, instante,
+                List.of(new ItemCompra(ingresso, quantidade)));
+    }
+}
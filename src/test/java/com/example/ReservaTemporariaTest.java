@@ -0,0 +1,112 @@
+package com.example;
+
+import com.example.controller.CompraController;
+import com.example.evento.SaidaMemoria;
+import com.example.evento.TipoEventoCompra;
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import com.example.reserva.Agendamento;
+import com.example.reserva.GerenciadorReservas;
+import com.example.reserva.RodaTemporizacao;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class ReservaTemporariaTest {
+
+    private final AtomicLong relogio = new AtomicLong(1_000_000);
+    private final RodaTemporizacao roda = new RodaTemporizacao(10, 64, relogio::get);
+    private final Cliente cliente = new Cliente("Ana Souza", "ana@email.com");
+
+    @Test
+    public void abandonedCartReturnsStockWhenHoldExpires() {
+        Ingresso pista = new Ingresso("Pista", 100.0, 10);
+        CompraController controller = new CompraController();
+        controller.setReservas(new GerenciadorReservas(roda, 1, TimeUnit.SECONDS));
+        SaidaMemoria saida = new SaidaMemoria();
+        controller.getEventos().assinar(saida);
+
+        Compra compra = controller.iniciarNovaCompra(cliente);
+        assertTrue(controller.adicionarItemNaCompra(compra, pista, 4));
+        assertEquals(6, pista.getQuantidadeDisponivel());
+
+        relogio.addAndGet(999);
+        roda.avancar();
+        assertEquals("Em Andamento", compra.getStatus());
+
+        relogio.addAndGet(1);
+        roda.avancar();
+        assertEquals("Expirada", compra.getStatus());
+        assertEquals(10, pista.getQuantidadeDisponivel());
+        assertFalse(controller.finalizarCompra(compra));
+        assertFalse(controller.adicionarItemNaCompra(compra, pista, 1));
+
+        controller.getEventos().esvaziar();
+        assertTrue(saida.getEventos().stream().anyMatch(e -> e.getTipo() == TipoEventoCompra.COMPRA_EXPIRADA));
+    }
+
+    @Test
+    public void finalizingConvertsHoldIntoSaleAndCancelsTimer() {
+        Ingresso pista = new Ingresso("Pista", 100.0, 10);
+        CompraController controller = new CompraController();
+        GerenciadorReservas reservas = new GerenciadorReservas(roda, 1, TimeUnit.SECONDS);
+        controller.setReservas(reservas);
+
+        Compra compra = controller.iniciarNovaCompra(cliente);
+        controller.adicionarItemNaCompra(compra, pista, 2);
+        controller.adicionarItemNaCompra(compra, pista, 1);
+        assertEquals(1, reservas.getReservasAtivas());
+        assertTrue(controller.finalizarCompra(compra));
+        assertEquals(0, reservas.getReservasAtivas());
+
+        relogio.addAndGet(5_000);
+        roda.avancar();
+        assertEquals("Finalizada", compra.getStatus());
+        assertEquals(7, pista.getQuantidadeDisponivel());
+    }
+
+    @Test
+    public void wheelFiresEachTaskOnceNeverBeforeDeadline() {
+        List<Long> atrasos = new ArrayList<>();
+        long[] prazos = {0, 5, 10, 639, 640, 641, 5_000, 12_345};
+        for (long prazo : prazos) {
+            long vencimento = relogio.get() + prazo;
+            roda.agendar(prazo, TimeUnit.MILLISECONDS, () -> atrasos.add(relogio.get() - vencimento));
+        }
+        for (int passo = 0; passo < 1_300; passo++) {
+            roda.avancar();
+            relogio.addAndGet(10);
+        }
+        assertEquals(prazos.length, atrasos.size());
+        for (long atraso : atrasos) {
+            assertTrue(atraso >= 0 && atraso < 10, "atraso fora do tick: " + atraso);
+        }
+        assertEquals(0, roda.getPendentes());
+    }
+
+    @Test
+    public void millionOpenHoldsAreCheapToTrackAndCancel() {
+        AtomicInteger expiradas = new AtomicInteger();
+        int total = 1_000_000;
+        Agendamento[] agendamentos = new Agendamento[total];
+        for (int i = 0; i < total; i++) {
+            agendamentos[i] = roda.agendar(60_000 + i % 1_000, TimeUnit.MILLISECONDS, expiradas::incrementAndGet);
+        }
+        for (int i = 0; i < total; i += 2) {
+            agendamentos[i].cancelar();
+        }
+        assertEquals(total / 2, roda.getPendentes());
+
+        relogio.addAndGet(61_000);
+        roda.avancar();
+        assertEquals(total / 2, expiradas.get());
+        assertEquals(0, roda.getPendentes());
+    }
+}
@@ -0,0 +1,177 @@
+package com.example;
+
+import com.example.admissao.LimiteAdaptativo;
+import com.example.admissao.PortariaCheckout;
+import com.example.admissao.ResultadoEntrada;
+import com.example.admissao.SalaDeEspera;
+import com.example.admissao.SituacaoSenha;
+import com.example.admissao.Senha;
+import com.example.controller.CompraController;
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import com.example.reserva.RodaTemporizacao;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class SalaDeEsperaTest {
+
+    @Test
+    public void admitsUpToLimitQueuesTheRestAndRejectsWhenFull() {
+        SalaDeEspera sala = new SalaDeEspera("Show", 2, 3);
+        List<ResultadoEntrada> entradas = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            entradas.add(sala.entrar());
+        }
+        assertTrue(entradas.get(0).isAdmitida());
+        assertTrue(entradas.get(1).isAdmitida());
+        assertEquals(SituacaoSenha.NA_FILA, entradas.get(2).getSituacao());
+        assertEquals(1, entradas.get(2).getPosicao());
+        assertEquals(3, entradas.get(4).getPosicao());
+        assertTrue(entradas.get(4).getEsperaEstimadaMs() > entradas.get(2).getEsperaEstimadaMs());
+
+        ResultadoEntrada recusada = sala.entrar();
+        assertEquals(SituacaoSenha.RECUSADA, recusada.getSituacao());
+        assertTrue(recusada.getTenteNovamenteEmMs() >= 800);
+        assertEquals(1, sala.getRecusadas());
+
+        sala.concluir(entradas.get(0).getSenha());
+        assertTrue(sala.consultar(entradas.get(2).getSenha()).isAdmitida());
+        assertEquals(2, sala.consultar(entradas.get(4).getSenha()).getPosicao());
+        assertEquals(2, sala.getAdmitidos());
+        assertEquals(SituacaoSenha.ENCERRADA, sala.consultar(entradas.get(0).getSenha()).getSituacao());
+    }
+
+    @Test
+    public void leavingTheQueueDoesNotOpenExtraSlots() {
+        SalaDeEspera sala = new SalaDeEspera("Show", 1, 10);
+        Senha[] senhas = new Senha[5];
+        for (int i = 0; i < senhas.length; i++) {
+            senhas[i] = sala.entrar().getSenha();
+        }
+        sala.concluir(senhas[2]); // desistem ainda na fila
+        sala.concluir(senhas[3]);
+        assertEquals(1, sala.getAdmitidos());
+
+        sala.concluir(senhas[0]);
+        assertTrue(sala.consultar(senhas[1]).isAdmitida());
+        assertEquals(SituacaoSenha.NA_FILA, sala.consultar(senhas[4]).getSituacao());
+        assertEquals(1, sala.getAdmitidos());
+
+        sala.concluir(senhas[1]);
+        assertTrue(sala.consultar(senhas[4]).isAdmitida());
+        assertEquals(1, sala.getAdmitidos());
+    }
+
+    @Test
+    public void admittedTicketExpiresWhenCheckoutIsNotConcluded() {
+        AtomicLong relogio = new AtomicLong(1_000_000);
+        RodaTemporizacao roda = new RodaTemporizacao(10, 64, relogio::get);
+        SalaDeEspera sala = new SalaDeEspera("Show", LimiteAdaptativo.fixo(1), 5,
+                roda, 2, TimeUnit.SECONDS, System::nanoTime);
+        Senha parada = sala.entrar().getSenha();
+        Senha proxima = sala.entrar().getSenha();
+
+        relogio.addAndGet(2000);
+        roda.avancar();
+        assertEquals(SituacaoSenha.ENCERRADA, sala.consultar(parada).getSituacao());
+        assertTrue(sala.consultar(proxima).isAdmitida());
+    }
+
+    @Test
+    public void limitShrinksWhenCheckoutIsSlowAndRecovers() {
+        LimiteAdaptativo limite = new LimiteAdaptativo(20, 2, 40, 10, TimeUnit.MILLISECONDS);
+        long lenta = TimeUnit.MILLISECONDS.toNanos(50);
+        long rapida = TimeUnit.MILLISECONDS.toNanos(1);
+        limite.registrar(lenta);
+        assertEquals(18, limite.get());
+        limite.registrar(lenta); // mesma leva: não reduz de novo
+        assertEquals(18, limite.get());
+        for (int i = 0; i < 200; i++) {
+            limite.registrar(lenta);
+        }
+        assertEquals(2, limite.get());
+        for (int i = 0; i < 2 + 3 + 4; i++) {
+            limite.registrar(rapida);
+        }
+        assertEquals(5, limite.get());
+    }
+
+    @Test
+    public void overloadNeverExceedsAdmittedConcurrency() throws Exception {
+        CompraController controller = new CompraController();
+        PortariaCheckout portaria = new PortariaCheckout(controller);
+        portaria.abrirSala(new SalaDeEspera("Show", 4, 1000));
+        Ingresso pista = new Ingresso("Pista", 100.0, 10_000);
+        AtomicInteger comprando = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+        AtomicInteger finalizadas = new AtomicInteger();
+        Thread[] compradores = new Thread[40];
+        for (int t = 0; t < compradores.length; t++) {
+            Cliente cliente = new Cliente("Cliente " + t, "c" + t + "@ex.com");
+            compradores[t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 5; i++) {
+                        Senha senha = portaria.entrar("Show").getSenha();
+                        assertTrue(portaria.getSala("Show").aguardar(senha, 30, TimeUnit.SECONDS));
+                        maximo.accumulateAndGet(comprando.incrementAndGet(), Math::max);
+                        Compra compra = portaria.iniciarCompra(senha, cliente);
+                        portaria.adicionarItem(compra, pista, 1);
+                        comprando.decrementAndGet(); // antes de finalizar, que devolve a vaga
+                        if (portaria.finalizar(compra)) {
+                            finalizadas.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            compradores[t].start();
+        }
+        for (Thread comprador : compradores) {
+            comprador.join();
+        }
+        assertEquals(200, finalizadas.get());
+        assertTrue(maximo.get() <= 4, "comprando ao mesmo tempo: " + maximo.get());
+        assertEquals(0, portaria.getSala("Show").getAdmitidos());
+        assertEquals(9800, pista.getQuantidadeDisponivel());
+    }
+
+    @Test
+    public void purchaseRequiresAdmittedTicket() {
+        PortariaCheckout portaria = new PortariaCheckout(new CompraController());
+        portaria.abrirSala(new SalaDeEspera("Show", 1, 5));
+        portaria.entrar("Show");
+        Senha naFila = portaria.entrar("Show").getSenha();
+        assertThrows(IllegalStateException.class,
+                () -> portaria.iniciarCompra(naFila, new Cliente("Ana", "ana@ex.com")));
+    }
+
+    @Test
+    public void admittedTicketHoldsOnlyOnePurchaseAtATime() {
+        PortariaCheckout portaria = new PortariaCheckout(new CompraController());
+        SalaDeEspera sala = portaria.abrirSala(new SalaDeEspera("Show", 2, 5));
+        Ingresso pista = new Ingresso("Pista", 100.0, 10);
+        Cliente ana = new Cliente("Ana", "ana@ex.com");
+        Senha senha = portaria.entrar("Show").getSenha();
+        Compra compra = portaria.iniciarCompra(senha, ana);
+        assertTrue(portaria.adicionarItem(compra, pista, 3));
+
+        assertThrows(IllegalStateException.class, () -> portaria.iniciarCompra(senha, ana));
+        assertEquals(1, sala.getAdmitidos());
+
+        assertTrue(portaria.cancelar(compra));
+        assertFalse(portaria.cancelar(compra));
+        assertEquals(10, pista.getQuantidadeDisponivel());
+        assertEquals(0, sala.getAdmitidos()); // a vaga voltou para a sala
+        assertThrows(IllegalStateException.class, () -> portaria.iniciarCompra(senha, ana));
+    }
+}
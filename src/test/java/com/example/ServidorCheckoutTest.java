@@ -0,0 +1,122 @@
+package com.example;
+
+import com.example.controller.CompraController;
+import com.example.http.ServidorCheckout;
+import com.example.reserva.RodaTemporizacao;
+import com.example.service.ClienteService;
+import com.example.service.IngressoService;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ServidorCheckoutTest {
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private IngressoService ingressos;
+    private CompraController controller;
+    private ServidorCheckout servidor;
+    private String base;
+
+    @BeforeEach
+    public void iniciar() throws Exception {
+        ingressos = new IngressoService();
+        ingressos.criarIngresso("Pista", 120.0, 3);
+        ClienteService clientes = new ClienteService();
+        clientes.criarCliente("Ana Souza", "ana@email.com");
+        controller = new CompraController();
+        servidor = new ServidorCheckout(new InetSocketAddress("127.0.0.1", 0), ingressos, clientes, controller).iniciar();
+        base = "http://127.0.0.1:" + servidor.getPorta();
+    }
+
+    @AfterEach
+    public void parar() {
+        servidor.close();
+    }
+
+    @Test
+    public void fullCheckoutOverHttp() throws Exception {
+        HttpResponse<String> lista = get("/ingressos");
+        assertEquals(200, lista.statusCode());
+        assertEquals("[{\"tipo\":\"Pista\",\"precoCentavos\":12000,\"disponivel\":3}]", lista.body());
+
+        HttpResponse<String> cliente = get("/clientes/ana@email.com");
+        assertEquals("{\"nome\":\"Ana Souza\",\"email\":\"ana@email.com\"}", cliente.body());
+
+        HttpResponse<String> iniciada = post("/compras", "{\"email\":\"ana@email.com\"}");
+        assertEquals(201, iniciada.statusCode());
+        String codigo = iniciada.body().split("\"codigo\":\"")[1].split("\"")[0];
+
+        HttpResponse<String> item = post("/compras/" + codigo + "/itens", "{\"tipo\":\"Pista\",\"quantidade\":2}");
+        assertEquals(200, item.statusCode());
+        assertTrue(item.body().contains("\"totalCentavos\":24000"));
+
+        HttpResponse<String> finalizada = post("/compras/" + codigo + "/finalizar", "");
+        assertEquals(200, finalizada.statusCode());
+        assertTrue(finalizada.body().contains("\"status\":\"Finalizada\""));
+        assertEquals(24000L, controller.calcularTotalComprasCentavos());
+        assertEquals(200, get("/compras/" + codigo).statusCode());
+        assertEquals(0, servidor.getComprasAbertas());
+    }
+
+    @Test
+    public void reportsRejectionsWithHttpStatus() throws Exception {
+        assertEquals(404, get("/clientes/ninguem@email.com").statusCode());
+        assertEquals(404, post("/compras", "{\"email\":\"ninguem@email.com\"}").statusCode());
+        assertEquals(400, post("/compras", "{email").statusCode());
+        assertEquals(405, post("/ingressos", "{}").statusCode());
+
+        String corpo = post("/compras", "{\"email\":\"ana@email.com\"}").body();
+        String codigo = corpo.split("\"codigo\":\"")[1].split("\"")[0];
+        assertEquals(409, post("/compras/" + codigo + "/finalizar", "").statusCode());
+        assertEquals(409, post("/compras/" + codigo + "/itens", "{\"tipo\":\"Pista\",\"quantidade\":5}").statusCode());
+        assertEquals(400, post("/compras/" + codigo + "/itens", "{\"tipo\":\"Pista\",\"quantidade\":0}").statusCode());
+        assertEquals(404, post("/compras/" + codigo + "/itens", "{\"tipo\":\"VIP\",\"quantidade\":1}").statusCode());
+        assertEquals(3, ingressos.getIngresso("Pista").get().getQuantidadeDisponivel());
+    }
+
+    @Test
+    public void abandonedPurchasesExpireAndOpenPurchasesAreBounded() throws Exception {
+        AtomicLong relogio = new AtomicLong(1_000_000);
+        RodaTemporizacao roda = new RodaTemporizacao(10, 64, relogio::get);
+        ClienteService clientes = new ClienteService();
+        clientes.criarCliente("Ana Souza", "ana@email.com");
+        servidor.close();
+        servidor = new ServidorCheckout(new InetSocketAddress("127.0.0.1", 0), ingressos, clientes, controller,
+                roda, 1, TimeUnit.SECONDS, 2).iniciar();
+        base = "http://127.0.0.1:" + servidor.getPorta();
+
+        String corpo = post("/compras", "{\"email\":\"ana@email.com\"}").body();
+        String codigo = corpo.split("\"codigo\":\"")[1].split("\"")[0];
+        assertEquals(200, post("/compras/" + codigo + "/itens", "{\"tipo\":\"Pista\",\"quantidade\":2}").statusCode());
+        assertEquals(201, post("/compras", "{\"email\":\"ana@email.com\"}").statusCode()); // carrinho vazio
+        assertEquals(503, post("/compras", "{\"email\":\"ana@email.com\"}").statusCode());
+        assertEquals(1, ingressos.getIngresso("Pista").get().getQuantidadeDisponivel());
+
+        relogio.addAndGet(1_000);
+        roda.avancar();
+        assertEquals(0, servidor.getComprasAbertas());
+        assertEquals(3, ingressos.getIngresso("Pista").get().getQuantidadeDisponivel());
+        assertEquals(404, post("/compras/" + codigo + "/finalizar", "").statusCode()); // esquecida pelo servidor
+        assertEquals(201, post("/compras", "{\"email\":\"ana@email.com\"}").statusCode());
+    }
+
+    private HttpResponse<String> get(String caminho) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create(base + caminho)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String caminho, String corpo) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create(base + caminho))
+                        .POST(HttpRequest.BodyPublishers.ofString(corpo)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
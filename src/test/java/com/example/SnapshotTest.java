@@ -0,0 +1,90 @@
+package com.example;
+
+import com.example.codigo.GeradorCodigoPorBlocos;
+import com.example.controller.CompraController;
+import com.example.evento.PublicadorEventos;
+import com.example.model.Cliente;
+import com.example.model.Compra;
+import com.example.model.Ingresso;
+import com.example.persistencia.GravadorSnapshot;
+import com.example.persistencia.LogCompras;
+import com.example.persistencia.RecuperadorEstado;
+import com.example.repository.ClienteRepository;
+import com.example.repository.ClienteRepositoryNoHeap;
+import com.example.repository.CompraRepository;
+import com.example.repository.IngressoRepository;
+import java.nio.file.Path;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SnapshotTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    public void snapshotTakenDuringSalesPlusLogTailRestoresExactState() throws Exception {
+        ClienteRepository clientes = new ClienteRepositoryNoHeap();
+        IngressoRepository ingressos = new IngressoRepository();
+        CompraRepository compras = new CompraRepository();
+        LogCompras log = RecuperadorEstado.recuperarEAbrir(diretorio, clientes, ingressos, compras);
+        CompraController controller = new CompraController(compras, GeradorCodigoPorBlocos.padrao(),
+                new PublicadorEventos());
+        Ingresso pista = ingressos.save(new Ingresso("Pista", 120.0, 1_000_000));
+        Cliente ana = clientes.save(new Cliente("Ana", "ana@email.com"));
+        GravadorSnapshot gravador = new GravadorSnapshot(log, clientes, compras);
+
+        Thread vendas = new Thread(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                Compra compra = controller.iniciarNovaCompra(ana);
+                controller.adicionarItemNaCompra(compra, pista, 2);
+                controller.finalizarCompra(compra);
+            }
+        });
+        vendas.start();
+        for (int i = 0; i < 3; i++) {
+            gravador.gravar();
+        }
+        vendas.join();
+        clientes.save(new Cliente("Bia", "bia@email.com"));
+        log.close();
+
+        ClienteRepository clientesDepois = new ClienteRepositoryNoHeap();
+        IngressoRepository ingressosDepois = new IngressoRepository();
+        CompraRepository comprasDepois = new CompraRepository();
+        LogCompras logDepois = RecuperadorEstado.recuperarEAbrir(diretorio, clientesDepois,
+                ingressosDepois, comprasDepois);
+        assertEquals(20_000, comprasDepois.findAll().size());
+        assertEquals(1_000_000 - 40_000, ingressosDepois.findByTipo("Pista").orElseThrow().getQuantidadeDisponivel());
+        assertEquals(2, clientesDepois.findAll().size());
+        logDepois.close();
+    }
+
+    @Test
+    public void snapshotKeepsPriceVersions() {
+        ClienteRepository clientes = new ClienteRepositoryNoHeap();
+        IngressoRepository ingressos = new IngressoRepository();
+        CompraRepository compras = new CompraRepository();
+        LogCompras log = RecuperadorEstado.recuperarEAbrir(diretorio, clientes, ingressos, compras);
+        CompraController controller = new CompraController(compras, GeradorCodigoPorBlocos.padrao(),
+                new PublicadorEventos());
+        Ingresso pista = ingressos.save(new Ingresso("Pista", 100.0, 50));
+        ingressos.reprecificar(Map.of("Pista", 11_000L));
+        Compra compra = controller.iniciarNovaCompra(clientes.save(new Cliente("Ana", "ana@email.com")));
+        controller.adicionarItemNaCompra(compra, pista, 2);
+        controller.finalizarCompra(compra);
+        new GravadorSnapshot(log, clientes, compras).gravar();
+        log.close();
+
+        IngressoRepository ingressosDepois = new IngressoRepository();
+        CompraRepository comprasDepois = new CompraRepository();
+        LogCompras logDepois = RecuperadorEstado.recuperarEAbrir(diretorio, new ClienteRepositoryNoHeap(),
+                ingressosDepois, comprasDepois);
+        assertEquals(2, ingressosDepois.findByTipo("Pista").orElseThrow().getVersaoPreco().getVersao());
+        assertEquals(48, ingressosDepois.findByTipo("Pista").orElseThrow().getQuantidadeDisponivel());
+        assertEquals(2, comprasDepois.findByCodigo(compra.getCodigoCompra()).orElseThrow().getVersaoPrecoDoItem(0));
+        logDepois.close();
+    }
+}